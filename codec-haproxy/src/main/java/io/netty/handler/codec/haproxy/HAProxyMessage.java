@@ -378,21 +378,23 @@ public final class HAProxyMessage extends AbstractReferenceCounted {
      * @return           string representation of the ip address
      */
     private static String ipBytesToString(ByteBuf header, int addressLen) {
-        StringBuilder sb = new StringBuilder();
-        final int ipv4Len = 4;
-        final int ipv6Len = 8;
-        if (addressLen == ipv4Len) {
-            for (int i = 0; i < ipv4Len; i++) {
-                sb.append(header.readByte() & 0xff);
-                sb.append('.');
-            }
-        } else {
-            for (int i = 0; i < ipv6Len; i++) {
-                sb.append(Integer.toHexString(header.readUnsignedShort()));
+        if (addressLen == 4) {
+            return NetUtil.intToIpAddress(header.readInt());
+        }
+        // Each of the 8 words is formatted without leading zeros and without compressing runs of zeros.
+        StringBuilder sb = new StringBuilder(39);
+        for (int i = 0; i < 8; i++) {
+            if (i != 0) {
                 sb.append(':');
             }
+            int word = header.readUnsignedShort();
+            if (word > 0xff) {
+                StringUtil.byteToHexString(sb, word >>> 8);
+                StringUtil.byteToHexStringPadded(sb, word);
+            } else {
+                StringUtil.byteToHexString(sb, word);
+            }
         }
-        sb.setLength(sb.length() - 1);
         return sb.toString();
     }
 
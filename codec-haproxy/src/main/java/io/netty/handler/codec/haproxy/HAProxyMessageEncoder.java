@@ -19,6 +19,7 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.haproxy.HAProxyProxiedProtocol.AddressFamily;
 import io.netty.util.CharsetUtil;
 import io.netty.util.NetUtil;
 
@@ -83,12 +84,11 @@ public final class HAProxyMessageEncoder extends MessageToByteEncoder<HAProxyMes
         switch (msg.proxiedProtocol().addressFamily()) {
             case AF_IPv4:
             case AF_IPv6:
-                byte[] srcAddrBytes = NetUtil.createByteArrayFromIpAddressString(msg.sourceAddress());
-                byte[] dstAddrBytes = NetUtil.createByteArrayFromIpAddressString(msg.destinationAddress());
+                int addrLen = msg.proxiedProtocol().addressFamily() == AddressFamily.AF_IPv4 ? 4 : 16;
                 // srcAddrLen + dstAddrLen + 4 (srcPort + dstPort) + numTlvBytes
-                out.writeShort(srcAddrBytes.length + dstAddrBytes.length + 4 + msg.tlvNumBytes());
-                out.writeBytes(srcAddrBytes);
-                out.writeBytes(dstAddrBytes);
+                out.writeShort(addrLen + addrLen + 4 + msg.tlvNumBytes());
+                writeIpAddress(msg.sourceAddress(), addrLen, out);
+                writeIpAddress(msg.destinationAddress(), addrLen, out);
                 out.writeShort(msg.sourcePort());
                 out.writeShort(msg.destinationPort());
                 encodeTlvs(msg.tlvs(), out);
@@ -109,6 +109,27 @@ public final class HAProxyMessageEncoder extends MessageToByteEncoder<HAProxyMes
         }
     }
 
+    /**
+     * Writes the binary form of a validated IP address. The address is parsed straight into the backing array of
+     * {@code out} if there is one, so no intermediate array is needed.
+     */
+    private static void writeIpAddress(String address, int addrLen, ByteBuf out) {
+        if (addrLen == 4) {
+            out.writeInt((int) NetUtil.ipv4AddressToLong(address));
+            return;
+        }
+        out.ensureWritable(addrLen);
+        final int writerIndex = out.writerIndex();
+        if (out.hasArray()) {
+            NetUtil.createByteArrayFromIpAddressString(address, out.array(), out.arrayOffset() + writerIndex);
+            out.writerIndex(writerIndex + addrLen);
+        } else {
+            byte[] addrBytes = new byte[addrLen];
+            NetUtil.createByteArrayFromIpAddressString(address, addrBytes, 0);
+            out.writeBytes(addrBytes);
+        }
+    }
+
     private static void encodeTlv(HAProxyTLV haProxyTLV, ByteBuf out) {
         if (haProxyTLV instanceof HAProxySSLTLV) {
             HAProxySSLTLV ssltlv = (HAProxySSLTLV) haProxyTLV;
@@ -15,6 +15,10 @@
  */
 package io.netty.util;
 
+import io.netty.util.internal.SystemPropertyUtil;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Key which can be used to access {@link Attribute} out of the {@link AttributeMap}. Be aware that it is not be
  * possible to have multiple keys with the same name.
@@ -24,13 +28,24 @@ package io.netty.util;
 @SuppressWarnings("UnusedDeclaration") // 'T' is used only at compile time
 public final class AttributeKey<T> extends AbstractConstant<AttributeKey<T>> {
 
+    private static final int MAX_INDEXED_KEYS = Math.max(0,
+            SystemPropertyUtil.getInt("io.netty.attributeKey.maxIndexedKeys", 128));
+    private static final AtomicInteger nextIndex = new AtomicInteger();
+
     private static final ConstantPool<AttributeKey<Object>> pool = new ConstantPool<AttributeKey<Object>>() {
         @Override
         protected AttributeKey<Object> newConstant(int id, String name) {
-            return new AttributeKey<Object>(id, name);
+            return new AttributeKey<Object>(id, name, -1);
+        }
+
+        @Override
+        AttributeKey<Object> newConstant(int id, String name, boolean indexed) {
+            return new AttributeKey<Object>(id, name, indexed ? newIndex() : -1);
         }
     };
 
+    private final int index;
+
     /**
      * Returns the singleton instance of the {@link AttributeKey} which has the specified {@code name}.
      */
@@ -55,12 +70,53 @@ public final class AttributeKey<T> extends AbstractConstant<AttributeKey<T>> {
         return (AttributeKey<T>) pool.newInstance(name);
     }
 
+    /**
+     * Creates a new indexed {@link AttributeKey} for the given {@code name} or fail with an
+     * {@link IllegalArgumentException} if a {@link AttributeKey} for the given {@code name} exists.
+     * <p>
+     * Indexed keys get a dense index on creation, which allows {@link DefaultAttributeMap} to look them up in
+     * {@code O(1)}. Use them for keys that are accessed frequently, for example on every message. Once
+     * {@code io.netty.attributeKey.maxIndexedKeys} indexed keys were created, new ones fall back to the
+     * behaviour of {@link #newInstance(String)}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> AttributeKey<T> newIndexedInstance(String name) {
+        return (AttributeKey<T>) pool.newInstance(name, true);
+    }
+
     @SuppressWarnings("unchecked")
     public static <T> AttributeKey<T> valueOf(Class<?> firstNameComponent, String secondNameComponent) {
         return (AttributeKey<T>) pool.valueOf(firstNameComponent, secondNameComponent);
     }
 
-    private AttributeKey(int id, String name) {
+    /**
+     * Returns the number of indexed {@link AttributeKey}s created so far.
+     */
+    static int indexedKeys() {
+        return Math.min(nextIndex.get(), MAX_INDEXED_KEYS);
+    }
+
+    private static int newIndex() {
+        for (;;) {
+            int index = nextIndex.get();
+            if (index >= MAX_INDEXED_KEYS) {
+                return -1;
+            }
+            if (nextIndex.compareAndSet(index, index + 1)) {
+                return index;
+            }
+        }
+    }
+
+    private AttributeKey(int id, String name, int index) {
         super(id, name);
+        this.index = index;
+    }
+
+    /**
+     * Returns the dense index of this key or {@code -1} if it is not indexed.
+     */
+    int index() {
+        return index;
     }
 }
@@ -87,7 +87,15 @@ public abstract class ConstantPool<T extends Constant<T>> {
      * {@link IllegalArgumentException} if a {@link Constant} for the given {@code name} exists.
      */
     public T newInstance(String name) {
-        return createOrThrow(checkNonEmpty(name, "name"));
+        return createOrThrow(checkNonEmpty(name, "name"), false);
+    }
+
+    /**
+     * Creates a new {@link Constant} for the given {@code name} via {@link #newConstant(int, String, boolean)} or fail
+     * with an {@link IllegalArgumentException} if a {@link Constant} for the given {@code name} exists.
+     */
+    final T newInstance(String name, boolean indexed) {
+        return createOrThrow(checkNonEmpty(name, "name"), indexed);
     }
 
     /**
@@ -95,10 +103,10 @@ public abstract class ConstantPool<T extends Constant<T>> {
      *
      * @param name the name of the {@link Constant}
      */
-    private T createOrThrow(String name) {
+    private T createOrThrow(String name, boolean indexed) {
         T constant = constants.get(name);
         if (constant == null) {
-            final T tempConstant = newConstant(nextId(), name);
+            final T tempConstant = newConstant(nextId(), name, indexed);
             constant = constants.putIfAbsent(name, tempConstant);
             if (constant == null) {
                 return tempConstant;
@@ -110,6 +118,14 @@ public abstract class ConstantPool<T extends Constant<T>> {
 
     protected abstract T newConstant(int id, String name);
 
+    /**
+     * Creates a new {@link Constant} which may be assigned a dense index when {@code indexed} is {@code true}.
+     * By default the index request is ignored.
+     */
+    T newConstant(int id, String name, boolean indexed) {
+        return newConstant(id, name);
+    }
+
     @Deprecated
     public final int nextId() {
         return nextId.getAndIncrement();
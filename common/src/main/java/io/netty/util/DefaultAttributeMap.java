@@ -24,12 +24,17 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 /**
  * Default {@link AttributeMap} implementation which not exibit any blocking behaviour on attribute lookup while using a
  * copy-on-write approach on the modify path.<br> Attributes lookup and remove exibit {@code O(logn)} time worst-case
- * complexity, hence {@code attribute::set(null)} is to be preferred to {@code remove}.
+ * complexity, hence {@code attribute::set(null)} is to be preferred to {@code remove}.<br>
+ * Attributes of keys created via {@link AttributeKey#newIndexedInstance(String)} are stored in a separate array
+ * which is directly indexed by the key, so their lookup is {@code O(1)}.
  */
 public class DefaultAttributeMap implements AttributeMap {
 
     private static final AtomicReferenceFieldUpdater<DefaultAttributeMap, DefaultAttribute[]> ATTRIBUTES_UPDATER =
             AtomicReferenceFieldUpdater.newUpdater(DefaultAttributeMap.class, DefaultAttribute[].class, "attributes");
+    private static final AtomicReferenceFieldUpdater<DefaultAttributeMap, DefaultAttribute[]>
+            INDEXED_ATTRIBUTES_UPDATER = AtomicReferenceFieldUpdater.newUpdater(
+                    DefaultAttributeMap.class, DefaultAttribute[].class, "indexedAttributes");
     private static final DefaultAttribute[] EMPTY_ATTRIBUTES = new DefaultAttribute[0];
 
     /**
@@ -82,11 +87,17 @@ public class DefaultAttributeMap implements AttributeMap {
     }
 
     private volatile DefaultAttribute[] attributes = EMPTY_ATTRIBUTES;
+    // Attributes of indexed keys, the slot of each attribute is AttributeKey.index().
+    private volatile DefaultAttribute[] indexedAttributes = EMPTY_ATTRIBUTES;
 
     @SuppressWarnings("unchecked")
     @Override
     public <T> Attribute<T> attr(AttributeKey<T> key) {
         ObjectUtil.checkNotNull(key, "key");
+        final int keyIndex = key.index();
+        if (keyIndex >= 0) {
+            return indexedAttr(key, keyIndex);
+        }
         DefaultAttribute newAttribute = null;
         for (;;) {
             final DefaultAttribute[] attributes = this.attributes;
@@ -119,13 +130,47 @@ public class DefaultAttributeMap implements AttributeMap {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> Attribute<T> indexedAttr(AttributeKey<T> key, int keyIndex) {
+        DefaultAttribute newAttribute = null;
+        for (;;) {
+            final DefaultAttribute[] attributes = indexedAttributes;
+            if (keyIndex < attributes.length) {
+                final DefaultAttribute attribute = attributes[keyIndex];
+                if (attribute != null && !attribute.isRemoved()) {
+                    return attribute;
+                }
+            }
+            if (newAttribute == null) {
+                newAttribute = new DefaultAttribute<T>(this, key);
+            }
+            // Size the array for all indexed keys known so far, so it rarely needs to grow again.
+            final DefaultAttribute[] newAttributes = Arrays.copyOf(attributes,
+                    Math.max(attributes.length, Math.max(keyIndex + 1, AttributeKey.indexedKeys())));
+            newAttributes[keyIndex] = newAttribute;
+            if (INDEXED_ATTRIBUTES_UPDATER.compareAndSet(this, attributes, newAttributes)) {
+                return newAttribute;
+            }
+        }
+    }
+
     @Override
     public <T> boolean hasAttr(AttributeKey<T> key) {
         ObjectUtil.checkNotNull(key, "key");
+        final int keyIndex = key.index();
+        if (keyIndex >= 0) {
+            final DefaultAttribute[] attributes = indexedAttributes;
+            return keyIndex < attributes.length && attributes[keyIndex] != null;
+        }
         return searchAttributeByKey(attributes, key) >= 0;
     }
 
     private <T> void removeAttributeIfMatch(AttributeKey<T> key, DefaultAttribute<T> value) {
+        final int keyIndex = key.index();
+        if (keyIndex >= 0) {
+            removeIndexedAttributeIfMatch(keyIndex, value);
+            return;
+        }
         for (;;) {
             final DefaultAttribute[] attributes = this.attributes;
             final int index = searchAttributeByKey(attributes, key);
@@ -153,6 +198,20 @@ public class DefaultAttributeMap implements AttributeMap {
         }
     }
 
+    private <T> void removeIndexedAttributeIfMatch(int keyIndex, DefaultAttribute<T> value) {
+        for (;;) {
+            final DefaultAttribute[] attributes = indexedAttributes;
+            if (keyIndex >= attributes.length || attributes[keyIndex] != value) {
+                return;
+            }
+            final DefaultAttribute[] newAttributes = attributes.clone();
+            newAttributes[keyIndex] = null;
+            if (INDEXED_ATTRIBUTES_UPDATER.compareAndSet(this, attributes, newAttributes)) {
+                return;
+            }
+        }
+    }
+
     @SuppressWarnings("serial")
     private static final class DefaultAttribute<T> extends AtomicReference<T> implements Attribute<T> {
 
@@ -304,6 +304,61 @@ public final class NetUtil {
         return null;
     }
 
+    /**
+     * Parses {@code ip} and writes its 4 (IPv4) or 16 (IPv6) bytes into {@code dst} starting at {@code dstIndex}.
+     * Unlike {@link #createByteArrayFromIpAddressString(String)} no array is allocated. IPv6 addresses may be
+     * enclosed in brackets and carry a scope ID, which is ignored.
+     *
+     * @return the number of bytes written, or {@code -1} if {@code ip} is not a valid IP address, in which case the
+     *         content of {@code dst} is undefined
+     * @throws IndexOutOfBoundsException if {@code dst} does not have enough room for the address
+     */
+    public static int createByteArrayFromIpAddressString(CharSequence ip, byte[] dst, int dstIndex) {
+        if (isValidIpV4Address(ip)) {
+            if (dstIndex < 0 || dstIndex > dst.length - 4) {
+                throw new IndexOutOfBoundsException("dstIndex: " + dstIndex + " (expected: 0-" +
+                        (dst.length - 4) + ')');
+            }
+            int address = validIpV4ToInt(ip);
+            dst[dstIndex] = (byte) (address >>> 24);
+            dst[dstIndex + 1] = (byte) (address >>> 16);
+            dst[dstIndex + 2] = (byte) (address >>> 8);
+            dst[dstIndex + 3] = (byte) address;
+            return 4;
+        }
+
+        if (isValidIpV6Address(ip)) {
+            if (dstIndex < 0 || dstIndex > dst.length - IPV6_BYTE_COUNT) {
+                throw new IndexOutOfBoundsException("dstIndex: " + dstIndex + " (expected: 0-" +
+                        (dst.length - IPV6_BYTE_COUNT) + ')');
+            }
+            int start = 0;
+            int end = ip.length();
+            if (ip.charAt(0) == '[') {
+                start = 1;
+                end--;
+            }
+            int percentPos = indexOf(ip, '%', start);
+            if (percentPos >= 0 && percentPos < end) {
+                end = percentPos;
+            }
+            if (start != 0 || end != ip.length()) {
+                ip = ip.subSequence(start, end);
+            }
+            return getIPv6ByName(ip, true, dst, dstIndex) ? IPV6_BYTE_COUNT : -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Parses an IPv4 address in dotted notation without allocating.
+     *
+     * @return the address as an unsigned 32-bit value, or {@code -1} if {@code ip} is not a valid IPv4 address
+     */
+    public static long ipv4AddressToLong(CharSequence ip) {
+        return isValidIpV4Address(ip) ? validIpV4ToInt(ip) & 0xFFFFFFFFL : -1;
+    }
+
     /**
      * Creates an {@link InetAddress} based on an ipAddressString or might return null if it can't be parsed.
      * No error handling is performed here.
@@ -386,6 +441,21 @@ public final class NetUtil {
         };
     }
 
+    private static int validIpV4ToInt(CharSequence ip) {
+        int address = 0;
+        int word = 0;
+        for (int i = 0, len = ip.length(); i < len; i++) {
+            char c = ip.charAt(i);
+            if (c == '.') {
+                address = address << 8 | word;
+                word = 0;
+            } else {
+                word = word * 10 + c - '0';
+            }
+        }
+        return address << 8 | word;
+    }
+
     /**
      * Convert {@link Inet4Address} into {@code int}
      */
@@ -402,15 +472,22 @@ public final class NetUtil {
      * Converts a 32-bit integer into an IPv4 address.
      */
     public static String intToIpAddress(int i) {
-        StringBuilder buf = new StringBuilder(15);
-        buf.append(i >> 24 & 0xff);
-        buf.append('.');
-        buf.append(i >> 16 & 0xff);
-        buf.append('.');
-        buf.append(i >> 8 & 0xff);
-        buf.append('.');
-        buf.append(i & 0xff);
-        return buf.toString();
+        return appendIpV4Address(new StringBuilder(15), i).toString();
+    }
+
+    /**
+     * Appends the dotted notation of the IPv4 address {@code address} to {@code dst}.
+     *
+     * @return {@code dst}
+     */
+    public static StringBuilder appendIpV4Address(StringBuilder dst, int address) {
+        return dst.append(address >>> 24)
+                .append('.')
+                .append(address >> 16 & 0xff)
+                .append('.')
+                .append(address >> 8 & 0xff)
+                .append('.')
+                .append(address & 0xff);
     }
 
     /**
@@ -431,18 +508,36 @@ public final class NetUtil {
      */
     public static String bytesToIpAddress(byte[] bytes, int offset, int length) {
         switch (length) {
-            case 4: {
-                return new StringBuilder(15)
-                        .append(bytes[offset] & 0xff)
+            case 4:
+                return appendIpAddress(new StringBuilder(15), bytes, offset, length).toString();
+            case 16:
+                return toAddressString(bytes, offset, false);
+            default:
+                throw new IllegalArgumentException("length: " + length + " (expected: 4 or 16)");
+        }
+    }
+
+    /**
+     * Appends the text representation of the 4-byte IPv4 or 16-byte IPv6 address stored in {@code bytes} to
+     * {@code dst}. IPv6 addresses are formatted according to
+     * <a href="https://tools.ietf.org/html/rfc5952#section-4">rfc 5952 section 4</a>.
+     *
+     * @return {@code dst}
+     * @throws IllegalArgumentException
+     *         if {@code length} is not {@code 4} nor {@code 16}
+     */
+    public static StringBuilder appendIpAddress(StringBuilder dst, byte[] bytes, int offset, int length) {
+        switch (length) {
+            case 4:
+                return dst.append(bytes[offset] & 0xff)
                         .append('.')
                         .append(bytes[offset + 1] & 0xff)
                         .append('.')
                         .append(bytes[offset + 2] & 0xff)
                         .append('.')
-                        .append(bytes[offset + 3] & 0xff).toString();
-            }
+                        .append(bytes[offset + 3] & 0xff);
             case 16:
-                return toAddressString(bytes, offset, false);
+                return appendIpV6Address(dst, bytes, offset, false);
             default:
                 throw new IllegalArgumentException("length: " + length + " (expected: 4 or 16)");
         }
@@ -606,11 +701,13 @@ public final class NetUtil {
         return b0 == b1 && (b0 == 0 || !mustBeZero && b1 == -1);
     }
 
-    private static boolean isValidIPv4Mapped(byte[] bytes, int currentIndex, int compressBegin, int compressLength) {
+    private static boolean isValidIPv4Mapped(byte[] bytes, int offset, int currentIndex,
+                                             int compressBegin, int compressLength) {
         final boolean mustBeZero = compressBegin + compressLength >= 14;
         return currentIndex <= 12 && currentIndex >= 2 && (!mustBeZero || compressBegin < 12) &&
-                isValidIPv4MappedSeparators(bytes[currentIndex - 1], bytes[currentIndex - 2], mustBeZero) &&
-                PlatformDependent.isZero(bytes, 0, currentIndex - 3);
+                isValidIPv4MappedSeparators(bytes[offset + currentIndex - 1], bytes[offset + currentIndex - 2],
+                                            mustBeZero) &&
+                PlatformDependent.isZero(bytes, offset, currentIndex - 3);
     }
 
     /**
@@ -726,6 +823,14 @@ public final class NetUtil {
      // visible for test
     static byte[] getIPv6ByName(CharSequence ip, boolean ipv4Mapped) {
         final byte[] bytes = new byte[IPV6_BYTE_COUNT];
+        return getIPv6ByName(ip, ipv4Mapped, bytes, 0) ? bytes : null;
+    }
+
+    /**
+     * Parses the IPv6 address {@code ip} into the {@value #IPV6_BYTE_COUNT} bytes of {@code bytes} starting at
+     * {@code offset}. The content of that region is undefined if {@code false} is returned.
+     */
+    private static boolean getIPv6ByName(CharSequence ip, boolean ipv4Mapped, byte[] bytes, int offset) {
         final int ipLength = ip.length();
         int compressBegin = 0;
         int compressLength = 0;
@@ -743,8 +848,8 @@ public final class NetUtil {
                 ++ipv6Separators;
                 if (i - begin > IPV6_MAX_CHAR_BETWEEN_SEPARATOR ||
                         ipv4Separators > 0 || ipv6Separators > IPV6_MAX_SEPARATORS ||
-                        currentIndex + 1 >= bytes.length) {
-                    return null;
+                        currentIndex + 1 >= IPV6_BYTE_COUNT) {
+                    return false;
                 }
                 value <<= (IPV6_MAX_CHAR_BETWEEN_SEPARATOR - (i - begin)) << 2;
 
@@ -755,17 +860,17 @@ public final class NetUtil {
                 // The value integer holds at most 4 bytes from right (most significant) to left (least significant).
                 // The following bit shifting is used to extract and re-order the individual bytes to achieve a
                 // left (most significant) to right (least significant) ordering.
-                bytes[currentIndex++] = (byte) (((value & 0xf) << 4) | ((value >> 4) & 0xf));
-                bytes[currentIndex++] = (byte) ((((value >> 8) & 0xf) << 4) | ((value >> 12) & 0xf));
+                bytes[offset + currentIndex++] = (byte) (((value & 0xf) << 4) | ((value >> 4) & 0xf));
+                bytes[offset + currentIndex++] = (byte) ((((value >> 8) & 0xf) << 4) | ((value >> 12) & 0xf));
                 tmp = i + 1;
                 if (tmp < ipLength && ip.charAt(tmp) == ':') {
                     ++tmp;
                     if (compressBegin != 0 || (tmp < ipLength && ip.charAt(tmp) == ':')) {
-                        return null;
+                        return false;
                     }
                     ++ipv6Separators;
                     compressBegin = currentIndex;
-                    compressLength = bytes.length - compressBegin - 2;
+                    compressLength = IPV6_BYTE_COUNT - compressBegin - 2;
                     ++i;
                 }
                 value = 0;
@@ -779,10 +884,10 @@ public final class NetUtil {
                         || ipv4Separators > IPV4_SEPARATORS
                         || (ipv6Separators > 0 && (currentIndex + compressLength < 12))
                         || i + 1 >= ipLength
-                        || currentIndex >= bytes.length
+                        || currentIndex >= IPV6_BYTE_COUNT
                         || ipv4Separators == 1 &&
                             // We also parse pure IPv4 addresses as IPv4-Mapped for ease of use.
-                            ((!ipv4Mapped || currentIndex != 0 && !isValidIPv4Mapped(bytes, currentIndex,
+                            ((!ipv4Mapped || currentIndex != 0 && !isValidIPv4Mapped(bytes, offset, currentIndex,
                                                                                      compressBegin, compressLength)) ||
                                 (tmp == 3 && (!isValidNumericChar(ip.charAt(i - 1)) ||
                                               !isValidNumericChar(ip.charAt(i - 2)) ||
@@ -790,7 +895,7 @@ public final class NetUtil {
                                  tmp == 2 && (!isValidNumericChar(ip.charAt(i - 1)) ||
                                               !isValidNumericChar(ip.charAt(i - 2))) ||
                                  tmp == 1 && !isValidNumericChar(ip.charAt(i - 1))))) {
-                    return null;
+                    return false;
                 }
                 value <<= (IPV4_MAX_CHAR_BETWEEN_SEPARATOR - tmp) << 2;
 
@@ -799,20 +904,20 @@ public final class NetUtil {
                 // right (least significant) while also accounting for each IPv4 digit is base 10.
                 begin = (value & 0xf) * 100 + ((value >> 4) & 0xf) * 10 + ((value >> 8) & 0xf);
                 if (begin > 255) {
-                    return null;
+                    return false;
                 }
-                bytes[currentIndex++] = (byte) begin;
+                bytes[offset + currentIndex++] = (byte) begin;
                 value = 0;
                 begin = -1;
                 break;
             default:
                 if (!isValidHexChar(c) || (ipv4Separators > 0 && !isValidNumericChar(c))) {
-                    return null;
+                    return false;
                 }
                 if (begin < 0) {
                     begin = i;
                 } else if (i - begin > IPV6_MAX_CHAR_BETWEEN_SEPARATOR) {
-                    return null;
+                    return false;
                 }
                 // The value is treated as a sort of array of numbers because we are dealing with
                 // at most 4 consecutive bytes we can use bit shifting to accomplish this.
@@ -828,14 +933,14 @@ public final class NetUtil {
         if (ipv4Separators > 0) {
             if (begin > 0 && i - begin > IPV4_MAX_CHAR_BETWEEN_SEPARATOR ||
                     ipv4Separators != IPV4_SEPARATORS ||
-                    currentIndex >= bytes.length) {
-                return null;
+                    currentIndex >= IPV6_BYTE_COUNT) {
+                return false;
             }
             if (!(ipv6Separators == 0 || ipv6Separators >= IPV6_MIN_SEPARATORS &&
                            (!isCompressed && (ipv6Separators == 6 && ip.charAt(0) != ':') ||
                             isCompressed && (ipv6Separators < IPV6_MAX_SEPARATORS &&
                                              (ip.charAt(0) != ':' || compressBegin <= 2))))) {
-                return null;
+                return false;
             }
             value <<= (IPV4_MAX_CHAR_BETWEEN_SEPARATOR - (i - begin)) << 2;
 
@@ -844,9 +949,9 @@ public final class NetUtil {
             // right (least significant) while also accounting for each IPv4 digit is base 10.
             begin = (value & 0xf) * 100 + ((value >> 4) & 0xf) * 10 + ((value >> 8) & 0xf);
             if (begin > 255) {
-                return null;
+                return false;
             }
-            bytes[currentIndex++] = (byte) begin;
+            bytes[offset + currentIndex++] = (byte) begin;
         } else {
             tmp = ipLength - 1;
             if (begin > 0 && i - begin > IPV6_MAX_CHAR_BETWEEN_SEPARATOR ||
@@ -857,10 +962,10 @@ public final class NetUtil {
                         (ipv6Separators == IPV6_MAX_SEPARATORS &&
                           (compressBegin <= 2 && ip.charAt(0) != ':' ||
                            compressBegin >= 14 && ip.charAt(tmp) != ':'))) ||
-                    currentIndex + 1 >= bytes.length ||
+                    currentIndex + 1 >= IPV6_BYTE_COUNT ||
                     begin < 0 && ip.charAt(tmp - 1) != ':' ||
                     compressBegin > 2 && ip.charAt(0) == ':') {
-                return null;
+                return false;
             }
             if (begin >= 0 && i - begin <= IPV6_MAX_CHAR_BETWEEN_SEPARATOR) {
                 value <<= (IPV6_MAX_CHAR_BETWEEN_SEPARATOR - (i - begin)) << 2;
@@ -868,26 +973,26 @@ public final class NetUtil {
             // The value integer holds at most 4 bytes from right (most significant) to left (least significant).
             // The following bit shifting is used to extract and re-order the individual bytes to achieve a
             // left (most significant) to right (least significant) ordering.
-            bytes[currentIndex++] = (byte) (((value & 0xf) << 4) | ((value >> 4) & 0xf));
-            bytes[currentIndex++] = (byte) ((((value >> 8) & 0xf) << 4) | ((value >> 12) & 0xf));
+            bytes[offset + currentIndex++] = (byte) (((value & 0xf) << 4) | ((value >> 4) & 0xf));
+            bytes[offset + currentIndex++] = (byte) ((((value >> 8) & 0xf) << 4) | ((value >> 12) & 0xf));
         }
 
-        if (currentIndex < bytes.length) {
+        if (currentIndex < IPV6_BYTE_COUNT) {
             int toBeCopiedLength = currentIndex - compressBegin;
-            int targetIndex = bytes.length - toBeCopiedLength;
-            System.arraycopy(bytes, compressBegin, bytes, targetIndex, toBeCopiedLength);
+            int targetIndex = IPV6_BYTE_COUNT - toBeCopiedLength;
+            System.arraycopy(bytes, offset + compressBegin, bytes, offset + targetIndex, toBeCopiedLength);
             // targetIndex is also the `toIndex` to fill 0
-            Arrays.fill(bytes, compressBegin, targetIndex, (byte) 0);
+            Arrays.fill(bytes, offset + compressBegin, offset + targetIndex, (byte) 0);
         }
 
         if (ipv4Separators > 0) {
             // We only support IPv4-Mapped addresses [1] because IPv4-Compatible addresses are deprecated [2].
             // [1] https://tools.ietf.org/html/rfc4291#section-2.5.5.2
             // [2] https://tools.ietf.org/html/rfc4291#section-2.5.5.1
-            bytes[10] = bytes[11] = (byte) 0xff;
+            bytes[offset + 10] = bytes[offset + 11] = (byte) 0xff;
         }
 
-        return bytes;
+        return true;
     }
 
     /**
@@ -987,19 +1092,30 @@ public final class NetUtil {
     }
 
     private static String toAddressString(byte[] bytes, int offset, boolean ipv4Mapped) {
-        final int[] words = new int[IPV6_WORD_COUNT];
-        for (int i = 0; i < words.length; ++i) {
-            int idx = (i << 1) + offset;
-            words[i] = ((bytes[idx] & 0xff) << 8) | (bytes[idx + 1] & 0xff);
+        return appendIpV6Address(new StringBuilder(IPV6_MAX_CHAR_COUNT), bytes, offset, ipv4Mapped).toString();
+    }
+
+    private static int ipv6Word(byte[] bytes, int offset, int i) {
+        int idx = (i << 1) + offset;
+        return ((bytes[idx] & 0xff) << 8) | (bytes[idx + 1] & 0xff);
+    }
+
+    private static StringBuilder appendHexWord(StringBuilder b, int word) {
+        if (word > 0xff) {
+            return b.append(StringUtil.byteToHexString(word >>> 8)).append(StringUtil.byteToHexStringPadded(word));
         }
+        return b.append(StringUtil.byteToHexString(word));
+    }
+
+    private static StringBuilder appendIpV6Address(StringBuilder b, byte[] bytes, int offset, boolean ipv4Mapped) {
 
         // Find longest run of 0s, tie goes to first found instance
         int currentStart = -1;
         int currentLength;
         int shortestStart = -1;
         int shortestLength = 0;
-        for (int i = 0; i < words.length; ++i) {
-            if (words[i] == 0) {
+        for (int i = 0; i < IPV6_WORD_COUNT; ++i) {
+            if (ipv6Word(bytes, offset, i) == 0) {
                 if (currentStart < 0) {
                     currentStart = i;
                 }
@@ -1014,7 +1130,7 @@ public final class NetUtil {
         }
         // If the array ends on a streak of zeros, make sure we account for it
         if (currentStart >= 0) {
-            currentLength = words.length - currentStart;
+            currentLength = IPV6_WORD_COUNT - currentStart;
             if (currentLength > shortestLength) {
                 shortestStart = currentStart;
                 shortestLength = currentLength;
@@ -1028,24 +1144,23 @@ public final class NetUtil {
 
         // Translate to string taking into account longest consecutive 0s
         final int shortestEnd = shortestStart + shortestLength;
-        final StringBuilder b = new StringBuilder(IPV6_MAX_CHAR_COUNT);
         if (shortestEnd < 0) { // Optimization when there is no compressing needed
-            b.append(Integer.toHexString(words[0]));
-            for (int i = 1; i < words.length; ++i) {
+            appendHexWord(b, ipv6Word(bytes, offset, 0));
+            for (int i = 1; i < IPV6_WORD_COUNT; ++i) {
                 b.append(':');
-                b.append(Integer.toHexString(words[i]));
+                appendHexWord(b, ipv6Word(bytes, offset, i));
             }
         } else { // General case that can handle compressing (and not compressing)
             // Loop unroll the first index (so we don't constantly check i==0 cases in loop)
             final boolean isIpv4Mapped;
             if (inRangeEndExclusive(0, shortestStart, shortestEnd)) {
                 b.append("::");
-                isIpv4Mapped = ipv4Mapped && (shortestEnd == 5 && words[5] == 0xffff);
+                isIpv4Mapped = ipv4Mapped && (shortestEnd == 5 && ipv6Word(bytes, offset, 5) == 0xffff);
             } else {
-                b.append(Integer.toHexString(words[0]));
+                appendHexWord(b, ipv6Word(bytes, offset, 0));
                 isIpv4Mapped = false;
             }
-            for (int i = 1; i < words.length; ++i) {
+            for (int i = 1; i < IPV6_WORD_COUNT; ++i) {
                 if (!inRangeEndExclusive(i, shortestStart, shortestEnd)) {
                     if (!inRangeEndExclusive(i - 1, shortestStart, shortestEnd)) {
                         // If the last index was not part of the shortened sequence
@@ -1056,11 +1171,11 @@ public final class NetUtil {
                         }
                     }
                     if (isIpv4Mapped && i > 5) {
-                        b.append(words[i] >> 8);
+                        b.append(bytes[offset + (i << 1)] & 0xff);
                         b.append('.');
-                        b.append(words[i] & 0xff);
+                        b.append(bytes[offset + (i << 1) + 1] & 0xff);
                     } else {
-                        b.append(Integer.toHexString(words[i]));
+                        appendHexWord(b, ipv6Word(bytes, offset, i));
                     }
                 } else if (!inRangeEndExclusive(i - 1, shortestStart, shortestEnd)) {
                     // If we are in the shortened sequence and the last index was not
@@ -1069,7 +1184,7 @@ public final class NetUtil {
             }
         }
 
-        return b.toString();
+        return b;
     }
 
     /**
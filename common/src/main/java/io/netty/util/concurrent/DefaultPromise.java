@@ -23,6 +23,7 @@ import io.netty.util.internal.ThrowableUtil;
 import io.netty.util.internal.logging.InternalLogger;
 import io.netty.util.internal.logging.InternalLoggerFactory;
 
+import java.util.Arrays;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -46,17 +47,20 @@ public class DefaultPromise<V> extends AbstractFuture<V> implements Promise<V> {
     private static final CauseHolder CANCELLATION_CAUSE_HOLDER = new CauseHolder(
             StacklessCancellationException.newInstance(DefaultPromise.class, "cancel(...)"));
     private static final StackTraceElement[] CANCELLATION_STACK = CANCELLATION_CAUSE_HOLDER.cause.getStackTrace();
+    private static final int INITIAL_LISTENERS_CAPACITY = 4;
 
     private volatile Object result;
     private final EventExecutor executor;
     /**
-     * One or more listeners. Can be a {@link GenericFutureListener} or a {@link DefaultFutureListeners}.
-     * If {@code null}, it means either 1) no listeners were added yet or 2) all listeners were notified.
+     * One or more listeners. The first listener is stored in {@link #listener}, as soon as a second one is added all
+     * of them are moved into the {@link #listeners} array. The array is filled from the start and {@code null}
+     * terminated, so no extra holder object or size field is needed and it only grows once it is full.
+     * If both are {@code null}, it means either 1) no listeners were added yet or 2) all listeners were notified.
      *
      * Threading - synchronized(this). We must support adding listeners when there is no EventExecutor.
      */
     private GenericFutureListener<? extends Future<?>> listener;
-    private DefaultFutureListeners listeners;
+    private GenericFutureListener<? extends Future<?>>[] listeners;
     /**
      * Threading - synchronized(this). We are required to hold the monitor to use Java's underlying wait()/notifyAll().
      */
@@ -537,7 +541,7 @@ public class DefaultPromise<V> extends AbstractFuture<V> implements Promise<V> {
 
     private void notifyListenersNow() {
         GenericFutureListener listener;
-        DefaultFutureListeners listeners;
+        GenericFutureListener<?>[] listeners;
         synchronized (this) {
             listener = this.listener;
             listeners = this.listeners;
@@ -576,11 +580,12 @@ public class DefaultPromise<V> extends AbstractFuture<V> implements Promise<V> {
         }
     }
 
-    private void notifyListeners0(DefaultFutureListeners listeners) {
-        GenericFutureListener<?>[] a = listeners.listeners();
-        int size = listeners.size();
-        for (int i = 0; i < size; i ++) {
-            notifyListener0(this, a[i]);
+    private void notifyListeners0(GenericFutureListener<?>[] listeners) {
+        for (GenericFutureListener<?> l: listeners) {
+            if (l == null) {
+                break;
+            }
+            notifyListener0(this, l);
         }
     }
 
@@ -595,16 +600,29 @@ public class DefaultPromise<V> extends AbstractFuture<V> implements Promise<V> {
         }
     }
 
+    @SuppressWarnings("unchecked")
     private void addListener0(GenericFutureListener<? extends Future<? super V>> listener) {
         if (this.listener == null) {
             if (listeners == null) {
                 this.listener = listener;
             } else {
-                listeners.add(listener);
+                GenericFutureListener<? extends Future<?>>[] listeners = this.listeners;
+                int size = 1;
+                while (size < listeners.length && listeners[size] != null) {
+                    size ++;
+                }
+                if (size == listeners.length) {
+                    this.listeners = listeners = Arrays.copyOf(listeners, size << 1);
+                }
+                listeners[size] = listener;
             }
         } else {
             assert listeners == null;
-            listeners = new DefaultFutureListeners(this.listener, listener);
+            GenericFutureListener<? extends Future<?>>[] listeners =
+                    new GenericFutureListener[INITIAL_LISTENERS_CAPACITY];
+            listeners[0] = this.listener;
+            listeners[1] = listener;
+            this.listeners = listeners;
             this.listener = null;
         }
     }
@@ -613,10 +631,20 @@ public class DefaultPromise<V> extends AbstractFuture<V> implements Promise<V> {
         if (listener == toRemove) {
             listener = null;
         } else if (listeners != null) {
-            listeners.remove(toRemove);
-            // Removal is rare, no need for compaction
-            if (listeners.size() == 0) {
-                listeners = null;
+            final GenericFutureListener<? extends Future<?>>[] listeners = this.listeners;
+            for (int i = 0; i < listeners.length && listeners[i] != null; i ++) {
+                if (listeners[i] == toRemove) {
+                    int last = i;
+                    while (last + 1 < listeners.length && listeners[last + 1] != null) {
+                        last ++;
+                    }
+                    System.arraycopy(listeners, i + 1, listeners, i, last - i);
+                    listeners[last] = null;
+                    if (listeners[0] == null) {
+                        this.listeners = null;
+                    }
+                    return;
+                }
             }
         }
     }
@@ -780,29 +808,33 @@ public class DefaultPromise<V> extends AbstractFuture<V> implements Promise<V> {
      */
     private synchronized Object progressiveListeners() {
         final GenericFutureListener listener = this.listener;
-        final DefaultFutureListeners listeners = this.listeners;
+        final GenericFutureListener<?>[] listeners = this.listeners;
         if (listener == null && listeners == null) {
             // No listeners added
             return null;
         }
 
         if (listeners != null) {
-            // Copy DefaultFutureListeners into an array of listeners.
-            DefaultFutureListeners dfl = listeners;
-            int progressiveSize = dfl.progressiveSize();
+            // Copy the progressive listeners into an array of listeners.
+            int progressiveSize = 0;
+            GenericFutureListener<?> progressiveListener = null;
+            for (GenericFutureListener<?> l: listeners) {
+                if (l == null) {
+                    break;
+                }
+                if (l instanceof GenericProgressiveFutureListener) {
+                    progressiveListener = l;
+                    progressiveSize ++;
+                }
+            }
             switch (progressiveSize) {
                 case 0:
                     return null;
                 case 1:
-                    for (GenericFutureListener<?> l: dfl.listeners()) {
-                        if (l instanceof GenericProgressiveFutureListener) {
-                            return l;
-                        }
-                    }
-                    return null;
+                    return progressiveListener;
             }
 
-            GenericFutureListener<?>[] array = dfl.listeners();
+            GenericFutureListener<?>[] array = listeners;
             GenericProgressiveFutureListener<?>[] copy = new GenericProgressiveFutureListener[progressiveSize];
             for (int i = 0, j = 0; j < progressiveSize; i ++) {
                 GenericFutureListener<?> l = array[i];
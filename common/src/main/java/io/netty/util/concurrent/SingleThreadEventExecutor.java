@@ -22,11 +22,13 @@ import io.netty.util.internal.ThreadExecutorMap;
 import io.netty.util.internal.UnstableApi;
 import io.netty.util.internal.logging.InternalLogger;
 import io.netty.util.internal.logging.InternalLoggerFactory;
+import org.jctools.queues.MessagePassingQueue;
 import org.jetbrains.annotations.Async.Schedule;
 
 import java.lang.Thread.State;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Queue;
@@ -53,6 +55,11 @@ public abstract class SingleThreadEventExecutor extends AbstractScheduledEventEx
     static final int DEFAULT_MAX_PENDING_EXECUTOR_TASKS = Math.max(16,
             SystemPropertyUtil.getInt("io.netty.eventexecutor.maxPendingTasks", Integer.MAX_VALUE));
 
+    // Number of tasks drained from a MessagePassingQueue in one go. This is also the granularity at which
+    // runAllTasks(long) checks its deadline.
+    private static final int TASK_DRAIN_BATCH_SIZE = Math.max(1,
+            SystemPropertyUtil.getInt("io.netty.eventexecutor.taskDrainBatchSize", 64));
+
     private static final InternalLogger logger =
             InternalLoggerFactory.getInstance(SingleThreadEventExecutor.class);
 
@@ -76,6 +83,7 @@ public abstract class SingleThreadEventExecutor extends AbstractScheduledEventEx
                     SingleThreadEventExecutor.class, ThreadProperties.class, "threadProperties");
 
     private final Queue<Runnable> taskQueue;
+    private final TaskRunner taskRunner = new TaskRunner();
 
     private volatile Thread thread;
     @SuppressWarnings("unused")
@@ -353,6 +361,36 @@ public abstract class SingleThreadEventExecutor extends AbstractScheduledEventEx
         return taskQueue.offer(task);
     }
 
+    /**
+     * Add all tasks to the task queue. If the task queue is a {@link MessagePassingQueue} the slots are claimed in
+     * batches, otherwise this is the same as calling {@link #addTask(Runnable)} for each task. If a task is rejected
+     * the tasks before it stay in the task queue.
+     */
+    private void addTasks(Collection<? extends Runnable> tasks) {
+        if (!(taskQueue instanceof MessagePassingQueue)) {
+            for (Runnable task: tasks) {
+                addTask(task);
+            }
+            return;
+        }
+        if (isShutdown()) {
+            reject();
+        }
+        @SuppressWarnings("unchecked")
+        MessagePassingQueue<Runnable> queue = (MessagePassingQueue<Runnable>) taskQueue;
+        TaskSupplier supplier = new TaskSupplier(tasks.iterator());
+        int remaining = tasks.size();
+        while (remaining > 0) {
+            int filled = queue.fill(supplier, remaining);
+            if (filled == 0) {
+                // The queue is full, let the RejectedExecutionHandler decide what to do with the next task.
+                addTask(supplier.get());
+                filled = 1;
+            }
+            remaining -= filled;
+        }
+    }
+
     /**
      * @see Queue#remove(Object)
      */
@@ -418,6 +456,15 @@ public abstract class SingleThreadEventExecutor extends AbstractScheduledEventEx
      * @return {@code true} if at least one task was executed.
      */
     protected final boolean runAllTasksFrom(Queue<Runnable> taskQueue) {
+        if (taskQueue instanceof MessagePassingQueue) {
+            @SuppressWarnings("unchecked")
+            MessagePassingQueue<Runnable> queue = (MessagePassingQueue<Runnable>) taskQueue;
+            int ran = 0;
+            while (queue.drain(taskRunner, TASK_DRAIN_BATCH_SIZE) > 0) {
+                ran += taskRunner.takeRunCount();
+            }
+            return ran > 0;
+        }
         Runnable task = pollTaskFrom(taskQueue);
         if (task == null) {
             return false;
@@ -464,8 +511,36 @@ public abstract class SingleThreadEventExecutor extends AbstractScheduledEventEx
         }
 
         final long deadline = timeoutNanos > 0 ? getCurrentTimeNanos() + timeoutNanos : 0;
-        long runTasks = 0;
         long lastExecutionTime;
+        if (taskQueue instanceof MessagePassingQueue) {
+            @SuppressWarnings("unchecked")
+            MessagePassingQueue<Runnable> queue = (MessagePassingQueue<Runnable>) taskQueue;
+            safeExecute(task);
+            // Check the deadline every TASK_DRAIN_BATCH_SIZE tasks because nanoTime() is relatively expensive. Never
+            // drain more than the tasks left until the next check, so it is done however the drains are split up.
+            int remaining = TASK_DRAIN_BATCH_SIZE - 1;
+            for (;;) {
+                if (remaining == 0) {
+                    lastExecutionTime = getCurrentTimeNanos();
+                    if (lastExecutionTime >= deadline) {
+                        break;
+                    }
+                    remaining = TASK_DRAIN_BATCH_SIZE;
+                }
+                int drained = queue.drain(taskRunner, remaining);
+                taskRunner.takeRunCount();
+                if (drained == 0) {
+                    lastExecutionTime = getCurrentTimeNanos();
+                    break;
+                }
+                remaining -= drained;
+            }
+            afterRunningAllTasks();
+            this.lastExecutionTime = lastExecutionTime;
+            return true;
+        }
+
+        long runTasks = 0;
         for (;;) {
             safeExecute(task);
 
@@ -858,6 +933,61 @@ public abstract class SingleThreadEventExecutor extends AbstractScheduledEventEx
         }
     }
 
+    /**
+     * Submit all the given tasks for execution at once. The tasks are executed in iteration order. When called from
+     * outside the event loop the {@link EventExecutor} thread is woken up at most once for the whole batch, and task
+     * queues that support it claim the queue slots in bulk instead of once per task. If one of the tasks is rejected
+     * the tasks before it are still executed, the task itself and all following ones are not.
+     *
+     * @param tasks the tasks to execute.
+     */
+    public void executeBatch(Collection<? extends Runnable> tasks) {
+        ObjectUtil.checkNotNull(tasks, "tasks");
+        if (tasks.isEmpty()) {
+            return;
+        }
+        boolean immediate = false;
+        for (Runnable task: tasks) {
+            ObjectUtil.checkNotNull(task, "task");
+            immediate |= wakesUpForTask(task);
+        }
+        boolean inEventLoop = inEventLoop();
+        try {
+            addTasks(tasks);
+        } catch (RejectedExecutionException e) {
+            // The tasks that were added before the rejected one will still be run, so make sure they are picked up.
+            if (!inEventLoop) {
+                startThread();
+            }
+            if (!addTaskWakesUp) {
+                wakeup(inEventLoop);
+            }
+            throw e;
+        }
+        if (!inEventLoop) {
+            startThread();
+            if (isShutdown()) {
+                boolean reject = false;
+                try {
+                    for (Runnable task: tasks) {
+                        if (removeTask(task)) {
+                            reject = true;
+                        }
+                    }
+                } catch (UnsupportedOperationException e) {
+                    // See execute(Runnable, boolean)
+                }
+                if (reject) {
+                    reject();
+                }
+            }
+        }
+
+        if (!addTaskWakesUp && immediate) {
+            wakeup(inEventLoop);
+        }
+    }
+
     @Override
     public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
         throwIfInEventLoop("invokeAny");
@@ -943,6 +1073,40 @@ public abstract class SingleThreadEventExecutor extends AbstractScheduledEventEx
         rejectedExecutionHandler.rejected(task, this);
     }
 
+    private static final class TaskSupplier implements MessagePassingQueue.Supplier<Runnable> {
+        private final Iterator<? extends Runnable> tasks;
+
+        TaskSupplier(Iterator<? extends Runnable> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        public Runnable get() {
+            return tasks.next();
+        }
+    }
+
+    /**
+     * Runs the tasks drained from a {@link MessagePassingQueue}, skipping {@link #WAKEUP_TASK}s.
+     */
+    private static final class TaskRunner implements MessagePassingQueue.Consumer<Runnable> {
+        private int runCount;
+
+        @Override
+        public void accept(Runnable task) {
+            if (task != WAKEUP_TASK) {
+                safeExecute(task);
+                runCount++;
+            }
+        }
+
+        int takeRunCount() {
+            int runCount = this.runCount;
+            this.runCount = 0;
+            return runCount;
+        }
+    }
+
     // ScheduledExecutorService implementation
 
     private static final long SCHEDULE_PURGE_INTERVAL = TimeUnit.SECONDS.toNanos(1);
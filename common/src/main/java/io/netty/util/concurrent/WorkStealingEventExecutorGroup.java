@@ -0,0 +1,382 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.concurrent;
+
+import io.netty.util.internal.ObjectUtil;
+import io.netty.util.internal.PlatformDependent;
+import io.netty.util.internal.UnstableApi;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link EventExecutorGroup} which preserves the execution order of the {@link Runnable}s submitted to each of its
+ * {@link EventExecutor}s while balancing the work of all of them over a fixed number of threads.
+ *
+ * <p>Every call to {@link #next()} returns a new {@link OrderedEventExecutor} with its own task queue. As soon as it
+ * has pending tasks the executor as a whole is queued on a worker thread, preferably the one that ran it last.
+ * Idle workers steal queued executors from busy ones, so a single slow executor (for example the handlers of one
+ * slow channel) does not stall all other executors that happen to share its thread, as it would with
+ * {@link DefaultEventExecutorGroup}.
+ *
+ * <p>The {@link EventExecutor}s returned by this group do not support scheduling tasks, and as executors are created
+ * on demand {@link #iterator()} does not return any of them.
+ */
+@UnstableApi
+public final class WorkStealingEventExecutorGroup extends AbstractEventExecutorGroup {
+
+    private static final FastThreadLocal<Worker> CURRENT_WORKER = new FastThreadLocal<Worker>();
+
+    private static final int ST_STARTED = 1;
+    private static final int ST_SHUTTING_DOWN = 2;
+
+    private final Worker[] workers;
+    private final int maxTaskExecutePerRun;
+    private final AtomicInteger nextHome = new AtomicInteger();
+    private final AtomicInteger idleWorkers = new AtomicInteger();
+    private final AtomicInteger activeWorkers;
+    private final AtomicInteger state = new AtomicInteger(ST_STARTED);
+    private final Promise<?> terminationFuture = new DefaultPromise<Void>(GlobalEventExecutor.INSTANCE);
+    private volatile long shutdownDeadlineNanos;
+
+    /**
+     * @see #WorkStealingEventExecutorGroup(int, ThreadFactory)
+     */
+    public WorkStealingEventExecutorGroup(int nThreads) {
+        this(nThreads, null);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param nThreads          the number of threads that will be used by this instance.
+     * @param threadFactory     the ThreadFactory to use, or {@code null} if the default should be used.
+     */
+    public WorkStealingEventExecutorGroup(int nThreads, ThreadFactory threadFactory) {
+        this(nThreads, threadFactory, 1024);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param nThreads              the number of threads that will be used by this instance.
+     * @param threadFactory         the ThreadFactory to use, or {@code null} if the default should be used.
+     * @param maxTaskExecutePerRun  the maximum number of tasks one {@link EventExecutor} runs before it is queued
+     *                              again, so other executors get a chance to run.
+     */
+    public WorkStealingEventExecutorGroup(int nThreads, ThreadFactory threadFactory, int maxTaskExecutePerRun) {
+        ObjectUtil.checkPositive(nThreads, "nThreads");
+        this.maxTaskExecutePerRun = ObjectUtil.checkPositive(maxTaskExecutePerRun, "maxTaskExecutePerRun");
+        if (threadFactory == null) {
+            threadFactory = new DefaultThreadFactory(getClass());
+        }
+        workers = new Worker[nThreads];
+        for (int i = 0; i < nThreads; i++) {
+            workers[i] = new Worker(i);
+        }
+        activeWorkers = new AtomicInteger(nThreads);
+        for (Worker worker : workers) {
+            Thread thread = threadFactory.newThread(worker);
+            worker.thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Returns a new {@link OrderedEventExecutor} whose tasks are executed by the threads of this group.
+     */
+    @Override
+    public EventExecutor next() {
+        Worker home = workers[(nextHome.getAndIncrement() & Integer.MAX_VALUE) % workers.length];
+        return new WorkStealingOrderedEventExecutor(home);
+    }
+
+    @Override
+    public Iterator<EventExecutor> iterator() {
+        return Collections.<EventExecutor>emptyList().iterator();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        next().execute(command);
+    }
+
+    @Override
+    public boolean isShuttingDown() {
+        return state.get() >= ST_SHUTTING_DOWN;
+    }
+
+    /**
+     * Stops accepting new tasks. Tasks which were already submitted are still executed unless {@code timeout} is
+     * exceeded. The {@code quietPeriod} is ignored.
+     */
+    @Override
+    public Future<?> shutdownGracefully(long quietPeriod, long timeout, TimeUnit unit) {
+        ObjectUtil.checkPositiveOrZero(quietPeriod, "quietPeriod");
+        if (timeout < quietPeriod) {
+            throw new IllegalArgumentException(
+                    "timeout: " + timeout + " (expected >= quietPeriod (" + quietPeriod + "))");
+        }
+        ObjectUtil.checkNotNull(unit, "unit");
+        shutdownDeadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        if (state.compareAndSet(ST_STARTED, ST_SHUTTING_DOWN)) {
+            for (Worker worker : workers) {
+                LockSupport.unpark(worker.thread);
+            }
+        }
+        return terminationFuture;
+    }
+
+    @Override
+    public Future<?> terminationFuture() {
+        return terminationFuture;
+    }
+
+    /**
+     * @deprecated {@link #shutdownGracefully(long, long, TimeUnit)} or {@link #shutdownGracefully()} instead.
+     */
+    @Override
+    @Deprecated
+    public void shutdown() {
+        shutdownGracefully(0, 0, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return isShuttingDown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminationFuture.isDone();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminationFuture.await(timeout, unit);
+    }
+
+    private void enqueue(WorkStealingOrderedEventExecutor executor) {
+        Worker worker = CURRENT_WORKER.get();
+        if (worker == null || worker.group() != this) {
+            worker = executor.home;
+        }
+        worker.queue.offer(executor);
+        if (worker.parked) {
+            LockSupport.unpark(worker.thread);
+        } else if (idleWorkers.get() > 0) {
+            // The preferred worker is busy, wake up an idle one so it can steal the executor.
+            for (Worker w : workers) {
+                if (w.parked) {
+                    LockSupport.unpark(w.thread);
+                    break;
+                }
+            }
+        }
+    }
+
+    private boolean hasQueuedExecutors() {
+        for (Worker worker : workers) {
+            if (!worker.queue.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class Worker implements Runnable {
+        private final int index;
+        final Queue<WorkStealingOrderedEventExecutor> queue =
+                new ConcurrentLinkedQueue<WorkStealingOrderedEventExecutor>();
+        volatile Thread thread;
+        volatile boolean parked;
+
+        Worker(int index) {
+            this.index = index;
+        }
+
+        WorkStealingEventExecutorGroup group() {
+            return WorkStealingEventExecutorGroup.this;
+        }
+
+        @Override
+        public void run() {
+            CURRENT_WORKER.set(this);
+            try {
+                for (;;) {
+                    WorkStealingOrderedEventExecutor executor = queue.poll();
+                    if (executor == null) {
+                        executor = steal();
+                    }
+                    if (executor != null) {
+                        executor.run(this);
+                        continue;
+                    }
+                    if (isShuttingDown() && (!hasQueuedExecutors() || shutdownTimedOut())) {
+                        break;
+                    }
+                    parked = true;
+                    idleWorkers.incrementAndGet();
+                    try {
+                        // Check again after publishing that we are parked, so a concurrent enqueue(...) either sees
+                        // the parked flag or we see the queued executor.
+                        if (!hasQueuedExecutors() && !isShuttingDown()) {
+                            LockSupport.park(this);
+                        }
+                    } finally {
+                        idleWorkers.decrementAndGet();
+                        parked = false;
+                    }
+                }
+            } finally {
+                CURRENT_WORKER.remove();
+                if (activeWorkers.decrementAndGet() == 0) {
+                    terminationFuture.setSuccess(null);
+                }
+            }
+        }
+
+        private WorkStealingOrderedEventExecutor steal() {
+            for (int i = 1; i < workers.length; i++) {
+                WorkStealingOrderedEventExecutor executor = workers[(index + i) % workers.length].queue.poll();
+                if (executor != null) {
+                    return executor;
+                }
+            }
+            return null;
+        }
+
+        private boolean shutdownTimedOut() {
+            return System.nanoTime() - shutdownDeadlineNanos >= 0;
+        }
+    }
+
+    private final class WorkStealingOrderedEventExecutor extends AbstractEventExecutor
+            implements OrderedEventExecutor {
+        private final Queue<Runnable> tasks = PlatformDependent.newMpscQueue();
+
+        private static final int NONE = 0;
+        private static final int SUBMITTED = 1;
+        private static final int RUNNING = 2;
+
+        private final AtomicInteger state = new AtomicInteger();
+        private final AtomicReference<Thread> executingThread = new AtomicReference<Thread>();
+        // The worker that ran this executor last, used as the preferred worker when it is submitted again.
+        volatile Worker home;
+
+        WorkStealingOrderedEventExecutor(Worker home) {
+            super(WorkStealingEventExecutorGroup.this);
+            this.home = home;
+        }
+
+        void run(Worker worker) {
+            if (!state.compareAndSet(SUBMITTED, RUNNING)) {
+                return;
+            }
+            home = worker;
+            Thread current = Thread.currentThread();
+            executingThread.set(current);
+            for (;;) {
+                int i = 0;
+                for (; i < maxTaskExecutePerRun; i++) {
+                    Runnable task = tasks.poll();
+                    if (task == null) {
+                        break;
+                    }
+                    safeExecute(task);
+                }
+                if (i == maxTaskExecutePerRun) {
+                    // Give other executors a chance to run, idle workers may steal us in the meantime.
+                    state.set(SUBMITTED);
+                    // Only set executingThread to null if no other thread did update it yet.
+                    executingThread.compareAndSet(current, null);
+                    enqueue(this);
+                    return;
+                }
+                state.set(NONE);
+                // See NonStickyEventExecutorGroup for why the task queue needs to be checked again here.
+                if (tasks.isEmpty() || !state.compareAndSet(NONE, RUNNING)) {
+                    // Only set executingThread to null if no other thread did update it yet.
+                    executingThread.compareAndSet(current, null);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean inEventLoop(Thread thread) {
+            return executingThread.get() == thread;
+        }
+
+        @Override
+        public boolean isShuttingDown() {
+            return WorkStealingEventExecutorGroup.this.isShuttingDown();
+        }
+
+        @Override
+        public Future<?> shutdownGracefully(long quietPeriod, long timeout, TimeUnit unit) {
+            return WorkStealingEventExecutorGroup.this.shutdownGracefully(quietPeriod, timeout, unit);
+        }
+
+        @Override
+        public Future<?> terminationFuture() {
+            return terminationFuture;
+        }
+
+        @Override
+        @Deprecated
+        public void shutdown() {
+            WorkStealingEventExecutorGroup.this.shutdown();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return WorkStealingEventExecutorGroup.this.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return WorkStealingEventExecutorGroup.this.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return WorkStealingEventExecutorGroup.this.awaitTermination(timeout, unit);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            ObjectUtil.checkNotNull(command, "command");
+            if (WorkStealingEventExecutorGroup.this.isShuttingDown()) {
+                throw new RejectedExecutionException("event executor terminated");
+            }
+            if (!tasks.offer(command)) {
+                throw new RejectedExecutionException();
+            }
+            if (state.compareAndSet(NONE, SUBMITTED)) {
+                enqueue(this);
+            }
+        }
+    }
+}
@@ -128,4 +128,35 @@ public class DefaultAttributeMapTest {
         assertSame(2, attr2.get());
         assertSame(attr, attr2);
     }
+
+    @Test
+    public void testIndexedAttributes() {
+        AttributeKey<Integer> indexed = AttributeKey.newIndexedInstance("DefaultAttributeMapTest.indexed");
+        AttributeKey<Integer> other = AttributeKey.valueOf("DefaultAttributeMapTest.other");
+        assertFalse(map.hasAttr(indexed));
+
+        Attribute<Integer> attr = map.attr(indexed);
+        assertSame(attr, map.attr(indexed));
+        assertSame(indexed, attr.key());
+        assertTrue(map.hasAttr(indexed));
+        assertFalse(map.hasAttr(other));
+
+        attr.set(1);
+        map.attr(other).set(2);
+        assertEquals(1, map.attr(indexed).get());
+        assertEquals(2, map.attr(other).get());
+
+        // Keys created after the map allocated its indexed slots must work as well.
+        AttributeKey<Integer> indexed2 = AttributeKey.newIndexedInstance("DefaultAttributeMapTest.indexed2");
+        map.attr(indexed2).set(3);
+        assertEquals(3, map.attr(indexed2).get());
+        assertEquals(1, map.attr(indexed).get());
+
+        assertSame(1, attr.getAndRemove());
+        assertFalse(map.hasAttr(indexed));
+        Attribute<Integer> attr2 = map.attr(indexed);
+        assertNotSame(attr, attr2);
+        assertNull(attr2.get());
+        assertTrue(map.hasAttr(indexed2));
+    }
 }
@@ -23,11 +23,13 @@ import java.net.Inet6Address;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import static io.netty.util.NetUtil.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -700,6 +702,59 @@ public class NetUtilTest {
         }
     }
 
+    @Test
+    public void testCreateByteArrayFromIpAddressStringIntoArray() {
+        assertCreateByteArrayFromIpAddressStringIntoArray(validIpV4Hosts);
+        assertCreateByteArrayFromIpAddressStringIntoArray(invalidIpV4Hosts);
+        assertCreateByteArrayFromIpAddressStringIntoArray(validIpV6Hosts);
+        assertCreateByteArrayFromIpAddressStringIntoArray(invalidIpV6Hosts);
+    }
+
+    private static void assertCreateByteArrayFromIpAddressStringIntoArray(Map<String, String> hosts) {
+        for (String ip : hosts.keySet()) {
+            byte[] expected = createByteArrayFromIpAddressString(ip);
+            for (CharSequence cs : new CharSequence[] { ip, new AsciiString(ip) }) {
+                // Fill with garbage to make sure every byte of the address is written.
+                byte[] dst = new byte[18];
+                Arrays.fill(dst, (byte) 0x5a);
+                int written = createByteArrayFromIpAddressString(cs, dst, 1);
+                if (expected == null) {
+                    assertEquals(-1, written, ip);
+                } else {
+                    assertEquals(expected.length, written, ip);
+                    assertArrayEquals(expected, Arrays.copyOfRange(dst, 1, 1 + written), ip);
+                    assertEquals((byte) 0x5a, dst[0], ip);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIpv4AddressToLong() {
+        for (Entry<String, String> e : validIpV4Hosts.entrySet()) {
+            assertEquals(Long.parseLong(e.getValue(), 16), ipv4AddressToLong(e.getKey()));
+            assertEquals(Long.parseLong(e.getValue(), 16), ipv4AddressToLong(new AsciiString(e.getKey())));
+        }
+        for (String ip : invalidIpV4Hosts.keySet()) {
+            assertEquals(-1, ipv4AddressToLong(ip), ip);
+        }
+    }
+
+    @Test
+    public void testAppendIpAddress() {
+        for (Entry<String, String> e : validIpV4Hosts.entrySet()) {
+            byte[] bytes = copyWithOffset(createByteArrayFromIpAddressString(e.getKey()));
+            assertEquals("x" + e.getKey(), appendIpAddress(new StringBuilder("x"), bytes, 1, 4).toString());
+            assertEquals(e.getKey(), appendIpV4Address(new StringBuilder(), (int) ipv4AddressToLong(e.getKey()))
+                    .toString());
+        }
+        for (Entry<byte[], String> testEntry : ipv6ToAddressStrings.entrySet()) {
+            byte[] bytes = copyWithOffset(testEntry.getKey());
+            assertEquals("x" + testEntry.getValue(),
+                    appendIpAddress(new StringBuilder("x"), bytes, 1, bytes.length - 2).toString());
+        }
+    }
+
     @Test
     public void testBytesToIpAddress() {
         for (Entry<String, String> e : validIpV4Hosts.entrySet()) {
@@ -24,7 +24,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.function.Executable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
@@ -296,6 +299,56 @@ public class DefaultPromiseTest {
         }
     }
 
+    @Test
+    public void testAddAndRemoveManyListeners() {
+        final List<Integer> notified = new ArrayList<Integer>();
+        List<GenericFutureListener<Future<Void>>> listeners = new ArrayList<GenericFutureListener<Future<Void>>>();
+        for (int i = 0; i < 10; i++) {
+            final int index = i;
+            listeners.add(new FutureListener<Void>() {
+                @Override
+                public void operationComplete(Future<Void> future) {
+                    notified.add(index);
+                }
+            });
+        }
+        Promise<Void> promise = new DefaultPromise<Void>(ImmediateEventExecutor.INSTANCE);
+        for (GenericFutureListener<Future<Void>> listener : listeners) {
+            promise.addListener(listener);
+        }
+        // Remove the first, one from the middle and the last listener.
+        promise.removeListener(listeners.get(0));
+        promise.removeListener(listeners.get(5));
+        promise.removeListener(listeners.get(9));
+        promise.setSuccess(null);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 6, 7, 8), notified);
+    }
+
+    @Test
+    public void testRemoveAllListeners() {
+        final AtomicInteger notified = new AtomicInteger();
+        FutureListener<Void> listener1 = new FutureListener<Void>() {
+            @Override
+            public void operationComplete(Future<Void> future) {
+                notified.incrementAndGet();
+            }
+        };
+        FutureListener<Void> listener2 = new FutureListener<Void>() {
+            @Override
+            public void operationComplete(Future<Void> future) {
+                notified.incrementAndGet();
+            }
+        };
+        Promise<Void> promise = new DefaultPromise<Void>(new RejectingEventExecutor());
+        promise.addListener(listener1);
+        promise.addListener(listener2);
+        promise.removeListener(listener2);
+        promise.removeListener(listener1);
+        // No listeners left so the executor must not be used.
+        promise.setSuccess(null);
+        assertEquals(0, notified.get());
+    }
+
     @Test
     public void testListenerNotifyLater() throws Exception {
         // Testing first execution path in DefaultPromise
@@ -15,12 +15,18 @@
  */
 package io.netty.util.concurrent;
 
+import io.netty.util.internal.PlatformDependent;
+import org.jctools.queues.MessagePassingQueue;
+import org.jctools.queues.atomic.MpscUnboundedAtomicArrayQueue;
 import org.junit.jupiter.api.Test;
 
 import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.function.Executable;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
@@ -274,6 +280,138 @@ public class SingleThreadEventExecutorTest {
         assertEquals(0, latch2.getCount());
     }
 
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    public void testExecuteBatch() throws Exception {
+        testExecuteBatch(false);
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    public void testExecuteBatchWithTimeout() throws Exception {
+        testExecuteBatch(true);
+    }
+
+    private static void testExecuteBatch(final boolean timeout) throws Exception {
+        final SingleThreadEventExecutor executor = new SingleThreadEventExecutor(null,
+                Executors.newSingleThreadExecutor(), false, PlatformDependent.<Runnable>newMpscQueue(),
+                RejectedExecutionHandlers.reject()) {
+            @Override
+            protected void run() {
+                do {
+                    if (timeout) {
+                        runAllTasks(TimeUnit.MILLISECONDS.toNanos(1));
+                    } else {
+                        runAllTasks();
+                    }
+                } while (!confirmShutdown());
+            }
+        };
+        try {
+            final int numTasks = 1000;
+            final List<Integer> executed = new ArrayList<Integer>(numTasks);
+            final CountDownLatch latch = new CountDownLatch(numTasks);
+            List<Runnable> tasks = new ArrayList<Runnable>(numTasks);
+            for (int i = 0; i < numTasks; i++) {
+                final int index = i;
+                tasks.add(new Runnable() {
+                    @Override
+                    public void run() {
+                        executed.add(index);
+                        latch.countDown();
+                    }
+                });
+            }
+            executor.executeBatch(tasks);
+            latch.await();
+            for (int i = 0; i < numTasks; i++) {
+                assertEquals(i, executed.get(i));
+            }
+        } finally {
+            executor.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS).syncUninterruptibly();
+        }
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    public void testRunAllTasksWithTimeoutWhileQueueIsRefilled() throws Exception {
+        final AtomicInteger iterations = new AtomicInteger();
+        // Every drain only finds a single task, while the queue never runs empty.
+        Queue<Runnable> taskQueue = new MpscUnboundedAtomicArrayQueue<Runnable>(64) {
+            @Override
+            public int drain(MessagePassingQueue.Consumer<Runnable> c, int limit) {
+                return super.drain(c, Math.min(limit, 1));
+            }
+        };
+        final SingleThreadEventExecutor executor = new SingleThreadEventExecutor(null,
+                Executors.newSingleThreadExecutor(), false, taskQueue, RejectedExecutionHandlers.reject()) {
+            @Override
+            protected void run() {
+                do {
+                    runAllTasks(1);
+                    iterations.incrementAndGet();
+                } while (!confirmShutdown());
+            }
+        };
+        final AtomicBoolean stop = new AtomicBoolean();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (!stop.get()) {
+                        executor.execute(this);
+                    }
+                }
+            });
+            while (iterations.get() < 2) {
+                Thread.sleep(10);
+            }
+        } finally {
+            stop.set(true);
+            executor.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS).syncUninterruptibly();
+        }
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    public void testExecuteBatchPartiallyRejected() throws Exception {
+        final SingleThreadEventExecutor executor = new SingleThreadEventExecutor(null,
+                Executors.newSingleThreadExecutor(), false, PlatformDependent.<Runnable>newFixedMpscQueue(4),
+                RejectedExecutionHandlers.reject()) {
+            @Override
+            protected void run() {
+                do {
+                    runAllTasks();
+                } while (!confirmShutdown());
+            }
+        };
+        try {
+            final CountDownLatch latch = new CountDownLatch(4);
+            final AtomicInteger executed = new AtomicInteger();
+            final List<Runnable> tasks = new ArrayList<Runnable>();
+            for (int i = 0; i < 8; i++) {
+                tasks.add(new Runnable() {
+                    @Override
+                    public void run() {
+                        executed.incrementAndGet();
+                        latch.countDown();
+                    }
+                });
+            }
+            // The executor is not started yet, so only the first tasks fit into the queue.
+            assertThrows(RejectedExecutionException.class, new Executable() {
+                @Override
+                public void execute() {
+                    executor.executeBatch(tasks);
+                }
+            });
+            latch.await();
+            assertEquals(4, executed.get());
+        } finally {
+            executor.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS).syncUninterruptibly();
+        }
+    }
+
     @Test
     public void testTaskAddedAfterShutdownNotAbandoned() throws Exception {
 
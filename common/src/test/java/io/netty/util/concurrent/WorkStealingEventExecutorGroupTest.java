@@ -0,0 +1,156 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.concurrent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkStealingEventExecutorGroupTest {
+
+    @Test
+    public void testInvalidThreads() {
+        assertThrows(IllegalArgumentException.class, new Executable() {
+            @Override
+            public void execute() {
+                new WorkStealingEventExecutorGroup(0);
+            }
+        });
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testOrderingPerExecutor() throws Throwable {
+        WorkStealingEventExecutorGroup group = new WorkStealingEventExecutorGroup(4, null, 16);
+        try {
+            final int numExecutors = 8;
+            final int numTasks = 10000;
+            final CountDownLatch latch = new CountDownLatch(numExecutors * numTasks);
+            final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+            for (int i = 0; i < numExecutors; i++) {
+                final EventExecutor executor = group.next();
+                final List<Integer> executed = new ArrayList<Integer>(numTasks);
+                for (int j = 0; j < numTasks; j++) {
+                    final int expected = j;
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (!executor.inEventLoop()) {
+                                error.compareAndSet(null, new AssertionError("not in event loop"));
+                            }
+                            if (executed.size() != expected) {
+                                error.compareAndSet(null,
+                                        new AssertionError("expected " + expected + " but was " + executed.size()));
+                            }
+                            executed.add(expected);
+                            latch.countDown();
+                        }
+                    });
+                }
+            }
+            latch.await();
+            Throwable cause = error.get();
+            if (cause != null) {
+                throw cause;
+            }
+        } finally {
+            group.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS).syncUninterruptibly();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testSlowExecutorDoesNotStallOthers() throws Exception {
+        WorkStealingEventExecutorGroup group = new WorkStealingEventExecutorGroup(2);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            group.next().execute(new Runnable() {
+                @Override
+                public void run() {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            blocked.await();
+
+            // All of these executors are queued while one of the two workers is blocked, including the ones that
+            // prefer the blocked worker. They must still be executed by the other worker.
+            final int numExecutors = 8;
+            final CountDownLatch done = new CountDownLatch(numExecutors);
+            for (int i = 0; i < numExecutors; i++) {
+                group.next().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        done.countDown();
+                    }
+                });
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            group.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS).syncUninterruptibly();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testShutdown() throws Exception {
+        WorkStealingEventExecutorGroup group = new WorkStealingEventExecutorGroup(2);
+        final EventExecutor executor = group.next();
+        final AtomicBoolean ran = new AtomicBoolean();
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                ran.set(true);
+            }
+        }).sync();
+        assertTrue(ran.get());
+        assertFalse(executor.inEventLoop());
+
+        group.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS).sync();
+        assertTrue(group.isShutdown());
+        assertTrue(executor.isTerminated());
+        assertThrows(RejectedExecutionException.class, new Executable() {
+            @Override
+            public void execute() {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                    }
+                });
+            }
+        });
+        assertEquals(group, executor.parent());
+    }
+}
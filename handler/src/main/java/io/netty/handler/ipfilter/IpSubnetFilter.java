@@ -18,6 +18,7 @@ package io.netty.handler.ipfilter;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.NetUtil;
 import io.netty.util.internal.ObjectUtil;
 
 import java.net.Inet4Address;
@@ -167,7 +168,7 @@ public class IpSubnetFilter extends AbstractRemoteAddressFilter<InetSocketAddres
     @Override
     protected boolean accept(ChannelHandlerContext ctx, InetSocketAddress remoteAddress) {
         if (remoteAddress.getAddress() instanceof Inet4Address) {
-            int indexOf = Collections.binarySearch(ipv4Rules, remoteAddress, IpSubnetFilterRuleComparator.INSTANCE);
+            int indexOf = indexOfIpV4Rule(NetUtil.ipv4AddressToInt((Inet4Address) remoteAddress.getAddress()));
             if (indexOf >= 0) {
                 if (ipFilterRuleTypeIPv4 == null) {
                     return ipv4Rules.get(indexOf).ruleType() == IpFilterRuleType.ACCEPT;
@@ -189,6 +190,27 @@ public class IpSubnetFilter extends AbstractRemoteAddressFilter<InetSocketAddres
         return acceptIfNotFound;
     }
 
+    /**
+     * Binary search over {@link #ipv4Rules} that converts the address to an {@code int} only once instead of once
+     * per visited rule.
+     */
+    private int indexOfIpV4Rule(int ipAddress) {
+        int low = 0;
+        int high = ipv4Rules.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = ipv4Rules.get(mid).compareTo(ipAddress);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
     /**
      * <ol>
      *     <li> Sort the list </li>
@@ -106,9 +106,7 @@ public final class IpSubnetFilterRule implements IpFilterRule, Comparable<IpSubn
      */
     int compareTo(InetSocketAddress inetSocketAddress) {
         if (filterRule instanceof Ip4SubnetFilterRule) {
-            Ip4SubnetFilterRule ip4SubnetFilterRule = (Ip4SubnetFilterRule) filterRule;
-            return compareInt(ip4SubnetFilterRule.networkAddress, NetUtil.ipv4AddressToInt((Inet4Address)
-                    inetSocketAddress.getAddress()) & ip4SubnetFilterRule.subnetMask);
+            return compareTo(NetUtil.ipv4AddressToInt((Inet4Address) inetSocketAddress.getAddress()));
         } else {
             Ip6SubnetFilterRule ip6SubnetFilterRule = (Ip6SubnetFilterRule) filterRule;
             return ip6SubnetFilterRule.networkAddress
@@ -117,6 +115,15 @@ public final class IpSubnetFilterRule implements IpFilterRule, Comparable<IpSubn
         }
     }
 
+    /**
+     * Same as {@link #compareTo(InetSocketAddress)} for an IPv4 address that was already converted to an {@code int},
+     * so a binary search only needs to convert the address once.
+     */
+    int compareTo(int ipv4Address) {
+        Ip4SubnetFilterRule ip4SubnetFilterRule = (Ip4SubnetFilterRule) filterRule;
+        return compareInt(ip4SubnetFilterRule.networkAddress, ipv4Address & ip4SubnetFilterRule.subnetMask);
+    }
+
     /**
      * Equivalent to {@link Integer#compare(int, int)}
      */
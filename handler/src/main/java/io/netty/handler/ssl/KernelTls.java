@@ -0,0 +1,157 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.handler.ssl;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelException;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.unix.RawUnixChannelOption;
+import io.netty.channel.unix.UnixChannel;
+import io.netty.util.CharsetUtil;
+import io.netty.util.internal.PlatformDependent;
+import io.netty.util.internal.logging.InternalLogger;
+import io.netty.util.internal.logging.InternalLoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Hands the record layer of an established TLS 1.2 connection over to the linux kernel
+ * (<a href="https://www.kernel.org/doc/html/latest/networking/tls.html">kTLS</a>), so the kernel encrypts everything
+ * that is written to and decrypts everything that is read from the socket.
+ * <p>
+ * Only the AES-GCM cipher suites are supported. The keys are derived from the master secret as described in
+ * <a href="https://tools.ietf.org/html/rfc5246#section-6.3">rfc5246</a>.
+ */
+final class KernelTls {
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(KernelTls.class);
+
+    // See linux/tcp.h and linux/tls.h
+    private static final int SOL_TCP = 6;
+    private static final int TCP_ULP = 31;
+    private static final int SOL_TLS = 282;
+    private static final int TLS_TX = 1;
+    private static final int TLS_RX = 2;
+    private static final short TLS_1_2_VERSION = 0x0303;
+    private static final short TLS_CIPHER_AES_GCM_128 = 51;
+    private static final short TLS_CIPHER_AES_GCM_256 = 52;
+
+    private static final int SALT_LENGTH = 4;
+    private static final int IV_LENGTH = 8;
+    private static final int REC_SEQ_LENGTH = 8;
+    // The Finished message was the first record that used the negotiated keys.
+    private static final long FIRST_REC_SEQ = 1;
+
+    private static final byte[] KEY_EXPANSION = "key expansion".getBytes(CharsetUtil.US_ASCII);
+    private static final RawUnixChannelOption ULP = new RawUnixChannelOption("TCP_ULP", SOL_TCP, TCP_ULP, 4);
+
+    private KernelTls() { }
+
+    /**
+     * Returns {@code true} if kernel TLS may be used for the given {@link Channel}, protocol and cipher suite.
+     */
+    static boolean isSupported(Channel channel, String protocol, String cipherSuite) {
+        return channel instanceof UnixChannel && channel instanceof SocketChannel &&
+                "linux".equals(PlatformDependent.normalizedOs()) &&
+                SslProtocols.TLS_v1_2.equals(protocol) && keyLength(cipherSuite) > 0;
+    }
+
+    /**
+     * Installs the keys of the current session of the {@link ReferenceCountedOpenSslEngine} on the socket of the
+     * {@link Channel}.
+     *
+     * @return {@code true} if the kernel took over, {@code false} if nothing was changed and the user space record
+     *         layer needs to be used.
+     * @throws ChannelException if only the receiving side could be handed over, in which case the connection can
+     *         not be used anymore.
+     */
+    static boolean enable(Channel channel, ReferenceCountedOpenSslEngine engine) {
+        String cipherSuite = engine.getSession().getCipherSuite();
+        byte[][] secrets = engine.kernelTlsSecrets();
+        if (secrets == null) {
+            // The engine still buffers bytes that were not seen by the kernel.
+            return false;
+        }
+        ByteBuffer[] cryptoInfos = cryptoInfos(cipherSuite, engine.getUseClientMode(),
+                secrets[0], secrets[1], secrets[2]);
+        ByteBuffer tx = cryptoInfos[0];
+        ByteBuffer rx = cryptoInfos[1];
+        RawUnixChannelOption txOption = new RawUnixChannelOption("TLS_TX", SOL_TLS, TLS_TX, tx.remaining());
+        RawUnixChannelOption rxOption = new RawUnixChannelOption("TLS_RX", SOL_TLS, TLS_RX, rx.remaining());
+        try {
+            if (!channel.config().setOption(ULP, ByteBuffer.wrap(new byte[] { 't', 'l', 's', 0 }))) {
+                return false;
+            }
+            // Receiving was added after sending to the kernel, so try it first: if it is not supported nothing was
+            // changed yet.
+            channel.config().setOption(rxOption, rx);
+        } catch (ChannelException e) {
+            logger.debug("{} Kernel TLS is not supported", channel, e);
+            return false;
+        }
+        // From here on the kernel decrypts, there is no way back.
+        channel.config().setOption(txOption, tx);
+        return true;
+    }
+
+    /**
+     * Returns the {@code tls12_crypto_info_aes_gcm_*} structs for sending ({@code [0]}) and receiving ({@code [1]}).
+     */
+    static ByteBuffer[] cryptoInfos(String cipherSuite, boolean client, byte[] masterKey, byte[] clientRandom,
+                                    byte[] serverRandom) {
+        int keyLength = keyLength(cipherSuite);
+        if (keyLength <= 0) {
+            throw new IllegalArgumentException("Unsupported cipher suite: " + cipherSuite);
+        }
+        byte[] seed = new byte[serverRandom.length + clientRandom.length];
+        System.arraycopy(serverRandom, 0, seed, 0, serverRandom.length);
+        System.arraycopy(clientRandom, 0, seed, serverRandom.length, clientRandom.length);
+        // client_write_key, server_write_key, client_write_IV, server_write_IV. AEAD ciphers use no MAC keys.
+        byte[] keyBlock = PseudoRandomFunction.hash(masterKey, KEY_EXPANSION, seed, 2 * (keyLength + SALT_LENGTH),
+                keyLength == 16 ? "HmacSHA256" : "HmacSHA384");
+        ByteBuffer clientInfo = cryptoInfo(keyLength, keyBlock, 0, 2 * keyLength);
+        ByteBuffer serverInfo = cryptoInfo(keyLength, keyBlock, keyLength, 2 * keyLength + SALT_LENGTH);
+        return client ? new ByteBuffer[] { clientInfo, serverInfo } : new ByteBuffer[] { serverInfo, clientInfo };
+    }
+
+    private static ByteBuffer cryptoInfo(int keyLength, byte[] keyBlock, int keyOffset, int saltOffset) {
+        ByteBuffer info = ByteBuffer.allocate(4 + IV_LENGTH + keyLength + SALT_LENGTH + REC_SEQ_LENGTH)
+                .order(ByteOrder.nativeOrder());
+        info.putShort(TLS_1_2_VERSION);
+        info.putShort(keyLength == 16 ? TLS_CIPHER_AES_GCM_128 : TLS_CIPHER_AES_GCM_256);
+        // The explicit nonce only needs to be unique, so just use the sequence number like OpenSSL does.
+        info.order(ByteOrder.BIG_ENDIAN);
+        info.putLong(FIRST_REC_SEQ);
+        info.put(keyBlock, keyOffset, keyLength);
+        info.put(keyBlock, saltOffset, SALT_LENGTH);
+        info.putLong(FIRST_REC_SEQ);
+        info.flip();
+        return info;
+    }
+
+    private static int keyLength(String cipherSuite) {
+        if (cipherSuite == null) {
+            return -1;
+        }
+        if (cipherSuite.endsWith("_WITH_AES_128_GCM_SHA256")) {
+            return 16;
+        }
+        if (cipherSuite.endsWith("_WITH_AES_256_GCM_SHA384")) {
+            return 32;
+        }
+        return -1;
+    }
+}
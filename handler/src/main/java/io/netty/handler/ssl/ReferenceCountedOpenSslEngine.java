@@ -434,6 +434,17 @@ public class ReferenceCountedOpenSslEngine extends SSLEngine implements Referenc
         return new SecretKeySpec(SSL.getMasterKey(ssl), "AES");
     }
 
+    /**
+     * Returns the master key, the client random and the server random of the current session or {@code null} if the
+     * engine was destroyed or still buffers data that was not yet consumed, see {@link KernelTls}.
+     */
+    final synchronized byte[][] kernelTlsSecrets() {
+        if (isDestroyed() || SSL.bioLengthNonApplication(networkBIO) > 0 || SSL.sslPending(ssl) > 0) {
+            return null;
+        }
+        return new byte[][] { SSL.getMasterKey(ssl), SSL.getClientRandom(ssl), SSL.getServerRandom(ssl) };
+    }
+
     synchronized boolean isSessionReused() {
         if (isDestroyed()) {
             return false;
@@ -192,6 +192,11 @@ public class SslHandler extends ByteToMessageDecoder implements ChannelOutboundH
      */
     private static final int STATE_FIRE_CHANNEL_READ = 1 << 8;
     private static final int STATE_UNWRAP_REENTRY = 1 << 9;
+    /**
+     * Set once the record layer was handed over to the kernel, see {@link #setKernelTlsOffload(boolean)}. From then
+     * on everything is passed through as is.
+     */
+    private static final int STATE_KERNEL_TLS = 1 << 10;
 
     /**
      * <a href="https://tools.ietf.org/html/rfc5246#section-6.2">2^14</a> which is the maximum sized plaintext chunk
@@ -407,6 +412,7 @@ public class SslHandler extends ByteToMessageDecoder implements ChannelOutboundH
     private volatile long closeNotifyFlushTimeoutMillis = 3000;
     private volatile long closeNotifyReadTimeoutMillis;
     volatile int wrapDataSize = MAX_PLAINTEXT_LENGTH;
+    private volatile boolean kernelTlsOffload;
 
     /**
      * Creates a new instance which runs all delegated tasks directly on the {@link EventExecutor}.
@@ -495,6 +501,53 @@ public class SslHandler extends ByteToMessageDecoder implements ChannelOutboundH
         this.wrapDataSize = wrapDataSize;
     }
 
+    /**
+     * Sets if the record layer should be handed over to the linux kernel
+     * (<a href="https://www.kernel.org/doc/html/latest/networking/tls.html">kTLS</a>) once the handshake completed.
+     * The kernel then encrypts and decrypts all data, which allows to write a {@link io.netty.channel.FileRegion}
+     * with {@code sendfile(2)} and saves copying every record through user space.
+     * <p>
+     * This is only done if all of the following is true, otherwise the connection silently stays in user space:
+     * <ul>
+     *   <li>The {@link SSLEngine} is provided by {@link SslProvider#OPENSSL} or {@link SslProvider#OPENSSL_REFCNT}.
+     *   </li>
+     *   <li>The {@link Channel} is a TCP {@link UnixChannel} on linux (e.g. the epoll transport) and the kernel has
+     *   the {@code tls} module loaded.</li>
+     *   <li>{@code TLSv1.2} was negotiated with an {@code AES_128_GCM_SHA256} or {@code AES_256_GCM_SHA384} cipher
+     *   suite. {@code TLSv1.3} is not supported as its traffic secrets are not exposed by OpenSSL.</li>
+     *   <li>This handler is the first one in the {@link ChannelPipeline} and no data was received or written
+     *   after the handshake messages when it completes.</li>
+     * </ul>
+     * Once the kernel took over, this handler passes through everything as is. The kernel does not send or process
+     * any control messages: no close_notify is sent, {@link #sslCloseFuture()} is not notified with success and
+     * renegotiation is not possible. The epoll transport handles a received close_notify like the end of the stream,
+     * so it shuts down the input, while any other alert fails the read.
+     * <p>
+     * This must be set before the handshake completes.
+     */
+    @UnstableApi
+    public void setKernelTlsOffload(boolean kernelTlsOffload) {
+        this.kernelTlsOffload = kernelTlsOffload;
+    }
+
+    /**
+     * Returns {@code true} if the record layer should be handed over to the kernel once the handshake completed.
+     * See {@link #setKernelTlsOffload(boolean)}.
+     */
+    @UnstableApi
+    public boolean isKernelTlsOffload() {
+        return kernelTlsOffload;
+    }
+
+    /**
+     * Returns {@code true} if the record layer was handed over to the kernel.
+     * See {@link #setKernelTlsOffload(boolean)}.
+     */
+    @UnstableApi
+    public boolean isKernelTlsActive() {
+        return isStateSet(STATE_KERNEL_TLS);
+    }
+
     /**
      * @deprecated use {@link #getCloseNotifyFlushTimeoutMillis()}
      */
@@ -747,7 +800,10 @@ public class SslHandler extends ByteToMessageDecoder implements ChannelOutboundH
 
     @Override
     public void write(final ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
-        if (!(msg instanceof ByteBuf)) {
+        if (isStateSet(STATE_KERNEL_TLS)) {
+            // The kernel encrypts, which also works for FileRegions.
+            ctx.write(msg, promise);
+        } else if (!(msg instanceof ByteBuf)) {
             UnsupportedMessageTypeException exception = new UnsupportedMessageTypeException(msg, ByteBuf.class);
             ReferenceCountUtil.safeRelease(msg);
             promise.setFailure(exception);
@@ -761,6 +817,10 @@ public class SslHandler extends ByteToMessageDecoder implements ChannelOutboundH
 
     @Override
     public void flush(ChannelHandlerContext ctx) throws Exception {
+        if (isStateSet(STATE_KERNEL_TLS)) {
+            ctx.flush();
+            return;
+        }
         // Do not encrypt the first write request if this handler is
         // created with startTLS flag turned on.
         if (startTls && !isStateSet(STATE_SENT_FIRST_MESSAGE)) {
@@ -814,6 +874,10 @@ public class SslHandler extends ByteToMessageDecoder implements ChannelOutboundH
             // Only continue to loop if the handler was not removed in the meantime.
             // See https://github.com/netty/netty/issues/5860
             outer: while (!ctx.isRemoved()) {
+                if (pendingUnencryptedWrites.isEmpty()) {
+                    // Nothing left to wrap, don't allocate a promise that would never be used.
+                    break;
+                }
                 ChannelPromise promise = ctx.newPromise();
                 ByteBuf buf = wrapDataSize > 0 ?
                         pendingUnencryptedWrites.remove(alloc, wrapDataSize, promise) :
@@ -1293,6 +1357,11 @@ public class SslHandler extends ByteToMessageDecoder implements ChannelOutboundH
         if (isStateSet(STATE_PROCESS_TASK)) {
             return;
         }
+        if (isStateSet(STATE_KERNEL_TLS)) {
+            // The kernel already decrypted it.
+            out.add(in.readRetainedSlice(in.readableBytes()));
+            return;
+        }
         if (jdkCompatibilityMode) {
             decodeJdkCompatible(ctx, in);
         } else {
@@ -1837,6 +1906,10 @@ public class SslHandler extends ByteToMessageDecoder implements ChannelOutboundH
         // Our control flow may invoke this method multiple times for a single FINISHED event. For example
         // wrapNonAppData may drain pendingUnencryptedWrites in wrap which transitions to handshake from FINISHED to
         // NOT_HANDSHAKING which invokes setHandshakeSuccess, and then wrapNonAppData also directly invokes this method.
+        if (kernelTlsOffload && !handshakePromise.isDone()) {
+            // Needs to be done before anyone is notified, as they may write.
+            offloadToKernel();
+        }
         final boolean notified;
         if (notified = !handshakePromise.isDone() && handshakePromise.trySuccess(ctx.channel())) {
             if (logger.isDebugEnabled()) {
@@ -1858,6 +1931,36 @@ public class SslHandler extends ByteToMessageDecoder implements ChannelOutboundH
         return notified;
     }
 
+    private void offloadToKernel() {
+        SSLSession session = engine.getSession();
+        // We can only hand over if all bytes that were received after the handshake are still in the socket, and the
+        // decrypted data of a record that was unwrapped together with the handshake is not fired yet.
+        if (!(engine instanceof ReferenceCountedOpenSslEngine) || isStateSet(STATE_UNWRAP_REENTRY) ||
+                !KernelTls.isSupported(ctx.channel(), session.getProtocol(), session.getCipherSuite()) ||
+                ctx.pipeline().firstContext() != ctx || !pendingUnencryptedWrites.isEmpty() ||
+                internalBuffer().isReadable()) {
+            return;
+        }
+        // The handshake messages must have left the Channel before the kernel encrypts what is written.
+        ctx.flush();
+        ChannelOutboundBuffer outboundBuffer = ctx.channel().unsafe().outboundBuffer();
+        if (outboundBuffer == null || !outboundBuffer.isEmpty()) {
+            return;
+        }
+        try {
+            if (KernelTls.enable(ctx.channel(), (ReferenceCountedOpenSslEngine) engine)) {
+                setState(STATE_KERNEL_TLS);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("{} Handed the record layer over to the kernel", ctx.channel());
+                }
+            }
+        } catch (ChannelException e) {
+            // The kernel decrypts what is received but we can not encrypt anymore.
+            logger.warn("{} Failed to hand the record layer over to the kernel, closing the channel", ctx.channel(), e);
+            ctx.close();
+        }
+    }
+
     /**
      * Notify all the handshake futures about the failure during the handshake.
      */
@@ -1936,6 +2039,15 @@ public class SslHandler extends ByteToMessageDecoder implements ChannelOutboundH
 
     private void closeOutboundAndChannel(
             final ChannelHandlerContext ctx, final ChannelPromise promise, boolean disconnect) throws Exception {
+        if (isStateSet(STATE_KERNEL_TLS)) {
+            // The kernel does not send a close_notify.
+            if (disconnect) {
+                ctx.disconnect(promise);
+            } else {
+                ctx.close(promise);
+            }
+            return;
+        }
         setState(STATE_OUTBOUND_CLOSED);
         engine.closeOutbound();
 
@@ -2063,7 +2175,9 @@ public class SslHandler extends ByteToMessageDecoder implements ChannelOutboundH
 
     private void renegotiateOnEventLoop(final Promise<Channel> newHandshakePromise) {
         final Promise<Channel> oldHandshakePromise = handshakePromise;
-        if (!oldHandshakePromise.isDone()) {
+        if (isStateSet(STATE_KERNEL_TLS)) {
+            newHandshakePromise.tryFailure(new SSLException("renegotiation not supported with kernel TLS"));
+        } else if (!oldHandshakePromise.isDone()) {
             // There's no need to handshake because handshake is in progress already.
             // Merge the new promise into the old one.
             PromiseNotifier.cascade(oldHandshakePromise, newHandshakePromise);
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.handler.ssl;
+
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import io.netty.util.CharsetUtil;
+import io.netty.util.ReferenceCountUtil;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class KernelTlsTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = { "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256", "TLS_ECDHE_RSA_WITH_AES_256_GCM_SHA384" })
+    public void testCryptoInfosDecryptRecords(String cipherSuite) throws Exception {
+        assumeTrue(OpenSsl.isAvailable(), "OpenSSL is not available");
+        assumeTrue(OpenSsl.isCipherSuiteAvailable(cipherSuite));
+        SelfSignedCertificate cert = new SelfSignedCertificate();
+        SslContext serverCtx = SslContextBuilder.forServer(cert.certificate(), cert.privateKey())
+                .sslProvider(SslProvider.OPENSSL_REFCNT)
+                .protocols(SslProtocols.TLS_v1_2)
+                .ciphers(Collections.singletonList(cipherSuite))
+                .build();
+        SslContext clientCtx = SslContextBuilder.forClient()
+                .trustManager(InsecureTrustManagerFactory.INSTANCE)
+                .sslProvider(SslProvider.OPENSSL_REFCNT)
+                .protocols(SslProtocols.TLS_v1_2)
+                .ciphers(Collections.singletonList(cipherSuite))
+                .build();
+        ReferenceCountedOpenSslEngine client = (ReferenceCountedOpenSslEngine)
+                clientCtx.newEngine(UnpooledByteBufAllocator.DEFAULT);
+        ReferenceCountedOpenSslEngine server = (ReferenceCountedOpenSslEngine)
+                serverCtx.newEngine(UnpooledByteBufAllocator.DEFAULT);
+        try {
+            handshake(client, server);
+            assertEquals(cipherSuite, client.getSession().getCipherSuite());
+
+            ByteBuffer[] clientInfos = cryptoInfos(client, cipherSuite);
+            ByteBuffer[] serverInfos = cryptoInfos(server, cipherSuite);
+            // What one side sends the other one receives.
+            assertEquals(clientInfos[0], serverInfos[1]);
+            assertEquals(clientInfos[1], serverInfos[0]);
+
+            assertDecrypts(client, clientInfos[0], "client");
+            assertDecrypts(server, serverInfos[0], "server");
+        } finally {
+            ReferenceCountUtil.release(client);
+            ReferenceCountUtil.release(server);
+            ReferenceCountUtil.release(clientCtx);
+            ReferenceCountUtil.release(serverCtx);
+            cert.delete();
+        }
+    }
+
+    private static ByteBuffer[] cryptoInfos(ReferenceCountedOpenSslEngine engine, String cipherSuite) {
+        byte[][] secrets = engine.kernelTlsSecrets();
+        assertNotNull(secrets);
+        return KernelTls.cryptoInfos(cipherSuite, engine.getUseClientMode(), secrets[0], secrets[1], secrets[2]);
+    }
+
+    private static void assertDecrypts(SSLEngine engine, ByteBuffer cryptoInfo, String message) throws Exception {
+        byte[] plaintext = message.getBytes(CharsetUtil.US_ASCII);
+        ByteBuffer record = ByteBuffer.allocate(engine.getSession().getPacketBufferSize());
+        engine.wrap(ByteBuffer.wrap(plaintext), record);
+        record.flip();
+
+        ByteBuffer info = cryptoInfo.duplicate().order(ByteOrder.nativeOrder());
+        assertEquals(0x0303, info.getShort());
+        int keyLength = info.getShort() == 51 ? 16 : 32;
+        assertEquals(4 + 8 + keyLength + 4 + 8, cryptoInfo.remaining());
+        info.order(ByteOrder.BIG_ENDIAN);
+        info.getLong();
+        byte[] key = new byte[keyLength];
+        info.get(key);
+        byte[] salt = new byte[4];
+        info.get(salt);
+        long seq = info.getLong();
+        assertEquals(1, seq);
+
+        // The header of an application data record, followed by the explicit nonce.
+        assertEquals(23, record.get());
+        assertEquals(0x0303, record.getShort());
+        byte[] ciphertext = new byte[record.getShort() - 8];
+        byte[] nonce = new byte[12];
+        System.arraycopy(salt, 0, nonce, 0, 4);
+        record.get(nonce, 4, 8);
+        record.get(ciphertext);
+        assertTrue(!record.hasRemaining());
+
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key, "AES"), new GCMParameterSpec(128, nonce));
+        ByteBuffer aad = ByteBuffer.allocate(13);
+        aad.putLong(seq).put((byte) 23).putShort((short) 0x0303).putShort((short) plaintext.length);
+        cipher.updateAAD(aad.array());
+        assertArrayEquals(plaintext, cipher.doFinal(ciphertext));
+    }
+
+    private static void handshake(SSLEngine client, SSLEngine server) throws Exception {
+        ByteBuffer empty = ByteBuffer.allocate(0);
+        ByteBuffer clientToServer = ByteBuffer.allocate(client.getSession().getPacketBufferSize() * 4);
+        ByteBuffer serverToClient = ByteBuffer.allocate(server.getSession().getPacketBufferSize() * 4);
+        ByteBuffer app = ByteBuffer.allocate(client.getSession().getApplicationBufferSize());
+        client.beginHandshake();
+        server.beginHandshake();
+        for (int i = 0; i < 32 && (!isDone(client) || !isDone(server)); i++) {
+            client.wrap(empty, clientToServer);
+            server.wrap(empty, serverToClient);
+            runDelegatedTasks(client);
+            runDelegatedTasks(server);
+            clientToServer.flip();
+            serverToClient.flip();
+            client.unwrap(serverToClient, app);
+            server.unwrap(clientToServer, app);
+            runDelegatedTasks(client);
+            runDelegatedTasks(server);
+            clientToServer.compact();
+            serverToClient.compact();
+        }
+        assertTrue(isDone(client) && isDone(server));
+        assertEquals(0, clientToServer.position());
+        assertEquals(0, serverToClient.position());
+    }
+
+    private static boolean isDone(SSLEngine engine) {
+        return engine.getHandshakeStatus() == HandshakeStatus.NOT_HANDSHAKING;
+    }
+
+    private static void runDelegatedTasks(SSLEngine engine) {
+        Runnable task;
+        while ((task = engine.getDelegatedTask()) != null) {
+            task.run();
+        }
+    }
+}
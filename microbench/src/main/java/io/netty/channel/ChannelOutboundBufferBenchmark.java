@@ -0,0 +1,84 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.microbench.util.AbstractMicrobenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes many small messages, flushes them and then drains the {@link ChannelOutboundBuffer} with gathering writes,
+ * like a socket transport does.
+ */
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+public class ChannelOutboundBufferBenchmark extends AbstractMicrobenchmark {
+    // IOV_MAX on linux
+    private static final int MAX_GATHERED = 1024;
+
+    @Param({ "false", "true" })
+    public boolean arrayBacked;
+
+    @Param({ "16", "256", "4096" })
+    public int messages;
+
+    @Param({ "false", "true" })
+    public boolean voidPromise;
+
+    private EmbeddedChannel channel;
+    private ChannelOutboundBuffer buffer;
+    private ByteBuf payload;
+
+    @Setup
+    public void setup() {
+        channel = new EmbeddedChannel();
+        buffer = new ChannelOutboundBuffer(channel, arrayBacked);
+        payload = Unpooled.directBuffer(32).writeZero(32);
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+        payload.release();
+    }
+
+    @Benchmark
+    public long writeManyThenFlush() {
+        for (int i = 0; i < messages; i++) {
+            ChannelPromise promise = voidPromise ? channel.voidPromise() : channel.newPromise();
+            buffer.addMessage(payload.retainedDuplicate(), 32, promise);
+        }
+        buffer.addFlush();
+        long written = 0;
+        while (!buffer.isEmpty()) {
+            ByteBuffer[] nioBuffers = buffer.nioBuffers(MAX_GATHERED, Integer.MAX_VALUE);
+            long size = buffer.nioBufferSize();
+            written += size + nioBuffers.length;
+            buffer.removeBytes(size);
+        }
+        return written;
+    }
+}
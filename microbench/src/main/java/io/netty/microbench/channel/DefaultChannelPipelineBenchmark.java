@@ -45,6 +45,11 @@ public class DefaultChannelPipelineBenchmark extends AbstractMicrobenchmark {
     };
 
     private static final ChannelHandler CONSUMING_HANDLER = new ChannelInboundHandlerAdapter() {
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            // NOOP
+        }
+
         @Override
         public void channelReadComplete(ChannelHandlerContext ctx) {
             // NOOP
@@ -56,16 +61,37 @@ public class DefaultChannelPipelineBenchmark extends AbstractMicrobenchmark {
         }
     };
 
-    @Param({ "4" })
+    private static final ChannelHandler FORWARDING_HANDLER = new ChannelInboundHandlerAdapter() {
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ctx.fireChannelRead(msg);
+        }
+
+        @Override
+        public boolean isSharable() {
+            return true;
+        }
+    };
+
+    private static final Object MESSAGE = new Object();
+
+    @Param({ "0", "4", "16" })
     public int extraHandlers;
 
+    /**
+     * If {@code true} the extra handlers forward {@code channelRead} themselves, otherwise they do not handle it at
+     * all and are skipped by the pipeline.
+     */
+    @Param({ "false", "true" })
+    public boolean forwarding;
+
     private ChannelPipeline pipeline;
 
     @Setup(Level.Iteration)
     public void setup() {
         pipeline = new EmbeddedChannel().pipeline();
         for (int i = 0; i < extraHandlers; i++) {
-            pipeline.addLast(NOOP_HANDLER);
+            pipeline.addLast(forwarding ? FORWARDING_HANDLER : NOOP_HANDLER);
         }
         pipeline.addLast(CONSUMING_HANDLER);
     }
@@ -81,4 +107,11 @@ public class DefaultChannelPipelineBenchmark extends AbstractMicrobenchmark {
             hole.consume(pipeline.fireChannelReadComplete());
         }
     }
+
+    @Benchmark
+    public void propagateChannelRead(Blackhole hole) {
+        for (int i = 0; i < 100; i++) {
+            hole.consume(pipeline.fireChannelRead(MESSAGE));
+        }
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbench.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollExclusiveAcceptors;
+import io.netty.channel.epoll.EpollReusePortAcceptors;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.microbench.util.AbstractMicrobenchmark;
+import io.netty.util.NetUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the connections per second that are accepted while many clients connect over loopback at once, with a
+ * single listener, one {@code SO_REUSEPORT} listener per {@link io.netty.channel.EventLoop} and one listening socket
+ * that is shared by all {@link io.netty.channel.EventLoop}s with {@code EPOLLEXCLUSIVE}.
+ */
+public class EpollAcceptStormBenchmark extends AbstractMicrobenchmark {
+    private static final int CONNECTIONS = 64;
+
+    @Param({ "single", "reuseport", "exclusive" })
+    public String acceptors;
+
+    @Param({ "1", "4" })
+    public int loops;
+
+    private EpollEventLoopGroup serverGroup;
+    private EpollEventLoopGroup clientGroup;
+    private List<Channel> listeners;
+    private SocketAddress address;
+    private Bootstrap clientBootstrap;
+    private final Semaphore accepted = new Semaphore(0);
+    private final ChannelFuture[] connects = new ChannelFuture[CONNECTIONS];
+
+    @Setup
+    public void setup() throws Exception {
+        serverGroup = new EpollEventLoopGroup(loops);
+        clientGroup = new EpollEventLoopGroup(loops);
+        ServerBootstrap sb = new ServerBootstrap()
+                .option(ChannelOption.SO_BACKLOG, 4 * CONNECTIONS)
+                .childHandler(new AcceptHandler(accepted));
+        InetSocketAddress localAddress = new InetSocketAddress(NetUtil.LOCALHOST, 0);
+        if ("reuseport".equals(acceptors)) {
+            listeners = EpollReusePortAcceptors.bind(sb, serverGroup, localAddress).sync().getNow();
+        } else if ("exclusive".equals(acceptors)) {
+            listeners = EpollExclusiveAcceptors.bind(sb, serverGroup, localAddress).sync().getNow();
+        } else {
+            listeners = Collections.singletonList(sb.group(serverGroup.next(), serverGroup)
+                    .channel(EpollServerSocketChannel.class).bind(localAddress).sync().channel());
+        }
+        address = listeners.get(0).localAddress();
+        clientBootstrap = new Bootstrap()
+                .group(clientGroup)
+                .channel(EpollSocketChannel.class)
+                // Reset the connections on close so the storm does not run out of ephemeral ports.
+                .option(ChannelOption.SO_LINGER, 0)
+                .handler(new NoopHandler());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        for (Channel listener : listeners) {
+            listener.close().sync();
+        }
+        clientGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync();
+        serverGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONNECTIONS)
+    public void connectStorm() throws Exception {
+        for (int i = 0; i < CONNECTIONS; i++) {
+            connects[i] = clientBootstrap.connect(address);
+        }
+        accepted.acquire(CONNECTIONS);
+        for (int i = 0; i < CONNECTIONS; i++) {
+            connects[i].sync().channel().close();
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private static final class AcceptHandler extends ChannelInboundHandlerAdapter {
+        private final Semaphore accepted;
+
+        AcceptHandler(Semaphore accepted) {
+            this.accepted = accepted;
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            accepted.release();
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            // The clients reset their connections.
+            ctx.close();
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private static final class NoopHandler extends ChannelInboundHandlerAdapter {
+    }
+}
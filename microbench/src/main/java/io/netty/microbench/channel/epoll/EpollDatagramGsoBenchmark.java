@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbench.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.socket.DatagramPacket;
+import io.netty.microbench.util.AbstractMicrobenchmark;
+import io.netty.util.NetUtil;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the datagrams per second that are sent over loopback, with and without merging them into
+ * {@code UDP_SEGMENT} sends.
+ */
+public class EpollDatagramGsoBenchmark extends AbstractMicrobenchmark {
+    private static final int DATAGRAMS_PER_FLUSH = 32;
+
+    @Param({ "false", "true" })
+    public boolean coalescing;
+
+    @Param({ "128", "1200" })
+    public int size;
+
+    private EpollEventLoopGroup group;
+    private Channel receiver;
+    private Channel sender;
+    private InetSocketAddress recipient;
+    private ByteBuf payload;
+
+    @Setup
+    public void setup() throws Exception {
+        group = new EpollEventLoopGroup(2);
+        receiver = new Bootstrap()
+                .channel(EpollDatagramChannel.class)
+                .group(group)
+                .option(ChannelOption.SO_RCVBUF, 4 * 1024 * 1024)
+                .handler(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        ReferenceCountUtil.release(msg);
+                    }
+                })
+                .bind(NetUtil.LOCALHOST, 0)
+                .sync()
+                .channel();
+        recipient = (InetSocketAddress) receiver.localAddress();
+        sender = new Bootstrap()
+                .channel(EpollDatagramChannel.class)
+                .group(group)
+                .option(EpollChannelOption.UDP_GSO_COALESCING, coalescing)
+                .handler(new ChannelInboundHandlerAdapter())
+                .bind(NetUtil.LOCALHOST, 0)
+                .sync()
+                .channel();
+        payload = sender.alloc().directBuffer(size).writeZero(size);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        sender.close().sync();
+        receiver.close().sync();
+        group.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync();
+        payload.release();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DATAGRAMS_PER_FLUSH)
+    public Object send() throws Exception {
+        for (int i = 1; i < DATAGRAMS_PER_FLUSH; i++) {
+            sender.write(new DatagramPacket(payload.retainedDuplicate(), recipient), sender.voidPromise());
+        }
+        return sender.writeAndFlush(new DatagramPacket(payload.retainedDuplicate(), recipient)).sync();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbench.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoop;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.microbench.util.AbstractMicrobenchmark;
+import io.netty.util.NetUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a proxy whose outbound writability flaps, so it stops and restarts reading from its inbound channels
+ * many times within one iteration of the {@link EventLoop}. Every change of auto read changes the {@code EPOLLIN}
+ * interest of a channel.
+ */
+public class EpollInterestFlappingBenchmark extends AbstractMicrobenchmark {
+    private static final int FLAPS = 64;
+
+    @Param({ "1", "16" })
+    public int channels;
+
+    private EpollEventLoopGroup group;
+    private Channel serverChannel;
+    private final List<Channel> clientChannels = new ArrayList<Channel>();
+    private EventLoop loop;
+    private Callable<Object> flap;
+
+    @Setup
+    public void setup() throws Exception {
+        group = new EpollEventLoopGroup(1);
+        loop = group.next();
+        ChannelHandler handler = new NoopHandler();
+        serverChannel = new ServerBootstrap().group(group).channel(EpollServerSocketChannel.class)
+                .childHandler(handler).bind(NetUtil.LOCALHOST, 0).sync().channel();
+        Bootstrap cb = new Bootstrap().group(group).channel(EpollSocketChannel.class).handler(handler);
+        for (int i = 0; i < channels; i++) {
+            clientChannels.add(cb.connect(serverChannel.localAddress()).sync().channel());
+        }
+        flap = new Callable<Object>() {
+            @Override
+            public Object call() {
+                for (int i = 0; i < FLAPS; i++) {
+                    // Writability changed to false and back to true.
+                    for (Channel channel : clientChannels) {
+                        channel.config().setAutoRead(false);
+                    }
+                    for (Channel channel : clientChannels) {
+                        channel.config().setAutoRead(true);
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        for (Channel channel : clientChannels) {
+            channel.close().sync();
+        }
+        clientChannels.clear();
+        serverChannel.close().sync();
+        group.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FLAPS)
+    public Object flap() throws Exception {
+        return loop.submit(flap).sync();
+    }
+
+    @ChannelHandler.Sharable
+    private static final class NoopHandler extends ChannelInboundHandlerAdapter {
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbench.channel.local;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.microbench.util.AbstractMicrobenchmark;
+import io.netty.util.concurrent.Promise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures request/response round trips over a {@link LocalChannel}, with both ends on the same or on different
+ * event loops.
+ */
+public class LocalChannelBenchmark extends AbstractMicrobenchmark {
+    private static final Object REQUEST = new Object();
+    private static final Object RESPONSE = new Object();
+
+    @Param({ "true", "false" })
+    public boolean sameEventLoop;
+
+    /**
+     * The number of requests that are written before waiting for all of their responses.
+     */
+    @Param({ "1", "16" })
+    public int requests;
+
+    private EventLoopGroup serverGroup;
+    private EventLoopGroup clientGroup;
+    private Channel serverChannel;
+    private Channel channel;
+    private ResponseHandler responseHandler;
+    private Runnable writeRequests;
+
+    @Setup
+    public void setup() throws Exception {
+        serverGroup = new DefaultEventLoopGroup(1);
+        clientGroup = sameEventLoop ? serverGroup : new DefaultEventLoopGroup(1);
+        LocalAddress address = new LocalAddress(LocalChannelBenchmark.class);
+        serverChannel = new ServerBootstrap()
+                .channel(LocalServerChannel.class)
+                .group(serverGroup)
+                .childHandler(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        ctx.write(RESPONSE, ctx.voidPromise());
+                    }
+
+                    @Override
+                    public void channelReadComplete(ChannelHandlerContext ctx) {
+                        ctx.flush();
+                    }
+                })
+                .bind(address)
+                .sync()
+                .channel();
+        responseHandler = new ResponseHandler();
+        channel = new Bootstrap()
+                .channel(LocalChannel.class)
+                .group(clientGroup)
+                .handler(responseHandler)
+                .connect(address)
+                .sync()
+                .channel();
+        // Write from the event loop, so only the transport is measured and not how requests get there.
+        writeRequests = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 1; i < requests; i++) {
+                    channel.write(REQUEST, channel.voidPromise());
+                }
+                channel.writeAndFlush(REQUEST, channel.voidPromise());
+            }
+        };
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        channel.close().sync();
+        serverChannel.close().sync();
+        if (clientGroup != serverGroup) {
+            clientGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync();
+        }
+        serverGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync();
+    }
+
+    @Benchmark
+    public Object requestResponse() throws Exception {
+        Promise<Void> promise = channel.eventLoop().newPromise();
+        responseHandler.expect(requests, promise);
+        channel.eventLoop().execute(writeRequests);
+        return promise.sync();
+    }
+
+    private static final class ResponseHandler extends ChannelInboundHandlerAdapter {
+        private volatile Promise<Void> promise;
+        private int remaining;
+
+        void expect(int responses, Promise<Void> promise) {
+            remaining = responses;
+            this.promise = promise;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            if (--remaining == 0) {
+                promise.setSuccess(null);
+            }
+        }
+    }
+}
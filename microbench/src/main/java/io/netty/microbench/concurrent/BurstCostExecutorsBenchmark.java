@@ -21,6 +21,7 @@ import io.netty.channel.kqueue.KQueueEventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.microbench.util.AbstractMicrobenchmark;
 import io.netty.util.concurrent.DefaultEventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
 import io.netty.util.internal.PlatformDependent;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -35,6 +36,7 @@ import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.infra.Blackhole;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.Callable;
@@ -180,6 +182,12 @@ public class BurstCostExecutorsBenchmark extends AbstractMicrobenchmark {
     private String executorType;
     @Param({ "0", "10" })
     private int work;
+    /**
+     * When {@code true} a burst is submitted via {@link SingleThreadEventExecutor#executeBatch(Collection)} if the
+     * executor supports it, otherwise every task of the burst is submitted on its own.
+     */
+    @Param({ "false", "true" })
+    private boolean batch;
 
     private ExecutorService executor;
     private ExecutorService executorToShutdown;
@@ -243,6 +251,7 @@ public class BurstCostExecutorsBenchmark extends AbstractMicrobenchmark {
         private volatile int completed;
 
         private Runnable completeTask;
+        private List<Runnable> burst;
 
         @Setup
         public void setup(BurstCostExecutorsBenchmark bench) {
@@ -271,6 +280,7 @@ public class BurstCostExecutorsBenchmark extends AbstractMicrobenchmark {
                     }
                 };
             }
+            burst = Collections.nCopies(bench.burstLength, completeTask);
         }
 
         /**
@@ -320,9 +330,13 @@ public class BurstCostExecutorsBenchmark extends AbstractMicrobenchmark {
     private int executeBurst(final PerThreadState state) {
         final ExecutorService executor = this.executor;
         final int burstLength = this.burstLength;
-        final Runnable completeTask = state.completeTask;
-        for (int i = 0; i < burstLength; i++) {
-            executor.execute(completeTask);
+        if (batch && executor instanceof SingleThreadEventExecutor) {
+            ((SingleThreadEventExecutor) executor).executeBatch(state.burst);
+        } else {
+            final Runnable completeTask = state.completeTask;
+            for (int i = 0; i < burstLength; i++) {
+                executor.execute(completeTask);
+            }
         }
         final int value = state.spinWaitCompletionOf(burstLength);
         state.resetCompleted();
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbench.concurrent;
+
+import io.netty.microbench.util.AbstractMicrobenchmark;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.NonStickyEventExecutorGroup;
+import io.netty.util.concurrent.UnorderedThreadPoolEventExecutor;
+import io.netty.util.concurrent.WorkStealingEventExecutorGroup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simulates handlers offloaded to an {@link EventExecutorGroup} where one channel is much more expensive to serve
+ * than all the others. Each operation submits a burst of tasks to every light channel's executor and waits until
+ * they have been executed, while the heavy channel is kept busy in the background.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SkewedWorkloadExecutorGroupBenchmark extends AbstractMicrobenchmark {
+
+    public enum GroupType {
+        defaultEventExecutorGroup,
+        nonStickyEventExecutorGroup,
+        workStealingEventExecutorGroup
+    }
+
+    @Param
+    public GroupType groupType;
+
+    @Param({ "4" })
+    public int threads;
+
+    @Param({ "16" })
+    public int channels;
+
+    @Param({ "16" })
+    public int tasksPerChannel;
+
+    @Param({ "100" })
+    public int lightWork;
+
+    @Param({ "10000" })
+    public int heavyWork;
+
+    private EventExecutorGroup group;
+    private EventExecutor[] executors;
+    private final AtomicInteger heavyTasksPending = new AtomicInteger();
+    private Runnable heavyTask;
+
+    @Setup
+    public void setup() {
+        switch (groupType) {
+            case defaultEventExecutorGroup:
+                group = new DefaultEventExecutorGroup(threads);
+                break;
+            case nonStickyEventExecutorGroup:
+                group = new NonStickyEventExecutorGroup(new UnorderedThreadPoolEventExecutor(threads));
+                break;
+            case workStealingEventExecutorGroup:
+                group = new WorkStealingEventExecutorGroup(threads);
+                break;
+            default:
+                throw new Error();
+        }
+        executors = new EventExecutor[channels];
+        for (int i = 0; i < channels; i++) {
+            executors[i] = group.next();
+        }
+        heavyTask = new Runnable() {
+            @Override
+            public void run() {
+                Blackhole.consumeCPU(heavyWork);
+                heavyTasksPending.decrementAndGet();
+            }
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        group.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS).syncUninterruptibly();
+    }
+
+    @Benchmark
+    public void skewedBurst() throws InterruptedException {
+        // The first channel is the heavy one, only submit a new burst to it once the previous one is done.
+        if (heavyTasksPending.get() == 0) {
+            heavyTasksPending.set(tasksPerChannel);
+            for (int j = 0; j < tasksPerChannel; j++) {
+                executors[0].execute(heavyTask);
+            }
+        }
+        final CountDownLatch latch = new CountDownLatch((channels - 1) * tasksPerChannel);
+        Runnable lightTask = new Runnable() {
+            @Override
+            public void run() {
+                Blackhole.consumeCPU(lightWork);
+                latch.countDown();
+            }
+        };
+        for (int i = 1; i < channels; i++) {
+            EventExecutor executor = executors[i];
+            for (int j = 0; j < tasksPerChannel; j++) {
+                executor.execute(lightTask);
+            }
+        }
+        latch.await();
+    }
+}
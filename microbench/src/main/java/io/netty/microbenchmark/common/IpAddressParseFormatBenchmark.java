@@ -0,0 +1,75 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbenchmark.common;
+
+import io.netty.microbench.util.AbstractMicrobenchmark;
+import io.netty.util.NetUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the allocating IP address parse/format methods of {@link NetUtil} with the variants that write into a
+ * caller-provided buffer. Run it with {@code -prof gc} to see the allocation rate per operation.
+ */
+@State(Scope.Thread)
+@Threads(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IpAddressParseFormatBenchmark extends AbstractMicrobenchmark {
+
+    @Param({ "127.0.0.1", "255.255.255.255", "2001:db8:85a3::8a2e:370:7334", "::ffff:192.168.0.1" })
+    private String ip;
+
+    private final byte[] bytes = new byte[16];
+    private final StringBuilder sb = new StringBuilder(39);
+    private byte[] address;
+
+    @Setup
+    public void setup() {
+        address = NetUtil.createByteArrayFromIpAddressString(ip);
+    }
+
+    @Benchmark
+    public byte[] parseAllocating() {
+        return NetUtil.createByteArrayFromIpAddressString(ip);
+    }
+
+    @Benchmark
+    public int parseIntoArray() {
+        return NetUtil.createByteArrayFromIpAddressString(ip, bytes, 0);
+    }
+
+    @Benchmark
+    public String formatAllocating() {
+        return NetUtil.bytesToIpAddress(address);
+    }
+
+    @Benchmark
+    public int formatIntoBuilder() {
+        sb.setLength(0);
+        return NetUtil.appendIpAddress(sb, address, 0, address.length).length();
+    }
+}
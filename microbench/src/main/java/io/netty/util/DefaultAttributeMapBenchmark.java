@@ -37,6 +37,7 @@ public class DefaultAttributeMapBenchmark extends AbstractMicrobenchmark {
     @Param({ "8", "32", "128" })
     private int keyCount;
     private AttributeKey<Integer>[] keys;
+    private AttributeKey<Integer>[] indexedKeys;
     private IdentityHashMap<AttributeKey<Integer>, Attribute<Integer>> identityHashMap;
     private DefaultAttributeMap attributes;
 
@@ -62,12 +63,16 @@ public class DefaultAttributeMapBenchmark extends AbstractMicrobenchmark {
         }
         attributes = new DefaultAttributeMap();
         keys = new AttributeKey[keyCount];
+        indexedKeys = new AttributeKey[keyCount];
         identityHashMap = new IdentityHashMap<AttributeKey<Integer>, Attribute<Integer>>(keyCount);
         for (int i = 0; i < keyCount; i++) {
             final AttributeKey<Integer> key = AttributeKey.valueOf(Integer.toString(i));
             keys[i] = key;
             final Attribute<Integer> attribute = attributes.attr(key);
             identityHashMap.put(key, attribute);
+            final AttributeKey<Integer> indexedKey = AttributeKey.newIndexedInstance("indexed-" + i);
+            indexedKeys[i] = indexedKey;
+            attributes.attr(indexedKey);
         }
     }
 
@@ -132,4 +137,35 @@ public class DefaultAttributeMapBenchmark extends AbstractMicrobenchmark {
             hole.consume(attributes.hasAttr(key));
         }
     }
+
+    @Benchmark
+    @Threads(3)
+    public Attribute<Integer> nextAttributeIndexedAttributeMap(KeySequence sequence) {
+        long next = sequence.next();
+        AttributeKey<Integer>[] keys = this.indexedKeys;
+        AttributeKey<Integer> key = keys[(int) (next & keys.length - 1)];
+        return attributes.attr(key);
+    }
+
+    @Benchmark
+    @Threads(3)
+    public boolean nextHasAttributeIndexedAttributeMap(KeySequence sequence) {
+        long next = sequence.next();
+        AttributeKey<Integer>[] keys = this.indexedKeys;
+        AttributeKey<Integer> key = keys[(int) (next & keys.length - 1)];
+        return attributes.hasAttr(key);
+    }
+
+    @Benchmark
+    @Threads(3)
+    public void mixedAttributeIndexedAttributeMap(KeySequence sequence, Blackhole hole) {
+        long next = sequence.next();
+        AttributeKey<Integer>[] keys = this.indexedKeys;
+        AttributeKey<Integer> key = keys[(int) (next & keys.length - 1)];
+        if (next % 2 == 0) {
+            hole.consume(attributes.attr(key));
+        } else {
+            hole.consume(attributes.hasAttr(key));
+        }
+    }
 }
@@ -71,6 +71,10 @@ abstract class AbstractEpollChannel extends AbstractChannel implements UnixChann
     private volatile SocketAddress remote;
 
     protected int flags = Native.EPOLLET;
+    // The flags that were last passed to epoll_ctl, and if the flags were changed since then. Only used by the
+    // EpollEventLoop, see EpollEventLoop.modify(AbstractEpollChannel).
+    int registeredFlags;
+    boolean modificationPending;
     boolean inputClosedSeenErrorOnRead;
     boolean epollInReadyRunnablePending;
 
@@ -644,6 +648,7 @@ abstract class AbstractEpollChannel extends AbstractChannel implements UnixChann
                 return;
             }
             active = true;
+            connected();
 
             // Get the state as trySuccess() may trigger an ChannelFutureListener that will close the Channel.
             // We still need to ensure we call fireChannelActive() in this case.
@@ -767,6 +772,13 @@ abstract class AbstractEpollChannel extends AbstractChannel implements UnixChann
         return connected;
     }
 
+    /**
+     * Called once a connection attempt of this channel succeeded, before the connect promise is notified.
+     */
+    void connected() {
+        // NOOP
+    }
+
     boolean doConnect0(SocketAddress remote) throws Exception {
         boolean success = false;
         try {
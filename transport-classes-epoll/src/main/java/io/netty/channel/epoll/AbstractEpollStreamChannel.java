@@ -29,12 +29,16 @@ import io.netty.channel.DefaultFileRegion;
 import io.netty.channel.EventLoop;
 import io.netty.channel.FileRegion;
 import io.netty.channel.RecvByteBufAllocator;
+import io.netty.channel.ScratchBufferRecvByteBufAllocator.ScratchHandle;
 import io.netty.channel.internal.ChannelUtils;
 import io.netty.channel.socket.DuplexChannel;
+import io.netty.channel.unix.Errors;
 import io.netty.channel.unix.FileDescriptor;
 import io.netty.channel.unix.IovArray;
 import io.netty.channel.unix.SocketWritableByteChannel;
 import io.netty.channel.unix.UnixChannelUtil;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
 import io.netty.util.internal.PlatformDependent;
 import io.netty.util.internal.StringUtil;
 import io.netty.util.internal.UnstableApi;
@@ -48,10 +52,11 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.channels.WritableByteChannel;
 import java.util.Queue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static io.netty.channel.internal.ChannelUtils.MAX_BYTES_PER_GATHERING_WRITE_ATTEMPTED_LOW_THRESHOLD;
 import static io.netty.channel.internal.ChannelUtils.WRITE_STATUS_SNDBUF_FULL;
-import static io.netty.channel.unix.FileDescriptor.pipe;
 import static io.netty.util.internal.ObjectUtil.checkNotNull;
 import static io.netty.util.internal.ObjectUtil.checkPositiveOrZero;
 
@@ -61,6 +66,12 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
             " (expected: " + StringUtil.simpleClassName(ByteBuf.class) + ", " +
                     StringUtil.simpleClassName(DefaultFileRegion.class) + ')';
     private static final InternalLogger logger = InternalLoggerFactory.getInstance(AbstractEpollStreamChannel.class);
+    // How long pending MSG_ZEROCOPY sends are waited for after close if SO_LINGER is not set, and before a handoff.
+    private static final long ZERO_COPY_TIMEOUT_MILLIS = 60000;
+    // TLS record types and the close_notify alert, see rfc5246.
+    private static final int TLS_RECORD_TYPE_ALERT = 21;
+    private static final int TLS_RECORD_TYPE_APPLICATION_DATA = 23;
+    private static final int TLS_ALERT_CLOSE_NOTIFY = 0;
 
     private final Runnable flushTask = new Runnable() {
         @Override
@@ -75,9 +86,23 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
     private volatile Queue<SpliceInTask> spliceQueue;
     private FileDescriptor pipeIn;
     private FileDescriptor pipeOut;
+    // Number of bytes that were spliced into the pipe but not out of it yet.
+    private int pipeBytes;
 
     private WritableByteChannel byteChannel;
 
+    // Only used when MSG_ZEROCOPY is enabled, see zeroCopySendThreshold().
+    private ZeroCopySends zeroCopySends;
+    private ZeroCopyIovProcessor zeroCopyIovProcessor;
+    private boolean zeroCopyCopied;
+    // Only used when MSG_ZEROCOPY or SO_TIMESTAMPING is enabled, see processErrorQueue(boolean).
+    private long[] errorQueueEntry;
+    // Set once send timestamps were requested, as they may still be queued after they were disabled again.
+    private boolean txTimestamps;
+    private long[] rxTimestamp;
+    // Only used once kernel TLS received a record that is not application data, see doReadTlsRecord(ByteBuf).
+    private int[] tlsRecordType;
+
     protected AbstractEpollStreamChannel(Channel parent, int fd) {
         this(parent, new LinuxSocket(fd));
     }
@@ -256,7 +281,9 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
             return 0;
         }
 
-        if (buf.hasMemoryAddress() || buf.nioBufferCount() == 1) {
+        if (isZeroCopyCandidate(buf)) {
+            return writeBytesZeroCopy(in, buf);
+        } else if (buf.hasMemoryAddress() || buf.nioBufferCount() == 1) {
             return doWriteBytes(in, buf);
         } else {
             ByteBuffer[] nioBuffers = buf.nioBuffers();
@@ -265,6 +292,191 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
         }
     }
 
+    /**
+     * Returns the minimum number of readable bytes a buffer needs to be sent with {@code MSG_ZEROCOPY}, or {@code -1}
+     * if {@code MSG_ZEROCOPY} is not used by this channel.
+     */
+    int zeroCopySendThreshold() {
+        return -1;
+    }
+
+    private boolean isZeroCopyCandidate(ByteBuf buf) {
+        if (zeroCopyCopied || !buf.hasMemoryAddress()) {
+            return false;
+        }
+        int threshold = zeroCopySendThreshold();
+        return threshold >= 0 && buf.readableBytes() >= threshold;
+    }
+
+    /**
+     * Write a {@link ByteBuf} with {@code MSG_ZEROCOPY}. The buffer is retained until the kernel reports, via the
+     * error queue of the socket, that it does not reference the memory anymore.
+     * @param in the collection which contains objects to write.
+     * @param buf the {@link ByteBuf} from which the bytes should be written
+     * @return The value that should be decremented from the write quantum which starts at
+     * {@link ChannelConfig#getWriteSpinCount()}.
+     */
+    private int writeBytesZeroCopy(ChannelOutboundBuffer in, ByteBuf buf) throws Exception {
+        int localFlushedAmount = socket.sendAddressZeroCopy(buf.memoryAddress(), buf.readerIndex(), buf.writerIndex());
+        if (localFlushedAmount > 0) {
+            if (zeroCopySends == null) {
+                zeroCopySends = new ZeroCopySends();
+            }
+            zeroCopySends.add(buf.retain());
+            in.removeBytes(localFlushedAmount);
+            return 1;
+        }
+        // Either the socket is not writable or the kernel could not pin more memory, fall back to a regular send.
+        return doWriteBytes(in, buf);
+    }
+
+    /**
+     * Returns the {@link EpollTimestamping} flags enabled for this channel, or {@code 0} if timestamping is not used.
+     */
+    int timestampingFlags() {
+        return 0;
+    }
+
+    /**
+     * Notifies {@code promise} once the kernel does not reference the buffers of the pending {@code MSG_ZEROCOPY} sends
+     * of this channel anymore, so its socket can be handed over to another process without the completions being
+     * reported to that process. Fails {@code promise} if they do not complete within
+     * {@link #ZERO_COPY_TIMEOUT_MILLIS}. Must be called from the {@link EventLoop} after the channel was deregistered.
+     */
+    void awaitZeroCopySends(final ChannelPromise promise) {
+        assert eventLoop().inEventLoop() && !isRegistered();
+        final ZeroCopySends zeroCopySends = this.zeroCopySends;
+        if (zeroCopySends != null && !zeroCopySends.isEmpty()) {
+            processErrorQueue(false);
+        }
+        if (zeroCopySends == null || zeroCopySends.isEmpty()) {
+            promise.setSuccess();
+            return;
+        }
+        final LinuxSocket dup;
+        try {
+            dup = socket.dup();
+        } catch (IOException e) {
+            promise.setFailure(e);
+            return;
+        }
+        new ZeroCopyWaiter((EpollEventLoop) eventLoop(), dup, zeroCopySends, ZERO_COPY_TIMEOUT_MILLIS) {
+            @Override
+            void finished(boolean completed) {
+                closeSocket();
+                if (completed) {
+                    promise.setSuccess();
+                } else {
+                    promise.setFailure(new IOException(sends.size() + " MSG_ZEROCOPY sends of " +
+                            AbstractEpollStreamChannel.this + " did not complete within " + ZERO_COPY_TIMEOUT_MILLIS +
+                            " ms"));
+                }
+            }
+        }.start();
+    }
+
+    /**
+     * Drains the error queue of the socket: releases all buffers that the kernel reported as no longer referenced by
+     * previous {@code MSG_ZEROCOPY} sends and, if {@code fireTimestamps} is {@code true}, fires an
+     * {@link EpollTimestampEvent} for each send timestamp.
+     */
+    private void processErrorQueue(boolean fireTimestamps) {
+        long[] entry = errorQueueEntry;
+        if (entry == null) {
+            errorQueueEntry = entry = new long[3];
+        }
+        try {
+            for (;;) {
+                int kind = socket.recvErrorQueue(entry);
+                if (kind == LinuxSocket.ERRQUEUE_ZEROCOPY) {
+                    if (entry[2] != 0) {
+                        // The kernel copied the data anyway (for example on loopback), so MSG_ZEROCOPY only adds
+                        // overhead for this socket.
+                        zeroCopyCopied = true;
+                    }
+                    if (zeroCopySends != null) {
+                        zeroCopySends.complete((int) entry[0], (int) entry[1]);
+                    }
+                } else if (kind == LinuxSocket.ERRQUEUE_TIMESTAMP) {
+                    EpollTimestampEvent event = EpollTimestampEvent.newTxEvent((int) entry[0], entry[1], entry[2]);
+                    if (fireTimestamps && event != null) {
+                        pipeline().fireUserEventTriggered(event);
+                    }
+                } else {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to read the error queue of {}", this, e);
+        }
+    }
+
+    /**
+     * Like {@link #doReadBytes(ByteBuf)} but also returns the receive timestamp of the data, or {@code 0} if the
+     * kernel did not provide one, in {@link #rxTimestamp}.
+     */
+    private int doReadBytesTimestamped(ByteBuf byteBuf) throws Exception {
+        long[] timestamp = rxTimestamp;
+        if (timestamp == null) {
+            rxTimestamp = timestamp = new long[1];
+        }
+        int writerIndex = byteBuf.writerIndex();
+        unsafe().recvBufAllocHandle().attemptedBytesRead(byteBuf.writableBytes());
+        int localReadAmount = socket.recvAddressTimestamp(
+                byteBuf.memoryAddress(), writerIndex, byteBuf.capacity(), timestamp);
+        if (localReadAmount > 0) {
+            byteBuf.writerIndex(writerIndex + localReadAmount);
+        }
+        return localReadAmount;
+    }
+
+    /**
+     * Reads into {@code byteBuf} with {@link #doReadBytesTimestamped(ByteBuf)} or {@link #doReadBytes(ByteBuf)}, and
+     * falls back to {@link #doReadTlsRecord(ByteBuf)} if that failed because kernel TLS received a control record.
+     */
+    private int doReadBytesOrTlsRecord(ByteBuf byteBuf, boolean timestamped) throws Exception {
+        try {
+            return timestamped ? doReadBytesTimestamped(byteBuf) : doReadBytes(byteBuf);
+        } catch (Errors.NativeIoException e) {
+            // Once the kernel decrypts, a plain read of a record that is not application data fails with EIO.
+            if (e.expectedErr() != Native.ERRNO_EIO_NEGATIVE || !byteBuf.hasMemoryAddress()) {
+                throw e;
+            }
+            return doReadTlsRecord(byteBuf);
+        }
+    }
+
+    /**
+     * Reads the next TLS record together with its type. A close_notify alert is handled like the EOF that follows it,
+     * so a graceful close of the remote peer shuts down the input instead of failing the read. Any other record that
+     * is not application data can not be handled and fails the read.
+     */
+    private int doReadTlsRecord(ByteBuf byteBuf) throws IOException {
+        int[] recordType = tlsRecordType;
+        if (recordType == null) {
+            tlsRecordType = recordType = new int[1];
+        }
+        int writerIndex = byteBuf.writerIndex();
+        int localReadAmount = socket.recvAddressRecordType(
+                byteBuf.memoryAddress(), writerIndex, byteBuf.capacity(), recordType);
+        if (localReadAmount <= 0) {
+            return localReadAmount;
+        }
+        if (recordType[0] == 0 || recordType[0] == TLS_RECORD_TYPE_APPLICATION_DATA) {
+            byteBuf.writerIndex(writerIndex + localReadAmount);
+            return localReadAmount;
+        }
+        if (recordType[0] == TLS_RECORD_TYPE_ALERT && localReadAmount >= 2) {
+            int description = byteBuf.getUnsignedByte(writerIndex + 1);
+            if (description == TLS_ALERT_CLOSE_NOTIFY) {
+                return -1;
+            }
+            throw new IOException("kernel TLS received alert: level " + byteBuf.getUnsignedByte(writerIndex) +
+                    ", description " + description);
+        }
+        throw new IOException("kernel TLS received unsupported record of type " + recordType[0]);
+    }
+
     private void adjustMaxBytesPerGatheringWrite(long attempted, long written, long oldMaxBytesPerGatheringWrite) {
         // By default we track the SO_SNDBUF when ever it is explicitly set. However some OSes may dynamically change
         // SO_SNDBUF (and other characteristics that determine how much data can be written at once) so we should try
@@ -418,7 +630,8 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
         do {
             final int msgCount = in.size();
             // Do gathering write if the outbound buffer entries start with more than one ByteBuf.
-            if (msgCount > 1 && in.current() instanceof ByteBuf) {
+            Object current = in.current();
+            if (msgCount > 1 && current instanceof ByteBuf && !isZeroCopyCandidate((ByteBuf) current)) {
                 writeSpinCount -= doWriteMultiple(in);
             } else if (msgCount == 0) {
                 // Wrote all messages.
@@ -503,7 +716,20 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
         final long maxBytesPerGatheringWrite = config().getMaxBytesPerGatheringWrite();
         IovArray array = ((EpollEventLoop) eventLoop()).cleanIovArray();
         array.maxBytes(maxBytesPerGatheringWrite);
-        in.forEachFlushedMessage(array);
+        if (zeroCopySendThreshold() >= 0 && !zeroCopyCopied) {
+            // Stop gathering at the first buffer that should be sent with MSG_ZEROCOPY.
+            if (zeroCopyIovProcessor == null) {
+                zeroCopyIovProcessor = new ZeroCopyIovProcessor();
+            }
+            zeroCopyIovProcessor.array = array;
+            try {
+                in.forEachFlushedMessage(zeroCopyIovProcessor);
+            } finally {
+                zeroCopyIovProcessor.array = null;
+            }
+        } else {
+            in.forEachFlushedMessage(array);
+        }
 
         if (array.count() >= 1) {
             // TODO: Handle the case where cnt == 1 specially.
@@ -667,13 +893,37 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
 
     @Override
     protected void doClose() throws Exception {
+        ZeroCopySends zeroCopySends = this.zeroCopySends;
+        ZeroCopyReaper zeroCopyReaper = null;
+        if (zeroCopySends != null && !zeroCopySends.isEmpty()) {
+            // Collect the completions that are already there while the socket is still open.
+            processErrorQueue(false);
+            if (!zeroCopySends.isEmpty()) {
+                // The kernel goes on sending from the memory of these buffers after the file descriptor was closed,
+                // so keep the socket around to learn when it is done with them.
+                try {
+                    int soLinger = socket.getSoLinger();
+                    zeroCopyReaper = new ZeroCopyReaper((EpollEventLoop) eventLoop(), socket.dup(), zeroCopySends,
+                            soLinger);
+                } catch (IOException e) {
+                    logger.warn("Failed to keep the socket of {} open, leaking the buffers of its pending " +
+                            "MSG_ZEROCOPY sends", this, e);
+                    this.zeroCopySends = null;
+                }
+            }
+        }
         try {
             // Calling super.doClose() first so spliceTo(...) will fail on next call.
             super.doClose();
         } finally {
-            safeClosePipe(pipeIn);
-            safeClosePipe(pipeOut);
+            releasePipe();
             clearSpliceQueue();
+            if (zeroCopyReaper != null) {
+                this.zeroCopySends = null;
+                zeroCopyReaper.start();
+            } else if (this.zeroCopySends != null) {
+                this.zeroCopySends.releaseAll();
+            }
         }
     }
 
@@ -696,7 +946,25 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
         }
     }
 
-    private static void safeClosePipe(FileDescriptor fd) {
+    private void releasePipe() {
+        FileDescriptor pipeIn = this.pipeIn;
+        FileDescriptor pipeOut = this.pipeOut;
+        if (pipeIn == null) {
+            return;
+        }
+        this.pipeIn = null;
+        this.pipeOut = null;
+        EventLoop loop = eventLoop();
+        if (pipeBytes == 0 && loop.inEventLoop()) {
+            // The pipe is empty so it can be reused by another Channel.
+            ((EpollEventLoop) loop).releasePipe(pipeIn, pipeOut);
+        } else {
+            safeClosePipe(pipeIn);
+            safeClosePipe(pipeOut);
+        }
+    }
+
+    static void safeClosePipe(FileDescriptor fd) {
         if (fd != null) {
             try {
                 fd.close();
@@ -741,18 +1009,28 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
 
         @Override
         void epollInReady() {
+            final int timestampingFlags = timestampingFlags();
+            if (!txTimestamps && (timestampingFlags & EpollTimestamping.TX_ANY) != 0) {
+                txTimestamps = true;
+            }
+            if (txTimestamps || zeroCopySends != null && !zeroCopySends.isEmpty()) {
+                // MSG_ZEROCOPY completions and send timestamps are signaled via EPOLLERR, which also ends up here.
+                processErrorQueue(true);
+            }
             final ChannelConfig config = config();
             if (shouldBreakEpollInReady(config)) {
                 clearEpollIn0();
                 return;
             }
             final EpollRecvByteAllocatorHandle allocHandle = recvBufAllocHandle();
+            final ScratchHandle scratchHandle = allocHandle.scratchHandle();
             allocHandle.edgeTriggered(isFlagSet(Native.EPOLLET));
 
             final ChannelPipeline pipeline = pipeline();
             final ByteBufAllocator allocator = config.getAllocator();
             allocHandle.reset(config);
             epollInBefore();
+            deferFlushes();
 
             ByteBuf byteBuf = null;
             boolean close = false;
@@ -764,15 +1042,19 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
                         if (spliceTask != null) {
                             boolean spliceInResult = spliceTask.spliceIn(allocHandle);
 
-                            if (allocHandle.isReceivedRdHup()) {
-                                shutdownInput(true);
+                            // We need to check if it is still active as if not we removed all SpliceTasks in
+                            // doClose(...)
+                            if (spliceInResult && isActive()) {
+                                sQueue.remove();
+                            }
+                            if (allocHandle.lastBytesRead() < 0) {
+                                // There is nothing left to splice as we received an EOF. Only shutdown the input
+                                // now as a EPOLLRDHUP may be received while there are still bytes to splice.
+                                close = true;
+                                readPending = false;
+                                break;
                             }
                             if (spliceInResult) {
-                                // We need to check if it is still active as if not we removed all SpliceTasks in
-                                // doClose(...)
-                                if (isActive()) {
-                                    sQueue.remove();
-                                }
                                 continue;
                             } else {
                                 break;
@@ -782,8 +1064,11 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
 
                     // we use a direct buffer here as the native implementations only be able
                     // to handle direct buffers.
-                    byteBuf = allocHandle.allocate(allocator);
-                    allocHandle.lastBytesRead(doReadBytes(byteBuf));
+                    byteBuf = scratchHandle != null ?
+                            scratchHandle.allocateScratch(allocator) : allocHandle.allocate(allocator);
+                    boolean timestamped = (timestampingFlags & EpollTimestamping.RX_SOFTWARE) != 0 &&
+                            byteBuf.hasMemoryAddress();
+                    allocHandle.lastBytesRead(doReadBytesOrTlsRecord(byteBuf, timestamped));
                     if (allocHandle.lastBytesRead() <= 0) {
                         // nothing was read, release the buffer.
                         byteBuf.release();
@@ -795,8 +1080,18 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
                         }
                         break;
                     }
+                    if (scratchHandle != null) {
+                        // The shared buffer must never end up in the pipeline, not even via handleReadException(...).
+                        ByteBuf scratchBuffer = byteBuf;
+                        byteBuf = null;
+                        byteBuf = scratchHandle.received(allocator, scratchBuffer);
+                    }
                     allocHandle.incMessagesRead(1);
                     readPending = false;
+                    if (timestamped && rxTimestamp[0] != 0) {
+                        pipeline.fireUserEventTriggered(
+                                new EpollTimestampEvent(EpollTimestampEvent.Type.RX, -1, rxTimestamp[0]));
+                    }
                     pipeline.fireChannelRead(byteBuf);
                     byteBuf = null;
 
@@ -818,6 +1113,8 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
 
                 allocHandle.readComplete();
                 pipeline.fireChannelReadComplete();
+                // Flush before the input is shutdown, which may close the channel.
+                flushDeferred();
 
                 if (close) {
                     shutdownInput(false);
@@ -825,6 +1122,7 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
             } catch (Throwable t) {
                 handleReadException(pipeline, byteBuf, t, close, allocHandle);
             } finally {
+                flushDeferred();
                 if (sQueue == null) {
                     epollInFinally(config);
                 } else {
@@ -864,11 +1162,11 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
             // calculate the maximum amount of data we are allowed to splice
             int length = Math.min(handle.guess(), len);
             int splicedIn = 0;
-            for (;;) {
-                // Splicing until there is nothing left to splice.
-                int localSplicedIn = Native.splice(socket.intValue(), -1, pipeOut.intValue(), -1, length);
+            while (length > 0) {
+                // Splicing until there is nothing left to splice. A negative value signals the end of the input.
+                int localSplicedIn = Native.spliceOrEof(socket.intValue(), -1, pipeOut.intValue(), -1, length);
                 handle.lastBytesRead(localSplicedIn);
-                if (localSplicedIn == 0) {
+                if (localSplicedIn <= 0) {
                     break;
                 }
                 splicedIn += localSplicedIn;
@@ -908,14 +1206,15 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
                 // on multiple Channels pointing to one target Channel.
                 FileDescriptor pipeOut = ch.pipeOut;
                 if (pipeOut == null) {
-                    // Create a new pipe as non was created before.
-                    FileDescriptor[] pipe = pipe();
+                    // Take a pipe from the EventLoop as non was assigned before.
+                    FileDescriptor[] pipe = ((EpollEventLoop) ch.eventLoop()).acquirePipe();
                     ch.pipeIn = pipe[0];
                     pipeOut = ch.pipeOut = pipe[1];
                 }
 
                 int splicedIn = spliceIn(pipeOut, handle);
                 if (splicedIn > 0) {
+                    ch.pipeBytes += splicedIn;
                     // Integer.MAX_VALUE is a special value which will result in splice forever.
                     if (len != Integer.MAX_VALUE) {
                         len -= splicedIn;
@@ -968,6 +1267,7 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
             assert ch.eventLoop().inEventLoop();
             try {
                 int splicedOut = Native.splice(ch.pipeIn.intValue(), -1, ch.socket.intValue(), -1, len);
+                ch.pipeBytes -= splicedOut;
                 len -= splicedOut;
                 if (len == 0) {
                     if (autoRead) {
@@ -1008,9 +1308,11 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
             }
 
             try {
-                FileDescriptor[] pipe = pipe();
+                EpollEventLoop loop = (EpollEventLoop) eventLoop();
+                FileDescriptor[] pipe = loop.acquirePipe();
                 FileDescriptor pipeIn = pipe[0];
                 FileDescriptor pipeOut = pipe[1];
+                boolean drained = false;
                 try {
                     int splicedIn = spliceIn(pipeOut, handle);
                     if (splicedIn > 0) {
@@ -1023,15 +1325,20 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
                             offset += splicedOut;
                             splicedIn -= splicedOut;
                         } while (splicedIn > 0);
-                        if (len == 0) {
-                            promise.setSuccess();
-                            return true;
-                        }
+                    }
+                    drained = true;
+                    if (len == 0) {
+                        promise.setSuccess();
+                        return true;
                     }
                     return false;
                 } finally {
-                    safeClosePipe(pipeIn);
-                    safeClosePipe(pipeOut);
+                    if (drained) {
+                        loop.releasePipe(pipeIn, pipeOut);
+                    } else {
+                        safeClosePipe(pipeIn);
+                        safeClosePipe(pipeOut);
+                    }
                 }
             } catch (Throwable cause) {
                 promise.setFailure(cause);
@@ -1040,6 +1347,246 @@ public abstract class AbstractEpollStreamChannel extends AbstractEpollChannel im
         }
     }
 
+    /**
+     * Feeds flushed messages into an {@link IovArray} but stops at the first buffer that should be sent with
+     * {@code MSG_ZEROCOPY}, so it is written on its own.
+     */
+    private final class ZeroCopyIovProcessor implements ChannelOutboundBuffer.MessageProcessor {
+        IovArray array;
+
+        @Override
+        public boolean processMessage(Object msg) throws Exception {
+            if (msg instanceof ByteBuf && isZeroCopyCandidate((ByteBuf) msg)) {
+                return false;
+            }
+            return array.processMessage(msg);
+        }
+    }
+
+    /**
+     * Buffers sent with {@code MSG_ZEROCOPY} that the kernel may still reference. The kernel numbers each successful
+     * {@code MSG_ZEROCOPY} send call of a socket, starting at {@code 0}, and reports completions as ranges of these
+     * numbers. This queue keeps one buffer per send call in that order.
+     */
+    private static final class ZeroCopySends {
+        private ByteBuf[] buffers = new ByteBuf[16];
+        private int head;
+        private int size;
+        // Number of the send call stored at head, this wraps around just like the unsigned counter of the kernel.
+        private int headSeq;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void add(ByteBuf buf) {
+            if (size == buffers.length) {
+                ByteBuf[] newBuffers = new ByteBuf[buffers.length << 1];
+                for (int i = 0; i < size; i++) {
+                    newBuffers[i] = buffers[(head + i) & (buffers.length - 1)];
+                }
+                buffers = newBuffers;
+                head = 0;
+            }
+            buffers[(head + size) & (buffers.length - 1)] = buf;
+            size++;
+        }
+
+        /**
+         * Releases the buffers of the send calls {@code first} to {@code last} (inclusive).
+         */
+        void complete(int first, int last) {
+            int from = Math.max(first - headSeq, 0);
+            int to = Math.min(last - headSeq, size - 1);
+            for (int i = from; i <= to; i++) {
+                int idx = (head + i) & (buffers.length - 1);
+                ByteBuf buf = buffers[idx];
+                if (buf != null) {
+                    buffers[idx] = null;
+                    buf.release();
+                }
+            }
+            // Completions may arrive out of order, only move forward over the ones that are done.
+            while (size > 0 && buffers[head] == null) {
+                head = (head + 1) & (buffers.length - 1);
+                headSeq++;
+                size--;
+            }
+        }
+
+        void releaseAll() {
+            for (int i = 0; i < size; i++) {
+                int idx = (head + i) & (buffers.length - 1);
+                ByteBuf buf = buffers[idx];
+                if (buf != null) {
+                    buffers[idx] = null;
+                    buf.release();
+                }
+            }
+            headSeq += size;
+            head = 0;
+            size = 0;
+        }
+    }
+
+    /**
+     * Waits until the kernel reported that it does not reference the buffers of pending {@code MSG_ZEROCOPY} sends
+     * anymore, for at most a given time. The waiter watches its own duplicate of the socket for {@code EPOLLERR}, on
+     * which the kernel signals completions, so it does not depend on the channel being registered or open.
+     */
+    private abstract static class ZeroCopyWaiter implements EpollEventLoop.ErrorQueueWatcher, Runnable {
+        final EpollEventLoop loop;
+        final LinuxSocket socket;
+        final ZeroCopySends sends;
+        private final long timeoutMillis;
+        private final long[] entry = new long[3];
+        private ScheduledFuture<?> timeoutFuture;
+        private boolean watched;
+        private boolean done;
+
+        ZeroCopyWaiter(EpollEventLoop loop, LinuxSocket socket, ZeroCopySends sends, long timeoutMillis) {
+            this.loop = loop;
+            this.socket = socket;
+            this.sends = sends;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        final void start() {
+            if (!loop.inEventLoop()) {
+                try {
+                    loop.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            start();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    finish(false);
+                }
+                return;
+            }
+            try {
+                loop.addErrorQueueWatcher(socket.intValue(), this);
+                watched = true;
+            } catch (IOException e) {
+                logger.debug("Failed to watch the socket of pending MSG_ZEROCOPY sends", e);
+                finish(false);
+                return;
+            }
+            errorQueueReady();
+            if (!done) {
+                timeoutFuture = loop.schedule(this, timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        public final void errorQueueReady() {
+            drain();
+            if (sends.isEmpty()) {
+                finish(true);
+            }
+        }
+
+        @Override
+        public final void eventLoopTerminated() {
+            drain();
+            finish(sends.isEmpty());
+        }
+
+        /**
+         * Called once the timeout passed.
+         */
+        @Override
+        public final void run() {
+            timeoutFuture = null;
+            drain();
+            finish(sends.isEmpty());
+        }
+
+        private void drain() {
+            try {
+                for (;;) {
+                    int kind = socket.recvErrorQueue(entry);
+                    if (kind == LinuxSocket.ERRQUEUE_ZEROCOPY) {
+                        sends.complete((int) entry[0], (int) entry[1]);
+                    } else if (kind != LinuxSocket.ERRQUEUE_TIMESTAMP) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("Failed to read the error queue of the socket of pending MSG_ZEROCOPY sends", e);
+            }
+        }
+
+        private void finish(boolean completed) {
+            if (done) {
+                return;
+            }
+            done = true;
+            if (watched) {
+                loop.removeErrorQueueWatcher(socket.intValue());
+            }
+            if (timeoutFuture != null) {
+                timeoutFuture.cancel(false);
+                timeoutFuture = null;
+            }
+            finished(completed);
+        }
+
+        /**
+         * Called once, with {@code completed} being {@code false} if the sends did not complete in time. The socket
+         * is not watched anymore and must be closed.
+         */
+        abstract void finished(boolean completed);
+
+        final void closeSocket() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close the socket of MSG_ZEROCOPY sends", e);
+            }
+        }
+    }
+
+    /**
+     * Keeps the socket of a closed channel open until the kernel is done with the buffers of its pending
+     * {@code MSG_ZEROCOPY} sends, and only then releases them and closes the socket. The peer sees the end of the
+     * stream once the socket is closed. If the sends do not complete within {@code SO_LINGER}, or
+     * {@link #ZERO_COPY_TIMEOUT_MILLIS} if it is not set, the socket is closed anyway and the buffers are leaked, as
+     * the kernel may still send from their memory.
+     */
+    private static final class ZeroCopyReaper extends ZeroCopyWaiter {
+        private final int soLinger;
+
+        ZeroCopyReaper(EpollEventLoop loop, LinuxSocket socket, ZeroCopySends sends, int soLinger) {
+            super(loop, socket, sends, soLinger > 0 ? TimeUnit.SECONDS.toMillis(soLinger) : ZERO_COPY_TIMEOUT_MILLIS);
+            this.soLinger = soLinger;
+        }
+
+        @Override
+        void finished(boolean completed) {
+            if (!completed) {
+                logger.warn("{} MSG_ZEROCOPY sends did not complete in time after the channel was closed, closing " +
+                        "their socket and leaking their buffers", sends.size());
+            }
+            if (soLinger > 0) {
+                // Closing the last file descriptor of the socket blocks until the remaining data was sent.
+                GlobalEventExecutor.INSTANCE.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        closeSocket();
+                    }
+                });
+            } else {
+                closeSocket();
+            }
+        }
+    }
+
     private final class EpollSocketWritableByteChannel extends SocketWritableByteChannel {
         EpollSocketWritableByteChannel() {
             super(socket);
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Promise;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shared by {@link EpollReusePortAcceptors} and {@link EpollExclusiveAcceptors}, which both create one listener per
+ * {@link EventLoop} of a group and must fail or succeed the same way.
+ */
+final class EpollAcceptors {
+
+    private EpollAcceptors() { }
+
+    /**
+     * Returns the {@link EventLoop}s of {@code group}, which must all be {@link EpollEventLoop}s.
+     */
+    static List<EventLoop> epollEventLoops(EventLoopGroup group) {
+        List<EventLoop> loops = new ArrayList<EventLoop>();
+        for (EventExecutor executor : group) {
+            if (!(executor instanceof EpollEventLoop)) {
+                throw new IllegalArgumentException("group must only consist of " +
+                        EpollEventLoop.class.getSimpleName() + "s: " + executor);
+            }
+            loops.add((EventLoop) executor);
+        }
+        if (loops.isEmpty()) {
+            throw new IllegalArgumentException("group has no EventLoop");
+        }
+        return loops;
+    }
+
+    /**
+     * Notifies {@code promise} with all listeners, or closes them if the {@code promise} was already done.
+     */
+    static void succeed(List<Channel> channels, Promise<List<Channel>> promise) {
+        if (!promise.trySuccess(Collections.unmodifiableList(channels))) {
+            closeAll(channels);
+        }
+    }
+
+    /**
+     * Closes all listeners that were created so far and fails {@code promise}.
+     */
+    static void fail(List<Channel> channels, Promise<List<Channel>> promise, Throwable cause) {
+        closeAll(channels);
+        promise.setFailure(cause);
+    }
+
+    private static void closeAll(List<Channel> channels) {
+        for (Channel ch : channels) {
+            ch.close();
+        }
+    }
+}
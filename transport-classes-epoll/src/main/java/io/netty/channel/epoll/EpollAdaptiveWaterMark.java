@@ -0,0 +1,107 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.channel.Channel;
+import io.netty.channel.WriteBufferWaterMark;
+
+import static io.netty.util.internal.ObjectUtil.checkPositive;
+
+/**
+ * Bounds for the {@link WriteBufferWaterMark} of an {@link EpollSocketChannel} that is derived from the
+ * {@code TCP_INFO} of the connection, see {@link EpollChannelOption#ADAPTIVE_WRITE_BUFFER_WATER_MARK}.
+ * <p>
+ * Every {@linkplain #sampleIntervalMillis() sample interval} the bandwidth-delay product of the connection is
+ * estimated as {@code tcpi_snd_cwnd * tcpi_snd_mss}, which is the number of bytes the connection sends per round
+ * trip. The high water mark is set to twice that, so {@link Channel#isWritable()} only returns {@code false} once
+ * more than two round trips worth of data is queued, and the low water mark to half of the high water mark. The
+ * high water mark never leaves the {@linkplain #minHigh() minimum} and {@linkplain #maxHigh() maximum} bounds.
+ */
+public final class EpollAdaptiveWaterMark {
+
+    private static final long DEFAULT_SAMPLE_INTERVAL_MILLIS = 100;
+
+    private final int minHigh;
+    private final int maxHigh;
+    private final long sampleIntervalMillis;
+
+    /**
+     * Create a new instance that samples {@code TCP_INFO} every {@value #DEFAULT_SAMPLE_INTERVAL_MILLIS}
+     * milliseconds.
+     *
+     * @param minHigh the smallest high water mark that is used.
+     * @param maxHigh the largest high water mark that is used.
+     */
+    public EpollAdaptiveWaterMark(int minHigh, int maxHigh) {
+        this(minHigh, maxHigh, DEFAULT_SAMPLE_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param minHigh the smallest high water mark that is used.
+     * @param maxHigh the largest high water mark that is used.
+     * @param sampleIntervalMillis the number of milliseconds between two samples of {@code TCP_INFO}.
+     */
+    public EpollAdaptiveWaterMark(int minHigh, int maxHigh, long sampleIntervalMillis) {
+        checkPositive(minHigh, "minHigh");
+        if (maxHigh < minHigh) {
+            throw new IllegalArgumentException(
+                    "maxHigh: " + maxHigh + " (expected: >= minHigh (" + minHigh + "))");
+        }
+        this.minHigh = minHigh;
+        this.maxHigh = maxHigh;
+        this.sampleIntervalMillis = checkPositive(sampleIntervalMillis, "sampleIntervalMillis");
+    }
+
+    /**
+     * Returns the smallest high water mark that is used.
+     */
+    public int minHigh() {
+        return minHigh;
+    }
+
+    /**
+     * Returns the largest high water mark that is used.
+     */
+    public int maxHigh() {
+        return maxHigh;
+    }
+
+    /**
+     * Returns the number of milliseconds between two samples of {@code TCP_INFO}.
+     */
+    public long sampleIntervalMillis() {
+        return sampleIntervalMillis;
+    }
+
+    /**
+     * Returns the high water mark for a connection with the given congestion window and maximum segment size.
+     */
+    int highWaterMark(long sndCwnd, long sndMss) {
+        long high = 2 * sndCwnd * sndMss;
+        if (high <= minHigh) {
+            return minHigh;
+        }
+        return high >= maxHigh ? maxHigh : (int) high;
+    }
+
+    @Override
+    public String toString() {
+        return "EpollAdaptiveWaterMark(minHigh: " + minHigh + ", maxHigh: " + maxHigh +
+                ", sampleIntervalMillis: " + sampleIntervalMillis + ')';
+    }
+}
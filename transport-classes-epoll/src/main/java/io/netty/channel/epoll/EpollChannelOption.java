@@ -55,6 +55,15 @@ public final class EpollChannelOption<T> extends UnixChannelOption<T> {
 
     public static final ChannelOption<Integer> MAX_DATAGRAM_PAYLOAD_SIZE = valueOf("MAX_DATAGRAM_PAYLOAD_SIZE");
     public static final ChannelOption<Boolean> UDP_GRO = valueOf("UDP_GRO");
+    public static final ChannelOption<Boolean> UDP_GSO_COALESCING =
+            valueOf(EpollChannelOption.class, "UDP_GSO_COALESCING");
+    public static final ChannelOption<Boolean> SO_ZEROCOPY = valueOf(EpollChannelOption.class, "SO_ZEROCOPY");
+    public static final ChannelOption<Integer> ZEROCOPY_SEND_THRESHOLD =
+            valueOf(EpollChannelOption.class, "ZEROCOPY_SEND_THRESHOLD");
+    public static final ChannelOption<Integer> SO_TIMESTAMPING =
+            valueOf(EpollChannelOption.class, "SO_TIMESTAMPING");
+    public static final ChannelOption<EpollAdaptiveWaterMark> ADAPTIVE_WRITE_BUFFER_WATER_MARK =
+            valueOf(EpollChannelOption.class, "ADAPTIVE_WRITE_BUFFER_WATER_MARK");
 
     @SuppressWarnings({ "unused", "deprecation" })
     private EpollChannelOption() {
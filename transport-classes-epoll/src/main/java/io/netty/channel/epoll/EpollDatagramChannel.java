@@ -331,6 +331,7 @@ public final class EpollDatagramChannel extends AbstractEpollChannel implements
     @Override
     protected void doWrite(ChannelOutboundBuffer in) throws Exception {
         int maxMessagesPerWrite = maxMessagesPerWrite();
+        boolean coalesce = config.isUdpGsoCoalescing() && isSegmentedDatagramPacketSupported();
         while (maxMessagesPerWrite > 0) {
             Object msg = in.current();
             if (msg == null) {
@@ -338,13 +339,14 @@ public final class EpollDatagramChannel extends AbstractEpollChannel implements
                 break;
             }
 
+            boolean coalesced = false;
             try {
                 // Check if sendmmsg(...) is supported which is only the case for GLIBC 2.14+
                 if (Native.IS_SUPPORTING_SENDMMSG && in.size() > 1 ||
                         // We only handle UDP_SEGMENT in sendmmsg.
                         in.current() instanceof io.netty.channel.unix.SegmentedDatagramPacket) {
                     NativeDatagramPacketArray array = cleanDatagramPacketArray();
-                    array.add(in, isConnected(), maxMessagesPerWrite);
+                    array.add(in, isConnected(), maxMessagesPerWrite, coalesce);
                     int cnt = array.count();
 
                     if (cnt >= 1) {
@@ -352,15 +354,20 @@ public final class EpollDatagramChannel extends AbstractEpollChannel implements
                         int offset = 0;
                         NativeDatagramPacketArray.NativeDatagramPacket[] packets = array.packets();
 
+                        // sendmmsg(...) only fails if the first packet could not be sent.
+                        coalesced = packets[0].isCoalesced();
                         int send = socket.sendmmsg(packets, offset, cnt);
                         if (send == 0) {
                             // Did not write all messages.
                             break;
                         }
                         for (int i = 0; i < send; i++) {
-                            in.remove();
+                            // A coalesced packet contains multiple messages.
+                            for (int j = packets[i].messages(); j > 0; j--) {
+                                in.remove();
+                                maxMessagesPerWrite--;
+                            }
                         }
-                        maxMessagesPerWrite -= send;
                         continue;
                     }
                 }
@@ -379,6 +386,12 @@ public final class EpollDatagramChannel extends AbstractEpollChannel implements
                     break;
                 }
             } catch (IOException e) {
+                if (coalesced) {
+                    // The kernel refused the UDP_SEGMENT send, for example because a segment is bigger than the
+                    // MTU. Send the messages one by one, so each of them fails or succeeds on its own.
+                    coalesce = false;
+                    continue;
+                }
                 maxMessagesPerWrite --;
                 // Continue on write error as a DatagramChannel can write to multiple remote peers
                 //
@@ -51,7 +51,7 @@ public final class EpollDatagramChannelConfig extends EpollChannelConfig impleme
                 ChannelOption.IP_TOS, ChannelOption.DATAGRAM_CHANNEL_ACTIVE_ON_REGISTRATION,
                 EpollChannelOption.SO_REUSEPORT, EpollChannelOption.IP_FREEBIND, EpollChannelOption.IP_TRANSPARENT,
                 EpollChannelOption.IP_RECVORIGDSTADDR, EpollChannelOption.MAX_DATAGRAM_PAYLOAD_SIZE,
-                EpollChannelOption.UDP_GRO);
+                EpollChannelOption.UDP_GRO, EpollChannelOption.UDP_GSO_COALESCING);
     }
 
     @SuppressWarnings({ "unchecked", "deprecation" })
@@ -105,6 +105,9 @@ public final class EpollDatagramChannelConfig extends EpollChannelConfig impleme
         if (option == EpollChannelOption.UDP_GRO) {
             return (T) Boolean.valueOf(isUdpGro());
         }
+        if (option == EpollChannelOption.UDP_GSO_COALESCING) {
+            return (T) Boolean.valueOf(isUdpGsoCoalescing());
+        }
         return super.getOption(option);
     }
 
@@ -145,6 +148,8 @@ public final class EpollDatagramChannelConfig extends EpollChannelConfig impleme
             setMaxDatagramPayloadSize((Integer) value);
         } else if (option == EpollChannelOption.UDP_GRO) {
             setUdpGro((Boolean) value);
+        } else if (option == EpollChannelOption.UDP_GSO_COALESCING) {
+            setUdpGsoCoalescing((Boolean) value);
         } else {
             return super.setOption(option, value);
         }
@@ -559,6 +564,30 @@ public final class EpollDatagramChannelConfig extends EpollChannelConfig impleme
         return gro;
     }
 
+    private volatile boolean gsoCoalescing;
+
+    /**
+     * Enable / disable merging consecutive datagrams of the same size to the same recipient into one
+     * <a href="https://lwn.net/Articles/752184/">UDP_SEGMENT</a> send while flushing, as if they were written as one
+     * {@link io.netty.channel.unix.SegmentedDatagramPacket}. Only the last datagram of such a send may be smaller.
+     * This is only done if {@link EpollDatagramChannel#isSegmentedDatagramPacketSupported()} returns {@code true}.
+     * If the kernel refuses a merged send the datagrams are sent one by one.
+     * @param gsoCoalescing {@code true} if datagrams should be merged, {@code false} otherwise.
+     * @return this.
+     */
+    public EpollDatagramChannelConfig setUdpGsoCoalescing(boolean gsoCoalescing) {
+        this.gsoCoalescing = gsoCoalescing;
+        return this;
+    }
+
+    /**
+     * Returns if datagrams are merged into {@code UDP_SEGMENT} sends.
+     * @return {@code true} if enabled, {@code false} otherwise.
+     */
+    public boolean isUdpGsoCoalescing() {
+        return gsoCoalescing;
+    }
+
     @Override
     public EpollDatagramChannelConfig setMaxMessagesPerWrite(int maxMessagesPerWrite) {
         super.setMaxMessagesPerWrite(maxMessagesPerWrite);
@@ -173,6 +173,9 @@ public final class EpollDomainSocketChannel extends AbstractEpollStreamChannel i
                         close(voidPromise());
                         return;
                     default:
+                        // Every received descriptor is a complete read, so more of them may be queued already. Reading
+                        // stops only when recvFd() returns 0, otherwise epoll ET would not notify us about them again.
+                        allocHandle.attemptedBytesRead(allocHandle.lastBytesRead());
                         allocHandle.incMessagesRead(1);
                         readPending = false;
                         pipeline.fireChannelRead(new FileDescriptor(allocHandle.lastBytesRead()));
@@ -22,6 +22,7 @@ import io.netty.channel.EventLoopTaskQueueFactory;
 import io.netty.channel.SelectStrategy;
 import io.netty.channel.SingleThreadEventLoop;
 import io.netty.channel.epoll.AbstractEpollChannel.AbstractEpollUnsafe;
+import io.netty.channel.unix.Errors;
 import io.netty.channel.unix.FileDescriptor;
 import io.netty.channel.unix.IovArray;
 import io.netty.util.IntSupplier;
@@ -36,6 +37,7 @@ import io.netty.util.internal.logging.InternalLogger;
 import io.netty.util.internal.logging.InternalLoggerFactory;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Queue;
 import java.util.concurrent.Executor;
@@ -50,6 +52,8 @@ public class EpollEventLoop extends SingleThreadEventLoop {
     private static final InternalLogger logger = InternalLoggerFactory.getInstance(EpollEventLoop.class);
     private static final long EPOLL_WAIT_MILLIS_THRESHOLD =
             SystemPropertyUtil.getLong("io.netty.channel.epoll.epollWaitThreshold", 10);
+    private static final int PIPE_POOL_SIZE =
+            Math.max(0, SystemPropertyUtil.getInt("io.netty.channel.epoll.pipePoolSize", 16));
 
     static {
         // Ensure JNI is initialized by the time this class is loaded by this time!
@@ -61,12 +65,22 @@ public class EpollEventLoop extends SingleThreadEventLoop {
     private FileDescriptor eventFd;
     private FileDescriptor timerFd;
     private final IntObjectMap<AbstractEpollChannel> channels = new IntObjectHashMap<AbstractEpollChannel>(4096);
+    // File descriptors that do not belong to a registered channel but are watched for EPOLLERR.
+    private final IntObjectMap<ErrorQueueWatcher> errorQueueWatchers = new IntObjectHashMap<ErrorQueueWatcher>();
     private final boolean allowGrowing;
     private final EpollEventArray events;
+    // The channels whose flags were modified since the last epoll_wait, and the (fd, flags) pairs that are passed to
+    // epoll_ctl for them.
+    private AbstractEpollChannel[] modifiedChannels = new AbstractEpollChannel[16];
+    private int numModifiedChannels;
+    private int[] modifications = new int[32];
 
     // These are initialized on first use
     private IovArray iovArray;
     private NativeDatagramPacketArray datagramPacketArray;
+    // Empty pipes that can be reused for splicing, stored as (read end, write end) pairs.
+    private FileDescriptor[] pipePool;
+    private int pipePoolCount;
 
     private final SelectStrategy selectStrategy;
     private final IntSupplier selectNowSupplier = new IntSupplier() {
@@ -86,6 +100,14 @@ public class EpollEventLoop extends SingleThreadEventLoop {
     private final AtomicLong nextWakeupNanos = new AtomicLong(AWAKE);
     private boolean pendingWakeup;
     private volatile int ioRatio = 50;
+    private volatile long busyWaitNanos;
+
+    // Adaptive busy wait state, only modified by the EventLoop thread.
+    private boolean busyWaitActive;
+    private volatile long busyWaitHits;
+    private volatile long busyWaitMisses;
+    private volatile long busyWaitTotalNanos;
+    private volatile long parks;
 
     // See https://man7.org/linux/man-pages/man2/timerfd_create.2.html.
     private static final long MAX_SCHEDULED_TIMERFD_NS = 999999999;
@@ -194,6 +216,52 @@ public class EpollEventLoop extends SingleThreadEventLoop {
         return datagramPacketArray;
     }
 
+    /**
+     * Return an empty pipe that can be used for splicing in this {@link EventLoop}. Once it is not needed anymore
+     * it should be given back via {@link #releasePipe(FileDescriptor, FileDescriptor)}.
+     */
+    FileDescriptor[] acquirePipe() throws IOException {
+        assert inEventLoop();
+        if (pipePoolCount == 0) {
+            return FileDescriptor.pipe();
+        }
+        int idx = --pipePoolCount << 1;
+        FileDescriptor[] pipe = { pipePool[idx], pipePool[idx + 1] };
+        pipePool[idx] = null;
+        pipePool[idx + 1] = null;
+        return pipe;
+    }
+
+    /**
+     * Give back a pipe acquired via {@link #acquirePipe()}. The pipe must be empty, otherwise the data in it would
+     * leak into the next splice operation that uses it.
+     */
+    void releasePipe(FileDescriptor pipeIn, FileDescriptor pipeOut) {
+        assert inEventLoop();
+        if (pipePoolCount < PIPE_POOL_SIZE && !isShuttingDown()) {
+            if (pipePool == null) {
+                pipePool = new FileDescriptor[PIPE_POOL_SIZE << 1];
+            }
+            int idx = pipePoolCount++ << 1;
+            pipePool[idx] = pipeIn;
+            pipePool[idx + 1] = pipeOut;
+        } else {
+            AbstractEpollStreamChannel.safeClosePipe(pipeIn);
+            AbstractEpollStreamChannel.safeClosePipe(pipeOut);
+        }
+    }
+
+    private void closePipePool() {
+        FileDescriptor[] pipePool = this.pipePool;
+        if (pipePool != null) {
+            for (int i = 0; i < pipePoolCount << 1; i++) {
+                AbstractEpollStreamChannel.safeClosePipe(pipePool[i]);
+                pipePool[i] = null;
+            }
+            pipePoolCount = 0;
+        }
+    }
+
     @Override
     protected void wakeup(boolean inEventLoop) {
         if (!inEventLoop && nextWakeupNanos.getAndSet(AWAKE) != AWAKE) {
@@ -221,6 +289,7 @@ public class EpollEventLoop extends SingleThreadEventLoop {
         assert inEventLoop();
         int fd = ch.socket.intValue();
         Native.epollCtlAdd(epollFd.intValue(), fd, ch.flags);
+        ch.registeredFlags = ch.flags;
         AbstractEpollChannel old = channels.put(fd, ch);
 
         // We either expect to have no Channel in the map with the same FD or that the FD of the old Channel is already
@@ -229,11 +298,103 @@ public class EpollEventLoop extends SingleThreadEventLoop {
     }
 
     /**
-     * The flags of the given epoll was modified so update the registration
+     * The flags of the given epoll was modified so update the registration. The registration is only updated right
+     * before the next {@code epoll_wait}, together with all other modified channels, so a flag that is toggled back
+     * and forth while processing the events and tasks of one iteration costs no {@code epoll_ctl} at all.
      */
-    void modify(AbstractEpollChannel ch) throws IOException {
+    void modify(AbstractEpollChannel ch) {
         assert inEventLoop();
-        Native.epollCtlMod(epollFd.intValue(), ch.socket.intValue(), ch.flags);
+        if (ch.modificationPending) {
+            return;
+        }
+        ch.modificationPending = true;
+        if (numModifiedChannels == modifiedChannels.length) {
+            modifiedChannels = Arrays.copyOf(modifiedChannels, numModifiedChannels << 1);
+        }
+        modifiedChannels[numModifiedChannels++] = ch;
+    }
+
+    /**
+     * Updates the registrations of all channels that were modified since the last call with a single JNI call.
+     */
+    private void applyModifications() {
+        final int numModified = numModifiedChannels;
+        if (numModified == 0) {
+            return;
+        }
+        final AbstractEpollChannel[] modified = modifiedChannels;
+        if (modifications.length < numModified << 1) {
+            modifications = new int[modifiedChannels.length << 1];
+        }
+        final int[] modifications = this.modifications;
+        int len = 0;
+        for (int i = 0; i < numModified; i++) {
+            AbstractEpollChannel ch = modified[i];
+            modified[i] = null;
+            if (ch == null) {
+                // Removed in the meantime.
+                continue;
+            }
+            ch.modificationPending = false;
+            // If the channel was closed its fd may be used by another channel already.
+            if (ch.isOpen() && ch.flags != ch.registeredFlags) {
+                modifications[len << 1] = ch.socket.intValue();
+                modifications[(len << 1) + 1] = ch.flags;
+                ch.registeredFlags = ch.flags;
+                // Keep the channel in case epoll_ctl fails.
+                modified[len++] = ch;
+            }
+        }
+        numModifiedChannels = 0;
+        if (len == 0) {
+            return;
+        }
+        int failed = Native.epollCtlModBatch(epollFd.intValue(), modifications, len);
+        if (failed == 0) {
+            Arrays.fill(modified, 0, len, null);
+            return;
+        }
+        // Closing may modify other channels, so take the failed channels out first.
+        AbstractEpollChannel[] failedChannels = new AbstractEpollChannel[failed];
+        int[] errors = new int[failed];
+        for (int i = 0, j = 0; i < len; i++) {
+            if (modifications[i << 1] < 0) {
+                failedChannels[j] = modified[i];
+                errors[j++] = modifications[i << 1];
+            }
+            modified[i] = null;
+        }
+        for (int i = 0; i < failed; i++) {
+            AbstractEpollChannel ch = failedChannels[i];
+            ch.pipeline().fireExceptionCaught(Errors.newIOException("epoll_ctl", errors[i]));
+            ch.unsafe().close(ch.unsafe().voidPromise());
+        }
+    }
+
+    /**
+     * Watches {@code fd}, which must not belong to a channel, for {@code EPOLLERR} until
+     * {@link #removeErrorQueueWatcher(int)} is called or this {@link EventLoop} terminates.
+     */
+    void addErrorQueueWatcher(int fd, ErrorQueueWatcher watcher) throws IOException {
+        assert inEventLoop();
+        // EPOLLERR and EPOLLHUP are always reported, edge-triggered so EPOLLHUP is reported only once.
+        Native.epollCtlAdd(epollFd.intValue(), fd, Native.EPOLLET);
+        errorQueueWatchers.put(fd, watcher);
+    }
+
+    /**
+     * Stops watching a file descriptor that was passed to {@link #addErrorQueueWatcher(int, ErrorQueueWatcher)}. It
+     * must still be open.
+     */
+    void removeErrorQueueWatcher(int fd) {
+        assert inEventLoop();
+        if (errorQueueWatchers.remove(fd) != null) {
+            try {
+                Native.epollCtlDel(epollFd.intValue(), fd);
+            } catch (IOException e) {
+                logger.debug("Failed to stop watching fd {}", fd, e);
+            }
+        }
     }
 
     /**
@@ -242,6 +403,15 @@ public class EpollEventLoop extends SingleThreadEventLoop {
     void remove(AbstractEpollChannel ch) throws IOException {
         assert inEventLoop();
         int fd = ch.socket.intValue();
+        if (ch.modificationPending) {
+            ch.modificationPending = false;
+            for (int i = 0; i < numModifiedChannels; i++) {
+                if (modifiedChannels[i] == ch) {
+                    modifiedChannels[i] = null;
+                    break;
+                }
+            }
+        }
 
         AbstractEpollChannel old = channels.remove(fd);
         if (old != null && old != ch) {
@@ -250,9 +420,10 @@ public class EpollEventLoop extends SingleThreadEventLoop {
 
             // If we found another Channel in the map that is mapped to the same FD the given Channel MUST be closed.
             assert !ch.isOpen();
-        } else if (ch.isOpen()) {
+        } else if (old != null && ch.isOpen()) {
             // Remove the epoll. This is only needed if it's still open as otherwise it will be automatically
-            // removed once the file-descriptor is closed.
+            // removed once the file-descriptor is closed. If the Channel was not mapped it was removed before, for
+            // example by prepareToClose() when SO_LINGER is used.
             Native.epollCtlDel(epollFd.intValue(), fd);
         }
     }
@@ -286,6 +457,59 @@ public class EpollEventLoop extends SingleThreadEventLoop {
         this.ioRatio = ioRatio;
     }
 
+    /**
+     * Returns the maximum time in nanoseconds the event loop busy waits for new events before it blocks in
+     * {@code epoll_wait}, see {@link #setBusyWaitNanos(long)}.
+     */
+    public long getBusyWaitNanos() {
+        return busyWaitNanos;
+    }
+
+    /**
+     * Sets the maximum time in nanoseconds the event loop busy waits for new events before it blocks in
+     * {@code epoll_wait}. The event loop only busy waits as long as the previous wait returned events, so an idle
+     * event loop does not burn a core. The default value is {@code 0}, which disables busy waiting.
+     * <p>
+     * In contrast to a {@link SelectStrategy} that always returns {@link SelectStrategy#BUSY_WAIT}, this allows
+     * wakeups with low latency while the event loop is busy without pinning the core when it is not.
+     */
+    public void setBusyWaitNanos(long busyWaitNanos) {
+        this.busyWaitNanos = ObjectUtil.checkPositiveOrZero(busyWaitNanos, "busyWaitNanos");
+    }
+
+    /**
+     * Returns how often busy waiting found new events or tasks before {@link #getBusyWaitNanos()} elapsed.
+     */
+    @UnstableApi
+    public long busyWaitHits() {
+        return busyWaitHits;
+    }
+
+    /**
+     * Returns how often busy waiting did not find new events or tasks, after which the event loop blocked in
+     * {@code epoll_wait}.
+     */
+    @UnstableApi
+    public long busyWaitMisses() {
+        return busyWaitMisses;
+    }
+
+    /**
+     * Returns the total time in nanoseconds the event loop spent busy waiting.
+     */
+    @UnstableApi
+    public long busyWaitTotalNanos() {
+        return busyWaitTotalNanos;
+    }
+
+    /**
+     * Returns how often the event loop blocked in {@code epoll_wait}.
+     */
+    @UnstableApi
+    public long parks() {
+        return parks;
+    }
+
     @Override
     public int registeredChannels() {
         return channels.size();
@@ -302,6 +526,7 @@ public class EpollEventLoop extends SingleThreadEventLoop {
     }
 
     private long epollWait(long deadlineNanos) throws IOException {
+        applyModifications();
         if (deadlineNanos == NONE) {
             return Native.epollWait(epollFd, events, timerFd,
                     Integer.MAX_VALUE, 0, EPOLL_WAIT_MILLIS_THRESHOLD); // disarm timer
@@ -313,18 +538,48 @@ public class EpollEventLoop extends SingleThreadEventLoop {
     }
 
     private int epollWaitNoTimerChange() throws IOException {
+        applyModifications();
         return Native.epollWait(epollFd, events, false);
     }
 
     private int epollWaitNow() throws IOException {
+        applyModifications();
         return Native.epollWait(epollFd, events, true);
     }
 
     private int epollBusyWait() throws IOException {
+        applyModifications();
         return Native.epollBusyWait(epollFd, events);
     }
 
+    /**
+     * Busy waits until events are ready, a task was submitted, {@link #busyWaitNanos} elapsed or the given deadline
+     * is reached.
+     */
+    private int epollBusyWait(long busyWaitNanos, long deadlineNanos) throws IOException {
+        if (deadlineNanos != NONE) {
+            busyWaitNanos = min(busyWaitNanos, deadlineToDelayNanos(deadlineNanos));
+        }
+        long start = System.nanoTime();
+        long elapsed;
+        int ready;
+        do {
+            ready = epollBusyWait();
+            elapsed = System.nanoTime() - start;
+        } while (ready == 0 && elapsed < busyWaitNanos && !hasTasks());
+
+        busyWaitTotalNanos += elapsed;
+        if (ready == 0 && !hasTasks()) {
+            busyWaitMisses++;
+            busyWaitActive = false;
+        } else {
+            busyWaitHits++;
+        }
+        return ready;
+    }
+
     private int epollWaitTimeboxed() throws IOException {
+        applyModifications();
         // Wait with 1 second "safeguard" timeout
         return Native.epollWait(epollFd, events, 1000);
     }
@@ -365,9 +620,21 @@ public class EpollEventLoop extends SingleThreadEventLoop {
                         if (curDeadlineNanos == -1L) {
                             curDeadlineNanos = NONE; // nothing on the calendar
                         }
+                        if (busyWaitActive) {
+                            // The last wait returned events, so more are likely to follow soon. Spin for a bit
+                            // before blocking so these are picked up without the wakeup latency of epoll_wait.
+                            // nextWakeupNanos stays AWAKE, so submitted tasks do not write to the eventfd.
+                            strategy = epollBusyWait(busyWaitNanos, curDeadlineNanos);
+                            if (strategy != 0 || hasTasks()) {
+                                break;
+                            }
+                        }
                         nextWakeupNanos.set(curDeadlineNanos);
                         try {
                             if (!hasTasks()) {
+                                if (busyWaitNanos > 0) {
+                                    parks++;
+                                }
                                 if (curDeadlineNanos == prevDeadlineNanos) {
                                     // No timer activity needed
                                     strategy = epollWaitNoTimerChange();
@@ -390,6 +657,8 @@ public class EpollEventLoop extends SingleThreadEventLoop {
                         // fallthrough
                     default:
                 }
+                // Only busy wait while events or tasks keep arriving, an idle EventLoop blocks right away.
+                busyWaitActive = busyWaitNanos > 0 && (strategy > 0 || busyWaitActive && hasTasks());
 
                 final int ioRatio = this.ioRatio;
                 if (ioRatio == 100) {
@@ -516,6 +785,11 @@ public class EpollEventLoop extends SingleThreadEventLoop {
                         unsafe.epollRdHupReady();
                     }
                 } else {
+                    ErrorQueueWatcher watcher = errorQueueWatchers.get(fd);
+                    if (watcher != null) {
+                        watcher.errorQueueReady();
+                        continue;
+                    }
                     // We received an event for an fd which we not use anymore. Remove it from the epoll_event set.
                     try {
                         Native.epollCtlDel(epollFd.intValue(), fd);
@@ -534,6 +808,12 @@ public class EpollEventLoop extends SingleThreadEventLoop {
     @Override
     protected void cleanup() {
         try {
+            if (!errorQueueWatchers.isEmpty()) {
+                for (ErrorQueueWatcher watcher : errorQueueWatchers.values().toArray(new ErrorQueueWatcher[0])) {
+                    watcher.eventLoopTerminated();
+                }
+                errorQueueWatchers.clear();
+            }
             closeFileDescriptors();
         } finally {
             // release native memory
@@ -545,6 +825,7 @@ public class EpollEventLoop extends SingleThreadEventLoop {
                 datagramPacketArray.release();
                 datagramPacketArray = null;
             }
+            closePipePool();
             events.free();
         }
     }
@@ -592,4 +873,20 @@ public class EpollEventLoop extends SingleThreadEventLoop {
             logger.warn("Failed to close the epoll fd.", e);
         }
     }
+
+    /**
+     * Is notified about a file descriptor that was passed to {@link #addErrorQueueWatcher(int, ErrorQueueWatcher)}.
+     */
+    interface ErrorQueueWatcher {
+        /**
+         * Called on the {@link EventLoop} once {@code EPOLLERR} or {@code EPOLLHUP} was reported for the file
+         * descriptor.
+         */
+        void errorQueueReady();
+
+        /**
+         * Called on the {@link EventLoop} when it terminates while the file descriptor is still watched.
+         */
+        void eventLoopTerminated();
+    }
 }
@@ -15,6 +15,9 @@
  */
 package io.netty.channel.epoll;
 
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelPromise;
 import io.netty.channel.DefaultSelectStrategyFactory;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
@@ -27,9 +30,13 @@ import io.netty.util.concurrent.EventExecutorChooserFactory;
 import io.netty.util.concurrent.RejectedExecutionHandler;
 import io.netty.util.concurrent.RejectedExecutionHandlers;
 
+import java.io.IOException;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
 
+import static io.netty.util.internal.ObjectUtil.checkPositiveOrZero;
+
 /**
  * {@link EventLoopGroup} which uses epoll under the covers. Because of this
  * it only works on linux.
@@ -41,6 +48,8 @@ public final class EpollEventLoopGroup extends MultithreadEventLoopGroup {
         Epoll.ensureAvailability();
     }
 
+    private volatile EventLoop[] incomingCpuEventLoops;
+
     /**
      * Create a new instance using the default number of threads and the default {@link ThreadFactory}.
      */
@@ -169,6 +178,101 @@ public final class EpollEventLoopGroup extends MultithreadEventLoopGroup {
         }
     }
 
+    /**
+     * Sets the maximum time in nanoseconds the child event loops busy wait for new events before they block in
+     * {@code epoll_wait}. The default value is {@code 0}, which disables busy waiting.
+     *
+     * @see EpollEventLoop#setBusyWaitNanos(long)
+     */
+    public void setBusyWaitNanos(long busyWaitNanos) {
+        for (EventExecutor e: this) {
+            ((EpollEventLoop) e).setBusyWaitNanos(busyWaitNanos);
+        }
+    }
+
+    /**
+     * Registers the {@link EpollSocketChannel}s that were accepted by an {@link EpollServerSocketChannel} with the
+     * {@link EventLoop} that runs on the CPU which processed the packets of the connection, as reported by
+     * {@code SO_INCOMING_CPU}, instead of the next {@link EventLoop}. This keeps a connection on the CPU that handles
+     * its packets without binding one listener per {@link EventLoop} like {@link EpollReusePortAcceptors} does, as
+     * long as the threads of the {@link EventLoop}s are pinned to the given CPUs.
+     * <p>
+     * Connections that were processed by a CPU without an {@link EventLoop} are registered with the
+     * {@link EventLoop} of the nearest CPU. If the CPU is not known (before linux 3.19) the next {@link EventLoop}
+     * is used.
+     *
+     * @param eventLoopsByCpu the {@link EventLoop} of this group that is pinned to each CPU, or {@code null} to
+     *                        always use the next {@link EventLoop}.
+     */
+    public void setIncomingCpuEventLoops(Map<Integer, ? extends EventLoop> eventLoopsByCpu) {
+        if (eventLoopsByCpu != null) {
+            for (EventLoop loop : eventLoopsByCpu.values()) {
+                if (loop == null || loop.parent() != this) {
+                    throw new IllegalArgumentException("Not an EventLoop of this group: " + loop);
+                }
+            }
+        }
+        incomingCpuEventLoops = incomingCpuEventLoops(eventLoopsByCpu);
+    }
+
+    /**
+     * Returns the {@link EventLoop}s indexed by CPU, with the gaps filled with the {@link EventLoop} of the nearest
+     * CPU.
+     */
+    static EventLoop[] incomingCpuEventLoops(Map<Integer, ? extends EventLoop> eventLoopsByCpu) {
+        if (eventLoopsByCpu == null || eventLoopsByCpu.isEmpty()) {
+            return null;
+        }
+        int maxCpu = -1;
+        for (Integer cpu : eventLoopsByCpu.keySet()) {
+            maxCpu = Math.max(maxCpu, checkPositiveOrZero(cpu, "cpu"));
+        }
+        EventLoop[] loops = new EventLoop[maxCpu + 1];
+        for (int cpu = 0; cpu < loops.length; cpu++) {
+            for (int distance = 0; loops[cpu] == null; distance++) {
+                // Prefer the lower CPU if two are equally near.
+                loops[cpu] = eventLoopsByCpu.get(cpu - distance);
+                if (loops[cpu] == null) {
+                    loops[cpu] = eventLoopsByCpu.get(cpu + distance);
+                }
+            }
+        }
+        return loops;
+    }
+
+    @Override
+    public ChannelFuture register(Channel channel) {
+        EventLoop loop = incomingCpuEventLoop(channel);
+        return loop == null ? super.register(channel) : loop.register(channel);
+    }
+
+    @Override
+    public ChannelFuture register(ChannelPromise promise) {
+        EventLoop loop = incomingCpuEventLoop(promise.channel());
+        return loop == null ? super.register(promise) : loop.register(promise);
+    }
+
+    @Deprecated
+    @Override
+    public ChannelFuture register(Channel channel, ChannelPromise promise) {
+        EventLoop loop = incomingCpuEventLoop(channel);
+        return loop == null ? super.register(channel, promise) : loop.register(channel, promise);
+    }
+
+    private EventLoop incomingCpuEventLoop(Channel channel) {
+        EventLoop[] loops = incomingCpuEventLoops;
+        if (loops == null || !(channel instanceof EpollSocketChannel) || channel.parent() == null) {
+            return null;
+        }
+        int cpu;
+        try {
+            cpu = ((EpollSocketChannel) channel).socket.getIncomingCpu();
+        } catch (IOException e) {
+            return null;
+        }
+        return cpu < 0 ? null : loops[Math.min(cpu, loops.length - 1)];
+    }
+
     @Override
     protected EventLoop newChild(Executor executor, Object... args) throws Exception {
         Integer maxEvents = (Integer) args[0];
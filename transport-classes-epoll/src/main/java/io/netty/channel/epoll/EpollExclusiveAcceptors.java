@@ -0,0 +1,139 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFactory;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.netty.util.internal.ObjectUtil.checkNotNull;
+
+/**
+ * Shares one listening socket between all {@link EventLoop}s of a group, instead of accepting all connections on a
+ * single {@link EventLoop}.
+ * <p>
+ * Every {@link EventLoop} gets its own {@link EpollServerSocketChannel} for a duplicate of the file descriptor of the
+ * listening socket, which is registered with {@code EPOLLEXCLUSIVE}. When a connection is pending the kernel wakes up
+ * only one (or a few) of the waiting {@link EventLoop}s instead of all of them, and whichever accepts the connection
+ * serves it on its own {@link EventLoop}. Unlike {@link EpollReusePortAcceptors} there is a single accept queue, so
+ * an idle {@link EventLoop} picks up the next connection instead of the kernel assigning it by hash. Before linux 4.5
+ * {@code EPOLLEXCLUSIVE} is ignored and all {@link EventLoop}s are woken up for every connection.
+ */
+public final class EpollExclusiveAcceptors {
+
+    private EpollExclusiveAcceptors() { }
+
+    /**
+     * Binds a listener to {@code localAddress} and shares it between all {@link EpollEventLoop}s of {@code group}.
+     * The socket stays bound until all of the returned {@link Channel}s are closed.
+     *
+     * @param bootstrap     the template used for every {@link Channel}. Its group and channel must not be set, it is
+     *                      not modified.
+     * @param group         the {@link EventLoopGroup} that consists of {@link EpollEventLoop}s.
+     * @param localAddress  the address to bind to.
+     * @return              the {@link Future} which is notified with one {@link Channel} per {@link EventLoop}, in the
+     *                      order of the {@link EventLoop}s, once all of them are registered. If one of them can not be
+     *                      registered, all that were registered before are closed again.
+     */
+    public static Future<List<Channel>> bind(ServerBootstrap bootstrap, EventLoopGroup group,
+                                             SocketAddress localAddress) {
+        checkNotNull(bootstrap, "bootstrap");
+        checkNotNull(group, "group");
+        checkNotNull(localAddress, "localAddress");
+
+        List<EventLoop> loops = EpollAcceptors.epollEventLoops(group);
+        EventLoop loop = loops.get(0);
+        Promise<List<Channel>> promise = loop.newPromise();
+        List<Channel> channels = new ArrayList<Channel>(loops.size());
+        bootstrap.clone()
+                .group(loop, loop)
+                .channelFactory(new ExclusiveChannelFactory(null))
+                .bind(localAddress).addListener(new RegisterNextListener(bootstrap, loops, channels, promise));
+        return promise;
+    }
+
+    private static final class RegisterNextListener implements ChannelFutureListener {
+        private final ServerBootstrap bootstrap;
+        private final List<EventLoop> loops;
+        private final List<Channel> channels;
+        private final Promise<List<Channel>> promise;
+
+        RegisterNextListener(ServerBootstrap bootstrap, List<EventLoop> loops, List<Channel> channels,
+                             Promise<List<Channel>> promise) {
+            this.bootstrap = bootstrap;
+            this.loops = loops;
+            this.channels = channels;
+            this.promise = promise;
+        }
+
+        @Override
+        public void operationComplete(ChannelFuture future) {
+            if (!future.isSuccess()) {
+                fail(future.cause());
+                return;
+            }
+            channels.add(future.channel());
+            if (channels.size() == loops.size()) {
+                EpollAcceptors.succeed(channels, promise);
+                return;
+            }
+            LinuxSocket socket;
+            try {
+                socket = ((EpollServerSocketChannel) channels.get(0)).socket.dup();
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+            EventLoop loop = loops.get(channels.size());
+            bootstrap.clone()
+                    .group(loop, loop)
+                    .channelFactory(new ExclusiveChannelFactory(socket))
+                    .register().addListener(this);
+        }
+
+        private void fail(Throwable cause) {
+            EpollAcceptors.fail(channels, promise, cause);
+        }
+    }
+
+    private static final class ExclusiveChannelFactory implements ChannelFactory<EpollServerSocketChannel> {
+        private final LinuxSocket socket;
+
+        ExclusiveChannelFactory(LinuxSocket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public EpollServerSocketChannel newChannel() {
+            EpollServerSocketChannel ch = socket == null ?
+                    new EpollServerSocketChannel() : new EpollServerSocketChannel(socket);
+            // Must be set before the channel is registered, as an exclusive registration can only be added.
+            ch.flags |= Native.EPOLLEXCLUSIVE;
+            return ch;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.bootstrap.ServerBootstrapConfig;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFactory;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.unix.DomainSocketReadMode;
+import io.netty.channel.unix.FileDescriptor;
+import io.netty.util.AttributeKey;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.netty.util.internal.ObjectUtil.checkNotNull;
+
+/**
+ * Hands TCP listeners and connections over to another process, so that process can serve them without binding again
+ * and without its clients having to reconnect, for example when the process is restarted.
+ * <p>
+ * The old process connects an {@link EpollDomainSocketChannel} to the new one and calls
+ * {@link #send(EpollDomainSocketChannel, Channel...)}, which passes the sockets with {@code SCM_RIGHTS}. The new
+ * process reads them with {@link DomainSocketReadMode#FILE_DESCRIPTORS} and registers every received
+ * {@link FileDescriptor} with {@link #register(ServerBootstrap, FileDescriptor)}. Connections that are still in the
+ * accept queue of a listener are accepted by the new process.
+ * <p>
+ * Data that was already read from a connection by the old process is not handed over, so connections should only be
+ * handed over between requests.
+ */
+public final class EpollHandoff {
+    // See linux/socket.h, these are the same on all architectures.
+    private static final int AF_INET = 2;
+    private static final int AF_INET6 = 10;
+
+    private EpollHandoff() { }
+
+    /**
+     * Sends the sockets of {@code channels} over {@code via}. Every channel is deregistered first, so this process
+     * stops accepting or reading from it, and closed once its socket was sent. Closing it only releases the socket
+     * in this process, the other process keeps serving it. A connection is only sent once the kernel completed all of
+     * its {@code MSG_ZEROCOPY} sends, see {@link EpollChannelOption#SO_ZEROCOPY}.
+     *
+     * @param via       the connection to the process that takes over the channels.
+     * @param channels  the {@link EpollServerSocketChannel}s and {@link EpollSocketChannel}s to hand over.
+     * @return          the {@link ChannelFuture} which is notified once all sockets were sent. If one could not be
+     *                  sent, it fails and the channel stays deregistered and open in this process.
+     */
+    public static ChannelFuture send(EpollDomainSocketChannel via, Channel... channels) {
+        checkNotNull(via, "via");
+        checkNotNull(channels, "channels");
+        for (Channel ch : channels) {
+            if (!(ch instanceof EpollServerSocketChannel) && !(ch instanceof EpollSocketChannel)) {
+                throw new IllegalArgumentException("channels must only consist of " +
+                        EpollServerSocketChannel.class.getSimpleName() + "s and " +
+                        EpollSocketChannel.class.getSimpleName() + "s: " + ch);
+            }
+        }
+        ChannelPromise promise = via.newPromise();
+        if (channels.length == 0) {
+            return promise.setSuccess();
+        }
+        AtomicInteger remaining = new AtomicInteger(channels.length);
+        for (Channel ch : channels) {
+            send(via, (AbstractEpollChannel) ch, remaining, promise);
+        }
+        return promise;
+    }
+
+    private static void send(final EpollDomainSocketChannel via, final AbstractEpollChannel ch,
+                             final AtomicInteger remaining, final ChannelPromise promise) {
+        ch.deregister().addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) {
+                if (!future.isSuccess()) {
+                    promise.tryFailure(future.cause());
+                    return;
+                }
+                if (ch instanceof AbstractEpollStreamChannel) {
+                    // Completions of MSG_ZEROCOPY sends are reported to whoever reads the error queue of the socket,
+                    // so they must all be collected before the other process may read it.
+                    ChannelPromise drained = ch.newPromise();
+                    drained.addListener(new ChannelFutureListener() {
+                        @Override
+                        public void operationComplete(ChannelFuture future) {
+                            if (!future.isSuccess()) {
+                                promise.tryFailure(future.cause());
+                                return;
+                            }
+                            sendFd(via, ch, remaining, promise);
+                        }
+                    });
+                    ((AbstractEpollStreamChannel) ch).awaitZeroCopySends(drained);
+                } else {
+                    sendFd(via, ch, remaining, promise);
+                }
+            }
+        });
+    }
+
+    private static void sendFd(final EpollDomainSocketChannel via, final AbstractEpollChannel ch,
+                               final AtomicInteger remaining, final ChannelPromise promise) {
+        // The FileDescriptor must not be closed, it only carries the number of the socket.
+        via.writeAndFlush(new FileDescriptor(ch.socket.intValue())).addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) {
+                if (!future.isSuccess()) {
+                    promise.tryFailure(future.cause());
+                    return;
+                }
+                ch.close();
+                if (remaining.decrementAndGet() == 0) {
+                    promise.trySuccess();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns a new channel for a socket that was received from another process: an
+     * {@link EpollServerSocketChannel} for a listener and an {@link EpollSocketChannel} for a connection. The channel
+     * is not registered yet.
+     *
+     * @throws IOException if {@code fd} is no TCP socket, then it is closed.
+     */
+    public static Channel adopt(FileDescriptor fd) throws IOException {
+        checkNotNull(fd, "fd");
+        LinuxSocket socket = new LinuxSocket(fd.intValue());
+        try {
+            int domain = socket.getSoDomain();
+            if ((domain == AF_INET || domain == AF_INET6) && socket.isSockStream()) {
+                return socket.isSoAcceptConn() ? new EpollServerSocketChannel(socket) :
+                        new EpollSocketChannel(socket, true);
+            }
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        socket.close();
+        throw new IOException("not a TCP socket: " + fd);
+    }
+
+    /**
+     * Adopts a socket that was received from another process and registers it with the configuration of
+     * {@code bootstrap}: a listener like {@link ServerBootstrap#register()}, so it accepts connections right away,
+     * and a connection like a channel that was accepted by such a listener, so it is read from right away.
+     *
+     * @param bootstrap the template for the channel, its channel must not be set. It is not modified.
+     * @param fd        the received listener or connection.
+     * @throws IOException if {@code fd} is no TCP socket, then it is closed.
+     */
+    public static ChannelFuture register(ServerBootstrap bootstrap, FileDescriptor fd) throws IOException {
+        checkNotNull(bootstrap, "bootstrap");
+        Channel ch = adopt(fd);
+        if (ch instanceof ServerChannel) {
+            return bootstrap.clone().channelFactory(new AdoptedChannelFactory<ServerChannel>((ServerChannel) ch))
+                    .register();
+        }
+        ServerBootstrapConfig config = bootstrap.config();
+        Bootstrap child = new Bootstrap()
+                .group(config.childGroup())
+                .channelFactory(new AdoptedChannelFactory<Channel>(ch))
+                .handler(config.childHandler());
+        for (Map.Entry<ChannelOption<?>, Object> e : config.childOptions().entrySet()) {
+            @SuppressWarnings("unchecked")
+            ChannelOption<Object> option = (ChannelOption<Object>) e.getKey();
+            child.option(option, e.getValue());
+        }
+        for (Map.Entry<AttributeKey<?>, Object> e : config.childAttrs().entrySet()) {
+            @SuppressWarnings("unchecked")
+            AttributeKey<Object> key = (AttributeKey<Object>) e.getKey();
+            child.attr(key, e.getValue());
+        }
+        return child.register();
+    }
+
+    private static final class AdoptedChannelFactory<T extends Channel> implements ChannelFactory<T> {
+        private final T channel;
+
+        AdoptedChannelFactory(T channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public T newChannel() {
+            return channel;
+        }
+    }
+}
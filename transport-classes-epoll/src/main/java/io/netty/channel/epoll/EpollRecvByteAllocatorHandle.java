@@ -19,6 +19,7 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.RecvByteBufAllocator.DelegatingHandle;
 import io.netty.channel.RecvByteBufAllocator.ExtendedHandle;
+import io.netty.channel.ScratchBufferRecvByteBufAllocator.ScratchHandle;
 import io.netty.channel.unix.PreferredDirectByteBufAllocator;
 import io.netty.util.UncheckedBooleanSupplier;
 
@@ -68,6 +69,15 @@ class EpollRecvByteAllocatorHandle extends DelegatingHandle implements ExtendedH
         return isEdgeTriggered;
     }
 
+    /**
+     * Returns the {@link ScratchHandle} that reads into the buffer of the event loop, or {@code null} if a buffer is
+     * allocated for every read.
+     */
+    final ScratchHandle scratchHandle() {
+        Object delegate = delegate();
+        return delegate instanceof ScratchHandle ? (ScratchHandle) delegate : null;
+    }
+
     @Override
     public final ByteBuf allocate(ByteBufAllocator alloc) {
         // We need to ensure we always allocate a direct ByteBuf as we can only use a direct buffer to read via JNI.
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelException;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.internal.logging.InternalLogger;
+import io.netty.util.internal.logging.InternalLoggerFactory;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.netty.util.internal.ObjectUtil.checkNotNull;
+
+/**
+ * Binds one {@link EpollServerSocketChannel} per {@link EventLoop} to the same address by using
+ * {@code SO_REUSEPORT}, instead of accepting all connections on a single {@link EventLoop}.
+ * <p>
+ * Each listener serves its accepted channels on its own {@link EventLoop}. A {@code SO_ATTACH_REUSEPORT_CBPF}
+ * program is attached to the group which hands a connection to the listener with the index
+ * {@code cpu % listeners}, where {@code cpu} is the CPU that received the SYN. To actually keep a connection on the
+ * CPU that handles its packets, the thread of the n-th {@link EventLoop} of the group should be pinned to the n-th CPU
+ * and receive side steering should be configured accordingly. If the kernel does not support the program
+ * (before linux 4.5) the kernel distributes the connections by hash.
+ */
+public final class EpollReusePortAcceptors {
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(EpollReusePortAcceptors.class);
+
+    private EpollReusePortAcceptors() { }
+
+    /**
+     * Binds one listener per {@link EpollEventLoop} of {@code group} to {@code localAddress}. If the port of
+     * {@code localAddress} is {@code 0} all listeners use the port that was chosen for the first one.
+     *
+     * @param bootstrap     the template used for every listener. Its group and channel must not be set, it is not
+     *                      modified.
+     * @param group         the {@link EventLoopGroup} that consists of {@link EpollEventLoop}s.
+     * @param localAddress  the address to bind to.
+     * @return              the {@link Future} which is notified with all listeners, in the order of the
+     *                      {@link EventLoop}s, once all of them are bound. If one of them can not be bound, all that
+     *                      were bound before are closed again.
+     */
+    public static Future<List<Channel>> bind(ServerBootstrap bootstrap, EventLoopGroup group,
+                                             SocketAddress localAddress) {
+        checkNotNull(bootstrap, "bootstrap");
+        checkNotNull(group, "group");
+        checkNotNull(localAddress, "localAddress");
+
+        List<EventLoop> loops = EpollAcceptors.epollEventLoops(group);
+        Promise<List<Channel>> promise = loops.get(0).newPromise();
+        bindNext(bootstrap, loops, localAddress, new ArrayList<Channel>(loops.size()), promise);
+        return promise;
+    }
+
+    private static void bindNext(final ServerBootstrap bootstrap, final List<EventLoop> loops,
+                                 final SocketAddress localAddress, final List<Channel> channels,
+                                 final Promise<List<Channel>> promise) {
+        // The index in the reuseport group is the order in which the sockets were bound, so bind them one by one.
+        EventLoop loop = loops.get(channels.size());
+        bootstrap.clone()
+                .group(loop, loop)
+                .channel(EpollServerSocketChannel.class)
+                .option(EpollChannelOption.SO_REUSEPORT, true)
+                .bind(localAddress).addListener(new ChannelFutureListener() {
+                    @Override
+                    public void operationComplete(ChannelFuture future) {
+                        if (!future.isSuccess()) {
+                            EpollAcceptors.fail(channels, promise, future.cause());
+                            return;
+                        }
+                        EpollServerSocketChannel channel = (EpollServerSocketChannel) future.channel();
+                        channels.add(channel);
+                        if (channels.size() < loops.size()) {
+                            bindNext(bootstrap, loops, channel.localAddress(), channels, promise);
+                            return;
+                        }
+                        try {
+                            // The program applies to the whole group, so it is enough to attach it once.
+                            channel.socket.attachReusePortCpuFilter(channels.size());
+                        } catch (IOException e) {
+                            logger.debug("Failed to attach the SO_REUSEPORT CPU filter to {}", channel, e);
+                        } catch (ChannelException e) {
+                            logger.debug("Failed to attach the SO_REUSEPORT CPU filter to {}", channel, e);
+                        }
+                        EpollAcceptors.succeed(channels, promise);
+                    }
+                });
+    }
+}
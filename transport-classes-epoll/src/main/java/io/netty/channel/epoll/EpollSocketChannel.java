@@ -19,10 +19,13 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelException;
 import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.EventLoop;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.socket.InternetProtocolFamily;
 import io.netty.channel.socket.ServerSocketChannel;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
 
 import java.io.IOException;
 import java.net.InetAddress;
@@ -32,6 +35,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import static io.netty.channel.epoll.LinuxSocket.newSocketStream;
 import static io.netty.channel.epoll.Native.IS_SUPPORTING_TCP_FASTOPEN_CLIENT;
@@ -46,6 +50,23 @@ public final class EpollSocketChannel extends AbstractEpollStreamChannel impleme
 
     private volatile Collection<InetAddress> tcpMd5SigAddresses = Collections.emptyList();
 
+    // Only accessed from the EventLoop.
+    private ScheduledFuture<?> waterMarkSampleFuture;
+    private EpollTcpInfo waterMarkTcpInfo;
+    private final Runnable waterMarkSampleTask = new Runnable() {
+        @Override
+        public void run() {
+            waterMarkSampleFuture = null;
+            EpollAdaptiveWaterMark adaptiveWaterMark = config.getAdaptiveWriteBufferWaterMark();
+            if (adaptiveWaterMark != null && isOpen()) {
+                if (isActive()) {
+                    adaptWaterMark(adaptiveWaterMark);
+                }
+                scheduleWaterMarkSample0();
+            }
+        }
+    };
+
     public EpollSocketChannel() {
         super(newSocketStream(), false);
         config = new EpollSocketChannelConfig(this);
@@ -121,6 +142,93 @@ public final class EpollSocketChannel extends AbstractEpollStreamChannel impleme
         return new EpollSocketChannelUnsafe();
     }
 
+    @Override
+    int zeroCopySendThreshold() {
+        return config.isSoZeroCopy() ? config.getZeroCopySendThreshold() : -1;
+    }
+
+    @Override
+    int timestampingFlags() {
+        return config.getSoTimestamping();
+    }
+
+    @Override
+    protected void doRegister() throws Exception {
+        super.doRegister();
+        scheduleWaterMarkSample0();
+    }
+
+    @Override
+    protected void doDeregister() throws Exception {
+        ScheduledFuture<?> future = waterMarkSampleFuture;
+        if (future != null) {
+            future.cancel(false);
+            waterMarkSampleFuture = null;
+        }
+        super.doDeregister();
+    }
+
+    void scheduleWaterMarkSample() {
+        if (!isRegistered()) {
+            // Scheduled once registered, see doRegister().
+            return;
+        }
+        EventLoop loop = eventLoop();
+        if (loop.inEventLoop()) {
+            scheduleWaterMarkSample0();
+        } else {
+            loop.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (isRegistered()) {
+                        scheduleWaterMarkSample0();
+                    }
+                }
+            });
+        }
+    }
+
+    private void scheduleWaterMarkSample0() {
+        EpollAdaptiveWaterMark adaptiveWaterMark = config.getAdaptiveWriteBufferWaterMark();
+        if (adaptiveWaterMark != null && waterMarkSampleFuture == null && isOpen()) {
+            waterMarkSampleFuture = eventLoop().schedule(
+                    waterMarkSampleTask, adaptiveWaterMark.sampleIntervalMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void adaptWaterMark(EpollAdaptiveWaterMark adaptiveWaterMark) {
+        EpollTcpInfo info = waterMarkTcpInfo;
+        if (info == null) {
+            waterMarkTcpInfo = info = new EpollTcpInfo();
+        }
+        try {
+            socket.getTcpInfo(info);
+        } catch (IOException ignore) {
+            // The socket was closed in the meantime, the sampling stops with the next run.
+            return;
+        }
+        if (info.sndCwnd() == 0 || info.sndMss() == 0) {
+            return;
+        }
+        int high = adaptiveWaterMark.highWaterMark(info.sndCwnd(), info.sndMss());
+        int low = high >>> 1;
+        if (high != config.getWriteBufferHighWaterMark() || low != config.getWriteBufferLowWaterMark()) {
+            config.setWriteBufferWaterMark(new WriteBufferWaterMark(low, high));
+        }
+    }
+
+    @Override
+    void connected() {
+        if ((config.getSoTimestamping() & EpollTimestamping.TX_ANY) != 0) {
+            // Send timestamps can only be enabled once connected.
+            try {
+                config.setSocketTimestamping(config.getSoTimestamping());
+            } catch (ChannelException e) {
+                pipeline().fireExceptionCaught(e);
+            }
+        }
+    }
+
     @Override
     boolean doConnect0(SocketAddress remote) throws Exception {
         if (IS_SUPPORTING_TCP_FASTOPEN_CLIENT && config.isTcpFastOpenConnect()) {
@@ -36,10 +36,18 @@ import static io.netty.channel.ChannelOption.SO_RCVBUF;
 import static io.netty.channel.ChannelOption.SO_REUSEADDR;
 import static io.netty.channel.ChannelOption.SO_SNDBUF;
 import static io.netty.channel.ChannelOption.TCP_NODELAY;
+import static io.netty.util.internal.ObjectUtil.checkPositiveOrZero;
 
 public final class EpollSocketChannelConfig extends EpollChannelConfig implements SocketChannelConfig {
+    // Below this size pinning the pages and handling the completion costs more than copying the data.
+    private static final int DEFAULT_ZEROCOPY_SEND_THRESHOLD = 16 * 1024;
+
     private volatile boolean allowHalfClosure;
     private volatile boolean tcpFastopen;
+    private volatile boolean soZeroCopy;
+    private volatile int zeroCopySendThreshold = DEFAULT_ZEROCOPY_SEND_THRESHOLD;
+    private volatile int soTimestamping;
+    private volatile EpollAdaptiveWaterMark adaptiveWaterMark;
 
     /**
      * Creates a new instance.
@@ -61,7 +69,9 @@ public final class EpollSocketChannelConfig extends EpollChannelConfig implement
                 ALLOW_HALF_CLOSURE, EpollChannelOption.TCP_CORK, EpollChannelOption.TCP_NOTSENT_LOWAT,
                 EpollChannelOption.TCP_KEEPCNT, EpollChannelOption.TCP_KEEPIDLE, EpollChannelOption.TCP_KEEPINTVL,
                 EpollChannelOption.TCP_MD5SIG, EpollChannelOption.TCP_QUICKACK, EpollChannelOption.IP_TRANSPARENT,
-                ChannelOption.TCP_FASTOPEN_CONNECT, EpollChannelOption.SO_BUSY_POLL);
+                ChannelOption.TCP_FASTOPEN_CONNECT, EpollChannelOption.SO_BUSY_POLL, EpollChannelOption.SO_ZEROCOPY,
+                EpollChannelOption.ZEROCOPY_SEND_THRESHOLD, EpollChannelOption.SO_TIMESTAMPING,
+                EpollChannelOption.ADAPTIVE_WRITE_BUFFER_WATER_MARK);
     }
 
     @SuppressWarnings("unchecked")
@@ -121,6 +131,18 @@ public final class EpollSocketChannelConfig extends EpollChannelConfig implement
         if (option == EpollChannelOption.SO_BUSY_POLL) {
             return (T) Integer.valueOf(getSoBusyPoll());
         }
+        if (option == EpollChannelOption.SO_ZEROCOPY) {
+            return (T) Boolean.valueOf(isSoZeroCopy());
+        }
+        if (option == EpollChannelOption.ZEROCOPY_SEND_THRESHOLD) {
+            return (T) Integer.valueOf(getZeroCopySendThreshold());
+        }
+        if (option == EpollChannelOption.SO_TIMESTAMPING) {
+            return (T) Integer.valueOf(getSoTimestamping());
+        }
+        if (option == EpollChannelOption.ADAPTIVE_WRITE_BUFFER_WATER_MARK) {
+            return (T) getAdaptiveWriteBufferWaterMark();
+        }
         return super.getOption(option);
     }
 
@@ -168,6 +190,14 @@ public final class EpollSocketChannelConfig extends EpollChannelConfig implement
             setTcpFastOpenConnect((Boolean) value);
         } else if (option == EpollChannelOption.SO_BUSY_POLL) {
             setSoBusyPoll((Integer) value);
+        } else if (option == EpollChannelOption.SO_ZEROCOPY) {
+            setSoZeroCopy((Boolean) value);
+        } else if (option == EpollChannelOption.ZEROCOPY_SEND_THRESHOLD) {
+            setZeroCopySendThreshold((Integer) value);
+        } else if (option == EpollChannelOption.SO_TIMESTAMPING) {
+            setSoTimestamping((Integer) value);
+        } else if (option == EpollChannelOption.ADAPTIVE_WRITE_BUFFER_WATER_MARK) {
+            setAdaptiveWriteBufferWaterMark((EpollAdaptiveWaterMark) value);
         } else {
             return super.setOption(option, value);
         }
@@ -569,6 +599,104 @@ public final class EpollSocketChannelConfig extends EpollChannelConfig implement
         return tcpFastopen;
     }
 
+    /**
+     * Returns {@code true} if <a href="https://docs.kernel.org/networking/msg_zerocopy.html">SO_ZEROCOPY</a> is
+     * enabled, {@code false} otherwise.
+     */
+    public boolean isSoZeroCopy() {
+        return soZeroCopy;
+    }
+
+    /**
+     * Set the <a href="https://docs.kernel.org/networking/msg_zerocopy.html">SO_ZEROCOPY</a> option on the socket.
+     * Once enabled, direct buffers of at least {@link #getZeroCopySendThreshold()} bytes are sent with
+     * {@code MSG_ZEROCOPY} and stay retained until the kernel reports that it is done with them. If the kernel
+     * reports that it had to copy the data anyway, the channel goes back to regular sends. Default is disabled.
+     * <p>
+     * Buffers that are still in flight when the channel is closed stay retained, and the socket stays open, until the
+     * kernel is done with them. If that takes longer than {@link #getSoLinger()} seconds, or 60 seconds if it is not
+     * set, the socket is closed and the buffers are leaked, as the kernel may still send from their memory.
+     */
+    public EpollSocketChannelConfig setSoZeroCopy(boolean zeroCopy) {
+        try {
+            ((EpollSocketChannel) channel).socket.setSoZeroCopy(zeroCopy);
+            soZeroCopy = zeroCopy;
+            return this;
+        } catch (IOException e) {
+            throw new ChannelException(e);
+        }
+    }
+
+    /**
+     * Returns the minimum number of readable bytes a buffer must have to be sent with {@code MSG_ZEROCOPY} when
+     * {@link #isSoZeroCopy()} is enabled.
+     */
+    public int getZeroCopySendThreshold() {
+        return zeroCopySendThreshold;
+    }
+
+    /**
+     * Set the minimum number of readable bytes a buffer must have to be sent with {@code MSG_ZEROCOPY} when
+     * {@link #isSoZeroCopy()} is enabled. Default is {@value #DEFAULT_ZEROCOPY_SEND_THRESHOLD}.
+     */
+    public EpollSocketChannelConfig setZeroCopySendThreshold(int zeroCopySendThreshold) {
+        this.zeroCopySendThreshold = checkPositiveOrZero(zeroCopySendThreshold, "zeroCopySendThreshold");
+        return this;
+    }
+
+    /**
+     * Returns the {@link EpollTimestamping} flags that are enabled, or {@code 0} if timestamping is disabled.
+     */
+    public int getSoTimestamping() {
+        return soTimestamping;
+    }
+
+    /**
+     * Set the <a href="https://docs.kernel.org/networking/timestamping.html">SO_TIMESTAMPING</a> option on the
+     * socket, using a combination of the {@link EpollTimestamping} flags. The timestamps are fired through the
+     * pipeline as {@link EpollTimestampEvent}s. Only software timestamps are supported. Default is {@code 0}, which
+     * disables timestamping.
+     */
+    public EpollSocketChannelConfig setSoTimestamping(int flags) {
+        checkPositiveOrZero(flags, "flags");
+        setSocketTimestamping(flags);
+        soTimestamping = flags;
+        return this;
+    }
+
+    void setSocketTimestamping(int flags) {
+        if (!channel.isActive()) {
+            // The kernel numbers sent bytes starting at the first unacknowledged one, so send timestamps are only
+            // enabled once connected, see EpollSocketChannel.connected().
+            flags &= ~EpollTimestamping.TX_ANY;
+        }
+        try {
+            ((EpollSocketChannel) channel).socket.setTimestamping(EpollTimestamping.socketFlags(flags));
+        } catch (IOException e) {
+            throw new ChannelException(e);
+        }
+    }
+
+    /**
+     * Returns the bounds of the adaptive write buffer water mark, or {@code null} if the
+     * {@link WriteBufferWaterMark} is not adapted to the connection.
+     */
+    public EpollAdaptiveWaterMark getAdaptiveWriteBufferWaterMark() {
+        return adaptiveWaterMark;
+    }
+
+    /**
+     * Derive the {@link WriteBufferWaterMark} from the bandwidth-delay product of the connection, which is sampled
+     * from {@code TCP_INFO} periodically, see {@link EpollAdaptiveWaterMark}. While enabled, water marks that are
+     * set explicitly are overridden by the next sample. Default is {@code null}, which disables the adaption and
+     * keeps the last water mark.
+     */
+    public EpollSocketChannelConfig setAdaptiveWriteBufferWaterMark(EpollAdaptiveWaterMark adaptiveWaterMark) {
+        this.adaptiveWaterMark = adaptiveWaterMark;
+        ((EpollSocketChannel) channel).scheduleWaterMarkSample();
+        return this;
+    }
+
     @Override
     public boolean isAllowHalfClosure() {
         return allowHalfClosure;
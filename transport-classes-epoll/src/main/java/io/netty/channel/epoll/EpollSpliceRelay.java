@@ -0,0 +1,214 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoop;
+import io.netty.channel.socket.ChannelInputShutdownEvent;
+import io.netty.channel.socket.DuplexChannel;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.netty.util.internal.ObjectUtil.checkNotNull;
+
+/**
+ * Relays the bytes between two connected stream {@link Channel}s in both directions, for example to implement a TCP
+ * proxy.
+ * <p>
+ * If both {@link Channel}s are {@link AbstractEpollStreamChannel}s that use {@link EpollMode#LEVEL_TRIGGERED} and
+ * are registered to the same {@link EventLoop}, the bytes are moved with {@code splice(2)} through a pipe that is
+ * taken from a pool of the {@link EpollEventLoop}, so they never reach user space. Otherwise, for example if NIO is
+ * used, the bytes are copied through {@link ByteBuf}s.
+ * <p>
+ * In both cases:
+ * <ul>
+ *   <li>reading from one {@link Channel} is suspended while the other one is not writable.</li>
+ *   <li>once the input of one {@link Channel} is shutdown, the output of the other one is shutdown after all pending
+ *   bytes were written. If the {@link Channel} is not a {@link DuplexChannel} it is closed instead.</li>
+ *   <li>once one {@link Channel} is closed, the other one is closed after all pending bytes were written.</li>
+ * </ul>
+ * The relay should be started before any bytes were read from the {@link Channel}s, as it does not know about bytes
+ * that are still buffered in the {@link io.netty.channel.ChannelPipeline}s.
+ */
+public final class EpollSpliceRelay {
+
+    private EpollSpliceRelay() { }
+
+    /**
+     * Starts relaying the bytes between the given {@link Channel}s.
+     *
+     * @return the {@link Future} which is notified once both {@link Channel}s were closed.
+     */
+    public static Future<Void> relay(final Channel first, final Channel second) {
+        checkNotNull(first, "first");
+        checkNotNull(second, "second");
+        final Promise<Void> promise = first.eventLoop().newPromise();
+        final boolean splice = canSplice(first, second);
+        if (splice && !first.eventLoop().inEventLoop()) {
+            first.eventLoop().execute(new Runnable() {
+                @Override
+                public void run() {
+                    start(first, second, true, promise);
+                }
+            });
+        } else {
+            start(first, second, splice, promise);
+        }
+        return promise;
+    }
+
+    private static boolean canSplice(Channel first, Channel second) {
+        return first instanceof AbstractEpollStreamChannel && second instanceof AbstractEpollStreamChannel &&
+                first.eventLoop() == second.eventLoop() &&
+                ((AbstractEpollStreamChannel) first).config().getEpollMode() == EpollMode.LEVEL_TRIGGERED &&
+                ((AbstractEpollStreamChannel) second).config().getEpollMode() == EpollMode.LEVEL_TRIGGERED;
+    }
+
+    private static void start(Channel first, Channel second, boolean splice, final Promise<Void> promise) {
+        // Number of directions that still relay bytes.
+        AtomicInteger openDirections = new AtomicInteger(2);
+        first.pipeline().addLast(new RelayHandler(second, openDirections));
+        second.pipeline().addLast(new RelayHandler(first, openDirections));
+
+        // Both Channels need to be able to receive an EOF without closing the other direction.
+        first.config().setOption(ChannelOption.ALLOW_HALF_CLOSURE, true);
+        second.config().setOption(ChannelOption.ALLOW_HALF_CLOSURE, true);
+        // Reading is suspended while the peer is not writable, which requires auto read.
+        first.config().setAutoRead(true);
+        second.config().setAutoRead(true);
+
+        ChannelFutureListener closeListener = new CloseListener(promise);
+        first.closeFuture().addListener(closeListener);
+        second.closeFuture().addListener(closeListener);
+
+        if (splice) {
+            AbstractEpollStreamChannel firstChannel = (AbstractEpollStreamChannel) first;
+            AbstractEpollStreamChannel secondChannel = (AbstractEpollStreamChannel) second;
+            // Integer.MAX_VALUE will splice until one of the Channels is closed.
+            firstChannel.spliceTo(secondChannel, Integer.MAX_VALUE).addListener(CLOSE_ON_FAILURE);
+            secondChannel.spliceTo(firstChannel, Integer.MAX_VALUE).addListener(CLOSE_ON_FAILURE);
+        }
+    }
+
+    private static final ChannelFutureListener CLOSE_ON_FAILURE = new ChannelFutureListener() {
+        @Override
+        public void operationComplete(ChannelFuture future) {
+            if (!future.isSuccess()) {
+                // Closing one Channel closes the other one via the RelayHandler.
+                future.channel().close();
+            }
+        }
+    };
+
+    private static final class CloseListener implements ChannelFutureListener {
+        private final Promise<Void> promise;
+        private final AtomicInteger open = new AtomicInteger(2);
+
+        CloseListener(Promise<Void> promise) {
+            this.promise = promise;
+        }
+
+        @Override
+        public void operationComplete(ChannelFuture future) {
+            if (open.decrementAndGet() == 0) {
+                promise.trySuccess(null);
+            }
+        }
+    }
+
+    /**
+     * Forwards everything that is read from its {@link Channel} to the peer and takes care of backpressure and
+     * half-closure. When splicing nothing is read into the pipeline, so only the latter part is used.
+     */
+    private static final class RelayHandler extends ChannelInboundHandlerAdapter {
+        private final Channel peer;
+        private final AtomicInteger openDirections;
+
+        RelayHandler(Channel peer, AtomicInteger openDirections) {
+            this.peer = peer;
+            this.openDirections = openDirections;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            peer.write(msg, peer.voidPromise());
+            if (!peer.isWritable()) {
+                // Stop reading until the peer drained its outbound buffer, see channelWritabilityChanged(...) of
+                // the peer's RelayHandler.
+                ctx.channel().config().setAutoRead(false);
+            }
+        }
+
+        @Override
+        public void channelReadComplete(ChannelHandlerContext ctx) {
+            peer.flush();
+        }
+
+        @Override
+        public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+            if (ctx.channel().isWritable()) {
+                peer.config().setAutoRead(true);
+            }
+            ctx.fireChannelWritabilityChanged();
+        }
+
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+            if (evt instanceof ChannelInputShutdownEvent) {
+                final Channel channel = ctx.channel();
+                // Write an empty buffer so the output is only shutdown once everything before it was written.
+                peer.writeAndFlush(Unpooled.EMPTY_BUFFER).addListener(new ChannelFutureListener() {
+                    @Override
+                    public void operationComplete(ChannelFuture future) {
+                        if (!future.isSuccess() || !(peer instanceof DuplexChannel)) {
+                            peer.close();
+                        } else {
+                            ((DuplexChannel) peer).shutdownOutput();
+                        }
+                        if (openDirections.decrementAndGet() == 0) {
+                            // Both directions are done.
+                            channel.close();
+                            peer.close();
+                        }
+                    }
+                });
+            }
+            ctx.fireUserEventTriggered(evt);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            if (peer.isActive()) {
+                peer.writeAndFlush(Unpooled.EMPTY_BUFFER).addListener(ChannelFutureListener.CLOSE);
+            }
+            ctx.fireChannelInactive();
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            ctx.close();
+        }
+    }
+}
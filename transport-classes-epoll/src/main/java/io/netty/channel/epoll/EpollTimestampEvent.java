@@ -0,0 +1,110 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.util.internal.ObjectUtil;
+
+/**
+ * A timestamp reported by the kernel for data of a channel that has {@link EpollChannelOption#SO_TIMESTAMPING}
+ * enabled. It is passed to {@link io.netty.channel.ChannelInboundHandler#userEventTriggered}.
+ * <p>
+ * Receive timestamps are fired right before the {@link io.netty.channel.ChannelInboundHandler#channelRead} of the
+ * data they belong to.
+ */
+public final class EpollTimestampEvent {
+
+    /**
+     * The point in the life of the data the timestamp was taken at.
+     */
+    public enum Type {
+        /**
+         * The data was received by the network stack, see {@link EpollTimestamping#RX_SOFTWARE}.
+         */
+        RX,
+        /**
+         * The data entered the packet scheduler, see {@link EpollTimestamping#TX_SCHED}.
+         */
+        TX_SCHED,
+        /**
+         * The data was passed to the network device, see {@link EpollTimestamping#TX_SOFTWARE}.
+         */
+        TX_SOFTWARE,
+        /**
+         * The data was acknowledged by the peer, see {@link EpollTimestamping#TX_ACK}.
+         */
+        TX_ACK
+    }
+
+    // See SCM_TSTAMP_* in linux/errqueue.h
+    private static final int SCM_TSTAMP_SND = 0;
+    private static final int SCM_TSTAMP_SCHED = 1;
+    private static final int SCM_TSTAMP_ACK = 2;
+
+    private final Type type;
+    private final long id;
+    private final long timestampNanos;
+
+    public EpollTimestampEvent(Type type, long id, long timestampNanos) {
+        this.type = ObjectUtil.checkNotNull(type, "type");
+        this.id = id;
+        this.timestampNanos = timestampNanos;
+    }
+
+    static EpollTimestampEvent newTxEvent(int scmTstampType, long id, long timestampNanos) {
+        final Type type;
+        switch (scmTstampType) {
+            case SCM_TSTAMP_SND:
+                type = Type.TX_SOFTWARE;
+                break;
+            case SCM_TSTAMP_SCHED:
+                type = Type.TX_SCHED;
+                break;
+            case SCM_TSTAMP_ACK:
+                type = Type.TX_ACK;
+                break;
+            default:
+                return null;
+        }
+        return new EpollTimestampEvent(type, id, timestampNanos);
+    }
+
+    /**
+     * Returns the point in the life of the data the timestamp was taken at.
+     */
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * Returns the offset of the last byte of the send call the timestamp belongs to, counted from the first byte
+     * written after {@link EpollChannelOption#SO_TIMESTAMPING} was enabled, or {@code -1} for receive timestamps.
+     */
+    public long id() {
+        return id;
+    }
+
+    /**
+     * Returns the timestamp in nanoseconds since the epoch ({@code CLOCK_REALTIME}).
+     */
+    public long timestampNanos() {
+        return timestampNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "EpollTimestampEvent(" + type + ", id: " + id + ", timestampNanos: " + timestampNanos + ')';
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+/**
+ * The flags of the <a href="https://docs.kernel.org/networking/timestamping.html">SO_TIMESTAMPING</a> option that
+ * can be combined and passed to {@link EpollChannelOption#SO_TIMESTAMPING}. The timestamps are delivered to the
+ * pipeline as {@link EpollTimestampEvent}s.
+ * <p>
+ * The option only takes effect once it is applied to the socket. Data that was received before, for example by an
+ * accepted channel that got the option as a child option, is fired without a receive timestamp.
+ */
+public final class EpollTimestamping {
+
+    // See linux/net_tstamp.h
+
+    /**
+     * Timestamp data when the kernel passes it to the network device.
+     */
+    public static final int TX_SOFTWARE = 1 << 1;
+
+    /**
+     * Timestamp data when the network stack receives it.
+     */
+    public static final int RX_SOFTWARE = 1 << 3;
+
+    /**
+     * Report software timestamps. Added automatically if any of the other flags is set.
+     */
+    public static final int SOFTWARE = 1 << 4;
+
+    /**
+     * Identify sent data by its byte offset. Added automatically if any send timestamp is requested.
+     */
+    public static final int OPT_ID = 1 << 7;
+
+    /**
+     * Timestamp data before it enters the packet scheduler of the kernel.
+     */
+    public static final int TX_SCHED = 1 << 8;
+
+    /**
+     * Timestamp data when all of it was acknowledged by the peer.
+     */
+    public static final int TX_ACK = 1 << 9;
+
+    /**
+     * Do not loop the sent data back with the timestamp. Added automatically if any send timestamp is requested.
+     */
+    public static final int OPT_TSONLY = 1 << 11;
+
+    static final int TX_ANY = TX_SOFTWARE | TX_SCHED | TX_ACK;
+
+    private EpollTimestamping() { }
+
+    /**
+     * Returns the flags that need to be set on the socket so that the timestamps requested by {@code flags} can be
+     * reported.
+     */
+    static int socketFlags(int flags) {
+        if (flags == 0) {
+            return 0;
+        }
+        flags |= SOFTWARE;
+        if ((flags & TX_ANY) != 0) {
+            flags |= OPT_ID | OPT_TSONLY;
+        }
+        return flags;
+    }
+}
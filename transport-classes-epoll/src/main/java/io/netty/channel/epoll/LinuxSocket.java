@@ -44,6 +44,9 @@ public final class LinuxSocket extends Socket {
     static final InetAddress INET6_ANY = unsafeInetAddrByName("::");
     private static final InetAddress INET_ANY = unsafeInetAddrByName("0.0.0.0");
     private static final long MAX_UINT32_T = 0xFFFFFFFFL;
+    // Kinds of error queue entries returned by recvErrorQueue(long[]), see netty_epoll_linuxsocket.c
+    static final int ERRQUEUE_ZEROCOPY = 1;
+    static final int ERRQUEUE_TIMESTAMP = 2;
 
     LinuxSocket(int fd) {
         super(fd);
@@ -302,6 +305,138 @@ public final class LinuxSocket extends Socket {
         setUdpGro(intValue(), gro ? 1 : 0);
     }
 
+    boolean isSoZeroCopy() throws IOException {
+        return isSoZeroCopy(intValue()) != 0;
+    }
+
+    void setSoZeroCopy(boolean zeroCopy) throws IOException {
+        setSoZeroCopy(intValue(), zeroCopy ? 1 : 0);
+    }
+
+    /**
+     * Sends the given memory with {@code MSG_ZEROCOPY}. The memory must not be modified or freed until the matching
+     * completion was read via {@link #recvErrorQueue(long[])}.
+     *
+     * @return the number of bytes sent, {@code 0} if nothing was sent and the caller should fall back to a copying
+     *         send.
+     */
+    int sendAddressZeroCopy(long address, int pos, int limit) throws IOException {
+        int res = sendAddressZeroCopy(intValue(), address, pos, limit);
+        if (res >= 0) {
+            return res;
+        }
+        return ioResult("sendAddressZeroCopy", res);
+    }
+
+    /**
+     * Reads the next entry from the error queue of the socket.
+     * <ul>
+     *     <li>{@link #ERRQUEUE_ZEROCOPY}: {@code result} contains the first and last (inclusive) {@code MSG_ZEROCOPY}
+     *     send call that completed, followed by {@code 1} if the kernel had to copy the data anyway or {@code 0}
+     *     otherwise.</li>
+     *     <li>{@link #ERRQUEUE_TIMESTAMP}: {@code result} contains the {@code SCM_TSTAMP_*} type, the id of the
+     *     timestamped byte and the timestamp in nanoseconds.</li>
+     * </ul>
+     *
+     * @return the kind of the entry that was read, {@code 0} if there is none left.
+     */
+    int recvErrorQueue(long[] result) throws IOException {
+        int res = recvErrorQueue(intValue(), result);
+        if (res >= 0) {
+            return res;
+        }
+        return ioResult("recvErrorQueue", res);
+    }
+
+    int getTimestamping() throws IOException {
+        return getTimestamping(intValue());
+    }
+
+    void setTimestamping(int flags) throws IOException {
+        setTimestamping(intValue(), flags);
+    }
+
+    /**
+     * Returns the CPU that processed the packets of this socket, see {@code SO_INCOMING_CPU} in
+     * {@code man 7 socket}.
+     */
+    int getIncomingCpu() throws IOException {
+        return getIncomingCpu(intValue());
+    }
+
+    /**
+     * Returns the address family of this socket, see {@code SO_DOMAIN} in {@code man 7 socket}.
+     */
+    int getSoDomain() throws IOException {
+        return getSoDomain(intValue());
+    }
+
+    /**
+     * Returns {@code true} if this socket is listening for connections, see {@code SO_ACCEPTCONN} in
+     * {@code man 7 socket}.
+     */
+    boolean isSoAcceptConn() throws IOException {
+        return isSoAcceptConn(intValue()) != 0;
+    }
+
+    /**
+     * Returns {@code true} if this socket is a {@code SOCK_STREAM} socket.
+     */
+    boolean isSockStream() throws IOException {
+        return isSockStream(intValue()) != 0;
+    }
+
+    /**
+     * Returns a new {@link LinuxSocket} for a duplicate of the file descriptor of this socket, which refers to the same
+     * socket, see {@code F_DUPFD_CLOEXEC} in {@code man 2 fcntl}.
+     */
+    LinuxSocket dup() throws IOException {
+        int res = dup(intValue());
+        if (res < 0) {
+            throw newIOException("dup", res);
+        }
+        return new LinuxSocket(res);
+    }
+
+    /**
+     * Like {@link #recvAddress(long, int, int)} but also stores the receive timestamp in nanoseconds in
+     * {@code timestamp[0]}, or {@code 0} if the kernel did not provide one.
+     */
+    int recvAddressTimestamp(long address, int pos, int limit, long[] timestamp) throws IOException {
+        int res = recvAddressTimestamp(intValue(), address, pos, limit, timestamp);
+        if (res > 0) {
+            return res;
+        }
+        if (res == 0) {
+            return -1;
+        }
+        return ioResult("recvAddressTimestamp", res);
+    }
+
+    /**
+     * Like {@link #recvAddress(long, int, int)} but also stores the type of the TLS record that was received in
+     * {@code recordType[0]} if kernel TLS is used for receiving, or {@code 0} otherwise.
+     */
+    int recvAddressRecordType(long address, int pos, int limit, int[] recordType) throws IOException {
+        int res = recvAddressRecordType(intValue(), address, pos, limit, recordType);
+        if (res > 0) {
+            return res;
+        }
+        if (res == 0) {
+            return -1;
+        }
+        return ioResult("recvAddressRecordType", res);
+    }
+
+    /**
+     * Attaches a {@code SO_ATTACH_REUSEPORT_CBPF} program to the {@code SO_REUSEPORT} group of this socket which
+     * selects the socket with the index {@code cpu % groupSize}, where {@code cpu} is the CPU that handles the
+     * incoming packet. The index is the order in which the sockets joined the group.
+     */
+    void attachReusePortCpuFilter(int groupSize) throws IOException {
+        attachReusePortCpuFilter(intValue(), groupSize);
+    }
+
     long sendFile(DefaultFileRegion src, long baseOffset, long offset, long length) throws IOException {
         // Open the file-region as it may be created via the lazy constructor. This is needed as we directly access
         // the FileChannel field via JNI.
@@ -481,4 +616,18 @@ public final class LinuxSocket extends Socket {
     private static native void setTimeToLive(int fd, int ttl) throws IOException;
     private static native int isUdpGro(int fd) throws IOException;
     private static native void setUdpGro(int fd, int gro) throws IOException;
+    private static native int isSoZeroCopy(int fd) throws IOException;
+    private static native void setSoZeroCopy(int fd, int zeroCopy) throws IOException;
+    private static native void attachReusePortCpuFilter(int fd, int groupSize) throws IOException;
+    private static native int sendAddressZeroCopy(int fd, long address, int pos, int limit);
+    private static native int recvErrorQueue(int fd, long[] result);
+    private static native int getTimestamping(int fd) throws IOException;
+    private static native void setTimestamping(int fd, int flags) throws IOException;
+    private static native int getIncomingCpu(int fd) throws IOException;
+    private static native int getSoDomain(int fd) throws IOException;
+    private static native int isSoAcceptConn(int fd) throws IOException;
+    private static native int isSockStream(int fd) throws IOException;
+    private static native int dup(int fd);
+    private static native int recvAddressTimestamp(int fd, long address, int pos, int limit, long[] timestamp);
+    private static native int recvAddressRecordType(int fd, long address, int pos, int limit, int[] recordType);
 }
@@ -33,9 +33,11 @@ import java.nio.channels.Selector;
 
 import static io.netty.channel.epoll.NativeStaticallyReferencedJniMethods.epollerr;
 import static io.netty.channel.epoll.NativeStaticallyReferencedJniMethods.epollet;
+import static io.netty.channel.epoll.NativeStaticallyReferencedJniMethods.epollexclusive;
 import static io.netty.channel.epoll.NativeStaticallyReferencedJniMethods.epollin;
 import static io.netty.channel.epoll.NativeStaticallyReferencedJniMethods.epollout;
 import static io.netty.channel.epoll.NativeStaticallyReferencedJniMethods.epollrdhup;
+import static io.netty.channel.epoll.NativeStaticallyReferencedJniMethods.errnoEIO;
 import static io.netty.channel.epoll.NativeStaticallyReferencedJniMethods.isSupportingRecvmmsg;
 import static io.netty.channel.epoll.NativeStaticallyReferencedJniMethods.isSupportingSendmmsg;
 import static io.netty.channel.epoll.NativeStaticallyReferencedJniMethods.kernelVersion;
@@ -108,6 +110,8 @@ public final class Native {
     public static final int EPOLLRDHUP = epollrdhup();
     public static final int EPOLLET = epollet();
     public static final int EPOLLERR = epollerr();
+    static final int EPOLLEXCLUSIVE = epollexclusive();
+    static final int ERRNO_EIO_NEGATIVE = -errnoEIO();
 
     public static final boolean IS_SUPPORTING_SENDMMSG = isSupportingSendmmsg();
     static final boolean IS_SUPPORTING_RECVMMSG = isSupportingRecvmmsg();
@@ -247,6 +251,19 @@ public final class Native {
     }
     private static native int epollCtlMod0(int efd, int fd, int flags);
 
+    /**
+     * Calls {@code epoll_ctl(EPOLL_CTL_MOD)} for the first {@code len} pairs of file descriptor and flags in
+     * {@code fdsAndFlags} with a single JNI call. The file descriptor of every pair that failed is replaced by the
+     * negative error code. A registration with {@link #EPOLLEXCLUSIVE} can not be modified, so it is deleted and
+     * added again instead.
+     *
+     * @return the number of pairs that failed.
+     */
+    static int epollCtlModBatch(int efd, int[] fdsAndFlags, int len) {
+        return epollCtlModBatch0(efd, fdsAndFlags, len);
+    }
+    private static native int epollCtlModBatch0(int efd, int[] fdsAndFlags, int len);
+
     public static void epollCtlDel(int efd, final int fd) throws IOException {
         int res = epollCtlDel0(efd, fd);
         if (res < 0) {
@@ -264,6 +281,21 @@ public final class Native {
         return ioResult("splice", res);
     }
 
+    /**
+     * Like {@link #splice(int, long, int, long, long)} but returns {@code -1} once the end of the input was reached,
+     * while {@code 0} means that nothing could be spliced right now. {@code len} must be greater than {@code 0}.
+     */
+    static int spliceOrEof(int fd, long offIn, int fdOut, long offOut, long len) throws IOException {
+        int res = splice0(fd, offIn, fdOut, offOut, len);
+        if (res > 0) {
+            return res;
+        }
+        if (res == 0) {
+            return -1;
+        }
+        return ioResult("splice", res);
+    }
+
     private static native int splice0(int fd, long offIn, int fdOut, long offOut, long len);
 
     @Deprecated
@@ -37,6 +37,11 @@ import static io.netty.channel.unix.NativeInetAddress.copyIpv4MappedIpv6Address;
  */
 final class NativeDatagramPacketArray {
 
+    // See UDP_MAX_SEGMENTS in linux/udp.h
+    private static final int MAX_SEGMENTS = 64;
+    // The maximum UDP payload of an IPv4 packet, which is also below the one of IPv6.
+    private static final int MAX_SEGMENTED_PAYLOAD = 65507;
+
     // Use UIO_MAX_IOV as this is the maximum number we can write with one sendmmsg(...) call.
     private final NativeDatagramPacket[] packets = new NativeDatagramPacket[UIO_MAX_IOV];
 
@@ -75,15 +80,46 @@ final class NativeDatagramPacketArray {
             return false;
         }
         NativeDatagramPacket p = packets[count];
-        p.init(iovArray.memoryAddress(offset), iovArray.count() - offset, segmentLen, recipient);
+        p.init(iovArray.memoryAddress(offset), iovArray.count() - offset, segmentLen, recipient, len);
 
         count++;
         return true;
     }
 
+    /**
+     * Appends the datagram as another segment to the last added {@link NativeDatagramPacket} if possible, so both
+     * are sent with one {@code UDP_SEGMENT} send.
+     */
+    private boolean coalesce(ByteBuf buf, int index, int len, InetSocketAddress recipient) {
+        if (count == 0 || len == 0) {
+            return false;
+        }
+        NativeDatagramPacket p = packets[count - 1];
+        if (!p.canAppend(len, recipient)) {
+            return false;
+        }
+        int offset = iovArray.count();
+        if (offset == Limits.IOV_MAX || !iovArray.add(buf, index, len)) {
+            return false;
+        }
+        p.append(iovArray.count() - offset, len);
+        return true;
+    }
+
     void add(ChannelOutboundBuffer buffer, boolean connected, int maxMessagesPerWrite) throws Exception {
+        add(buffer, connected, maxMessagesPerWrite, false);
+    }
+
+    /**
+     * Adds the flushed messages of the {@link ChannelOutboundBuffer}. If {@code coalesce} is {@code true},
+     * consecutive datagrams of the same size to the same recipient are merged into one {@link NativeDatagramPacket}
+     * which is sent with {@code UDP_SEGMENT}, see {@link NativeDatagramPacket#messages()}.
+     */
+    void add(ChannelOutboundBuffer buffer, boolean connected, int maxMessagesPerWrite, boolean coalesce)
+            throws Exception {
         processor.connected = connected;
         processor.maxMessagesPerWrite = maxMessagesPerWrite;
+        processor.coalesce = coalesce;
         buffer.forEachFlushedMessage(processor);
     }
 
@@ -113,6 +149,7 @@ final class NativeDatagramPacketArray {
     private final class MyMessageProcessor implements MessageProcessor {
         private boolean connected;
         private int maxMessagesPerWrite;
+        private boolean coalesce;
 
         @Override
         public boolean processMessage(Object msg) {
@@ -129,10 +166,13 @@ final class NativeDatagramPacketArray {
                         segmentSize = seg;
                     }
                 }
-                added = add0(buf, buf.readerIndex(), buf.readableBytes(), segmentSize, packet.recipient());
+                added = segmentSize == 0 && coalesce &&
+                        coalesce(buf, buf.readerIndex(), buf.readableBytes(), packet.recipient()) ||
+                        add0(buf, buf.readerIndex(), buf.readableBytes(), segmentSize, packet.recipient());
             } else if (msg instanceof ByteBuf && connected) {
                 ByteBuf buf = (ByteBuf) msg;
-                added = add0(buf, buf.readerIndex(), buf.readableBytes(), 0, null);
+                added = coalesce && coalesce(buf, buf.readerIndex(), buf.readableBytes(), null) ||
+                        add0(buf, buf.readerIndex(), buf.readableBytes(), 0, null);
             } else {
                 added = false;
             }
@@ -182,11 +222,25 @@ final class NativeDatagramPacketArray {
 
         private int segmentSize;
 
-        private void init(long memoryAddress, int count, int segmentSize, InetSocketAddress recipient) {
+        // Only used on the java side to merge datagrams, see coalesce(...).
+        private InetSocketAddress recipientAddress;
+        private int messages;
+        private int segmentLen;
+        private int lastLen;
+        private int totalLen;
+
+        private void init(long memoryAddress, int count, int segmentSize, InetSocketAddress recipient, int len) {
             this.memoryAddress = memoryAddress;
             this.count = count;
             this.segmentSize = segmentSize;
 
+            this.recipientAddress = recipient;
+            this.messages = 1;
+            // A packet that is already segmented can not take more segments.
+            this.segmentLen = segmentSize == 0 ? len : 0;
+            this.lastLen = len;
+            this.totalLen = len;
+
             this.senderScopeId = 0;
             this.senderPort = 0;
             this.senderAddrLen = 0;
@@ -209,6 +263,35 @@ final class NativeDatagramPacketArray {
             }
         }
 
+        private boolean canAppend(int len, InetSocketAddress recipient) {
+            // Only the last segment may be smaller than the others.
+            return segmentLen != 0 && lastLen == segmentLen && len <= segmentLen && messages < MAX_SEGMENTS &&
+                    totalLen + len <= MAX_SEGMENTED_PAYLOAD &&
+                    (recipientAddress == null ? recipient == null : recipientAddress.equals(recipient));
+        }
+
+        private void append(int iovCount, int len) {
+            count += iovCount;
+            segmentSize = segmentLen;
+            messages++;
+            lastLen = len;
+            totalLen += len;
+        }
+
+        /**
+         * Returns the number of messages of the {@link ChannelOutboundBuffer} that are sent with this packet.
+         */
+        int messages() {
+            return messages;
+        }
+
+        /**
+         * Returns {@code true} if multiple messages were merged into this packet.
+         */
+        boolean isCoalesced() {
+            return messages > 1;
+        }
+
         boolean hasSender() {
             return senderPort > 0;
         }
@@ -24,10 +24,13 @@
 #include <stdlib.h>
 #include <string.h>
 #include <errno.h>
+#include <fcntl.h>
 #include <netinet/in.h>
 #include <netinet/udp.h> // SOL_UDP
 #include <sys/sendfile.h>
 #include <linux/tcp.h> // TCP_NOTSENT_LOWAT is a linux specific define
+#include <linux/errqueue.h> // struct sock_extended_err
+#include <linux/filter.h> // struct sock_filter, SKF_AD_CPU
 #include "netty_epoll_linuxsocket.h"
 #include "netty_epoll_vmsocket.h"
 #include "netty_unix_errors.h"
@@ -63,6 +66,64 @@
 #define UDP_GRO 104
 #endif
 
+// SO_ZEROCOPY and friends are defined in linux 4.14. We define these here so older kernels can compile.
+#ifndef SO_ZEROCOPY
+#define SO_ZEROCOPY 60
+#endif
+
+#ifndef MSG_ZEROCOPY
+#define MSG_ZEROCOPY 0x4000000
+#endif
+
+#ifndef SO_EE_ORIGIN_ZEROCOPY
+#define SO_EE_ORIGIN_ZEROCOPY 5
+#endif
+
+#ifndef SO_EE_CODE_ZEROCOPY_COPIED
+#define SO_EE_CODE_ZEROCOPY_COPIED 1
+#endif
+
+// SO_ATTACH_REUSEPORT_CBPF is defined in linux 4.5. We define this here so older kernels can compile.
+#ifndef SO_ATTACH_REUSEPORT_CBPF
+#define SO_ATTACH_REUSEPORT_CBPF 51
+#endif
+
+#ifndef BPF_MOD
+#define BPF_MOD 0x90
+#endif
+
+// SO_TIMESTAMPING is defined in linux 2.6.30, but SO_EE_ORIGIN_TIMESTAMPING only in linux 3.17. We define these here
+// so older kernels can compile.
+#ifndef SO_TIMESTAMPING
+#define SO_TIMESTAMPING 37
+#endif
+
+#ifndef SCM_TIMESTAMPING
+#define SCM_TIMESTAMPING SO_TIMESTAMPING
+#endif
+
+#ifndef SO_EE_ORIGIN_TIMESTAMPING
+#define SO_EE_ORIGIN_TIMESTAMPING 4
+#endif
+
+// SOL_TLS and TLS_GET_RECORD_TYPE are defined in linux 4.17. We define these here so older kernels can compile.
+#ifndef SOL_TLS
+#define SOL_TLS 282
+#endif
+
+#ifndef TLS_GET_RECORD_TYPE
+#define TLS_GET_RECORD_TYPE 2
+#endif
+
+// SO_INCOMING_CPU is defined in linux 3.19. We define this here so older kernels can compile.
+#ifndef SO_INCOMING_CPU
+#define SO_INCOMING_CPU 49
+#endif
+
+// Kinds of entries of the error queue, see LinuxSocket.java
+#define ERRQUEUE_ZEROCOPY 1
+#define ERRQUEUE_TIMESTAMP 2
+
 static jclass peerCredentialsClass = NULL;
 static jmethodID peerCredentialsMethodId = NULL;
 
@@ -714,6 +775,235 @@ static void netty_epoll_linuxsocket_setUdpGro(JNIEnv* env, jclass clazz, jint fd
 }
 
 
+static jint netty_epoll_linuxsocket_isSoZeroCopy(JNIEnv* env, jclass clazz, jint fd) {
+    int optval;
+    if (netty_unix_socket_getOption(env, fd, SOL_SOCKET, SO_ZEROCOPY, &optval, sizeof(optval)) == -1) {
+        return -1;
+    }
+    return optval;
+}
+
+static void netty_epoll_linuxsocket_setSoZeroCopy(JNIEnv* env, jclass clazz, jint fd, jint optval) {
+    netty_unix_socket_setOption(env, fd, SOL_SOCKET, SO_ZEROCOPY, &optval, sizeof(optval));
+}
+
+static void netty_epoll_linuxsocket_attachReusePortCpuFilter(JNIEnv* env, jclass clazz, jint fd, jint groupSize) {
+    // Select the socket of the reuseport group by the CPU that handles the packet: cpu % groupSize.
+    struct sock_filter code[] = {
+        { BPF_LD | BPF_W | BPF_ABS, 0, 0, SKF_AD_OFF + SKF_AD_CPU },
+        { BPF_ALU | BPF_MOD | BPF_K, 0, 0, (__u32) groupSize },
+        { BPF_RET | BPF_A, 0, 0, 0 }
+    };
+    struct sock_fprog prog;
+    prog.len = sizeof(code) / sizeof(code[0]);
+    prog.filter = code;
+    netty_unix_socket_setOption(env, fd, SOL_SOCKET, SO_ATTACH_REUSEPORT_CBPF, &prog, sizeof(prog));
+}
+
+static jint netty_epoll_linuxsocket_sendAddressZeroCopy(JNIEnv* env, jclass clazz, jint fd, jlong address, jint pos, jint limit) {
+    ssize_t res;
+    int err;
+    do {
+        res = send(fd, (void*) (intptr_t) (address + pos), (size_t) (limit - pos), MSG_ZEROCOPY);
+        // keep on writing if it was interrupted
+    } while (res == -1 && ((err = errno) == EINTR));
+
+    if (res < 0) {
+        // ENOBUFS is returned if the pages could not be pinned because the optmem limit of the socket was reached.
+        // Report that nothing was sent so the caller can fall back to a copying send.
+        return err == ENOBUFS ? 0 : -err;
+    }
+    return (jint) res;
+}
+
+static jint netty_epoll_linuxsocket_recvErrorQueue(JNIEnv* env, jclass clazz, jint fd, jlongArray result) {
+    char control[512];
+    struct msghdr msg;
+    struct cmsghdr* cmsg;
+    struct sock_extended_err* serr;
+    struct timespec* ts;
+    ssize_t res;
+    int err;
+
+    for (;;) {
+        memset(&msg, 0, sizeof(msg));
+        msg.msg_control = control;
+        msg.msg_controllen = sizeof(control);
+
+        do {
+            res = recvmsg(fd, &msg, MSG_ERRQUEUE);
+            // keep on reading if it was interrupted
+        } while (res == -1 && ((err = errno) == EINTR));
+
+        if (res < 0) {
+            return -err;
+        }
+
+        // A timestamp is reported via two control messages: the timestamps themselves and the error that tells
+        // which send they belong to.
+        ts = NULL;
+        serr = NULL;
+        for (cmsg = CMSG_FIRSTHDR(&msg); cmsg != NULL; cmsg = CMSG_NXTHDR(&msg, cmsg)) {
+            if ((cmsg->cmsg_level == SOL_IP && cmsg->cmsg_type == IP_RECVERR) ||
+                    (cmsg->cmsg_level == SOL_IPV6 && cmsg->cmsg_type == IPV6_RECVERR)) {
+                serr = (struct sock_extended_err*) CMSG_DATA(cmsg);
+            } else if (cmsg->cmsg_level == SOL_SOCKET && cmsg->cmsg_type == SCM_TIMESTAMPING) {
+                // struct scm_timestamping, the software timestamp is the first one.
+                ts = (struct timespec*) CMSG_DATA(cmsg);
+            }
+        }
+        if (serr == NULL) {
+            // Nothing we know about, skip it and try the next one.
+            continue;
+        }
+        if (serr->ee_errno == 0 && serr->ee_origin == SO_EE_ORIGIN_ZEROCOPY) {
+            // The notification covers the inclusive range [ee_info, ee_data] of zerocopy send calls.
+            jlong values[3];
+            values[0] = (jlong) serr->ee_info;
+            values[1] = (jlong) serr->ee_data;
+            values[2] = (serr->ee_code & SO_EE_CODE_ZEROCOPY_COPIED) != 0 ? 1 : 0;
+            (*env)->SetLongArrayRegion(env, result, 0, 3, values);
+            return ERRQUEUE_ZEROCOPY;
+        }
+        if (serr->ee_errno == ENOMSG && serr->ee_origin == SO_EE_ORIGIN_TIMESTAMPING && ts != NULL) {
+            // ee_info is the SCM_TSTAMP_* type and ee_data the id of the send if SOF_TIMESTAMPING_OPT_ID is used.
+            jlong values[3];
+            values[0] = (jlong) serr->ee_info;
+            values[1] = (jlong) serr->ee_data;
+            values[2] = ((jlong) ts[0].tv_sec) * 1000000000 + ts[0].tv_nsec;
+            (*env)->SetLongArrayRegion(env, result, 0, 3, values);
+            return ERRQUEUE_TIMESTAMP;
+        }
+    }
+}
+
+static jint netty_epoll_linuxsocket_recvAddressTimestamp(JNIEnv* env, jclass clazz, jint fd, jlong address, jint pos, jint limit, jlongArray timestamp) {
+    char control[CMSG_SPACE(sizeof(struct timespec) * 3)];
+    struct msghdr msg;
+    struct iovec iov;
+    struct cmsghdr* cmsg;
+    struct timespec* ts;
+    jlong value = 0;
+    ssize_t res;
+    int err;
+
+    iov.iov_base = (void*) (intptr_t) (address + pos);
+    iov.iov_len = (size_t) (limit - pos);
+    memset(&msg, 0, sizeof(msg));
+    msg.msg_iov = &iov;
+    msg.msg_iovlen = 1;
+    msg.msg_control = control;
+    msg.msg_controllen = sizeof(control);
+
+    do {
+        res = recvmsg(fd, &msg, 0);
+        // keep on reading if it was interrupted
+    } while (res == -1 && ((err = errno) == EINTR));
+
+    if (res < 0) {
+        return -err;
+    }
+
+    for (cmsg = CMSG_FIRSTHDR(&msg); cmsg != NULL; cmsg = CMSG_NXTHDR(&msg, cmsg)) {
+        if (cmsg->cmsg_level == SOL_SOCKET && cmsg->cmsg_type == SCM_TIMESTAMPING) {
+            // struct scm_timestamping, the software timestamp is the first one.
+            ts = (struct timespec*) CMSG_DATA(cmsg);
+            value = ((jlong) ts[0].tv_sec) * 1000000000 + ts[0].tv_nsec;
+            break;
+        }
+    }
+    (*env)->SetLongArrayRegion(env, timestamp, 0, 1, &value);
+    return (jint) res;
+}
+
+static jint netty_epoll_linuxsocket_recvAddressRecordType(JNIEnv* env, jclass clazz, jint fd, jlong address, jint pos, jint limit, jintArray recordType) {
+    char control[CMSG_SPACE(sizeof(unsigned char))];
+    struct msghdr msg;
+    struct iovec iov;
+    struct cmsghdr* cmsg;
+    jint value = 0;
+    ssize_t res;
+    int err;
+
+    iov.iov_base = (void*) (intptr_t) (address + pos);
+    iov.iov_len = (size_t) (limit - pos);
+    memset(&msg, 0, sizeof(msg));
+    msg.msg_iov = &iov;
+    msg.msg_iovlen = 1;
+    msg.msg_control = control;
+    msg.msg_controllen = sizeof(control);
+
+    do {
+        res = recvmsg(fd, &msg, 0);
+        // keep on reading if it was interrupted
+    } while (res == -1 && ((err = errno) == EINTR));
+
+    if (res < 0) {
+        return -err;
+    }
+
+    for (cmsg = CMSG_FIRSTHDR(&msg); cmsg != NULL; cmsg = CMSG_NXTHDR(&msg, cmsg)) {
+        if (cmsg->cmsg_level == SOL_TLS && cmsg->cmsg_type == TLS_GET_RECORD_TYPE) {
+            value = *((unsigned char*) CMSG_DATA(cmsg));
+            break;
+        }
+    }
+    (*env)->SetIntArrayRegion(env, recordType, 0, 1, &value);
+    return (jint) res;
+}
+
+static jint netty_epoll_linuxsocket_getTimestamping(JNIEnv* env, jclass clazz, jint fd) {
+    int optval;
+    if (netty_unix_socket_getOption(env, fd, SOL_SOCKET, SO_TIMESTAMPING, &optval, sizeof(optval)) == -1) {
+        return -1;
+    }
+    return optval;
+}
+
+static void netty_epoll_linuxsocket_setTimestamping(JNIEnv* env, jclass clazz, jint fd, jint optval) {
+    netty_unix_socket_setOption(env, fd, SOL_SOCKET, SO_TIMESTAMPING, &optval, sizeof(optval));
+}
+
+static jint netty_epoll_linuxsocket_getIncomingCpu(JNIEnv* env, jclass clazz, jint fd) {
+    int optval;
+    if (netty_unix_socket_getOption(env, fd, SOL_SOCKET, SO_INCOMING_CPU, &optval, sizeof(optval)) == -1) {
+        return -1;
+    }
+    return optval;
+}
+
+static jint netty_epoll_linuxsocket_getSoDomain(JNIEnv* env, jclass clazz, jint fd) {
+    int optval;
+    if (netty_unix_socket_getOption(env, fd, SOL_SOCKET, SO_DOMAIN, &optval, sizeof(optval)) == -1) {
+        return -1;
+    }
+    return optval;
+}
+
+static jint netty_epoll_linuxsocket_isSoAcceptConn(JNIEnv* env, jclass clazz, jint fd) {
+    int optval;
+    if (netty_unix_socket_getOption(env, fd, SOL_SOCKET, SO_ACCEPTCONN, &optval, sizeof(optval)) == -1) {
+        return -1;
+    }
+    return optval;
+}
+
+static jint netty_epoll_linuxsocket_dup(JNIEnv* env, jclass clazz, jint fd) {
+    int res = fcntl(fd, F_DUPFD_CLOEXEC, 0);
+    if (res == -1) {
+        return -errno;
+    }
+    return res;
+}
+
+static jint netty_epoll_linuxsocket_isSockStream(JNIEnv* env, jclass clazz, jint fd) {
+    int optval;
+    if (netty_unix_socket_getOption(env, fd, SOL_SOCKET, SO_TYPE, &optval, sizeof(optval)) == -1) {
+        return -1;
+    }
+    return optval == SOCK_STREAM ? 1 : 0;
+}
+
 static jlong netty_epoll_linuxsocket_sendFile(JNIEnv* env, jclass clazz, jint fd, jobject fileRegion, jlong base_off, jlong off, jlong len) {
     jobject fileChannel = (*env)->GetObjectField(env, fileRegion, fileChannelFieldId);
     if (fileChannel == NULL) {
@@ -794,7 +1084,21 @@ static const JNINativeMethod fixed_method_table[] = {
   { "leaveGroup", "(IZ[B[BII)V", (void *) netty_epoll_linuxsocket_leaveGroup },
   { "leaveSsmGroup", "(IZ[B[BII[B)V", (void *) netty_epoll_linuxsocket_leaveSsmGroup },
   { "isUdpGro", "(I)I", (void *) netty_epoll_linuxsocket_isUdpGro },
-  { "setUdpGro", "(II)V", (void *) netty_epoll_linuxsocket_setUdpGro }
+  { "setUdpGro", "(II)V", (void *) netty_epoll_linuxsocket_setUdpGro },
+  { "isSoZeroCopy", "(I)I", (void *) netty_epoll_linuxsocket_isSoZeroCopy },
+  { "setSoZeroCopy", "(II)V", (void *) netty_epoll_linuxsocket_setSoZeroCopy },
+  { "sendAddressZeroCopy", "(IJII)I", (void *) netty_epoll_linuxsocket_sendAddressZeroCopy },
+  { "recvErrorQueue", "(I[J)I", (void *) netty_epoll_linuxsocket_recvErrorQueue },
+  { "recvAddressTimestamp", "(IJII[J)I", (void *) netty_epoll_linuxsocket_recvAddressTimestamp },
+  { "recvAddressRecordType", "(IJII[I)I", (void *) netty_epoll_linuxsocket_recvAddressRecordType },
+  { "getTimestamping", "(I)I", (void *) netty_epoll_linuxsocket_getTimestamping },
+  { "setTimestamping", "(II)V", (void *) netty_epoll_linuxsocket_setTimestamping },
+  { "getIncomingCpu", "(I)I", (void *) netty_epoll_linuxsocket_getIncomingCpu },
+  { "getSoDomain", "(I)I", (void *) netty_epoll_linuxsocket_getSoDomain },
+  { "isSoAcceptConn", "(I)I", (void *) netty_epoll_linuxsocket_isSoAcceptConn },
+  { "isSockStream", "(I)I", (void *) netty_epoll_linuxsocket_isSockStream },
+  { "dup", "(I)I", (void *) netty_epoll_linuxsocket_dup },
+  { "attachReusePortCpuFilter", "(II)V", (void *) netty_epoll_linuxsocket_attachReusePortCpuFilter }
 
   // "sendFile" has a dynamic signature
 };
@@ -71,6 +71,11 @@
 #define UDP_SEGMENT	103
 #endif
 
+// EPOLLEXCLUSIVE is defined in linux 4.5. We define this here so older kernels can compile.
+#ifndef EPOLLEXCLUSIVE
+#define EPOLLEXCLUSIVE (1u << 28)
+#endif
+
 // UDP_GRO is defined in linux 5. We define this here so older kernels can compile.
 #ifndef UDP_GRO
 #define UDP_GRO 104
@@ -360,6 +365,44 @@ static jint netty_epoll_native_epollCtlMod0(JNIEnv* env, jclass clazz, jint efd,
     return res;
 }
 
+// Calls epoll_ctl(EPOLL_CTL_MOD) for len pairs of file descriptor and flags. The file descriptor of every pair that
+// failed is replaced by -errno, and the number of failed pairs is returned.
+static jint netty_epoll_native_epollCtlModBatch0(JNIEnv* env, jclass clazz, jint efd, jintArray fdsAndFlags, jint len) {
+    // We use GetIntArrayRegion(...) and copy into a small stack allocated buffer and NOT GetPrimitiveArrayCritical(...)
+    // as we call epoll_ctl(...) for every pair.
+    jint buf[128];
+    jint failed = 0;
+    jint offset;
+    for (offset = 0; offset < len * 2; offset += 128) {
+        jint n = len * 2 - offset < 128 ? len * 2 - offset : 128;
+        int changed = 0;
+        int i;
+        (*env)->GetIntArrayRegion(env, fdsAndFlags, offset, n, buf);
+        for (i = 0; i < n; i += 2) {
+            int res;
+            if (buf[i + 1] & EPOLLEXCLUSIVE) {
+                // EPOLL_CTL_MOD is rejected for an exclusive registration, so replace the registration instead.
+                struct epoll_event event = { 0 };
+                res = epoll_ctl(efd, EPOLL_CTL_DEL, buf[i], &event);
+                if (res == 0) {
+                    res = epollCtl(env, efd, EPOLL_CTL_ADD, buf[i], buf[i + 1]);
+                }
+            } else {
+                res = epollCtl(env, efd, EPOLL_CTL_MOD, buf[i], buf[i + 1]);
+            }
+            if (res < 0) {
+                buf[i] = -errno;
+                changed = 1;
+                failed++;
+            }
+        }
+        if (changed) {
+            (*env)->SetIntArrayRegion(env, fdsAndFlags, offset, n, buf);
+        }
+    }
+    return failed;
+}
+
 static jint netty_epoll_native_epollCtlDel0(JNIEnv* env, jclass clazz, jint efd, jint fd) {
     // Create an empty event to workaround a bug in older kernels which can not handle NULL.
     struct epoll_event event = { 0 };
@@ -623,10 +666,18 @@ static jint netty_epoll_native_epollrdhup(JNIEnv* env, jclass clazz) {
     return EPOLLRDHUP;
 }
 
+static jint netty_epoll_native_epollexclusive(JNIEnv* env, jclass clazz) {
+    return EPOLLEXCLUSIVE;
+}
+
 static jint netty_epoll_native_epollerr(JNIEnv* env, jclass clazz) {
     return EPOLLERR;
 }
 
+static jint netty_epoll_native_errnoEIO(JNIEnv* env, jclass clazz) {
+    return EIO;
+}
+
 static jint netty_epoll_native_sizeofEpollEvent(JNIEnv* env, jclass clazz) {
     return sizeof(struct epoll_event);
 }
@@ -680,6 +731,8 @@ static const JNINativeMethod statically_referenced_fixed_method_table[] = {
   { "epollout", "()I", (void *) netty_epoll_native_epollout },
   { "epollrdhup", "()I", (void *) netty_epoll_native_epollrdhup },
   { "epollerr", "()I", (void *) netty_epoll_native_epollerr },
+  { "epollexclusive", "()I", (void *) netty_epoll_native_epollexclusive },
+  { "errnoEIO", "()I", (void *) netty_epoll_native_errnoEIO },
   { "tcpMd5SigMaxKeyLen", "()I", (void *) netty_epoll_native_tcpMd5SigMaxKeyLen },
   { "isSupportingSendmmsg", "()Z", (void *) netty_epoll_native_isSupportingSendmmsg },
   { "isSupportingRecvmmsg", "()Z", (void *) netty_epoll_native_isSupportingRecvmmsg },
@@ -698,6 +751,7 @@ static const JNINativeMethod fixed_method_table[] = {
   { "epollBusyWait0", "(IJI)I", (void *) netty_epoll_native_epollBusyWait0 },
   { "epollCtlAdd0", "(III)I", (void *) netty_epoll_native_epollCtlAdd0 },
   { "epollCtlMod0", "(III)I", (void *) netty_epoll_native_epollCtlMod0 },
+  { "epollCtlModBatch0", "(I[II)I", (void *) netty_epoll_native_epollCtlModBatch0 },
   { "epollCtlDel0", "(II)I", (void *) netty_epoll_native_epollCtlDel0 },
   // "sendmmsg0" has a dynamic signature
   { "sizeofEpollEvent", "()I", (void *) netty_epoll_native_sizeofEpollEvent },
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.util.NetUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EpollAdaptiveWaterMarkTest {
+
+    private EventLoopGroup group;
+    private Channel serverChannel;
+
+    @BeforeAll
+    public static void loadJNI() {
+        Epoll.ensureAvailability();
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        group = new EpollEventLoopGroup(1);
+        serverChannel = new ServerBootstrap().group(group).channel(EpollServerSocketChannel.class)
+                .childHandler(new NoopHandler()).bind(NetUtil.LOCALHOST, 0).sync().channel();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        serverChannel.close().sync();
+        group.shutdownGracefully().sync();
+    }
+
+    @Test
+    public void testHighWaterMark() {
+        EpollAdaptiveWaterMark adaptiveWaterMark = new EpollAdaptiveWaterMark(16 * 1024, 1024 * 1024);
+        assertEquals(2 * 10 * 1460, adaptiveWaterMark.highWaterMark(10, 1460));
+        assertEquals(16 * 1024, adaptiveWaterMark.highWaterMark(2, 1460));
+        assertEquals(1024 * 1024, adaptiveWaterMark.highWaterMark(1000, 1460));
+        assertEquals(1024 * 1024, adaptiveWaterMark.highWaterMark(Integer.MAX_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, new Executable() {
+            @Override
+            public void execute() {
+                new EpollAdaptiveWaterMark(0, 1024);
+            }
+        });
+        assertThrows(IllegalArgumentException.class, new Executable() {
+            @Override
+            public void execute() {
+                new EpollAdaptiveWaterMark(1024, 1023);
+            }
+        });
+        assertThrows(IllegalArgumentException.class, new Executable() {
+            @Override
+            public void execute() {
+                new EpollAdaptiveWaterMark(1024, 2048, 0);
+            }
+        });
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testWaterMarkFollowsTcpInfo() throws Exception {
+        EpollAdaptiveWaterMark adaptiveWaterMark = new EpollAdaptiveWaterMark(1024, Integer.MAX_VALUE, 10);
+        EpollSocketChannel ch = connect(adaptiveWaterMark);
+        try {
+            assertSame(adaptiveWaterMark, ch.config().getOption(EpollChannelOption.ADAPTIVE_WRITE_BUFFER_WATER_MARK));
+            awaitHighWaterMarkChanged(ch, WriteBufferWaterMark.DEFAULT.high());
+
+            EpollTcpInfo info = ch.tcpInfo();
+            assertTrue(info.sndCwnd() > 0);
+            assertTrue(ch.config().getWriteBufferHighWaterMark() >= 2 * info.sndMss());
+            assertEquals(ch.config().getWriteBufferHighWaterMark() >>> 1, ch.config().getWriteBufferLowWaterMark());
+        } finally {
+            ch.close().sync();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testWaterMarkWithinBounds() throws Exception {
+        EpollSocketChannel ch = connect(null);
+        try {
+            // Enabled once the channel is active already.
+            ch.config().setAdaptiveWriteBufferWaterMark(new EpollAdaptiveWaterMark(1024, 2048, 10));
+            awaitHighWaterMarkChanged(ch, WriteBufferWaterMark.DEFAULT.high());
+            assertEquals(2048, ch.config().getWriteBufferHighWaterMark());
+            assertEquals(1024, ch.config().getWriteBufferLowWaterMark());
+
+            // Once disabled the water mark stays where it is set.
+            ch.config().setAdaptiveWriteBufferWaterMark(null);
+            assertNull(ch.config().getAdaptiveWriteBufferWaterMark());
+            ch.config().setWriteBufferWaterMark(new WriteBufferWaterMark(100, 200));
+            Thread.sleep(100);
+            assertEquals(200, ch.config().getWriteBufferHighWaterMark());
+            assertEquals(100, ch.config().getWriteBufferLowWaterMark());
+        } finally {
+            ch.close().sync();
+        }
+    }
+
+    private EpollSocketChannel connect(EpollAdaptiveWaterMark adaptiveWaterMark) throws Exception {
+        Bootstrap bootstrap = new Bootstrap().group(group).channel(EpollSocketChannel.class)
+                .handler(new NoopHandler());
+        if (adaptiveWaterMark != null) {
+            bootstrap.option(EpollChannelOption.ADAPTIVE_WRITE_BUFFER_WATER_MARK, adaptiveWaterMark);
+        }
+        return (EpollSocketChannel) bootstrap.connect(serverChannel.localAddress()).sync().channel();
+    }
+
+    private static void awaitHighWaterMarkChanged(Channel ch, int high) throws InterruptedException {
+        while (ch.config().getWriteBufferHighWaterMark() == high) {
+            Thread.sleep(10);
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private static final class NoopHandler extends ChannelInboundHandlerAdapter {
+    }
+}
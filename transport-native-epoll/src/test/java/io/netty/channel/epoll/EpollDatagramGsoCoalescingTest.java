@@ -0,0 +1,142 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.socket.DatagramPacket;
+import io.netty.util.NetUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EpollDatagramGsoCoalescingTest {
+
+    @BeforeAll
+    public static void loadJNI() {
+        Epoll.ensureAvailability();
+    }
+
+    @Test
+    public void testCoalesceSameSizeAndRecipient() throws Exception {
+        InetSocketAddress first = new InetSocketAddress(NetUtil.LOCALHOST, 1234);
+        InetSocketAddress second = new InetSocketAddress(NetUtil.LOCALHOST, 5678);
+        EmbeddedChannel ch = new EmbeddedChannel();
+        try {
+            // Only the last segment of a send may be smaller, and a send has only one recipient.
+            int[] sizes = { 100, 100, 100, 50, 100, 100, 200 };
+            InetSocketAddress[] recipients = { first, first, first, first, first, second, second };
+            for (int i = 0; i < sizes.length; i++) {
+                ch.write(new DatagramPacket(Unpooled.directBuffer(sizes[i]).writeZero(sizes[i]), recipients[i]));
+            }
+            ChannelOutboundBuffer in = ch.unsafe().outboundBuffer();
+            in.addFlush();
+
+            NativeDatagramPacketArray array = new NativeDatagramPacketArray();
+            try {
+                array.add(in, false, Integer.MAX_VALUE, true);
+                assertEquals(4, array.count());
+                int[] messages = { 4, 1, 1, 1 };
+                for (int i = 0; i < messages.length; i++) {
+                    assertEquals(messages[i], array.packets()[i].messages());
+                }
+
+                array.clear();
+                array.add(in, false, Integer.MAX_VALUE, false);
+                assertEquals(sizes.length, array.count());
+                for (int i = 0; i < sizes.length; i++) {
+                    assertFalse(array.packets()[i].isCoalesced());
+                }
+            } finally {
+                array.release();
+            }
+        } finally {
+            ch.finishAndReleaseAll();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testCoalescedWrite() throws Throwable {
+        final LinkedBlockingQueue<byte[]> received = new LinkedBlockingQueue<byte[]>();
+        EventLoopGroup group = new EpollEventLoopGroup(1);
+        try {
+            Channel receiver = new Bootstrap().group(group).channel(EpollDatagramChannel.class)
+                    .handler(new SimpleChannelInboundHandler<DatagramPacket>() {
+                        @Override
+                        protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket msg) {
+                            received.add(ByteBufUtil.getBytes(msg.content()));
+                        }
+                    }).bind(NetUtil.LOCALHOST, 0).sync().channel();
+            EpollDatagramChannel sender = (EpollDatagramChannel) new Bootstrap().group(group)
+                    .channel(EpollDatagramChannel.class)
+                    .option(EpollChannelOption.UDP_GSO_COALESCING, true)
+                    .handler(new SimpleChannelInboundHandler<DatagramPacket>() {
+                        @Override
+                        protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket msg) {
+                            // Nothing is sent to the sender.
+                        }
+                    }).bind(NetUtil.LOCALHOST, 0).sync().channel();
+            assertTrue(sender.config().isUdpGsoCoalescing());
+
+            InetSocketAddress recipient = (InetSocketAddress) receiver.localAddress();
+            List<byte[]> datagrams = new ArrayList<byte[]>();
+            ChannelFuture lastWrite = null;
+            for (int i = 0; i < 64; i++) {
+                // Runs of 8 datagrams of the same size, each run ends with a smaller one.
+                byte[] bytes = new byte[i % 8 == 7 ? 100 : 512];
+                for (int j = 0; j < bytes.length; j++) {
+                    bytes[j] = (byte) (i + j);
+                }
+                datagrams.add(bytes);
+                lastWrite = sender.write(new DatagramPacket(Unpooled.wrappedBuffer(bytes), recipient));
+            }
+            sender.flush();
+            lastWrite.sync();
+
+            for (byte[] expected : datagrams) {
+                byte[] actual = received.poll(5, TimeUnit.SECONDS);
+                assertNotNull(actual);
+                assertArrayEquals(expected, actual);
+            }
+
+            sender.close().sync();
+            receiver.close().sync();
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+}
@@ -113,4 +113,61 @@ public class EpollDomainSocketFdTest extends AbstractSocketTest {
             throw (Throwable) received;
         }
     }
+
+    @Test
+    @Timeout(value = 30000, unit = TimeUnit.MILLISECONDS)
+    public void testSendRecvMultipleFds(TestInfo testInfo) throws Throwable {
+        run(testInfo, new Runner<ServerBootstrap, Bootstrap>() {
+            @Override
+            public void run(ServerBootstrap serverBootstrap, Bootstrap bootstrap) throws Throwable {
+                testSendRecvMultipleFds(serverBootstrap, bootstrap);
+            }
+        });
+    }
+
+    public void testSendRecvMultipleFds(ServerBootstrap sb, Bootstrap cb) throws Throwable {
+        final int numFds = 4;
+        final BlockingQueue<Object> queue = new LinkedBlockingQueue<Object>();
+        sb.childHandler(new ChannelInboundHandlerAdapter() {
+            @Override
+            public void channelActive(ChannelHandlerContext ctx) throws Exception {
+                // All descriptors are queued before the peer reads the first one.
+                for (int i = 0; i < numFds; i++) {
+                    ctx.write(new EpollDomainSocketChannel().fd());
+                }
+                ctx.flush();
+            }
+        });
+        cb.handler(new ChannelInboundHandlerAdapter() {
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+                queue.offer(msg);
+            }
+
+            @Override
+            public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+                queue.add(cause);
+                ctx.close();
+            }
+        });
+        cb.option(EpollChannelOption.DOMAIN_SOCKET_READ_MODE,
+                DomainSocketReadMode.FILE_DESCRIPTORS);
+        Channel sc = sb.bind().sync().channel();
+        Channel cc = cb.connect(sc.localAddress()).sync().channel();
+
+        try {
+            for (int i = 0; i < numFds; i++) {
+                Object received = queue.take();
+                if (!(received instanceof FileDescriptor)) {
+                    throw (Throwable) received;
+                }
+                FileDescriptor fd = (FileDescriptor) received;
+                assertTrue(fd.isOpen());
+                fd.close();
+            }
+        } finally {
+            cc.close().sync();
+            sc.close().sync();
+        }
+    }
 }
@@ -15,20 +15,33 @@
  */
 package io.netty.channel.epoll;
 
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.Unpooled;
 import io.netty.testsuite.transport.AbstractSingleThreadEventLoopTest;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
 import io.netty.channel.DefaultSelectStrategyFactory;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
 import io.netty.channel.socket.ServerSocketChannel;
 import io.netty.channel.unix.FileDescriptor;
+import io.netty.util.NetUtil;
+import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.RejectedExecutionHandlers;
 import io.netty.util.concurrent.ThreadPerTaskExecutor;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 
 import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -92,6 +105,156 @@ public class EpollEventLoopTest extends AbstractSingleThreadEventLoopTest {
         }
     }
 
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testAdaptiveBusyWait() throws Exception {
+        EpollEventLoopGroup group = new EpollEventLoopGroup(1);
+        try {
+            final EpollEventLoop loop = (EpollEventLoop) group.next();
+            group.setBusyWaitNanos(TimeUnit.MILLISECONDS.toNanos(200));
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(200), loop.getBusyWaitNanos());
+
+            Runnable noop = new Runnable() {
+                @Override
+                public void run() {
+                    // NOOP
+                }
+            };
+            // The first task wakes up the blocked loop, the following ones are submitted while it is busy waiting.
+            loop.submit(noop).sync();
+            for (int i = 0; i < 10; i++) {
+                // Give the loop the chance to start busy waiting, even when there is only a single CPU.
+                Thread.sleep(1);
+                loop.submit(noop).sync();
+            }
+            assertTrue(loop.busyWaitHits() > 0);
+
+            // Busy waiting must not delay scheduled tasks.
+            long parks = loop.parks();
+            long start = System.nanoTime();
+            loop.schedule(noop, 10, TimeUnit.MILLISECONDS).sync();
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(200));
+
+            // Once idle the loop blocks again.
+            Thread.sleep(500);
+            assertTrue(loop.busyWaitMisses() > 0);
+            assertTrue(loop.parks() > parks);
+            assertTrue(loop.busyWaitTotalNanos() > 0);
+        } finally {
+            group.shutdownGracefully().syncUninterruptibly();
+        }
+    }
+
+    @Test
+    public void testEpollCtlModBatch() throws Throwable {
+        final FileDescriptor epoll = Native.newEpollCreate();
+        final FileDescriptor eventFd = Native.newEventFd();
+        final FileDescriptor eventFd2 = Native.newEventFd();
+        final FileDescriptor closedFd = Native.newEventFd();
+        final EpollEventArray array = new EpollEventArray(1024);
+        try {
+            Native.epollCtlAdd(epoll.intValue(), eventFd.intValue(), Native.EPOLLIN | Native.EPOLLET);
+            Native.epollCtlAdd(epoll.intValue(), eventFd2.intValue(), Native.EPOLLET);
+            closedFd.close();
+
+            int[] fdsAndFlags = {
+                    eventFd.intValue(), Native.EPOLLET,
+                    closedFd.intValue(), Native.EPOLLIN | Native.EPOLLET,
+                    eventFd2.intValue(), Native.EPOLLIN | Native.EPOLLET
+            };
+            assertEquals(1, Native.epollCtlModBatch(epoll.intValue(), fdsAndFlags, 3));
+            assertEquals(eventFd.intValue(), fdsAndFlags[0]);
+            assertTrue(fdsAndFlags[2] < 0);
+            assertEquals(eventFd2.intValue(), fdsAndFlags[4]);
+
+            Native.eventFdWrite(eventFd.intValue(), 1);
+            Native.eventFdWrite(eventFd2.intValue(), 1);
+            assertEquals(1, Native.epollWait(epoll, array, true));
+            assertEquals(eventFd2.intValue(), array.fd(0));
+        } finally {
+            array.free();
+            epoll.close();
+            eventFd.close();
+            eventFd2.close();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testModificationsAppliedBeforeEpollWait() throws Exception {
+        EventLoopGroup group = new EpollEventLoopGroup(1);
+        final BlockingQueue<Channel> accepted = new LinkedBlockingQueue<Channel>();
+        final BlockingQueue<Object> received = new LinkedBlockingQueue<Object>();
+        try {
+            Channel sc = new ServerBootstrap().group(group).channel(EpollServerSocketChannel.class)
+                    .childHandler(new ChannelInitializer<Channel>() {
+                        @Override
+                        protected void initChannel(Channel ch) {
+                            accepted.add(ch);
+                            ch.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                                @Override
+                                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                                    received.add(msg);
+                                }
+                            });
+                        }
+                    }).bind(NetUtil.LOCALHOST, 0).sync().channel();
+            Channel client = new Bootstrap().group(group).channel(EpollSocketChannel.class)
+                    .handler(new ChannelInboundHandlerAdapter()).connect(sc.localAddress()).sync().channel();
+            final AbstractEpollChannel child = (AbstractEpollChannel) accepted.take();
+
+            final Callable<Boolean> applied = new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return !child.modificationPending && child.registeredFlags == child.flags;
+                }
+            };
+            awaitApplied(child, applied);
+
+            final int registeredFlags = child.eventLoop().submit(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    int registeredFlags = child.registeredFlags;
+                    for (int i = 0; i < 100; i++) {
+                        child.config().setAutoRead(false);
+                        child.config().setAutoRead(true);
+                    }
+                    // Nothing is applied before the next epoll_wait.
+                    assertTrue(child.modificationPending);
+                    assertEquals(registeredFlags, child.registeredFlags);
+                    return registeredFlags;
+                }
+            }).sync().getNow();
+            assertTrue((registeredFlags & Native.EPOLLIN) != 0);
+            awaitApplied(child, applied);
+            assertEquals(registeredFlags, child.registeredFlags);
+
+            client.writeAndFlush(Unpooled.copiedBuffer(new byte[] { 1 })).sync();
+            ReferenceCountUtil.release(received.take());
+
+            // Now the flag is changed for real.
+            child.eventLoop().submit(new Runnable() {
+                @Override
+                public void run() {
+                    child.config().setAutoRead(false);
+                }
+            }).sync();
+            awaitApplied(child, applied);
+            assertFalse((child.registeredFlags & Native.EPOLLIN) != 0);
+
+            client.close().sync();
+            sc.close().sync();
+        } finally {
+            group.shutdownGracefully().syncUninterruptibly();
+        }
+    }
+
+    private static void awaitApplied(Channel ch, Callable<Boolean> applied) throws Exception {
+        while (!ch.eventLoop().submit(applied).sync().getNow()) {
+            Thread.sleep(10);
+        }
+    }
+
     @Test
     public void testEventFDETSemantics() throws Throwable {
         final FileDescriptor epoll = Native.newEpollCreate();
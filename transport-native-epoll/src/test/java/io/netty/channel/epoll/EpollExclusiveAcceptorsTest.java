@@ -0,0 +1,143 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.NetUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EpollExclusiveAcceptorsTest {
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testShareListenerBetweenEventLoops() throws Exception {
+        final int numLoops = 4;
+        final int numConnections = 32;
+        EventLoopGroup group = new EpollEventLoopGroup(numLoops);
+        EventLoopGroup clientGroup = new EpollEventLoopGroup(1);
+        final CountDownLatch accepted = new CountDownLatch(numConnections);
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        try {
+            ServerBootstrap sb = new ServerBootstrap().childHandler(new AcceptHandler(accepted, error));
+            List<Channel> listeners = EpollExclusiveAcceptors.bind(
+                    sb, group, new InetSocketAddress(NetUtil.LOCALHOST, 0)).sync().getNow();
+            assertEquals(numLoops, listeners.size());
+
+            SocketAddress localAddress = listeners.get(0).localAddress();
+            assertNotEquals(0, ((InetSocketAddress) localAddress).getPort());
+            for (int i = 0; i < numLoops; i++) {
+                EpollServerSocketChannel listener = (EpollServerSocketChannel) listeners.get(i);
+                assertTrue(listener.isActive());
+                assertEquals(localAddress, listener.localAddress());
+                assertTrue(listener.isFlagSet(Native.EPOLLEXCLUSIVE));
+                for (int j = 0; j < i; j++) {
+                    assertNotEquals(listeners.get(j).eventLoop(), listener.eventLoop());
+                    assertNotEquals(((EpollServerSocketChannel) listeners.get(j)).socket.intValue(),
+                            listener.socket.intValue());
+                }
+            }
+
+            Bootstrap cb = new Bootstrap().group(clientGroup).channel(EpollSocketChannel.class)
+                    .handler(new NoopHandler());
+            for (int i = 0; i < numConnections; i++) {
+                cb.connect(localAddress).sync();
+            }
+            assertTrue(accepted.await(5, TimeUnit.SECONDS));
+            assertNull(error.get());
+
+            for (Channel listener : listeners) {
+                listener.close().sync();
+            }
+        } finally {
+            clientGroup.shutdownGracefully();
+            group.shutdownGracefully();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testListenUntilAllChannelsClosed() throws Exception {
+        EventLoopGroup group = new EpollEventLoopGroup(2);
+        EventLoopGroup clientGroup = new EpollEventLoopGroup(1);
+        final CountDownLatch accepted = new CountDownLatch(8);
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        try {
+            ServerBootstrap sb = new ServerBootstrap().childHandler(new AcceptHandler(accepted, error));
+            List<Channel> listeners = EpollExclusiveAcceptors.bind(
+                    sb, group, new InetSocketAddress(NetUtil.LOCALHOST, 0)).sync().getNow();
+            SocketAddress localAddress = listeners.get(0).localAddress();
+
+            // The remaining channel keeps accepting, even if the channel which bound the socket is gone.
+            listeners.get(0).close().sync();
+            Bootstrap cb = new Bootstrap().group(clientGroup).channel(EpollSocketChannel.class)
+                    .handler(new NoopHandler());
+            for (int i = 0; i < 8; i++) {
+                cb.connect(localAddress).sync();
+            }
+            assertTrue(accepted.await(5, TimeUnit.SECONDS));
+            assertNull(error.get());
+
+            listeners.get(1).close().sync();
+            assertTrue(cb.connect(localAddress).await().cause() != null);
+        } finally {
+            clientGroup.shutdownGracefully();
+            group.shutdownGracefully();
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private static final class AcceptHandler extends ChannelInboundHandlerAdapter {
+        private final CountDownLatch accepted;
+        private final AtomicReference<Throwable> error;
+
+        AcceptHandler(CountDownLatch accepted, AtomicReference<Throwable> error) {
+            this.accepted = accepted;
+            this.error = error;
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            Channel ch = ctx.channel();
+            if (ch.eventLoop() != ch.parent().eventLoop()) {
+                error.compareAndSet(null, new AssertionError("child not served by its acceptor loop"));
+            }
+            accepted.countDown();
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private static final class NoopHandler extends ChannelInboundHandlerAdapter {
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelException;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.unix.DomainSocketReadMode;
+import io.netty.channel.unix.FileDescriptor;
+import io.netty.channel.unix.tests.UnixTestUtils;
+import io.netty.util.NetUtil;
+import io.netty.util.ReferenceCountUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class EpollHandoffTest {
+
+    // One group per "process" and one for the clients.
+    private EventLoopGroup oldGroup;
+    private EventLoopGroup newGroup;
+    private EventLoopGroup clientGroup;
+
+    @BeforeAll
+    public static void loadJNI() {
+        Epoll.ensureAvailability();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        oldGroup = new EpollEventLoopGroup(1);
+        newGroup = new EpollEventLoopGroup(1);
+        clientGroup = new EpollEventLoopGroup(1);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        oldGroup.shutdownGracefully().sync();
+        newGroup.shutdownGracefully().sync();
+        clientGroup.shutdownGracefully().sync();
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testHandoffListenerAndConnection() throws Exception {
+        final BlockingQueue<Channel> oldAccepted = new LinkedBlockingQueue<Channel>();
+        Channel listener = new ServerBootstrap().group(oldGroup).channel(EpollServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(Channel ch) {
+                        oldAccepted.add(ch);
+                        ch.pipeline().addLast(new MarkerHandler('o'));
+                    }
+                }).bind(NetUtil.LOCALHOST, 0).sync().channel();
+        SocketAddress address = listener.localAddress();
+
+        BlockingQueue<Object> responses = new LinkedBlockingQueue<Object>();
+        Channel client = connect(address, responses);
+        assertEquals('o', request(client, responses));
+        Channel accepted = oldAccepted.take();
+
+        // The new process receives the sockets and serves them.
+        BlockingQueue<ChannelFuture> registered = new LinkedBlockingQueue<ChannelFuture>();
+        Channel handoffListener = bindHandoffListener(registered);
+        EpollDomainSocketChannel via = connectHandoff(handoffListener);
+        EpollHandoff.send(via, listener, accepted).sync();
+        assertFalse(listener.isOpen());
+        assertFalse(accepted.isOpen());
+
+        Channel newListener = registered.take().sync().channel();
+        Channel newAccepted = registered.take().sync().channel();
+        if (newAccepted instanceof EpollServerSocketChannel) {
+            Channel ch = newListener;
+            newListener = newAccepted;
+            newAccepted = ch;
+        }
+        assertInstanceOf(EpollServerSocketChannel.class, newListener);
+        assertEquals(address, newListener.localAddress());
+        assertInstanceOf(EpollSocketChannel.class, newAccepted);
+        assertEquals(client.localAddress(), newAccepted.remoteAddress());
+
+        // The established connection is served by the new process now, as well as new connections.
+        assertEquals('n', request(client, responses));
+        Channel newClient = connect(address, responses);
+        assertEquals('n', request(newClient, responses));
+
+        newClient.close().sync();
+        client.close().sync();
+        via.close().sync();
+        newListener.close().sync();
+        handoffListener.close().sync();
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testHandoffWaitsForZeroCopySends() throws Exception {
+        final BlockingQueue<Channel> oldAccepted = new LinkedBlockingQueue<Channel>();
+        Channel listener = new ServerBootstrap().group(oldGroup).channel(EpollServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(Channel ch) {
+                        oldAccepted.add(ch);
+                    }
+                }).bind(NetUtil.LOCALHOST, 0).sync().channel();
+
+        final int size = 256 * 1024;
+        final BlockingQueue<Object> responses = new LinkedBlockingQueue<Object>();
+        // The client does not read at first, so the data sent with MSG_ZEROCOPY stays queued in the old process.
+        Channel client = new Bootstrap().group(clientGroup).channel(EpollSocketChannel.class)
+                .option(ChannelOption.SO_RCVBUF, 32 * 1024)
+                .option(ChannelOption.AUTO_READ, false)
+                .handler(new ChannelInboundHandlerAdapter() {
+                    private int skip = size;
+
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        ByteBuf buf = (ByteBuf) msg;
+                        int skipped = Math.min(skip, buf.readableBytes());
+                        buf.skipBytes(skipped);
+                        skip -= skipped;
+                        while (buf.isReadable()) {
+                            responses.add((char) buf.readByte());
+                        }
+                        buf.release();
+                    }
+                }).connect(listener.localAddress()).sync().channel();
+        EpollSocketChannel accepted = (EpollSocketChannel) oldAccepted.take();
+        try {
+            accepted.config().setSoZeroCopy(true);
+        } catch (ChannelException e) {
+            client.close().sync();
+            listener.close().sync();
+            assumeTrue(false, "SO_ZEROCOPY not supported");
+        }
+        accepted.config().setZeroCopySendThreshold(size);
+        accepted.config().setSendBufferSize(2 * size);
+        ByteBuf data = Unpooled.directBuffer(size).writeZero(size);
+        accepted.writeAndFlush(data.retain()).sync();
+
+        BlockingQueue<ChannelFuture> registered = new LinkedBlockingQueue<ChannelFuture>();
+        Channel handoffListener = bindHandoffListener(registered);
+        EpollDomainSocketChannel via = connectHandoff(handoffListener);
+        ChannelFuture handoff = EpollHandoff.send(via, accepted);
+        // The socket is only sent once the kernel does not send from the buffer anymore.
+        assertFalse(handoff.await(500, TimeUnit.MILLISECONDS));
+        assertTrue(accepted.isOpen());
+        assertEquals(2, data.refCnt());
+
+        client.config().setAutoRead(true);
+        handoff.sync();
+        assertFalse(accepted.isOpen());
+        assertEquals(1, data.refCnt());
+        data.release();
+
+        // The connection survived the close in the old process and is served by the new one.
+        Channel newAccepted = registered.take().sync().channel();
+        assertEquals(client.localAddress(), newAccepted.remoteAddress());
+        assertEquals('n', request(client, responses));
+
+        client.close().sync();
+        via.close().sync();
+        listener.close().sync();
+        handoffListener.close().sync();
+    }
+
+    @Test
+    public void testAdoptNoTcpSocket() throws Exception {
+        final LinuxSocket socket = LinuxSocket.newSocketDgram();
+        assertThrows(IOException.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                EpollHandoff.adopt(new FileDescriptor(socket.intValue()));
+            }
+        });
+        // The descriptor was closed by adopt(...).
+        assertFalse(isValid(socket));
+    }
+
+    private static boolean isValid(LinuxSocket socket) {
+        try {
+            socket.getSoError();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Binds the listener of the new process, which registers every received socket.
+    private Channel bindHandoffListener(final BlockingQueue<ChannelFuture> registered) throws Exception {
+        final ServerBootstrap newBootstrap = new ServerBootstrap().group(newGroup)
+                .childHandler(new MarkerHandler('n'));
+        return new ServerBootstrap().group(newGroup).channel(EpollServerDomainSocketChannel.class)
+                .childOption(EpollChannelOption.DOMAIN_SOCKET_READ_MODE, DomainSocketReadMode.FILE_DESCRIPTORS)
+                .childHandler(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+                        registered.add(EpollHandoff.register(newBootstrap, (FileDescriptor) msg));
+                    }
+                }).bind(UnixTestUtils.newDomainSocketAddress()).sync().channel();
+    }
+
+    private EpollDomainSocketChannel connectHandoff(Channel handoffListener) throws Exception {
+        return (EpollDomainSocketChannel) new Bootstrap().group(oldGroup)
+                .channel(EpollDomainSocketChannel.class).handler(new ChannelInboundHandlerAdapter())
+                .connect(handoffListener.localAddress()).sync().channel();
+    }
+
+    private Channel connect(SocketAddress address, final BlockingQueue<Object> responses) throws Exception {
+        return new Bootstrap().group(clientGroup).channel(EpollSocketChannel.class)
+                .handler(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        ByteBuf buf = (ByteBuf) msg;
+                        responses.add((char) buf.readByte());
+                        buf.release();
+                    }
+                }).connect(address).sync().channel();
+    }
+
+    private static Object request(Channel client, BlockingQueue<Object> responses) throws Exception {
+        client.writeAndFlush(Unpooled.copiedBuffer(new byte[] { 1 })).sync();
+        return responses.take();
+    }
+
+    // Answers every request with the marker of the "process" that serves the connection.
+    @ChannelHandler.Sharable
+    private static final class MarkerHandler extends ChannelInboundHandlerAdapter {
+        private final char marker;
+
+        MarkerHandler(char marker) {
+            this.marker = marker;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ReferenceCountUtil.release(msg);
+            ctx.writeAndFlush(Unpooled.copiedBuffer(new byte[] { (byte) marker }));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.NetUtil;
+import io.netty.util.concurrent.EventExecutor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EpollIncomingCpuEventLoopsTest {
+
+    @BeforeAll
+    public static void loadJNI() {
+        Epoll.ensureAvailability();
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testChildRegisteredWithEventLoopOfIncomingCpu() throws Exception {
+        final int numConnections = 16;
+        EventLoopGroup bossGroup = new EpollEventLoopGroup(1);
+        EpollEventLoopGroup childGroup = new EpollEventLoopGroup(4);
+        EventLoopGroup clientGroup = new EpollEventLoopGroup(1);
+        final Map<Integer, EventLoop> eventLoopsByCpu = new HashMap<Integer, EventLoop>();
+        List<EventLoop> loops = eventLoops(childGroup);
+        for (int cpu = 0; cpu < Runtime.getRuntime().availableProcessors(); cpu++) {
+            eventLoopsByCpu.put(cpu, loops.get(cpu % loops.size()));
+        }
+        childGroup.setIncomingCpuEventLoops(eventLoopsByCpu);
+
+        final CountDownLatch accepted = new CountDownLatch(numConnections);
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        try {
+            Channel sc = new ServerBootstrap().group(bossGroup, childGroup).channel(EpollServerSocketChannel.class)
+                    .childHandler(new AcceptHandler(eventLoopsByCpu, accepted, error))
+                    .bind(NetUtil.LOCALHOST, 0).sync().channel();
+            Bootstrap cb = new Bootstrap().group(clientGroup).channel(EpollSocketChannel.class)
+                    .handler(new NoopHandler());
+            List<Channel> clients = new ArrayList<Channel>();
+            for (int i = 0; i < numConnections; i++) {
+                clients.add(cb.connect(sc.localAddress()).sync().channel());
+            }
+            assertTrue(accepted.await(5, TimeUnit.SECONDS));
+            assertNull(error.get());
+
+            for (Channel client : clients) {
+                client.close().sync();
+            }
+            sc.close().sync();
+        } finally {
+            clientGroup.shutdownGracefully();
+            childGroup.shutdownGracefully();
+            bossGroup.shutdownGracefully();
+        }
+    }
+
+    @Test
+    public void testEventLoopOfNearestCpu() {
+        EpollEventLoopGroup group = new EpollEventLoopGroup(2);
+        try {
+            List<EventLoop> loops = eventLoops(group);
+            Map<Integer, EventLoop> eventLoopsByCpu = new HashMap<Integer, EventLoop>();
+            eventLoopsByCpu.put(2, loops.get(0));
+            eventLoopsByCpu.put(5, loops.get(1));
+            assertArrayEquals(new EventLoop[] {
+                    loops.get(0), loops.get(0), loops.get(0), loops.get(0), loops.get(1), loops.get(1)
+            }, EpollEventLoopGroup.incomingCpuEventLoops(eventLoopsByCpu));
+            assertNull(EpollEventLoopGroup.incomingCpuEventLoops(Collections.<Integer, EventLoop>emptyMap()));
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+
+    @Test
+    public void testEventLoopOfOtherGroupRejected() {
+        final EpollEventLoopGroup group = new EpollEventLoopGroup(1);
+        EpollEventLoopGroup otherGroup = new EpollEventLoopGroup(1);
+        try {
+            final EventLoop otherLoop = otherGroup.next();
+            assertThrows(IllegalArgumentException.class, new Executable() {
+                @Override
+                public void execute() {
+                    group.setIncomingCpuEventLoops(Collections.singletonMap(0, otherLoop));
+                }
+            });
+        } finally {
+            group.shutdownGracefully();
+            otherGroup.shutdownGracefully();
+        }
+    }
+
+    private static List<EventLoop> eventLoops(EventLoopGroup group) {
+        List<EventLoop> loops = new ArrayList<EventLoop>();
+        for (EventExecutor executor : group) {
+            loops.add((EventLoop) executor);
+        }
+        return loops;
+    }
+
+    @ChannelHandler.Sharable
+    private static final class AcceptHandler extends ChannelInboundHandlerAdapter {
+        private final Map<Integer, EventLoop> eventLoopsByCpu;
+        private final CountDownLatch accepted;
+        private final AtomicReference<Throwable> error;
+
+        AcceptHandler(Map<Integer, EventLoop> eventLoopsByCpu, CountDownLatch accepted,
+                      AtomicReference<Throwable> error) {
+            this.eventLoopsByCpu = eventLoopsByCpu;
+            this.accepted = accepted;
+            this.error = error;
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            Channel ch = ctx.channel();
+            int cpu = ((EpollSocketChannel) ch).socket.getIncomingCpu();
+            if (ch.eventLoop() != eventLoopsByCpu.get(cpu)) {
+                error.compareAndSet(null, new AssertionError("child not served by the loop of CPU " + cpu));
+            }
+            accepted.countDown();
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private static final class NoopHandler extends ChannelInboundHandlerAdapter {
+    }
+}
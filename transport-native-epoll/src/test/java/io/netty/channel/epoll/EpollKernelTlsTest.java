@@ -0,0 +1,202 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslProtocols;
+import io.netty.handler.ssl.SslProvider;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import io.netty.util.CharsetUtil;
+import io.netty.util.NetUtil;
+import io.netty.util.ReferenceCountUtil;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class EpollKernelTlsTest {
+
+    private static final String CIPHER_SUITE = "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256";
+    private static final Random random = new Random();
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testKernelTlsEcho(boolean clientOffload) throws Throwable {
+        assumeTrue(isKernelTlsAvailable(), "kernel TLS is not available");
+        assumeTrue(OpenSsl.isAvailable(), "OpenSSL is not available");
+        assumeTrue(OpenSsl.isCipherSuiteAvailable(CIPHER_SUITE));
+
+        final byte[] request = "ping".getBytes(CharsetUtil.US_ASCII);
+        final byte[] response = "pong".getBytes(CharsetUtil.US_ASCII);
+        final byte[] fileData = new byte[1024 * 1024];
+        random.nextBytes(fileData);
+        final File file = File.createTempFile("netty-", ".tmp");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(fileData);
+        } finally {
+            out.close();
+        }
+
+        SelfSignedCertificate cert = new SelfSignedCertificate();
+        final SslContext serverCtx = SslContextBuilder.forServer(cert.certificate(), cert.privateKey())
+                .sslProvider(SslProvider.OPENSSL)
+                .protocols(SslProtocols.TLS_v1_2)
+                .ciphers(Collections.singletonList(CIPHER_SUITE))
+                .build();
+        final SslContext clientCtx = SslContextBuilder.forClient()
+                .trustManager(InsecureTrustManagerFactory.INSTANCE)
+                .sslProvider(SslProvider.OPENSSL)
+                .protocols(SslProtocols.TLS_v1_2)
+                .ciphers(Collections.singletonList(CIPHER_SUITE))
+                .build();
+
+        final BlockingQueue<Throwable> serverErrors = new LinkedBlockingQueue<Throwable>();
+        final BlockingQueue<SslHandler> serverSslHandlers = new LinkedBlockingQueue<SslHandler>();
+        final CountDownLatch serverClosed = new CountDownLatch(1);
+        final ByteArrayOutputStream received = new ByteArrayOutputStream(response.length + fileData.length);
+        final CountDownLatch receivedAll = new CountDownLatch(1);
+        EventLoopGroup group = new EpollEventLoopGroup(1);
+        try {
+            ServerBootstrap sb = new ServerBootstrap();
+            sb.group(group).channel(EpollServerSocketChannel.class)
+                    .childHandler(new ChannelInitializer<Channel>() {
+                        @Override
+                        protected void initChannel(Channel ch) {
+                            SslHandler sslHandler = serverCtx.newHandler(ch.alloc());
+                            sslHandler.setKernelTlsOffload(true);
+                            serverSslHandlers.add(sslHandler);
+                            ch.pipeline().addLast(sslHandler, new SimpleChannelInboundHandler<ByteBuf>() {
+                                private int requestBytes;
+
+                                @Override
+                                protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+                                    requestBytes += msg.readableBytes();
+                                    if (requestBytes == request.length) {
+                                        ctx.write(Unpooled.wrappedBuffer(response));
+                                        ctx.writeAndFlush(new DefaultFileRegion(file, 0, file.length()));
+                                    }
+                                }
+
+                                @Override
+                                public void channelInactive(ChannelHandlerContext ctx) {
+                                    serverClosed.countDown();
+                                }
+
+                                @Override
+                                public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+                                    serverErrors.add(cause);
+                                    ctx.close();
+                                }
+                            });
+                        }
+                    });
+            Channel sc = sb.bind(NetUtil.LOCALHOST, 0).syncUninterruptibly().channel();
+
+            Bootstrap cb = new Bootstrap();
+            cb.group(group).channel(EpollSocketChannel.class)
+                    .handler(new SimpleChannelInboundHandler<ByteBuf>() {
+                        @Override
+                        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) throws Exception {
+                            msg.readBytes(received, msg.readableBytes());
+                            if (received.size() == response.length + fileData.length) {
+                                receivedAll.countDown();
+                            }
+                        }
+                    });
+            Channel cc = cb.connect(sc.localAddress()).syncUninterruptibly().channel();
+            SslHandler clientSslHandler = clientCtx.newHandler(cc.alloc());
+            clientSslHandler.setKernelTlsOffload(clientOffload);
+            cc.pipeline().addFirst(clientSslHandler);
+            clientSslHandler.handshakeFuture().syncUninterruptibly();
+
+            SslHandler serverSslHandler = serverSslHandlers.take();
+            serverSslHandler.handshakeFuture().syncUninterruptibly();
+            assertTrue(serverSslHandler.isKernelTlsActive());
+            assertEquals(clientOffload, clientSslHandler.isKernelTlsActive());
+
+            cc.writeAndFlush(Unpooled.wrappedBuffer(request)).syncUninterruptibly();
+            assertTrue(receivedAll.await(5, TimeUnit.SECONDS));
+            byte[] expected = new byte[response.length + fileData.length];
+            System.arraycopy(response, 0, expected, 0, response.length);
+            System.arraycopy(fileData, 0, expected, response.length, fileData.length);
+            assertArrayEquals(expected, received.toByteArray());
+
+            // Unless it was handed over as well, the client sends a close_notify which the kernel of the server
+            // must not turn into a failed read.
+            cc.close().syncUninterruptibly();
+            assertTrue(serverClosed.await(5, TimeUnit.SECONDS));
+            assertNull(serverErrors.poll());
+
+            sc.close().syncUninterruptibly();
+        } finally {
+            group.shutdownGracefully();
+            ReferenceCountUtil.release(serverCtx);
+            ReferenceCountUtil.release(clientCtx);
+            cert.delete();
+            file.delete();
+        }
+    }
+
+    private static boolean isKernelTlsAvailable() throws IOException {
+        File ulps = new File("/proc/sys/net/ipv4/tcp_available_ulp");
+        if (!ulps.exists()) {
+            return false;
+        }
+        BufferedReader reader = new BufferedReader(new FileReader(ulps));
+        try {
+            String line = reader.readLine();
+            return line != null && Arrays.asList(line.trim().split(" ")).contains("tls");
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.NetUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EpollReusePortAcceptorsTest {
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testBindOneListenerPerEventLoop() throws Exception {
+        final int numLoops = 4;
+        final int numConnections = 32;
+        EventLoopGroup group = new EpollEventLoopGroup(numLoops);
+        EventLoopGroup clientGroup = new EpollEventLoopGroup(1);
+        final CountDownLatch accepted = new CountDownLatch(numConnections);
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        try {
+            ServerBootstrap sb = new ServerBootstrap().childHandler(new AcceptHandler(accepted, error));
+            List<Channel> listeners = EpollReusePortAcceptors.bind(
+                    sb, group, new InetSocketAddress(NetUtil.LOCALHOST, 0)).sync().getNow();
+            assertEquals(numLoops, listeners.size());
+
+            int port = ((InetSocketAddress) listeners.get(0).localAddress()).getPort();
+            assertNotEquals(0, port);
+            for (int i = 0; i < numLoops; i++) {
+                Channel listener = listeners.get(i);
+                assertEquals(port, ((InetSocketAddress) listener.localAddress()).getPort());
+                assertTrue(((EpollServerSocketChannel) listener).config().isReusePort());
+                for (int j = 0; j < i; j++) {
+                    assertNotEquals(listeners.get(j).eventLoop(), listener.eventLoop());
+                }
+            }
+
+            Bootstrap cb = new Bootstrap().group(clientGroup).channel(EpollSocketChannel.class)
+                    .handler(new NoopHandler());
+            for (int i = 0; i < numConnections; i++) {
+                cb.connect(listeners.get(0).localAddress()).sync();
+            }
+            assertTrue(accepted.await(5, TimeUnit.SECONDS));
+            assertNull(error.get());
+
+            for (Channel listener : listeners) {
+                listener.close().sync();
+            }
+        } finally {
+            clientGroup.shutdownGracefully();
+            group.shutdownGracefully();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testBindFailureClosesListeners() throws Exception {
+        EventLoopGroup group = new EpollEventLoopGroup(2);
+        try {
+            // Occupy the port without SO_REUSEPORT so no listener can join.
+            Channel blocker = new ServerBootstrap().group(group).channel(EpollServerSocketChannel.class)
+                    .childHandler(new ChannelInboundHandlerAdapter())
+                    .bind(NetUtil.LOCALHOST, 0).sync().channel();
+            try {
+                ServerBootstrap sb = new ServerBootstrap().childHandler(new NoopHandler());
+                assertTrue(EpollReusePortAcceptors.bind(sb, group, blocker.localAddress()).await().cause() != null);
+            } finally {
+                blocker.close().sync();
+            }
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private static final class AcceptHandler extends ChannelInboundHandlerAdapter {
+        private final CountDownLatch accepted;
+        private final AtomicReference<Throwable> error;
+
+        AcceptHandler(CountDownLatch accepted, AtomicReference<Throwable> error) {
+            this.accepted = accepted;
+            this.error = error;
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            Channel ch = ctx.channel();
+            if (ch.eventLoop() != ch.parent().eventLoop()) {
+                error.compareAndSet(null, new AssertionError("child not served by its acceptor loop"));
+            }
+            accepted.countDown();
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private static final class NoopHandler extends ChannelInboundHandlerAdapter {
+    }
+}
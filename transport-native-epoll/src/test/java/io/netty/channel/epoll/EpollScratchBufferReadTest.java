@@ -0,0 +1,98 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ScratchBufferRecvByteBufAllocator;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.util.NetUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EpollScratchBufferReadTest {
+
+    @BeforeAll
+    public static void loadJNI() {
+        Epoll.ensureAvailability();
+    }
+
+    @ParameterizedTest
+    @EnumSource(EpollMode.class)
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testRead(EpollMode mode) throws Throwable {
+        final LinkedBlockingQueue<ByteBuf> received = new LinkedBlockingQueue<ByteBuf>();
+        EventLoopGroup group = new EpollEventLoopGroup(1);
+        Channel serverChannel = null;
+        Channel clientChannel = null;
+        try {
+            serverChannel = new ServerBootstrap().group(group).channel(EpollServerSocketChannel.class)
+                    .childOption(EpollChannelOption.EPOLL_MODE, mode)
+                    .childOption(ChannelOption.RCVBUF_ALLOCATOR, new ScratchBufferRecvByteBufAllocator(256))
+                    .childHandler(new SimpleChannelInboundHandler<ByteBuf>(false) {
+                        @Override
+                        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+                            received.add(msg);
+                        }
+                    }).bind(NetUtil.LOCALHOST, 0).sync().channel();
+            clientChannel = new Bootstrap().group(group).channel(EpollSocketChannel.class)
+                    .handler(new ChannelInboundHandlerAdapter())
+                    .connect(serverChannel.localAddress()).sync().channel();
+
+            byte[] bytes = new byte[4096];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) i;
+            }
+            clientChannel.writeAndFlush(Unpooled.wrappedBuffer(bytes)).sync();
+
+            ByteBuf all = Unpooled.buffer();
+            while (all.readableBytes() < bytes.length) {
+                ByteBuf buf = received.poll(5, TimeUnit.SECONDS);
+                assertNotNull(buf);
+                assertTrue(buf.capacity() <= 256);
+                assertEquals(buf.capacity(), buf.readableBytes());
+                all.writeBytes(buf);
+                buf.release();
+            }
+            assertEquals(Unpooled.wrappedBuffer(bytes), all);
+            all.release();
+        } finally {
+            if (clientChannel != null) {
+                clientChannel.close().sync();
+            }
+            if (serverChannel != null) {
+                serverChannel.close().sync();
+            }
+            group.shutdownGracefully();
+        }
+    }
+}
@@ -16,14 +16,31 @@
 package io.netty.channel.epoll;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.util.NetUtil;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 
+import java.io.DataInput;
+import java.io.DataInputStream;
 import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -120,4 +137,54 @@ public class EpollSocketChannelTest {
             group.shutdownGracefully();
         }
     }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testDeferFlushesWhileReading() throws Exception {
+        assertFalse(testDeferFlushesWhileReading(0));
+        assertTrue(testDeferFlushesWhileReading(16));
+    }
+
+    private static boolean testDeferFlushesWhileReading(int maxDeferredFlushes) throws Exception {
+        EventLoopGroup group = new EpollEventLoopGroup(1);
+        ServerSocket socket = new ServerSocket();
+        socket.bind(new InetSocketAddress(NetUtil.LOCALHOST, 0));
+        Socket accepted = null;
+        try {
+            final List<ChannelFuture> futures = new ArrayList<ChannelFuture>();
+            final AtomicBoolean deferred = new AtomicBoolean();
+            Channel ch = new Bootstrap().group(group)
+                    .channel(EpollSocketChannel.class)
+                    .option(ChannelOption.MAX_DEFERRED_FLUSHES_PER_READ, maxDeferredFlushes)
+                    .handler(new ChannelInboundHandlerAdapter() {
+                        @Override
+                        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                            ((ByteBuf) msg).release();
+                            for (int i = 0; i < 4; i++) {
+                                futures.add(ctx.writeAndFlush(Unpooled.wrappedBuffer(new byte[] { (byte) i })));
+                            }
+                            deferred.set(!futures.get(0).isDone());
+                        }
+                    }).connect(socket.getLocalSocketAddress()).sync().channel();
+
+            accepted = socket.accept();
+            accepted.getOutputStream().write(1);
+            DataInput in = new DataInputStream(accepted.getInputStream());
+            byte[] received = new byte[4];
+            in.readFully(received);
+            assertArrayEquals(new byte[] { 0, 1, 2, 3 }, received);
+
+            ch.close().sync();
+            for (ChannelFuture future : futures) {
+                assertTrue(future.isSuccess());
+            }
+            return deferred.get();
+        } finally {
+            if (accepted != null) {
+                accepted.close();
+            }
+            socket.close();
+            group.shutdownGracefully();
+        }
+    }
 }
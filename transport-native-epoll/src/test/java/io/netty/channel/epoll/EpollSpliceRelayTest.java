@@ -0,0 +1,181 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ChannelInputShutdownEvent;
+import io.netty.channel.socket.DuplexChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.NetUtil;
+import io.netty.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.ByteArrayOutputStream;
+import java.net.SocketAddress;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EpollSpliceRelayTest {
+
+    private static final Random random = new Random();
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testSpliceRelay() throws Throwable {
+        EventLoopGroup group = new EpollEventLoopGroup(1);
+        try {
+            testRelay(group, EpollServerSocketChannel.class, EpollSocketChannel.class);
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testCopyRelay() throws Throwable {
+        EventLoopGroup group = new NioEventLoopGroup(2);
+        try {
+            testRelay(group, NioServerSocketChannel.class, NioSocketChannel.class);
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+
+    private static void testRelay(EventLoopGroup group, Class<? extends ServerChannel> serverChannel,
+                                  final Class<? extends Channel> channel) throws Throwable {
+        final byte[] data = new byte[1024 * 1024];
+        random.nextBytes(data);
+
+        // Echo everything back and shutdown the output once the input was shutdown.
+        Channel echoServer = new ServerBootstrap().group(group).channel(serverChannel)
+                .childOption(ChannelOption.ALLOW_HALF_CLOSURE, true)
+                .childHandler(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        ctx.writeAndFlush(msg);
+                    }
+
+                    @Override
+                    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+                        if (evt instanceof ChannelInputShutdownEvent) {
+                            ((DuplexChannel) ctx.channel()).shutdownOutput();
+                        }
+                    }
+                }).bind(NetUtil.LOCALHOST, 0).sync().channel();
+        final SocketAddress echoAddress = echoServer.localAddress();
+        // Splicing requires level-triggered epoll, the option is ignored by NIO.
+        final boolean epoll = EpollSocketChannel.class.isAssignableFrom(channel);
+
+        final AtomicReference<Future<Void>> relayFuture = new AtomicReference<Future<Void>>();
+        final CountDownLatch relayStarted = new CountDownLatch(1);
+        ServerBootstrap proxyBootstrap = new ServerBootstrap().group(group).channel(serverChannel)
+                .childOption(ChannelOption.AUTO_READ, false);
+        if (epoll) {
+            proxyBootstrap.childOption(EpollChannelOption.EPOLL_MODE, EpollMode.LEVEL_TRIGGERED);
+        }
+        Channel proxyServer = proxyBootstrap.childHandler(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelActive(ChannelHandlerContext ctx) {
+                        final Channel inbound = ctx.channel();
+                        Bootstrap bootstrap = new Bootstrap().group(inbound.eventLoop()).channel(channel)
+                                .option(ChannelOption.AUTO_READ, false);
+                        if (epoll) {
+                            bootstrap.option(EpollChannelOption.EPOLL_MODE, EpollMode.LEVEL_TRIGGERED);
+                        }
+                        bootstrap.handler(new ChannelInboundHandlerAdapter())
+                                .connect(echoAddress)
+                                .addListener(new ChannelFutureListener() {
+                                    @Override
+                                    public void operationComplete(ChannelFuture future) {
+                                        if (!future.isSuccess()) {
+                                            inbound.close();
+                                            return;
+                                        }
+                                        relayFuture.set(EpollSpliceRelay.relay(inbound, future.channel()));
+                                        relayStarted.countDown();
+                                    }
+                                });
+                    }
+                }).bind(NetUtil.LOCALHOST, 0).sync().channel();
+
+        final ByteArrayOutputStream received = new ByteArrayOutputStream(data.length);
+        final CountDownLatch inputShutdown = new CountDownLatch(1);
+        Channel client = new Bootstrap().group(group).channel(channel)
+                .option(ChannelOption.ALLOW_HALF_CLOSURE, true)
+                .handler(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+                        ByteBuf buf = (ByteBuf) msg;
+                        try {
+                            buf.readBytes(received, buf.readableBytes());
+                        } finally {
+                            buf.release();
+                        }
+                    }
+
+                    @Override
+                    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+                        if (evt instanceof ChannelInputShutdownEvent) {
+                            inputShutdown.countDown();
+                        }
+                    }
+                }).connect(proxyServer.localAddress()).sync().channel();
+        assertTrue(relayStarted.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < data.length;) {
+            int length = Math.min(random.nextInt(1024 * 64) + 1, data.length - i);
+            client.write(Unpooled.wrappedBuffer(data, i, length));
+            i += length;
+        }
+        client.flush();
+        // The half-closure must travel through the proxy to the echo server and back.
+        ((DuplexChannel) client).shutdownOutput().sync();
+
+        assertTrue(inputShutdown.await(5, TimeUnit.SECONDS));
+        assertArrayEquals(data, received.toByteArray());
+
+        Future<Void> future = relayFuture.get();
+        assertNotNull(future);
+        // Both directions are done, so the proxy closes both of its Channels.
+        assertTrue(future.await(5, TimeUnit.SECONDS));
+        assertTrue(future.isSuccess());
+
+        client.close().sync();
+        proxyServer.close().sync();
+        echoServer.close().sync();
+    }
+
+}
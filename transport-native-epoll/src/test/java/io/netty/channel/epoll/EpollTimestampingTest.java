@@ -0,0 +1,164 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.NetUtil;
+import io.netty.util.ReferenceCountUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EpollTimestampingTest {
+
+    @BeforeAll
+    public static void loadJNI() {
+        Epoll.ensureAvailability();
+    }
+
+    @Test
+    public void testTimestampingOption() {
+        EpollSocketChannel ch = new EpollSocketChannel();
+        try {
+            EpollSocketChannelConfig config = ch.config();
+            assertEquals(0, config.getSoTimestamping());
+            assertEquals(0, ch.timestampingFlags());
+
+            int flags = EpollTimestamping.RX_SOFTWARE | EpollTimestamping.TX_ACK;
+            config.setOption(EpollChannelOption.SO_TIMESTAMPING, flags);
+            assertEquals(flags, (int) config.getOption(EpollChannelOption.SO_TIMESTAMPING));
+            assertEquals(flags, ch.timestampingFlags());
+            // Send timestamps are only enabled once connected.
+            assertEquals(EpollTimestamping.socketFlags(EpollTimestamping.RX_SOFTWARE), ch.socket.getTimestamping());
+
+            config.setSoTimestamping(0);
+            assertEquals(0, ch.socket.getTimestamping());
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        } finally {
+            ch.unsafe().closeForcibly();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testTimestamps() throws Throwable {
+        final BlockingQueue<EpollTimestampEvent> serverEvents = new LinkedBlockingQueue<EpollTimestampEvent>();
+        final BlockingQueue<Object> clientEvents = new LinkedBlockingQueue<Object>();
+        final CountDownLatch childActive = new CountDownLatch(1);
+        EventLoopGroup group = new EpollEventLoopGroup(1);
+        try {
+            ServerBootstrap sb = new ServerBootstrap();
+            sb.group(group).channel(EpollServerSocketChannel.class)
+                    .childOption(EpollChannelOption.SO_TIMESTAMPING, EpollTimestamping.RX_SOFTWARE)
+                    .childHandler(new ChannelInboundHandlerAdapter() {
+                        private EpollTimestampEvent timestamp;
+
+                        @Override
+                        public void channelActive(ChannelHandlerContext ctx) {
+                            childActive.countDown();
+                        }
+
+                        @Override
+                        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+                            timestamp = (EpollTimestampEvent) evt;
+                        }
+
+                        @Override
+                        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                            // The receive timestamp is fired right before the data.
+                            serverEvents.add(timestamp);
+                            ReferenceCountUtil.release(msg);
+                        }
+                    });
+            Channel sc = sb.bind(NetUtil.LOCALHOST, 0).syncUninterruptibly().channel();
+
+            Bootstrap cb = new Bootstrap();
+            cb.group(group).channel(EpollSocketChannel.class)
+                    .option(EpollChannelOption.SO_TIMESTAMPING,
+                            EpollTimestamping.TX_SCHED | EpollTimestamping.TX_SOFTWARE | EpollTimestamping.TX_ACK)
+                    .handler(new ChannelInboundHandlerAdapter() {
+                        @Override
+                        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+                            clientEvents.add(evt);
+                        }
+                    });
+            Channel cc = cb.connect(sc.localAddress()).syncUninterruptibly().channel();
+            // SO_TIMESTAMPING is only applied to the child once it was accepted, so wait for it before writing.
+            childActive.await();
+            long before = System.currentTimeMillis();
+            ByteBuf data = Unpooled.directBuffer(128).writeZero(128);
+            cc.writeAndFlush(data).syncUninterruptibly();
+
+            EpollTimestampEvent rx = serverEvents.poll(5, TimeUnit.SECONDS);
+            assertNotNull(rx);
+            assertSame(EpollTimestampEvent.Type.RX, rx.type());
+            assertEquals(-1, rx.id());
+            assertTimestamp(before, rx);
+
+            // One timestamp for each requested point, all for the last byte of the write.
+            boolean sched = false;
+            boolean software = false;
+            boolean ack = false;
+            while (!sched || !software || !ack) {
+                EpollTimestampEvent tx = (EpollTimestampEvent) clientEvents.poll(5, TimeUnit.SECONDS);
+                assertNotNull(tx);
+                assertEquals(127, tx.id());
+                assertTimestamp(before, tx);
+                switch (tx.type()) {
+                    case TX_SCHED:
+                        sched = true;
+                        break;
+                    case TX_SOFTWARE:
+                        software = true;
+                        break;
+                    case TX_ACK:
+                        ack = true;
+                        break;
+                    default:
+                        throw new AssertionError(tx);
+                }
+            }
+
+            cc.close().syncUninterruptibly();
+            sc.close().syncUninterruptibly();
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+
+    private static void assertTimestamp(long beforeMillis, EpollTimestampEvent event) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(event.timestampNanos());
+        assertTrue(millis >= beforeMillis - 1000 && millis <= System.currentTimeMillis() + 1000, event.toString());
+    }
+}
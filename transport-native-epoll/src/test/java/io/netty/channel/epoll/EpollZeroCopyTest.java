@@ -0,0 +1,325 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelException;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.util.NetUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class EpollZeroCopyTest {
+
+    private static final Random random = new Random();
+
+    @Test
+    public void testZeroCopyOptions() {
+        EpollSocketChannel ch = new EpollSocketChannel();
+        try {
+            EpollSocketChannelConfig config = ch.config();
+            assertFalse(config.isSoZeroCopy());
+            assertEquals(16 * 1024, config.getZeroCopySendThreshold());
+            assertEquals(-1, ch.zeroCopySendThreshold());
+
+            config.setZeroCopySendThreshold(1024);
+            assertEquals(1024, (int) config.getOption(EpollChannelOption.ZEROCOPY_SEND_THRESHOLD));
+            try {
+                config.setSoZeroCopy(true);
+            } catch (ChannelException e) {
+                // Not supported by the kernel.
+                return;
+            }
+            assertTrue(config.getOption(EpollChannelOption.SO_ZEROCOPY));
+            assertEquals(1024, ch.zeroCopySendThreshold());
+        } finally {
+            ch.unsafe().closeForcibly();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testZeroCopyWrite() throws Throwable {
+        final int size = 64 * 1024;
+        final int writes = 64;
+        final byte[] data = new byte[size * writes];
+        random.nextBytes(data);
+
+        final ByteArrayOutputStream received = new ByteArrayOutputStream(data.length);
+        final CountDownLatch receivedAll = new CountDownLatch(1);
+        EventLoopGroup group = new EpollEventLoopGroup(1);
+        try {
+            ServerBootstrap sb = new ServerBootstrap();
+            sb.group(group).channel(EpollServerSocketChannel.class)
+                    .childHandler(new SimpleChannelInboundHandler<ByteBuf>() {
+                        @Override
+                        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) throws Exception {
+                            msg.readBytes(received, msg.readableBytes());
+                            if (received.size() == data.length) {
+                                receivedAll.countDown();
+                            }
+                        }
+                    });
+            Channel sc = sb.bind(NetUtil.LOCALHOST, 0).syncUninterruptibly().channel();
+
+            Bootstrap cb = new Bootstrap();
+            cb.group(group).channel(EpollSocketChannel.class)
+                    .handler(new ChannelInboundHandlerAdapter());
+            EpollSocketChannel cc = (EpollSocketChannel) cb.connect(sc.localAddress()).syncUninterruptibly().channel();
+            try {
+                cc.config().setSoZeroCopy(true);
+            } catch (ChannelException e) {
+                cc.close().syncUninterruptibly();
+                sc.close().syncUninterruptibly();
+                assumeTrue(false, "SO_ZEROCOPY not supported");
+            }
+            // Mix buffers above and below the threshold so both the zerocopy and the gathering path are used.
+            cc.config().setZeroCopySendThreshold(size / 2);
+
+            List<ByteBuf> buffers = new ArrayList<ByteBuf>(writes * 2);
+            for (int i = 0; i < writes; i++) {
+                int split = random.nextBoolean() ? size : size / 4;
+                ByteBuf first = Unpooled.directBuffer(split).writeBytes(data, i * size, split);
+                buffers.add(first);
+                cc.write(first.retain());
+                if (split != size) {
+                    ByteBuf second = Unpooled.directBuffer(size - split).writeBytes(data, i * size + split,
+                            size - split);
+                    buffers.add(second);
+                    cc.write(second.retain());
+                }
+            }
+            cc.flush();
+
+            assertTrue(receivedAll.await(5, TimeUnit.SECONDS));
+            assertArrayEquals(data, received.toByteArray());
+
+            cc.close().syncUninterruptibly();
+            sc.close().syncUninterruptibly();
+
+            // The buffers are released once the kernel reported that it does not reference them anymore.
+            awaitReleased(buffers);
+            for (ByteBuf buf : buffers) {
+                assertTrue(buf.release());
+            }
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testZeroCopyBuffersKeptAfterClose() throws Throwable {
+        final int size = 1024 * 1024;
+        final int writes = 16;
+        final byte[] data = new byte[size * writes];
+        random.nextBytes(data);
+
+        final ByteArrayOutputStream received = new ByteArrayOutputStream(data.length);
+        final CountDownLatch closed = new CountDownLatch(1);
+        EventLoopGroup group = new EpollEventLoopGroup(1);
+        try {
+            ServerBootstrap sb = new ServerBootstrap();
+            sb.group(group).channel(EpollServerSocketChannel.class)
+                    // Keep the window of the peer small so most of the data stays queued in the kernel of the sender.
+                    .option(ChannelOption.SO_RCVBUF, 64 * 1024)
+                    .childOption(ChannelOption.AUTO_READ, false)
+                    .childHandler(new SimpleChannelInboundHandler<ByteBuf>() {
+                        @Override
+                        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) throws Exception {
+                            msg.readBytes(received, msg.readableBytes());
+                        }
+
+                        @Override
+                        public void channelInactive(ChannelHandlerContext ctx) {
+                            closed.countDown();
+                        }
+                    });
+            Channel sc = sb.bind(NetUtil.LOCALHOST, 0).syncUninterruptibly().channel();
+            final BlockingQueue<Channel> accepted = new LinkedBlockingQueue<Channel>();
+            sc.pipeline().addFirst(new ChannelInboundHandlerAdapter() {
+                @Override
+                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                    accepted.add((Channel) msg);
+                    ctx.fireChannelRead(msg);
+                }
+            });
+
+            Bootstrap cb = new Bootstrap();
+            cb.group(group).channel(EpollSocketChannel.class)
+                    .handler(new ChannelInboundHandlerAdapter());
+            EpollSocketChannel cc = (EpollSocketChannel) cb.connect(sc.localAddress()).syncUninterruptibly().channel();
+            try {
+                cc.config().setSoZeroCopy(true);
+            } catch (ChannelException e) {
+                cc.close().syncUninterruptibly();
+                sc.close().syncUninterruptibly();
+                assumeTrue(false, "SO_ZEROCOPY not supported");
+            }
+            cc.config().setZeroCopySendThreshold(size);
+            Channel peer = accepted.take();
+
+            // The peer does not read, so the data is still queued in the kernel when the channel is closed.
+            List<ByteBuf> buffers = new ArrayList<ByteBuf>(writes);
+            for (int i = 0; i < writes; i++) {
+                ByteBuf buf = Unpooled.directBuffer(size).writeBytes(data, i * size, size);
+                buffers.add(buf);
+                cc.write(buf.retain());
+            }
+            cc.flush();
+            cc.close().syncUninterruptibly();
+            // The buffers that were not written yet are released by the event loop right after the close completed.
+            cc.eventLoop().submit(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }).syncUninterruptibly();
+
+            int referenced = 0;
+            for (ByteBuf buf : buffers) {
+                if (buf.refCnt() > 1) {
+                    referenced++;
+                }
+            }
+            assertTrue(referenced > 0);
+
+            // Everything that was sent before the close is still delivered, followed by the end of the stream.
+            peer.config().setAutoRead(true);
+            assertTrue(closed.await(5, TimeUnit.SECONDS));
+            byte[] bytes = received.toByteArray();
+            assertTrue(bytes.length > 0);
+            assertArrayEquals(Arrays.copyOf(data, bytes.length), bytes);
+
+            awaitReleased(buffers);
+            for (ByteBuf buf : buffers) {
+                assertTrue(buf.release());
+            }
+            sc.close().syncUninterruptibly();
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testZeroCopySocketClosedAfterLinger() throws Throwable {
+        final int size = 1024 * 1024;
+        final int writes = 16;
+
+        final CountDownLatch closed = new CountDownLatch(1);
+        EventLoopGroup group = new EpollEventLoopGroup(1);
+        try {
+            ServerBootstrap sb = new ServerBootstrap();
+            sb.group(group).channel(EpollServerSocketChannel.class)
+                    .option(ChannelOption.SO_RCVBUF, 64 * 1024)
+                    .childOption(ChannelOption.AUTO_READ, false)
+                    .childHandler(new SimpleChannelInboundHandler<ByteBuf>() {
+                        @Override
+                        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+                        }
+
+                        @Override
+                        public void channelInactive(ChannelHandlerContext ctx) {
+                            closed.countDown();
+                        }
+                    });
+            Channel sc = sb.bind(NetUtil.LOCALHOST, 0).syncUninterruptibly().channel();
+            final BlockingQueue<Channel> accepted = new LinkedBlockingQueue<Channel>();
+            sc.pipeline().addFirst(new ChannelInboundHandlerAdapter() {
+                @Override
+                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                    accepted.add((Channel) msg);
+                    ctx.fireChannelRead(msg);
+                }
+            });
+
+            Bootstrap cb = new Bootstrap();
+            cb.group(group).channel(EpollSocketChannel.class)
+                    .handler(new ChannelInboundHandlerAdapter());
+            EpollSocketChannel cc = (EpollSocketChannel) cb.connect(sc.localAddress()).syncUninterruptibly().channel();
+            try {
+                cc.config().setSoZeroCopy(true);
+            } catch (ChannelException e) {
+                cc.close().syncUninterruptibly();
+                sc.close().syncUninterruptibly();
+                assumeTrue(false, "SO_ZEROCOPY not supported");
+            }
+            cc.config().setZeroCopySendThreshold(size);
+            cc.config().setSoLinger(1);
+            Channel peer = accepted.take();
+
+            List<ByteBuf> buffers = new ArrayList<ByteBuf>(writes);
+            for (int i = 0; i < writes; i++) {
+                ByteBuf buf = Unpooled.directBuffer(size).writeZero(size);
+                buffers.add(buf);
+                cc.write(buf.retain());
+            }
+            cc.flush();
+            cc.close().syncUninterruptibly();
+
+            // The peer only reads once SO_LINGER passed, so the socket was closed without waiting for the sends.
+            Thread.sleep(2000);
+            peer.config().setAutoRead(true);
+            assertTrue(closed.await(5, TimeUnit.SECONDS));
+            Thread.sleep(500);
+
+            // The completions were not read anymore, so the buffers the kernel sent from were not released.
+            int referenced = 0;
+            for (ByteBuf buf : buffers) {
+                if (buf.refCnt() > 1) {
+                    referenced++;
+                }
+                buf.release(buf.refCnt());
+            }
+            assertTrue(referenced > 0);
+            sc.close().syncUninterruptibly();
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+
+    private static void awaitReleased(List<ByteBuf> buffers) throws InterruptedException {
+        for (ByteBuf buf : buffers) {
+            while (buf.refCnt() != 1) {
+                Thread.sleep(10);
+            }
+        }
+    }
+}
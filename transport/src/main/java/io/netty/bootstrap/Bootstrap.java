@@ -35,6 +35,7 @@ import io.netty.util.internal.logging.InternalLoggerFactory;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A {@link Bootstrap} that makes it easy to bootstrap a {@link Channel} to use
@@ -157,6 +158,48 @@ public class Bootstrap extends AbstractBootstrap<Bootstrap, Channel> {
         return doResolveAndConnect(remoteAddress, localAddress);
     }
 
+    /**
+     * Connect a {@link Channel} to the remote peer, trying all the addresses it resolves to as described in
+     * <a href="https://tools.ietf.org/html/rfc8305">rfc8305</a> (Happy Eyeballs) with a connection attempt delay of
+     * 250 milliseconds.
+     *
+     * @see #connectHappyEyeballs(SocketAddress, long, TimeUnit)
+     */
+    public Future<Channel> connectHappyEyeballs(SocketAddress remoteAddress) {
+        return connectHappyEyeballs(remoteAddress, HappyEyeballsConnector.DEFAULT_CONNECTION_ATTEMPT_DELAY_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Connect a {@link Channel} to the remote peer, trying all the addresses it resolves to as described in
+     * <a href="https://tools.ietf.org/html/rfc8305">rfc8305</a> (Happy Eyeballs).
+     * <p>
+     * The addresses are ordered so that the address families alternate. The connection attempts are started one
+     * after the other, either once the previous attempt failed or once it did not succeed within the connection
+     * attempt delay, in which case the previous attempt goes on. So an address family that is not reachable delays
+     * the connection by the connection attempt delay instead of the connect timeout. The first {@link Channel} that
+     * connects is returned and all other attempts are closed, cancelling the returned {@link Future} closes all of
+     * them.
+     * <p>
+     * Every connection attempt uses its own {@link Channel}, so the handler needs to be shareable like a
+     * {@link io.netty.channel.ChannelInitializer}. All of them use the same {@link EventLoop}.
+     *
+     * @param remoteAddress             the address to connect to
+     * @param connectionAttemptDelay    the time after which the next connection attempt is started, rfc8305
+     *                                  recommends 250 milliseconds and at least 100 milliseconds
+     * @param unit                      the {@link TimeUnit} of {@code connectionAttemptDelay}
+     * @return the {@link Future} that is notified with the connected {@link Channel}, or with the cause of the first
+     *         failed attempt if none connected, to which the causes of the other attempts are added as suppressed
+     */
+    public Future<Channel> connectHappyEyeballs(SocketAddress remoteAddress, long connectionAttemptDelay,
+                                                TimeUnit unit) {
+        ObjectUtil.checkNotNull(remoteAddress, "remoteAddress");
+        ObjectUtil.checkPositiveOrZero(connectionAttemptDelay, "connectionAttemptDelay");
+        ObjectUtil.checkNotNull(unit, "unit");
+        validate();
+        return HappyEyeballsConnector.connect(this, remoteAddress, connectionAttemptDelay, unit);
+    }
+
     /**
      * @see #connect()
      */
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.bootstrap;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.EventLoop;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+import io.netty.util.internal.ThrowableUtil;
+
+import java.net.Inet6Address;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connects to the addresses a remote address resolves to as described in
+ * <a href="https://tools.ietf.org/html/rfc8305">rfc8305</a>. Everything runs on the {@link EventLoop} all the
+ * connection attempts are registered to, so no synchronization is needed.
+ */
+final class HappyEyeballsConnector implements Runnable, ChannelFutureListener {
+    // See https://tools.ietf.org/html/rfc8305#section-8
+    static final long DEFAULT_CONNECTION_ATTEMPT_DELAY_MILLIS = 250;
+
+    private final Bootstrap bootstrap;
+    private final EventLoop loop;
+    private final long connectionAttemptDelayNanos;
+    private final Promise<Channel> promise;
+    private final List<ChannelFuture> attempts = new ArrayList<ChannelFuture>(2);
+    private List<SocketAddress> addresses;
+    private int nextAddress;
+    private ScheduledFuture<?> connectionAttemptDelayFuture;
+    private Throwable cause;
+
+    private HappyEyeballsConnector(Bootstrap bootstrap, EventLoop loop, long connectionAttemptDelayNanos) {
+        this.bootstrap = bootstrap;
+        this.loop = loop;
+        this.connectionAttemptDelayNanos = connectionAttemptDelayNanos;
+        promise = loop.newPromise();
+        promise.addListener(new FutureListener<Channel>() {
+            @Override
+            public void operationComplete(Future<Channel> future) {
+                // Either one attempt won, all of them failed or the user cancelled, so close all the others.
+                cancelConnectionAttemptDelay();
+                ChannelFuture[] losing = attempts.toArray(new ChannelFuture[0]);
+                attempts.clear();
+                for (ChannelFuture attempt : losing) {
+                    attempt.channel().close();
+                }
+            }
+        });
+    }
+
+    static Future<Channel> connect(Bootstrap bootstrap, final SocketAddress remoteAddress,
+                                   long connectionAttemptDelay, TimeUnit unit) {
+        final EventLoop loop = bootstrap.config().group().next();
+        final AddressResolverGroup<?> resolverGroup = bootstrap.resolver();
+        // The addresses are resolved here already, so every attempt only needs to connect.
+        final HappyEyeballsConnector connector = new HappyEyeballsConnector(
+                bootstrap.clone(loop).disableResolver(), loop, unit.toNanos(connectionAttemptDelay));
+        loop.execute(new Runnable() {
+            @Override
+            public void run() {
+                connector.resolve(resolverGroup, remoteAddress);
+            }
+        });
+        return connector.promise;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resolve(AddressResolverGroup<?> resolverGroup, final SocketAddress remoteAddress) {
+        if (resolverGroup == null) {
+            connect(Collections.singletonList(remoteAddress));
+            return;
+        }
+        AddressResolver<SocketAddress> resolver;
+        try {
+            resolver = (AddressResolver<SocketAddress>) resolverGroup.getResolver(loop);
+            if (!resolver.isSupported(remoteAddress) || resolver.isResolved(remoteAddress)) {
+                connect(Collections.singletonList(remoteAddress));
+                return;
+            }
+        } catch (Throwable cause) {
+            promise.tryFailure(cause);
+            return;
+        }
+        resolver.resolveAll(remoteAddress).addListener(new FutureListener<List<SocketAddress>>() {
+            @Override
+            public void operationComplete(Future<List<SocketAddress>> future) {
+                if (!future.isSuccess()) {
+                    promise.tryFailure(future.cause());
+                } else if (future.getNow().isEmpty()) {
+                    promise.tryFailure(new UnknownHostException(remoteAddress.toString()));
+                } else {
+                    connect(interleave(future.getNow()));
+                }
+            }
+        });
+    }
+
+    private void connect(List<SocketAddress> addresses) {
+        assert loop.inEventLoop();
+        this.addresses = addresses;
+        connectNext();
+    }
+
+    private void connectNext() {
+        if (promise.isDone()) {
+            return;
+        }
+        if (nextAddress == addresses.size()) {
+            if (attempts.isEmpty()) {
+                promise.tryFailure(cause);
+            }
+            return;
+        }
+        SocketAddress address = addresses.get(nextAddress++);
+        ChannelFuture attempt = bootstrap.connect(address);
+        attempts.add(attempt);
+        if (nextAddress < addresses.size()) {
+            // Start the next attempt if this one neither succeeded nor failed until then, but let it go on.
+            connectionAttemptDelayFuture = loop.schedule(this, connectionAttemptDelayNanos, TimeUnit.NANOSECONDS);
+        }
+        attempt.addListener(this);
+    }
+
+    /**
+     * Called once the connection attempt delay of the last attempt passed.
+     */
+    @Override
+    public void run() {
+        connectionAttemptDelayFuture = null;
+        connectNext();
+    }
+
+    /**
+     * Called once a connection attempt is done.
+     */
+    @Override
+    public void operationComplete(ChannelFuture future) {
+        if (!attempts.remove(future)) {
+            // Closed because another attempt won already.
+            return;
+        }
+        if (future.isSuccess()) {
+            if (!promise.trySuccess(future.channel())) {
+                future.channel().close();
+            }
+            return;
+        }
+        if (cause == null) {
+            cause = future.cause();
+        } else {
+            ThrowableUtil.addSuppressed(cause, future.cause());
+        }
+        // Don't wait for the connection attempt delay if the attempt failed already.
+        cancelConnectionAttemptDelay();
+        connectNext();
+    }
+
+    private void cancelConnectionAttemptDelay() {
+        if (connectionAttemptDelayFuture != null) {
+            connectionAttemptDelayFuture.cancel(false);
+            connectionAttemptDelayFuture = null;
+        }
+    }
+
+    /**
+     * Orders the addresses so the address families alternate, starting with the family of the first address, as
+     * described in <a href="https://tools.ietf.org/html/rfc8305#section-4">rfc8305</a>. The order within a family
+     * is kept.
+     */
+    static List<SocketAddress> interleave(List<SocketAddress> addresses) {
+        if (addresses.size() < 2) {
+            return addresses;
+        }
+        boolean firstIpv6 = isIpv6(addresses.get(0));
+        List<SocketAddress> first = new ArrayList<SocketAddress>(addresses.size());
+        List<SocketAddress> second = new ArrayList<SocketAddress>(addresses.size());
+        for (SocketAddress address : addresses) {
+            (isIpv6(address) == firstIpv6 ? first : second).add(address);
+        }
+        if (second.isEmpty()) {
+            return addresses;
+        }
+        List<SocketAddress> interleaved = new ArrayList<SocketAddress>(addresses.size());
+        for (int i = 0; i < first.size() || i < second.size(); i++) {
+            if (i < first.size()) {
+                interleaved.add(first.get(i));
+            }
+            if (i < second.size()) {
+                interleaved.add(second.get(i));
+            }
+        }
+        return interleaved;
+    }
+
+    private static boolean isIpv6(SocketAddress address) {
+        return address instanceof InetSocketAddress &&
+                ((InetSocketAddress) address).getAddress() instanceof Inet6Address;
+    }
+}
@@ -100,6 +100,18 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
         return value;
     }
 
+    private int maxDeferredFlushesPerRead() {
+        ChannelConfig config = config();
+        if (config instanceof DefaultChannelConfig) {
+            return ((DefaultChannelConfig) config).getMaxDeferredFlushesPerRead();
+        }
+        Integer value = config.getOption(ChannelOption.MAX_DEFERRED_FLUSHES_PER_READ);
+        if (value == null) {
+            return 0;
+        }
+        return value;
+    }
+
     @Override
     public final ChannelId id() {
         return id;
@@ -120,6 +132,17 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
         return new DefaultChannelPipeline(this);
     }
 
+    /**
+     * Returns {@code true} if the {@link ChannelOutboundBuffer} of this channel should keep its messages in arrays
+     * instead of a linked-list, which is faster for transports that often write many small messages between flushes.
+     * Defaults to the {@code io.netty.transport.arrayBackedOutboundBuffer} system property.
+     * <p>
+     * This method is called from the constructor, so it must not depend on the state of the subclass.
+     */
+    protected boolean isArrayBackedOutboundBuffer() {
+        return ChannelOutboundBuffer.ARRAY_BACKED;
+    }
+
     @Override
     public boolean isWritable() {
         ChannelOutboundBuffer buf = unsafe.outboundBuffer();
@@ -428,9 +451,13 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
      */
     protected abstract class AbstractUnsafe implements Unsafe {
 
-        private volatile ChannelOutboundBuffer outboundBuffer = new ChannelOutboundBuffer(AbstractChannel.this);
+        private volatile ChannelOutboundBuffer outboundBuffer =
+                new ChannelOutboundBuffer(AbstractChannel.this, isArrayBackedOutboundBuffer());
         private RecvByteBufAllocator.Handle recvHandle;
         private boolean inFlush0;
+        /** the number of flushes deferred by the current read loop, or -1 if flushes are not deferred */
+        private int deferredFlushes = -1;
+        private int maxDeferredFlushes;
         /** true if the channel has never been registered, false otherwise */
         private boolean neverRegistered = true;
 
@@ -581,6 +608,7 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
         @Override
         public final void disconnect(final ChannelPromise promise) {
             assertEventLoop();
+            flushDeferred();
 
             if (!promise.setUncancellable()) {
                 return;
@@ -614,6 +642,7 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
         @Override
         public void close(final ChannelPromise promise) {
             assertEventLoop();
+            flushDeferred();
 
             ClosedChannelException closedChannelException =
                     StacklessClosedChannelException.newInstance(AbstractChannel.class, "close(ChannelPromise)");
@@ -627,6 +656,7 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
         @UnstableApi
         public final void shutdownOutput(final ChannelPromise promise) {
             assertEventLoop();
+            flushDeferred();
             shutdownOutput(promise, null);
         }
 
@@ -778,6 +808,7 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
         @Override
         public final void deregister(final ChannelPromise promise) {
             assertEventLoop();
+            flushDeferred();
 
             deregister(promise, false);
         }
@@ -892,9 +923,42 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
             }
 
             outboundBuffer.addFlush();
+            if (deferredFlushes >= 0) {
+                if (++deferredFlushes <= maxDeferredFlushes) {
+                    // Done by flushDeferred() once the read loop completes.
+                    return;
+                }
+                deferredFlushes = 0;
+            }
             flush0();
         }
 
+        /**
+         * Defers all flushes until {@link #flushDeferred()} is called, up to
+         * {@link ChannelOption#MAX_DEFERRED_FLUSHES_PER_READ} at a time. Read loops call this before they start
+         * reading.
+         */
+        protected void deferFlushes() {
+            int maxDeferredFlushes = maxDeferredFlushesPerRead();
+            if (maxDeferredFlushes > 0) {
+                this.maxDeferredFlushes = maxDeferredFlushes;
+                deferredFlushes = 0;
+            }
+        }
+
+        /**
+         * Does the flushes that were deferred since {@link #deferFlushes()} was called, and stops deferring them.
+         * This is also done before the {@link Channel} is closed, disconnected, deregistered or its output is shutdown,
+         * so what was flushed is written first just like without deferring.
+         */
+        protected void flushDeferred() {
+            int deferredFlushes = this.deferredFlushes;
+            this.deferredFlushes = -1;
+            if (deferredFlushes > 0) {
+                flush0();
+            }
+        }
+
         @SuppressWarnings("deprecation")
         protected void flush0() {
             if (inFlush0) {
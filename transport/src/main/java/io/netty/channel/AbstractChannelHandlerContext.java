@@ -101,6 +101,10 @@ abstract class AbstractChannelHandlerContext implements ChannelHandlerContext, R
 
     private volatile int handlerState = INIT;
 
+    // The contexts findContextInbound(int) and findContextOutbound(int) found so far, reset whenever the pipeline
+    // is modified. There is no need to make this volatile as at worse the contexts are looked up again.
+    private NextContexts nextContexts;
+
     AbstractChannelHandlerContext(DefaultChannelPipeline pipeline, EventExecutor executor,
                                   String name, Class<? extends ChannelHandler> handlerClass) {
         this.name = ObjectUtil.checkNotNull(name, "name");
@@ -957,8 +961,9 @@ abstract class AbstractChannelHandlerContext implements ChannelHandlerContext, R
             throw e;
         }
 
-        final AbstractChannelHandlerContext next = findContextOutbound(flush ?
-                (MASK_WRITE | MASK_FLUSH) : MASK_WRITE);
+        final AbstractChannelHandlerContext next = flush ?
+                findContextOutbound(MASK_WRITE | MASK_FLUSH, NextContexts.WRITE_AND_FLUSH) :
+                findContextOutbound(MASK_WRITE);
         final Object m = pipeline.touch(msg, next);
         EventExecutor executor = next.executor();
         if (executor.inEventLoop()) {
@@ -1050,23 +1055,63 @@ abstract class AbstractChannelHandlerContext implements ChannelHandlerContext, R
     }
 
     private AbstractChannelHandlerContext findContextInbound(int mask) {
+        final int index = Integer.numberOfTrailingZeros(mask);
+        final NextContexts nextContexts = this.nextContexts;
+        AbstractChannelHandlerContext ctx;
+        if (nextContexts == null || nextContexts.generation != pipeline.generation ||
+                (ctx = nextContexts.contexts[index]) == null) {
+            ctx = findContextInbound0(mask, index);
+        }
+        return ctx;
+    }
+
+    private AbstractChannelHandlerContext findContextInbound0(int mask, int index) {
+        final AbstractChannelHandlerContext[] contexts = nextContexts().contexts;
         AbstractChannelHandlerContext ctx = this;
         EventExecutor currentExecutor = executor();
         do {
             ctx = ctx.next;
         } while (skipContext(ctx, currentExecutor, mask, MASK_ONLY_INBOUND));
+        contexts[index] = ctx;
         return ctx;
     }
 
     private AbstractChannelHandlerContext findContextOutbound(int mask) {
+        return findContextOutbound(mask, Integer.numberOfTrailingZeros(mask));
+    }
+
+    private AbstractChannelHandlerContext findContextOutbound(int mask, int index) {
+        final NextContexts nextContexts = this.nextContexts;
+        AbstractChannelHandlerContext ctx;
+        if (nextContexts == null || nextContexts.generation != pipeline.generation ||
+                (ctx = nextContexts.contexts[index]) == null) {
+            ctx = findContextOutbound0(mask, index);
+        }
+        return ctx;
+    }
+
+    private AbstractChannelHandlerContext findContextOutbound0(int mask, int index) {
+        final AbstractChannelHandlerContext[] contexts = nextContexts().contexts;
         AbstractChannelHandlerContext ctx = this;
         EventExecutor currentExecutor = executor();
         do {
             ctx = ctx.prev;
         } while (skipContext(ctx, currentExecutor, mask, MASK_ONLY_OUTBOUND));
+        contexts[index] = ctx;
         return ctx;
     }
 
+    private NextContexts nextContexts() {
+        // Read the generation before looking up any context, so contexts found while the pipeline is modified are
+        // not used afterwards.
+        final int generation = pipeline.generation;
+        NextContexts nextContexts = this.nextContexts;
+        if (nextContexts == null || nextContexts.generation != generation) {
+            this.nextContexts = nextContexts = new NextContexts(generation);
+        }
+        return nextContexts;
+    }
+
     private static boolean skipContext(
             AbstractChannelHandlerContext ctx, EventExecutor currentExecutor, int mask, int onlyMask) {
         // Ensure we correctly handle MASK_EXCEPTION_CAUGHT which is not included in the MASK_EXCEPTION_CAUGHT
@@ -1274,6 +1319,22 @@ abstract class AbstractChannelHandlerContext implements ChannelHandlerContext, R
         }
     }
 
+    /**
+     * The next context that handles an event, indexed by the bit of the event in {@link ChannelHandlerMask}, for one
+     * {@linkplain DefaultChannelPipeline#generation generation} of the pipeline.
+     */
+    private static final class NextContexts {
+        // write(...) with flush looks for a context that handles either of both.
+        static final int WRITE_AND_FLUSH = Integer.numberOfTrailingZeros(MASK_FLUSH) + 1;
+
+        final int generation;
+        final AbstractChannelHandlerContext[] contexts = new AbstractChannelHandlerContext[WRITE_AND_FLUSH + 1];
+
+        NextContexts(int generation) {
+            this.generation = generation;
+        }
+    }
+
     private static final class Tasks {
         private final AbstractChannelHandlerContext next;
         private final Runnable invokeChannelReadCompleteTask = new Runnable() {
@@ -88,6 +88,17 @@ public class ChannelOption<T> extends AbstractConstant<ChannelOption<T>> {
     public static final ChannelOption<Integer> MAX_MESSAGES_PER_READ = valueOf("MAX_MESSAGES_PER_READ");
     public static final ChannelOption<Integer> MAX_MESSAGES_PER_WRITE = valueOf("MAX_MESSAGES_PER_WRITE");
 
+    /**
+     * The maximum number of {@link Channel#flush()} calls that are deferred while the {@link Channel} processes what
+     * it read, until they are all done by a single flush once the read loop completes. {@code 0} disables deferring
+     * and is the default.
+     * <p>
+     * This is only supported by the NIO and epoll stream channels, and only defers flushes of the {@link Channel}
+     * that is reading.
+     */
+    public static final ChannelOption<Integer> MAX_DEFERRED_FLUSHES_PER_READ =
+            valueOf("MAX_DEFERRED_FLUSHES_PER_READ");
+
     public static final ChannelOption<Integer> WRITE_SPIN_COUNT = valueOf("WRITE_SPIN_COUNT");
     /**
      * @deprecated Use {@link #WRITE_BUFFER_WATER_MARK}
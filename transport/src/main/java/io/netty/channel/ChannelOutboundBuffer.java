@@ -63,6 +63,9 @@ public final class ChannelOutboundBuffer {
     static final int CHANNEL_OUTBOUND_BUFFER_ENTRY_OVERHEAD =
             SystemPropertyUtil.getInt("io.netty.transport.outboundBufferEntrySizeOverhead", 96);
 
+    static final boolean ARRAY_BACKED =
+            SystemPropertyUtil.getBoolean("io.netty.transport.arrayBackedOutboundBuffer", false);
+
     private static final InternalLogger logger = InternalLoggerFactory.getInstance(ChannelOutboundBuffer.class);
 
     private static final FastThreadLocal<ByteBuffer[]> NIO_BUFFERS = new FastThreadLocal<ByteBuffer[]>() {
@@ -74,6 +77,11 @@ public final class ChannelOutboundBuffer {
 
     private final Channel channel;
 
+    // Only used if array backed, in which case the linked-list below is not used.
+    private final OutboundEntryRing ring;
+    // Promises of removed entries that still need to be notified, only used if array backed.
+    private ChannelPromise[] removedPromises;
+
     // Entry(flushedEntry) --> ... Entry(unflushedEntry) --> ... Entry(tailEntry)
     //
     // The Entry that is the first in the linked-list structure that was flushed
@@ -105,7 +113,18 @@ public final class ChannelOutboundBuffer {
     private volatile Runnable fireChannelWritabilityChangedTask;
 
     ChannelOutboundBuffer(AbstractChannel channel) {
+        this(channel, ARRAY_BACKED);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param arrayBacked {@code true} if the messages should be kept in arrays instead of a linked-list of entries,
+     *                    which is faster if many small messages are written between flushes.
+     */
+    ChannelOutboundBuffer(AbstractChannel channel, boolean arrayBacked) {
         this.channel = channel;
+        ring = arrayBacked ? new OutboundEntryRing() : null;
     }
 
     /**
@@ -113,6 +132,13 @@ public final class ChannelOutboundBuffer {
      * the message was written.
      */
     public void addMessage(Object msg, int size, ChannelPromise promise) {
+        OutboundEntryRing ring = this.ring;
+        if (ring != null) {
+            int pendingSize = size + CHANNEL_OUTBOUND_BUFFER_ENTRY_OVERHEAD;
+            ring.add(msg, pendingSize, total(msg), promise);
+            incrementPendingOutboundBytes(pendingSize, false);
+            return;
+        }
         Entry entry = Entry.newInstance(msg, size, total(msg), promise);
         if (tailEntry == null) {
             flushedEntry = null;
@@ -139,6 +165,21 @@ public final class ChannelOutboundBuffer {
         // where added in the meantime.
         //
         // See https://github.com/netty/netty/issues/2577
+        OutboundEntryRing ring = this.ring;
+        if (ring != null) {
+            int seq = ring.unflushed;
+            int tail = ring.tail;
+            flushed += tail - seq;
+            ring.unflushed = tail;
+            for (; seq != tail; seq++) {
+                if (!ring.promises[seq & ring.mask].setUncancellable()) {
+                    // Was cancelled so make sure we free up memory and notify about the freed bytes
+                    int pending = ring.cancel(seq);
+                    decrementPendingOutboundBytes(pending, false, true);
+                }
+            }
+            return;
+        }
         Entry entry = unflushedEntry;
         if (entry != null) {
             if (flushedEntry == null) {
@@ -215,6 +256,10 @@ public final class ChannelOutboundBuffer {
      * Return the current message to write or {@code null} if nothing was flushed before and so is ready to be written.
      */
     public Object current() {
+        OutboundEntryRing ring = this.ring;
+        if (ring != null) {
+            return ring.hasFlushed() ? ring.msgs[ring.flushed & ring.mask] : null;
+        }
         Entry entry = flushedEntry;
         if (entry == null) {
             return null;
@@ -228,6 +273,10 @@ public final class ChannelOutboundBuffer {
      * @return {@code 0} if nothing was flushed before for the current message or there is no current message
      */
     public long currentProgress() {
+        OutboundEntryRing ring = this.ring;
+        if (ring != null) {
+            return ring.hasFlushed() ? ring.progress[ring.flushed & ring.mask] : 0;
+        }
         Entry entry = flushedEntry;
         if (entry == null) {
             return 0;
@@ -239,11 +288,26 @@ public final class ChannelOutboundBuffer {
      * Notify the {@link ChannelPromise} of the current message about writing progress.
      */
     public void progress(long amount) {
+        OutboundEntryRing ring = this.ring;
+        if (ring != null) {
+            assert ring.hasFlushed();
+            progress(ring, ring.flushed & ring.mask, amount);
+            return;
+        }
         Entry e = flushedEntry;
         assert e != null;
-        ChannelPromise p = e.promise;
         long progress = e.progress + amount;
         e.progress = progress;
+        notifyProgress(e.promise, progress, e.total);
+    }
+
+    private static void progress(OutboundEntryRing ring, int i, long amount) {
+        long progress = ring.progress[i] + amount;
+        ring.progress[i] = progress;
+        notifyProgress(ring.promises[i], progress, ring.totals[i]);
+    }
+
+    private static void notifyProgress(ChannelPromise p, long progress, long total) {
         assert p != null;
         final Class<?> promiseClass = p.getClass();
         // fast-path to save O(n) ChannelProgressivePromise's type check on OpenJDK
@@ -252,9 +316,9 @@ public final class ChannelOutboundBuffer {
         }
         // this is going to save from type pollution due to https://bugs.openjdk.org/browse/JDK-8180450
         if (p instanceof DefaultChannelProgressivePromise) {
-            ((DefaultChannelProgressivePromise) p).tryProgress(progress, e.total);
+            ((DefaultChannelProgressivePromise) p).tryProgress(progress, total);
         } else if (p instanceof ChannelProgressivePromise) {
-            ((ChannelProgressivePromise) p).tryProgress(progress, e.total);
+            ((ChannelProgressivePromise) p).tryProgress(progress, total);
         }
     }
 
@@ -264,6 +328,9 @@ public final class ChannelOutboundBuffer {
      * messages are ready to be handled.
      */
     public boolean remove() {
+        if (ring != null) {
+            return removeFromRing(null, true);
+        }
         Entry e = flushedEntry;
         if (e == null) {
             clearNioBuffers();
@@ -299,6 +366,9 @@ public final class ChannelOutboundBuffer {
     }
 
     private boolean remove0(Throwable cause, boolean notifyWritability) {
+        if (ring != null) {
+            return removeFromRing(cause, notifyWritability);
+        }
         Entry e = flushedEntry;
         if (e == null) {
             clearNioBuffers();
@@ -325,6 +395,34 @@ public final class ChannelOutboundBuffer {
         return true;
     }
 
+    private boolean removeFromRing(Throwable cause, boolean notifyWritability) {
+        OutboundEntryRing ring = this.ring;
+        if (!ring.hasFlushed()) {
+            clearNioBuffers();
+            return false;
+        }
+        int i = ring.flushed & ring.mask;
+        Object msg = ring.msgs[i];
+        ChannelPromise promise = ring.promises[i];
+        int size = ring.pendingSizes[i];
+        boolean cancelled = ring.cancelled[i];
+
+        ring.removeFlushed();
+        flushed--;
+
+        if (!cancelled) {
+            // only release message, notify and decrement if it was not canceled before.
+            ReferenceCountUtil.safeRelease(msg);
+            if (cause == null) {
+                safeSuccess(promise);
+            } else {
+                safeFail(promise, cause);
+            }
+            decrementPendingOutboundBytes(size, false, notifyWritability);
+        }
+        return true;
+    }
+
     private void removeEntry(Entry e) {
         if (-- flushed == 0) {
             // processed everything
@@ -343,6 +441,10 @@ public final class ChannelOutboundBuffer {
      * This operation assumes all messages in this buffer is {@link ByteBuf}.
      */
     public void removeBytes(long writtenBytes) {
+        if (ring != null) {
+            removeBytesFromRing(writtenBytes);
+            return;
+        }
         for (;;) {
             Object msg = current();
             if (!(msg instanceof ByteBuf)) {
@@ -371,6 +473,81 @@ public final class ChannelOutboundBuffer {
         clearNioBuffers();
     }
 
+    /**
+     * Same as {@link #removeBytes(long)}, but all fully written entries are removed before their promises are
+     * notified, and the pending bytes are decremented once for all of them.
+     */
+    private void removeBytesFromRing(long writtenBytes) {
+        final OutboundEntryRing ring = this.ring;
+        final int first = ring.flushed;
+        final int end = ring.unflushed;
+        int seq = first;
+        for (; seq != end; seq++) {
+            Object msg = ring.msgs[seq & ring.mask];
+            if (!(msg instanceof ByteBuf)) {
+                assert writtenBytes == 0;
+                break;
+            }
+
+            final ByteBuf buf = (ByteBuf) msg;
+            final int readerIndex = buf.readerIndex();
+            final int readableBytes = buf.writerIndex() - readerIndex;
+
+            if (readableBytes <= writtenBytes) {
+                if (writtenBytes != 0) {
+                    progress(ring, seq & ring.mask, readableBytes);
+                    if (ring.flushed != first) {
+                        // A listener failed all flushed messages in the meantime.
+                        return;
+                    }
+                    writtenBytes -= readableBytes;
+                }
+            } else { // readableBytes > writtenBytes
+                if (writtenBytes != 0) {
+                    buf.readerIndex(readerIndex + (int) writtenBytes);
+                    progress(ring, seq & ring.mask, writtenBytes);
+                    if (ring.flushed != first) {
+                        return;
+                    }
+                }
+                break;
+            }
+        }
+        clearNioBuffers();
+
+        int removed = seq - first;
+        if (removed == 0) {
+            return;
+        }
+        // The promises are notified once all written entries are removed, a listener may write to the channel again.
+        ChannelPromise[] promises = removedPromises;
+        if (promises == null || promises.length < removed) {
+            promises = new ChannelPromise[ring.msgs.length];
+        }
+        removedPromises = null;
+        int count = 0;
+        long pendingSize = 0;
+        for (int i = 0; i < removed; i++) {
+            int index = ring.flushed & ring.mask;
+            if (!ring.cancelled[index]) {
+                // only release message, notify and decrement if it was not canceled before.
+                ReferenceCountUtil.safeRelease(ring.msgs[index]);
+                pendingSize += ring.pendingSizes[index];
+                promises[count++] = ring.promises[index];
+            }
+            ring.removeFlushed();
+        }
+        flushed -= removed;
+
+        for (int i = 0; i < count; i++) {
+            safeSuccess(promises[i]);
+            promises[i] = null;
+        }
+        // Do not keep an array that is bigger than the ring after it shrunk.
+        removedPromises = promises.length <= ring.msgs.length ? promises : null;
+        decrementPendingOutboundBytes(pendingSize, false, true);
+    }
+
     // Clear all ByteBuffer from the array so these can be GC'ed.
     // See https://github.com/netty/netty/issues/3837
     private void clearNioBuffers() {
@@ -416,6 +593,9 @@ public final class ChannelOutboundBuffer {
         int nioBufferCount = 0;
         final InternalThreadLocalMap threadLocalMap = InternalThreadLocalMap.get();
         ByteBuffer[] nioBuffers = NIO_BUFFERS.get(threadLocalMap);
+        if (ring != null) {
+            return nioBuffersFromRing(threadLocalMap, nioBuffers, maxCount, maxBytes);
+        }
         Entry entry = flushedEntry;
         while (isFlushedEntry(entry) && entry.msg instanceof ByteBuf) {
             if (!entry.cancelled) {
@@ -475,6 +655,74 @@ public final class ChannelOutboundBuffer {
         return nioBuffers;
     }
 
+    private ByteBuffer[] nioBuffersFromRing(InternalThreadLocalMap threadLocalMap, ByteBuffer[] nioBuffers,
+                                            int maxCount, long maxBytes) {
+        long nioBufferSize = 0;
+        int nioBufferCount = 0;
+        // Nothing is notified while the buffers are collected, so the arrays can not change.
+        final OutboundEntryRing ring = this.ring;
+        final Object[] msgs = ring.msgs;
+        final boolean[] cancelled = ring.cancelled;
+        final int[] counts = ring.counts;
+        final ByteBuffer[] bufs = ring.bufs;
+        final int mask = ring.mask;
+        final int end = ring.unflushed;
+        for (int seq = ring.flushed; seq != end; seq++) {
+            final int i = seq & mask;
+            final Object msg = msgs[i];
+            if (!(msg instanceof ByteBuf)) {
+                break;
+            }
+            if (cancelled[i]) {
+                continue;
+            }
+            ByteBuf buf = (ByteBuf) msg;
+            final int readerIndex = buf.readerIndex();
+            final int readableBytes = buf.writerIndex() - readerIndex;
+
+            if (readableBytes > 0) {
+                if (maxBytes - readableBytes < nioBufferSize && nioBufferCount != 0) {
+                    // See nioBuffers(int, long) for why we stop here.
+                    break;
+                }
+                nioBufferSize += readableBytes;
+                int count = counts[i];
+                if (count == -1) {
+                    counts[i] = count = buf.nioBufferCount();
+                }
+                int neededSpace = min(maxCount, nioBufferCount + count);
+                if (neededSpace > nioBuffers.length) {
+                    nioBuffers = expandNioBufferArray(nioBuffers, neededSpace, nioBufferCount);
+                    NIO_BUFFERS.set(threadLocalMap, nioBuffers);
+                }
+                if (count == 1) {
+                    ByteBuffer nioBuf = bufs[i];
+                    if (nioBuf == null) {
+                        // cache ByteBuffer as it may need to create a new ByteBuffer instance if its a
+                        // derived buffer
+                        bufs[i] = nioBuf = buf.internalNioBuffer(readerIndex, readableBytes);
+                    }
+                    nioBuffers[nioBufferCount++] = nioBuf;
+                } else {
+                    ByteBuffer[] nioBufs = ring.bufArrays[i];
+                    if (nioBufs == null) {
+                        // cached ByteBuffers as they may be expensive to create in terms
+                        // of Object allocation
+                        ring.bufArrays[i] = nioBufs = buf.nioBuffers();
+                    }
+                    nioBufferCount = nioBuffers(nioBufs, nioBuffers, nioBufferCount, maxCount);
+                }
+                if (nioBufferCount >= maxCount) {
+                    break;
+                }
+            }
+        }
+        this.nioBufferCount = nioBufferCount;
+        this.nioBufferSize = nioBufferSize;
+
+        return nioBuffers;
+    }
+
     private static int nioBuffers(Entry entry, ByteBuf buf, ByteBuffer[] nioBuffers, int nioBufferCount, int maxCount) {
         ByteBuffer[] nioBufs = entry.bufs;
         if (nioBufs == null) {
@@ -482,6 +730,10 @@ public final class ChannelOutboundBuffer {
             // of Object allocation
             entry.bufs = nioBufs = buf.nioBuffers();
         }
+        return nioBuffers(nioBufs, nioBuffers, nioBufferCount, maxCount);
+    }
+
+    private static int nioBuffers(ByteBuffer[] nioBufs, ByteBuffer[] nioBuffers, int nioBufferCount, int maxCount) {
         for (int i = 0; i < nioBufs.length && nioBufferCount < maxCount; ++i) {
             ByteBuffer nioBuf = nioBufs[i];
             if (nioBuf == null) {
@@ -699,6 +951,23 @@ public final class ChannelOutboundBuffer {
 
         // Release all unflushed messages.
         try {
+            OutboundEntryRing ring = this.ring;
+            if (ring != null) {
+                while (ring.unflushed != ring.tail) {
+                    int i = ring.unflushed & ring.mask;
+                    Object msg = ring.msgs[i];
+                    ChannelPromise promise = ring.promises[i];
+                    boolean cancelled = ring.cancelled[i];
+                    // Just decrease; do not trigger any events via decrementPendingOutboundBytes()
+                    TOTAL_PENDING_SIZE_UPDATER.addAndGet(this, -ring.pendingSizes[i]);
+                    ring.removeUnflushed();
+
+                    if (!cancelled) {
+                        ReferenceCountUtil.safeRelease(msg);
+                        safeFail(promise, cause);
+                    }
+                }
+            }
             Entry e = unflushedEntry;
             while (e != null) {
                 // Just decrease; do not trigger any events via decrementPendingOutboundBytes()
@@ -776,6 +1045,19 @@ public final class ChannelOutboundBuffer {
     public void forEachFlushedMessage(MessageProcessor processor) throws Exception {
         ObjectUtil.checkNotNull(processor, "processor");
 
+        OutboundEntryRing ring = this.ring;
+        if (ring != null) {
+            for (int seq = ring.flushed; seq != ring.unflushed; seq++) {
+                int i = seq & ring.mask;
+                if (!ring.cancelled[i]) {
+                    if (!processor.processMessage(ring.msgs[i])) {
+                        return;
+                    }
+                }
+            }
+            return;
+        }
+
         Entry entry = flushedEntry;
         if (entry == null) {
             return;
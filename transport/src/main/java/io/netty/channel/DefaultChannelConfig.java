@@ -29,6 +29,7 @@ import static io.netty.channel.ChannelOption.AUTO_CLOSE;
 import static io.netty.channel.ChannelOption.AUTO_READ;
 import static io.netty.channel.ChannelOption.CONNECT_TIMEOUT_MILLIS;
 import static io.netty.channel.ChannelOption.MAX_MESSAGES_PER_READ;
+import static io.netty.channel.ChannelOption.MAX_DEFERRED_FLUSHES_PER_READ;
 import static io.netty.channel.ChannelOption.MAX_MESSAGES_PER_WRITE;
 import static io.netty.channel.ChannelOption.MESSAGE_SIZE_ESTIMATOR;
 import static io.netty.channel.ChannelOption.RCVBUF_ALLOCATOR;
@@ -64,6 +65,7 @@ public class DefaultChannelConfig implements ChannelConfig {
     private volatile int connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT;
     private volatile int writeSpinCount = 16;
     private volatile int maxMessagesPerWrite = Integer.MAX_VALUE;
+    private volatile int maxDeferredFlushesPerRead;
 
     @SuppressWarnings("FieldMayBeFinal")
     private volatile int autoRead = 1;
@@ -88,7 +90,7 @@ public class DefaultChannelConfig implements ChannelConfig {
                 CONNECT_TIMEOUT_MILLIS, MAX_MESSAGES_PER_READ, WRITE_SPIN_COUNT,
                 ALLOCATOR, AUTO_READ, AUTO_CLOSE, RCVBUF_ALLOCATOR, WRITE_BUFFER_HIGH_WATER_MARK,
                 WRITE_BUFFER_LOW_WATER_MARK, WRITE_BUFFER_WATER_MARK, MESSAGE_SIZE_ESTIMATOR,
-                SINGLE_EVENTEXECUTOR_PER_GROUP, MAX_MESSAGES_PER_WRITE);
+                SINGLE_EVENTEXECUTOR_PER_GROUP, MAX_MESSAGES_PER_WRITE, MAX_DEFERRED_FLUSHES_PER_READ);
     }
 
     protected Map<ChannelOption<?>, Object> getOptions(
@@ -161,6 +163,9 @@ public class DefaultChannelConfig implements ChannelConfig {
         if (option == MAX_MESSAGES_PER_WRITE) {
             return (T) Integer.valueOf(getMaxMessagesPerWrite());
         }
+        if (option == MAX_DEFERRED_FLUSHES_PER_READ) {
+            return (T) Integer.valueOf(getMaxDeferredFlushesPerRead());
+        }
         return null;
     }
 
@@ -195,6 +200,8 @@ public class DefaultChannelConfig implements ChannelConfig {
             setPinEventExecutorPerGroup((Boolean) value);
         } else if (option == MAX_MESSAGES_PER_WRITE) {
             setMaxMessagesPerWrite((Integer) value);
+        } else if (option == MAX_DEFERRED_FLUSHES_PER_READ) {
+            setMaxDeferredFlushesPerRead((Integer) value);
         } else {
             return false;
         }
@@ -272,6 +279,24 @@ public class DefaultChannelConfig implements ChannelConfig {
         return this;
     }
 
+    /**
+     * Get the maximum number of flushes that are deferred while the {@link Channel} processes what it read, until
+     * they are all done at once when the read loop completes. {@code 0} means flushes are never deferred.
+     */
+    public int getMaxDeferredFlushesPerRead() {
+        return maxDeferredFlushesPerRead;
+    }
+
+    /**
+     * Set the maximum number of flushes that are deferred while the {@link Channel} processes what it read, until
+     * they are all done at once when the read loop completes. {@code 0} means flushes are never deferred.
+     */
+    public ChannelConfig setMaxDeferredFlushesPerRead(int maxDeferredFlushesPerRead) {
+        this.maxDeferredFlushesPerRead =
+                ObjectUtil.checkPositiveOrZero(maxDeferredFlushesPerRead, "maxDeferredFlushesPerRead");
+        return this;
+    }
+
     @Override
     public int getWriteSpinCount() {
         return writeSpinCount;
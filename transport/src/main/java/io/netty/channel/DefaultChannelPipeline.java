@@ -71,6 +71,9 @@ public class DefaultChannelPipeline implements ChannelPipeline {
 
     private Map<EventExecutorGroup, EventExecutor> childExecutors;
     private volatile MessageSizeEstimator.Handle estimatorHandle;
+    // Incremented whenever the linked-list of contexts changes or the channel is registered, so the contexts
+    // cache which context handles an event next only as long as it is still correct.
+    volatile int generation;
     private boolean firstRegistration = true;
 
     /**
@@ -101,6 +104,10 @@ public class DefaultChannelPipeline implements ChannelPipeline {
         tail.prev = head;
     }
 
+    private synchronized void incrementGeneration() {
+        generation++;
+    }
+
     final MessageSizeEstimator.Handle estimatorHandle() {
         MessageSizeEstimator.Handle handle = estimatorHandle;
         if (handle == null) {
@@ -188,6 +195,7 @@ public class DefaultChannelPipeline implements ChannelPipeline {
         newCtx.next = nextCtx;
         head.next = newCtx;
         nextCtx.prev = newCtx;
+        generation++;
     }
 
     @Override
@@ -230,6 +238,7 @@ public class DefaultChannelPipeline implements ChannelPipeline {
         newCtx.next = tail;
         prev.next = newCtx;
         tail.prev = newCtx;
+        generation++;
     }
 
     @Override
@@ -270,11 +279,12 @@ public class DefaultChannelPipeline implements ChannelPipeline {
         return this;
     }
 
-    private static void addBefore0(AbstractChannelHandlerContext ctx, AbstractChannelHandlerContext newCtx) {
+    private void addBefore0(AbstractChannelHandlerContext ctx, AbstractChannelHandlerContext newCtx) {
         newCtx.prev = ctx.prev;
         newCtx.next = ctx;
         ctx.prev.next = newCtx;
         ctx.prev = newCtx;
+        generation++;
     }
 
     private String filterName(String name, ChannelHandler handler) {
@@ -323,11 +333,12 @@ public class DefaultChannelPipeline implements ChannelPipeline {
         return this;
     }
 
-    private static void addAfter0(AbstractChannelHandlerContext ctx, AbstractChannelHandlerContext newCtx) {
+    private void addAfter0(AbstractChannelHandlerContext ctx, AbstractChannelHandlerContext newCtx) {
         newCtx.prev = ctx;
         newCtx.next = ctx.next;
         ctx.next.prev = newCtx;
         ctx.next = newCtx;
+        generation++;
     }
 
     public final ChannelPipeline addFirst(ChannelHandler handler) {
@@ -486,6 +497,7 @@ public class DefaultChannelPipeline implements ChannelPipeline {
         AbstractChannelHandlerContext next = ctx.next;
         prev.next = next;
         next.prev = prev;
+        generation++;
     }
 
     @Override
@@ -574,7 +586,7 @@ public class DefaultChannelPipeline implements ChannelPipeline {
         return ctx.handler();
     }
 
-    private static void replace0(AbstractChannelHandlerContext oldCtx, AbstractChannelHandlerContext newCtx) {
+    private void replace0(AbstractChannelHandlerContext oldCtx, AbstractChannelHandlerContext newCtx) {
         AbstractChannelHandlerContext prev = oldCtx.prev;
         AbstractChannelHandlerContext next = oldCtx.next;
         newCtx.prev = prev;
@@ -590,6 +602,7 @@ public class DefaultChannelPipeline implements ChannelPipeline {
         // update the reference to the replacement so forward of buffered content will work correctly
         oldCtx.prev = newCtx;
         oldCtx.next = newCtx;
+        generation++;
     }
 
     private static void checkMultiplicity(ChannelHandler handler) {
@@ -812,6 +825,8 @@ public class DefaultChannelPipeline implements ChannelPipeline {
 
     @Override
     public final ChannelPipeline fireChannelRegistered() {
+        // Contexts without an executor of their own may now use a different EventLoop than before.
+        incrementGeneration();
         AbstractChannelHandlerContext.invokeChannelRegistered(head);
         return this;
     }
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+import io.netty.buffer.Unpooled;
+import io.netty.util.ReferenceCountUtil;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The entries of an array backed {@link ChannelOutboundBuffer}. Each field of an entry is kept in its own array which
+ * is used as a ring, so walking over the entries touches contiguous memory and adding or removing one does not need
+ * an object of its own.
+ * <p>
+ * Entries are addressed by their sequence number, which is masked to get the index into the arrays. The arrays
+ * double when they are full and halve again once less than a quarter of them is used, so the index of an entry
+ * changes while its sequence number does not.
+ *
+ * <pre>
+ * flushed --> ... unflushed --> ... tail
+ * </pre>
+ */
+final class OutboundEntryRing {
+    private static final int INITIAL_CAPACITY = 16;
+
+    Object[] msgs;
+    ChannelPromise[] promises;
+    ByteBuffer[] bufs;
+    ByteBuffer[][] bufArrays;
+    long[] progress;
+    long[] totals;
+    int[] pendingSizes;
+    int[] counts;
+    boolean[] cancelled;
+    int mask;
+
+    // The sequence number of the first flushed entry
+    int flushed;
+    // The sequence number of the first unflushed entry
+    int unflushed;
+    // The sequence number the next added entry will get
+    int tail;
+
+    OutboundEntryRing() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        msgs = new Object[capacity];
+        promises = new ChannelPromise[capacity];
+        bufs = new ByteBuffer[capacity];
+        bufArrays = new ByteBuffer[capacity][];
+        progress = new long[capacity];
+        totals = new long[capacity];
+        pendingSizes = new int[capacity];
+        counts = new int[capacity];
+        cancelled = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    void add(Object msg, int pendingSize, long total, ChannelPromise promise) {
+        if (tail - flushed == msgs.length) {
+            grow();
+        }
+        int i = tail++ & mask;
+        msgs[i] = msg;
+        promises[i] = promise;
+        pendingSizes[i] = pendingSize;
+        totals[i] = total;
+        counts[i] = -1;
+    }
+
+    private void grow() {
+        int newCapacity = msgs.length << 1;
+        if (newCapacity < 0) {
+            throw new IllegalStateException("too many outbound entries: " + (tail - flushed));
+        }
+        resize(newCapacity);
+    }
+
+    /**
+     * Halves the arrays once less than a quarter of them is used, so a burst of writes does not leave the channel
+     * holding its peak-sized arrays for its whole lifetime.
+     */
+    private void shrinkIfSparse() {
+        int capacity = msgs.length;
+        if (capacity > INITIAL_CAPACITY && tail - flushed < capacity >>> 2) {
+            resize(capacity >>> 1);
+        }
+    }
+
+    private void resize(int newCapacity) {
+        Object[] oldMsgs = msgs;
+        ChannelPromise[] oldPromises = promises;
+        ByteBuffer[] oldBufs = bufs;
+        ByteBuffer[][] oldBufArrays = bufArrays;
+        long[] oldProgress = progress;
+        long[] oldTotals = totals;
+        int[] oldPendingSizes = pendingSizes;
+        int[] oldCounts = counts;
+        boolean[] oldCancelled = cancelled;
+        int oldMask = mask;
+        allocate(newCapacity);
+
+        // Keep the sequence numbers, the entries just move to their index in the new arrays.
+        for (int seq = flushed; seq != tail; seq++) {
+            int from = seq & oldMask;
+            int to = seq & mask;
+            msgs[to] = oldMsgs[from];
+            promises[to] = oldPromises[from];
+            bufs[to] = oldBufs[from];
+            bufArrays[to] = oldBufArrays[from];
+            progress[to] = oldProgress[from];
+            totals[to] = oldTotals[from];
+            pendingSizes[to] = oldPendingSizes[from];
+            counts[to] = oldCounts[from];
+            cancelled[to] = oldCancelled[from];
+        }
+    }
+
+    boolean hasFlushed() {
+        return flushed != unflushed;
+    }
+
+    /**
+     * Releases the message of the entry and replaces it with an empty buffer.
+     *
+     * @return the pending size the entry had.
+     */
+    int cancel(int seq) {
+        int i = seq & mask;
+        if (cancelled[i]) {
+            return 0;
+        }
+        cancelled[i] = true;
+        int pendingSize = pendingSizes[i];
+
+        // release message and replace with an empty buffer
+        ReferenceCountUtil.safeRelease(msgs[i]);
+        msgs[i] = Unpooled.EMPTY_BUFFER;
+
+        pendingSizes[i] = 0;
+        totals[i] = 0;
+        progress[i] = 0;
+        bufs[i] = null;
+        bufArrays[i] = null;
+        return pendingSize;
+    }
+
+    /**
+     * Removes the first flushed entry, which must have been read before as it is cleared.
+     */
+    void removeFlushed() {
+        assert hasFlushed();
+        clear(flushed++ & mask);
+        shrinkIfSparse();
+    }
+
+    /**
+     * Removes the first unflushed entry, which must have been read before as it is cleared.
+     */
+    void removeUnflushed() {
+        assert flushed == unflushed && unflushed != tail;
+        clear(unflushed++ & mask);
+        flushed = unflushed;
+        shrinkIfSparse();
+    }
+
+    private void clear(int i) {
+        msgs[i] = null;
+        promises[i] = null;
+        bufs[i] = null;
+        bufArrays[i] = null;
+        progress[i] = 0;
+        totals[i] = 0;
+        pendingSizes[i] = 0;
+        counts[i] = -1;
+        cancelled[i] = false;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.concurrent.FastThreadLocal;
+
+import static io.netty.util.internal.ObjectUtil.checkPositive;
+
+/**
+ * The {@link RecvByteBufAllocator} that reads into one large buffer which is shared by all channels of an event loop,
+ * and only copies the bytes that were actually received into a buffer of the exact size that is passed through the
+ * {@link ChannelPipeline}.
+ * <p>
+ * This trades a copy of the received bytes for not having to predict how many bytes will be received. A lot of mostly
+ * idle connections will so never retain more memory than they received, and a single read will pick up everything
+ * that is available up to the size of the shared buffer.
+ * <p>
+ * Only {@link io.netty.channel.nio.AbstractNioByteChannel}s and the epoll stream channels read into the shared
+ * buffer. All other channels allocate a buffer of the size of the shared buffer for every read, like
+ * {@link FixedRecvByteBufAllocator} does.
+ */
+public class ScratchBufferRecvByteBufAllocator extends DefaultMaxMessagesRecvByteBufAllocator {
+
+    static final int DEFAULT_SCRATCH_BUFFER_SIZE = 65536;
+
+    private final int scratchBufferSize;
+    private final FastThreadLocal<ByteBuf> scratchBuffers = new FastThreadLocal<ByteBuf>() {
+        @Override
+        protected void onRemoval(ByteBuf scratchBuffer) {
+            if (scratchBuffer != null) {
+                scratchBuffer.release();
+            }
+        }
+    };
+
+    /**
+     * The {@link RecvByteBufAllocator.Handle} of a {@link ScratchBufferRecvByteBufAllocator}.
+     */
+    public final class ScratchHandle extends MaxMessageHandle {
+
+        private ScratchHandle() { }
+
+        @Override
+        public int guess() {
+            return scratchBufferSize;
+        }
+
+        /**
+         * Returns the shared buffer of the current thread which must only be used to read once, and then be given to
+         * {@link #received(ByteBufAllocator, ByteBuf)} or be released if nothing was read.
+         */
+        public ByteBuf allocateScratch(ByteBufAllocator alloc) {
+            ByteBuf scratchBuffer = scratchBuffers.get();
+            if (scratchBuffer == null) {
+                // The native transports can only read into direct buffers and NIO would copy from a direct buffer.
+                scratchBuffer = alloc.directBuffer(scratchBufferSize, scratchBufferSize);
+                scratchBuffers.set(scratchBuffer);
+            }
+            // The caller releases the buffer once it is done with it.
+            return scratchBuffer.clear().retain();
+        }
+
+        /**
+         * Copies the readable bytes of the shared buffer that was returned by
+         * {@link #allocateScratch(ByteBufAllocator)} into a new buffer and releases the shared buffer.
+         */
+        public ByteBuf received(ByteBufAllocator alloc, ByteBuf scratchBuffer) {
+            try {
+                int readable = scratchBuffer.readableBytes();
+                return alloc.ioBuffer(readable, readable).writeBytes(scratchBuffer);
+            } finally {
+                scratchBuffer.release();
+            }
+        }
+    }
+
+    /**
+     * Creates a new instance with a shared buffer of {@code 65536} bytes.
+     */
+    public ScratchBufferRecvByteBufAllocator() {
+        this(DEFAULT_SCRATCH_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param scratchBufferSize the size of the buffer that is shared by all channels of an event loop, and so the
+     *                          maximum number of bytes that are read at once
+     */
+    public ScratchBufferRecvByteBufAllocator(int scratchBufferSize) {
+        this.scratchBufferSize = checkPositive(scratchBufferSize, "scratchBufferSize");
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public Handle newHandle() {
+        return new ScratchHandle();
+    }
+
+    @Override
+    public ScratchBufferRecvByteBufAllocator respectMaybeMoreData(boolean respectMaybeMoreData) {
+        super.respectMaybeMoreData(respectMaybeMoreData);
+        return this;
+    }
+}
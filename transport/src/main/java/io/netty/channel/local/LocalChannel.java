@@ -42,6 +42,7 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.channels.ConnectionPendingException;
 import java.nio.channels.NotYetConnectedException;
 import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
@@ -52,7 +53,9 @@ public class LocalChannel extends AbstractChannel {
     @SuppressWarnings({ "rawtypes" })
     private static final AtomicReferenceFieldUpdater<LocalChannel, Future> FINISH_READ_FUTURE_UPDATER =
             AtomicReferenceFieldUpdater.newUpdater(LocalChannel.class, Future.class, "finishReadFuture");
-    private static final ChannelMetadata METADATA = new ChannelMetadata(false);
+    private static final AtomicIntegerFieldUpdater<LocalChannel> FINISH_READ_SCHEDULED_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(LocalChannel.class, "finishReadScheduled");
+    private static final ChannelMetadata METADATA = new ChannelMetadata(false, 16);
     private static final int MAX_READER_STACK_DEPTH = 8;
 
     private enum State { OPEN, BOUND, CONNECTED, CLOSED }
@@ -70,6 +73,15 @@ public class LocalChannel extends AbstractChannel {
         }
     };
 
+    private final Runnable finishReadTask = new Runnable() {
+        @Override
+        public void run() {
+            // Reset before reading, so what the peer writes from now on schedules the task again.
+            finishReadScheduled = 0;
+            finishPeerRead0(LocalChannel.this);
+        }
+    };
+
     private final Runnable shutdownHook = new Runnable() {
         @Override
         public void run() {
@@ -85,6 +97,7 @@ public class LocalChannel extends AbstractChannel {
     private volatile boolean readInProgress;
     private volatile boolean writeInProgress;
     private volatile Future<?> finishReadFuture;
+    private volatile int finishReadScheduled;
 
     public LocalChannel() {
         super(null);
@@ -290,12 +303,17 @@ public class LocalChannel extends AbstractChannel {
     private void readInbound() {
         RecvByteBufAllocator.Handle handle = unsafe().recvBufAllocHandle();
         handle.reset(config());
+        handle.attemptedBytesRead(1);
         ChannelPipeline pipeline = pipeline();
         do {
             Object received = inboundBuffer.poll();
             if (received == null) {
                 break;
             }
+            // There are no bytes read, so count every message as one byte to keep reading up to the maximum number
+            // of messages per read.
+            handle.lastBytesRead(1);
+            handle.incMessagesRead(1);
             pipeline.fireChannelRead(received);
         } while (handle.continueReading());
         handle.readComplete();
@@ -395,19 +413,21 @@ public class LocalChannel extends AbstractChannel {
     }
 
     private void runFinishPeerReadTask(final LocalChannel peer) {
-        // If the peer is writing, we must wait until after reads are completed for that peer before we can read. So
-        // we keep track of the task, and coordinate later that our read can't happen until the peer is done.
-        final Runnable finishPeerReadTask = new Runnable() {
-            @Override
-            public void run() {
-                finishPeerRead0(peer);
-            }
-        };
         try {
             if (peer.writeInProgress) {
-                peer.finishReadFuture = peer.eventLoop().submit(finishPeerReadTask);
-            } else {
-                peer.eventLoop().execute(finishPeerReadTask);
+                // If the peer is writing, we must wait until after reads are completed for that peer before we can
+                // read. So we keep track of the task, and coordinate later that our read can't happen until the peer
+                // is done.
+                peer.finishReadFuture = peer.eventLoop().submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        finishPeerRead0(peer);
+                    }
+                });
+            } else if (FINISH_READ_SCHEDULED_UPDATER.compareAndSet(peer, 0, 1)) {
+                // The task reads everything that was written until it runs, so there is no need to schedule it again
+                // before that.
+                peer.eventLoop().execute(peer.finishReadTask);
             }
         } catch (Throwable cause) {
             logger.warn("Closing Local channels {}-{} because exception occurred!", this, peer, cause);
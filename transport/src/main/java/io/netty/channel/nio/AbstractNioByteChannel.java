@@ -25,6 +25,7 @@ import io.netty.channel.ChannelOutboundBuffer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.FileRegion;
 import io.netty.channel.RecvByteBufAllocator;
+import io.netty.channel.ScratchBufferRecvByteBufAllocator.ScratchHandle;
 import io.netty.channel.internal.ChannelUtils;
 import io.netty.channel.socket.ChannelInputShutdownEvent;
 import io.netty.channel.socket.ChannelInputShutdownReadComplete;
@@ -141,13 +142,17 @@ public abstract class AbstractNioByteChannel extends AbstractNioChannel {
             final ChannelPipeline pipeline = pipeline();
             final ByteBufAllocator allocator = config.getAllocator();
             final RecvByteBufAllocator.Handle allocHandle = recvBufAllocHandle();
+            final ScratchHandle scratchHandle =
+                    allocHandle instanceof ScratchHandle ? (ScratchHandle) allocHandle : null;
             allocHandle.reset(config);
+            deferFlushes();
 
             ByteBuf byteBuf = null;
             boolean close = false;
             try {
                 do {
-                    byteBuf = allocHandle.allocate(allocator);
+                    byteBuf = scratchHandle != null ?
+                            scratchHandle.allocateScratch(allocator) : allocHandle.allocate(allocator);
                     allocHandle.lastBytesRead(doReadBytes(byteBuf));
                     if (allocHandle.lastBytesRead() <= 0) {
                         // nothing was read. release the buffer.
@@ -161,6 +166,13 @@ public abstract class AbstractNioByteChannel extends AbstractNioChannel {
                         break;
                     }
 
+                    if (scratchHandle != null) {
+                        // The shared buffer must never end up in the pipeline, not even via handleReadException(...).
+                        ByteBuf scratchBuffer = byteBuf;
+                        byteBuf = null;
+                        byteBuf = scratchHandle.received(allocator, scratchBuffer);
+                    }
+
                     allocHandle.incMessagesRead(1);
                     readPending = false;
                     pipeline.fireChannelRead(byteBuf);
@@ -169,6 +181,8 @@ public abstract class AbstractNioByteChannel extends AbstractNioChannel {
 
                 allocHandle.readComplete();
                 pipeline.fireChannelReadComplete();
+                // Flush before the input is shutdown, which may close the channel.
+                flushDeferred();
 
                 if (close) {
                     closeOnRead(pipeline);
@@ -176,6 +190,7 @@ public abstract class AbstractNioByteChannel extends AbstractNioChannel {
             } catch (Throwable t) {
                 handleReadException(pipeline, byteBuf, t, close, allocHandle);
             } finally {
+                flushDeferred();
                 // Check if there is a readPending which was not processed yet.
                 // This could be for two reasons:
                 // * The user called Channel.read() or ChannelHandlerContext.read() in channelRead(...) method
@@ -0,0 +1,553 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.pool;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.netty.util.internal.ObjectUtil.checkNotNull;
+import static io.netty.util.internal.ObjectUtil.checkPositiveOrZero;
+
+/**
+ * {@link ChannelPool} implementation which keeps a separate pool for every {@link EventLoop} of the
+ * {@link EventLoopGroup} of the {@link Bootstrap}. A {@link Channel} is acquired from the pool of the
+ * {@link EventLoop} the caller runs on, or from the pool of the next {@link EventLoop} of the group if the caller is
+ * not on one of them, so callers on an {@link EventLoop} get a {@link Channel} on that same {@link EventLoop} without
+ * any locking or hand-off to another thread.
+ * <p>
+ * Like {@link SimpleChannelPool} it creates new {@link Channel}s if none is in the pool and enforces no limit on the
+ * number of {@link Channel}s. {@link Channel}s are reused in LIFO order, and if an idle timeout is given the
+ * {@link Channel}s that were not used for that long are closed in the background. {@link #warmUp(int)} may be used to
+ * create {@link Channel}s up-front, and {@link #metric()} exposes the number of {@link Channel}s and how long it took
+ * to acquire them.
+ */
+public class EventLoopAffineChannelPool implements ChannelPool {
+    private static final AttributeKey<LoopPool> POOL_KEY =
+            AttributeKey.newInstance("io.netty.channel.pool.EventLoopAffineChannelPool");
+
+    private final Bootstrap bootstrap;
+    private final ChannelPoolHandler handler;
+    private final ChannelHealthChecker healthCheck;
+    private final long idleTimeoutNanos;
+    private final EventLoopGroup group;
+    private final LoopPool[] pools;
+    private final Map<EventExecutor, LoopPool> poolsByLoop = new IdentityHashMap<EventExecutor, LoopPool>();
+    private final EventLoopAffineChannelPoolMetric metric = new EventLoopAffineChannelPoolMetric(this);
+    private volatile boolean closed;
+
+    /**
+     * Creates a new instance using the {@link ChannelHealthChecker#ACTIVE}, which never closes idle
+     * {@link Channel}s.
+     *
+     * @param bootstrap         the {@link Bootstrap} that is used for connections
+     * @param handler           the {@link ChannelPoolHandler} that will be notified for the different pool actions
+     */
+    public EventLoopAffineChannelPool(Bootstrap bootstrap, ChannelPoolHandler handler) {
+        this(bootstrap, handler, ChannelHealthChecker.ACTIVE, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param bootstrap         the {@link Bootstrap} that is used for connections
+     * @param handler           the {@link ChannelPoolHandler} that will be notified for the different pool actions
+     * @param healthCheck       the {@link ChannelHealthChecker} that will be used to check if a {@link Channel} is
+     *                          still healthy when obtain from the {@link ChannelPool}
+     * @param idleTimeout       the time after which a {@link Channel} that was not acquired anymore is closed, or
+     *                          {@code 0} to keep {@link Channel}s in the pool until it is closed
+     * @param unit              the {@link TimeUnit} of {@code idleTimeout}
+     */
+    public EventLoopAffineChannelPool(Bootstrap bootstrap, final ChannelPoolHandler handler,
+                                      ChannelHealthChecker healthCheck, long idleTimeout, TimeUnit unit) {
+        this.handler = checkNotNull(handler, "handler");
+        this.healthCheck = checkNotNull(healthCheck, "healthCheck");
+        idleTimeoutNanos = checkNotNull(unit, "unit").toNanos(checkPositiveOrZero(idleTimeout, "idleTimeout"));
+        // Clone the original Bootstrap as we want to set our own handler
+        this.bootstrap = checkNotNull(bootstrap, "bootstrap").clone();
+        this.bootstrap.handler(new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(Channel ch) throws Exception {
+                assert ch.eventLoop().inEventLoop();
+                handler.channelCreated(ch);
+            }
+        });
+        group = checkNotNull(this.bootstrap.config().group(), "bootstrap.config().group()");
+
+        List<LoopPool> pools = new ArrayList<LoopPool>();
+        for (EventExecutor executor : group) {
+            if (!(executor instanceof EventLoop)) {
+                throw new IllegalArgumentException("Not an EventLoop: " + executor);
+            }
+            LoopPool pool = new LoopPool((EventLoop) executor);
+            pools.add(pool);
+            poolsByLoop.put(executor, pool);
+        }
+        this.pools = pools.toArray(new LoopPool[0]);
+    }
+
+    /**
+     * Returns the {@link Bootstrap} this pool will use to open new connections.
+     *
+     * @return the {@link Bootstrap} this pool will use to open new connections
+     */
+    protected Bootstrap bootstrap() {
+        return bootstrap;
+    }
+
+    /**
+     * Returns the {@link ChannelPoolHandler} that will be notified for the different pool actions.
+     *
+     * @return the {@link ChannelPoolHandler} that will be notified for the different pool actions
+     */
+    protected ChannelPoolHandler handler() {
+        return handler;
+    }
+
+    /**
+     * Returns the {@link ChannelHealthChecker} that will be used to check if a {@link Channel} is healthy.
+     *
+     * @return the {@link ChannelHealthChecker} that will be used to check if a {@link Channel} is healthy
+     */
+    protected ChannelHealthChecker healthChecker() {
+        return healthCheck;
+    }
+
+    /**
+     * Returns the {@link EventLoopAffineChannelPoolMetric} of this pool.
+     */
+    public EventLoopAffineChannelPoolMetric metric() {
+        return metric;
+    }
+
+    @Override
+    public final Future<Channel> acquire() {
+        LoopPool pool = currentPool();
+        return acquire(pool, pool.loop.<Channel>newPromise());
+    }
+
+    @Override
+    public Future<Channel> acquire(final Promise<Channel> promise) {
+        checkNotNull(promise, "promise");
+        return acquire(currentPool(), promise);
+    }
+
+    private Future<Channel> acquire(final LoopPool pool, final Promise<Channel> promise) {
+        try {
+            final long startNanos = System.nanoTime();
+            if (pool.loop.inEventLoop()) {
+                pool.acquire(promise, startNanos, false);
+            } else {
+                pool.loop.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        pool.acquire(promise, startNanos, true);
+                    }
+                });
+            }
+        } catch (Throwable cause) {
+            promise.tryFailure(cause);
+        }
+        return promise;
+    }
+
+    /**
+     * Creates new {@link Channel}s up-front, so the pool of every {@link EventLoop} holds at least the given number
+     * of idle {@link Channel}s.
+     *
+     * @param channelsPerEventLoop  the number of idle {@link Channel}s every {@link EventLoop} should have
+     * @return the {@link Future} that is notified once all {@link Channel}s were created, or failed if any of them
+     *         could not be created
+     */
+    public Future<Void> warmUp(final int channelsPerEventLoop) {
+        checkPositiveOrZero(channelsPerEventLoop, "channelsPerEventLoop");
+        final Promise<Void> promise = GlobalEventExecutor.INSTANCE.newPromise();
+        final AtomicInteger remaining = new AtomicInteger(pools.length);
+        final FutureListener<Void> listener = new FutureListener<Void>() {
+            @Override
+            public void operationComplete(Future<Void> future) {
+                if (!future.isSuccess()) {
+                    promise.tryFailure(future.cause());
+                } else if (remaining.decrementAndGet() == 0) {
+                    promise.trySuccess(null);
+                }
+            }
+        };
+        for (final LoopPool pool : pools) {
+            final Promise<Void> poolPromise = pool.loop.newPromise();
+            poolPromise.addListener(listener);
+            pool.loop.execute(new Runnable() {
+                @Override
+                public void run() {
+                    pool.warmUp(channelsPerEventLoop, poolPromise);
+                }
+            });
+        }
+        return promise;
+    }
+
+    /**
+     * Bootstrap a new {@link Channel}. The default implementation uses {@link Bootstrap#connect()}, sub-classes may
+     * override this.
+     * <p>
+     * The {@link Bootstrap} that is passed in here is cloned via {@link Bootstrap#clone(EventLoopGroup)} with the
+     * {@link EventLoop} the {@link Channel} is created for, so it is safe to modify.
+     */
+    protected ChannelFuture connectChannel(Bootstrap bs) {
+        return bs.connect();
+    }
+
+    @Override
+    public final Future<Void> release(Channel channel) {
+        return release(channel, channel.eventLoop().<Void>newPromise());
+    }
+
+    @Override
+    public Future<Void> release(final Channel channel, final Promise<Void> promise) {
+        try {
+            checkNotNull(channel, "channel");
+            checkNotNull(promise, "promise");
+            EventLoop loop = channel.eventLoop();
+            if (loop.inEventLoop()) {
+                doReleaseChannel(channel, promise);
+            } else {
+                loop.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        doReleaseChannel(channel, promise);
+                    }
+                });
+            }
+        } catch (Throwable cause) {
+            closeAndFail(channel, cause, promise);
+        }
+        return promise;
+    }
+
+    private void doReleaseChannel(Channel channel, Promise<Void> promise) {
+        assert channel.eventLoop().inEventLoop();
+        // Remove the POOL_KEY attribute from the Channel and check if it was acquired from this pool, if not fail.
+        LoopPool pool = channel.attr(POOL_KEY).getAndSet(null);
+        if (pool == null || poolsByLoop.get(channel.eventLoop()) != pool) {
+            closeAndFail(channel,
+                         // Better include a stacktrace here as this is an user error.
+                         new IllegalArgumentException(
+                                 "Channel " + channel + " was not acquired from this ChannelPool"),
+                         promise);
+        } else {
+            pool.release(channel, promise);
+        }
+    }
+
+    private LoopPool currentPool() {
+        for (LoopPool pool : pools) {
+            if (pool.loop.inEventLoop()) {
+                return pool;
+            }
+        }
+        return poolsByLoop.get(group.next());
+    }
+
+    private static void closeAndFail(Channel channel, Throwable cause, Promise<?> promise) {
+        if (channel != null) {
+            channel.attr(POOL_KEY).set(null);
+            channel.close();
+        }
+        promise.tryFailure(cause);
+    }
+
+    /**
+     * Closes all idle {@link Channel}s, the {@link Channel}s that are still acquired are closed once they are
+     * released. This waits until the pools of all {@link EventLoop}s were closed, so must not be called from an
+     * {@link EventLoop}, use {@link #closeAsync()} there.
+     */
+    @Override
+    public void close() {
+        closeAsync().syncUninterruptibly();
+    }
+
+    /**
+     * Closes the pool in an async manner.
+     *
+     * @return Future which represents completion of the close task
+     */
+    public Future<Void> closeAsync() {
+        closed = true;
+        final Promise<Void> promise = GlobalEventExecutor.INSTANCE.newPromise();
+        final AtomicInteger remaining = new AtomicInteger(pools.length);
+        for (final LoopPool pool : pools) {
+            Runnable closeTask = new Runnable() {
+                @Override
+                public void run() {
+                    pool.close();
+                    if (remaining.decrementAndGet() == 0) {
+                        promise.trySuccess(null);
+                    }
+                }
+            };
+            if (pool.loop.inEventLoop()) {
+                closeTask.run();
+            } else {
+                try {
+                    pool.loop.execute(closeTask);
+                } catch (Throwable cause) {
+                    promise.tryFailure(cause);
+                }
+            }
+        }
+        return promise;
+    }
+
+    /**
+     * A {@link Channel} that is in the pool, and since when.
+     */
+    private static final class IdleChannel {
+        final Channel channel;
+        final long idleSinceNanos;
+
+        IdleChannel(Channel channel, long idleSinceNanos) {
+            this.channel = channel;
+            this.idleSinceNanos = idleSinceNanos;
+        }
+    }
+
+    /**
+     * The pool of a single {@link EventLoop}, which is only ever modified from that {@link EventLoop}. The counters
+     * are volatile so {@link EventLoopAffineChannelPoolMetric} may read them from any thread.
+     */
+    final class LoopPool implements Runnable {
+        final EventLoop loop;
+        // LIFO, so the channels that were idle for the longest time are at the head.
+        private final ArrayDeque<IdleChannel> idleChannels = new ArrayDeque<IdleChannel>();
+        private ScheduledFuture<?> evictionFuture;
+
+        volatile int idle;
+        volatile int acquired;
+        volatile long acquires;
+        volatile long waits;
+        volatile long acquireNanos;
+
+        LoopPool(EventLoop loop) {
+            this.loop = loop;
+        }
+
+        void acquire(final Promise<Channel> promise, final long startNanos, boolean waited) {
+            assert loop.inEventLoop();
+            if (closed) {
+                promise.tryFailure(new IllegalStateException("ChannelPool was closed"));
+                return;
+            }
+            IdleChannel idleChannel = idleChannels.pollLast();
+            if (idleChannel == null) {
+                connect(promise, startNanos);
+                return;
+            }
+            idle = idleChannels.size();
+            if (waited) {
+                waits++;
+            }
+            final Channel channel = idleChannel.channel;
+            try {
+                Future<Boolean> f = healthCheck.isHealthy(channel);
+                if (f.isDone()) {
+                    notifyHealthCheck(f, channel, promise, startNanos);
+                } else {
+                    f.addListener(new FutureListener<Boolean>() {
+                        @Override
+                        public void operationComplete(Future<Boolean> future) {
+                            notifyHealthCheck(future, channel, promise, startNanos);
+                        }
+                    });
+                }
+            } catch (Throwable cause) {
+                closeAndFail(channel, cause, promise);
+            }
+        }
+
+        private void notifyHealthCheck(Future<Boolean> future, Channel channel, Promise<Channel> promise,
+                                       long startNanos) {
+            if (future.isSuccess() && future.getNow()) {
+                acquired(channel, promise, startNanos);
+            } else {
+                channel.close();
+                acquire(promise, startNanos, false);
+            }
+        }
+
+        private void connect(final Promise<Channel> promise, final long startNanos) {
+            // Waiting for a new connection is always counted as a wait.
+            waits++;
+            try {
+                ChannelFuture f = connectChannel(bootstrap.clone(loop));
+                if (f.isDone()) {
+                    notifyConnect(f, promise, startNanos);
+                } else {
+                    f.addListener(new ChannelFutureListener() {
+                        @Override
+                        public void operationComplete(ChannelFuture future) {
+                            notifyConnect(future, promise, startNanos);
+                        }
+                    });
+                }
+            } catch (Throwable cause) {
+                promise.tryFailure(cause);
+            }
+        }
+
+        private void notifyConnect(ChannelFuture future, Promise<Channel> promise, long startNanos) {
+            if (future.isSuccess()) {
+                acquired(future.channel(), promise, startNanos);
+            } else {
+                promise.tryFailure(future.cause());
+            }
+        }
+
+        private void acquired(Channel channel, Promise<Channel> promise, long startNanos) {
+            assert channel.eventLoop() == loop;
+            try {
+                channel.attr(POOL_KEY).set(this);
+                handler.channelAcquired(channel);
+                acquired++;
+                acquires++;
+                acquireNanos += System.nanoTime() - startNanos;
+                if (!promise.trySuccess(channel)) {
+                    // Promise was completed in the meantime (like cancelled), just release the channel again
+                    EventLoopAffineChannelPool.this.release(channel);
+                }
+            } catch (Throwable cause) {
+                closeAndFail(channel, cause, promise);
+            }
+        }
+
+        void release(Channel channel, Promise<Void> promise) {
+            assert loop.inEventLoop();
+            acquired--;
+            try {
+                if (closed || !channel.isActive()) {
+                    channel.close();
+                } else {
+                    offer(channel);
+                }
+                handler.channelReleased(channel);
+                promise.setSuccess(null);
+            } catch (Throwable cause) {
+                closeAndFail(channel, cause, promise);
+            }
+        }
+
+        void warmUp(int channels, final Promise<Void> promise) {
+            assert loop.inEventLoop();
+            int missing = channels - idleChannels.size();
+            if (closed || missing <= 0) {
+                promise.trySuccess(null);
+                return;
+            }
+            final AtomicInteger remaining = new AtomicInteger(missing);
+            for (int i = 0; i < missing; i++) {
+                ChannelFuture f;
+                try {
+                    f = connectChannel(bootstrap.clone(loop));
+                } catch (Throwable cause) {
+                    promise.tryFailure(cause);
+                    return;
+                }
+                f.addListener(new ChannelFutureListener() {
+                    @Override
+                    public void operationComplete(ChannelFuture future) {
+                        if (!future.isSuccess()) {
+                            promise.tryFailure(future.cause());
+                            return;
+                        }
+                        if (closed) {
+                            future.channel().close();
+                        } else {
+                            offer(future.channel());
+                        }
+                        if (remaining.decrementAndGet() == 0) {
+                            promise.trySuccess(null);
+                        }
+                    }
+                });
+            }
+        }
+
+        private void offer(Channel channel) {
+            assert channel.eventLoop() == loop;
+            idleChannels.addLast(new IdleChannel(channel, System.nanoTime()));
+            idle = idleChannels.size();
+            if (idleTimeoutNanos > 0 && evictionFuture == null) {
+                evictionFuture = loop.schedule(this, idleTimeoutNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * Closes the {@link Channel}s that were idle for longer than the idle timeout.
+         */
+        @Override
+        public void run() {
+            evictionFuture = null;
+            long nanoTime = System.nanoTime();
+            IdleChannel idleChannel;
+            while ((idleChannel = idleChannels.peekFirst()) != null) {
+                long idleNanos = nanoTime - idleChannel.idleSinceNanos;
+                if (idleNanos < idleTimeoutNanos) {
+                    // Check again once the next channel times out.
+                    evictionFuture = loop.schedule(this, idleTimeoutNanos - idleNanos, TimeUnit.NANOSECONDS);
+                    break;
+                }
+                idleChannels.pollFirst();
+                idle = idleChannels.size();
+                idleChannel.channel.close();
+            }
+        }
+
+        void close() {
+            assert loop.inEventLoop();
+            if (evictionFuture != null) {
+                evictionFuture.cancel(false);
+                evictionFuture = null;
+            }
+            IdleChannel idleChannel;
+            while ((idleChannel = idleChannels.pollFirst()) != null) {
+                idle = idleChannels.size();
+                idleChannel.channel.close();
+            }
+        }
+    }
+
+    LoopPool[] pools() {
+        return pools;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.pool;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.channel.pool.EventLoopAffineChannelPool.LoopPool;
+import io.netty.util.internal.StringUtil;
+
+/**
+ * Exposed metric for {@link EventLoopAffineChannelPool}, summed up over the pools of all {@link EventLoop}s.
+ */
+public final class EventLoopAffineChannelPoolMetric {
+    private final EventLoopAffineChannelPool pool;
+
+    EventLoopAffineChannelPoolMetric(EventLoopAffineChannelPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Return the number of {@link Channel}s that are in the pool and may be acquired.
+     */
+    public int idleChannels() {
+        int idle = 0;
+        for (LoopPool loopPool : pool.pools()) {
+            idle += loopPool.idle;
+        }
+        return idle;
+    }
+
+    /**
+     * Return the number of {@link Channel}s that are acquired and were not released yet.
+     */
+    public int acquiredChannels() {
+        int acquired = 0;
+        for (LoopPool loopPool : pool.pools()) {
+            acquired += loopPool.acquired;
+        }
+        return acquired;
+    }
+
+    /**
+     * Return the number of {@link Channel}s that were acquired so far.
+     */
+    public long acquires() {
+        long acquires = 0;
+        for (LoopPool loopPool : pool.pools()) {
+            acquires += loopPool.acquires;
+        }
+        return acquires;
+    }
+
+    /**
+     * Return the number of times a {@link Channel} could not be acquired right away, either because a new
+     * {@link Channel} had to be connected or because the caller was not on an {@link EventLoop} of the pool.
+     */
+    public long waits() {
+        long waits = 0;
+        for (LoopPool loopPool : pool.pools()) {
+            waits += loopPool.waits;
+        }
+        return waits;
+    }
+
+    /**
+     * Return the total time in nanoseconds that it took to acquire {@link #acquires()} {@link Channel}s.
+     */
+    public long acquireTimeNanos() {
+        long acquireNanos = 0;
+        for (LoopPool loopPool : pool.pools()) {
+            acquireNanos += loopPool.acquireNanos;
+        }
+        return acquireNanos;
+    }
+
+    @Override
+    public String toString() {
+        return StringUtil.simpleClassName(this) +
+                "(idleChannels: " + idleChannels() +
+                "; acquiredChannels: " + acquiredChannels() +
+                "; acquires: " + acquires() +
+                "; waits: " + waits() +
+                "; acquireTimeNanos: " + acquireTimeNanos() +
+                ')';
+    }
+}
@@ -21,11 +21,13 @@ import io.netty.channel.ChannelConfig;
 import io.netty.channel.ChannelFactory;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelInboundHandler;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPromise;
 import io.netty.channel.DefaultChannelConfig;
 import io.netty.channel.DefaultEventLoop;
@@ -49,10 +51,14 @@ import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.function.Executable;
 
 import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.nio.channels.ClosedChannelException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -71,6 +77,7 @@ import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -469,6 +476,135 @@ public class BootstrapTest {
         assertSame(ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK, options.take());
     }
 
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testHappyEyeballsConnectsToNextAddressAfterDelay() throws Exception {
+        LocalAddress blackHole = new LocalAddress(UUID.randomUUID().toString());
+        Channel sc = bindLocalServer();
+        BlockingQueue<Channel> attempts = new LinkedBlockingQueue<Channel>();
+        Bootstrap bootstrap = happyEyeballsBootstrap(attempts, blackHole, blackHole, sc.localAddress());
+        try {
+            long start = System.nanoTime();
+            Channel channel = bootstrap.connectHappyEyeballs(
+                    new LocalAddress("name"), 100, TimeUnit.MILLISECONDS).sync().getNow();
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+            assertEquals(sc.localAddress(), channel.remoteAddress());
+
+            Channel first = attempts.take();
+            assertNotSame(channel, first);
+            first.closeFuture().sync();
+            assertSame(channel, attempts.take());
+            assertTrue(channel.isActive());
+            channel.close().sync();
+        } finally {
+            sc.close().sync();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testHappyEyeballsFirstAddressConnects() throws Exception {
+        LocalAddress blackHole = new LocalAddress(UUID.randomUUID().toString());
+        Channel sc = bindLocalServer();
+        BlockingQueue<Channel> attempts = new LinkedBlockingQueue<Channel>();
+        Bootstrap bootstrap = happyEyeballsBootstrap(attempts, blackHole, sc.localAddress(), blackHole);
+        try {
+            Channel channel = bootstrap.connectHappyEyeballs(
+                    new LocalAddress("name"), 100, TimeUnit.MILLISECONDS).sync().getNow();
+            assertEquals(sc.localAddress(), channel.remoteAddress());
+            Thread.sleep(200);
+            // The attempt to the second address was never started.
+            assertSame(channel, attempts.poll());
+            assertNull(attempts.poll());
+            channel.close().sync();
+        } finally {
+            sc.close().sync();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testHappyEyeballsConnectsToNextAddressOnFailure() throws Exception {
+        LocalAddress unbound = new LocalAddress(UUID.randomUUID().toString());
+        Channel sc = bindLocalServer();
+        BlockingQueue<Channel> attempts = new LinkedBlockingQueue<Channel>();
+        Bootstrap bootstrap = happyEyeballsBootstrap(attempts, null, unbound, sc.localAddress());
+        try {
+            // Does not wait for the connection attempt delay as the first attempt fails right away.
+            Channel channel = bootstrap.connectHappyEyeballs(
+                    new LocalAddress("name"), 1, TimeUnit.HOURS).sync().getNow();
+            assertEquals(sc.localAddress(), channel.remoteAddress());
+            assertFalse(attempts.take().isOpen());
+            channel.close().sync();
+        } finally {
+            sc.close().sync();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testHappyEyeballsAllAddressesFail() throws Exception {
+        BlockingQueue<Channel> attempts = new LinkedBlockingQueue<Channel>();
+        Bootstrap bootstrap = happyEyeballsBootstrap(attempts, null,
+                new LocalAddress(UUID.randomUUID().toString()), new LocalAddress(UUID.randomUUID().toString()));
+        Future<Channel> future = bootstrap.connectHappyEyeballs(new LocalAddress("name")).await();
+        assertThat(future.cause(), instanceOf(ConnectException.class));
+        assertEquals(1, future.cause().getSuppressed().length);
+        assertFalse(attempts.take().isOpen());
+        assertFalse(attempts.take().isOpen());
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testHappyEyeballsCancelClosesAttempts() throws Exception {
+        LocalAddress blackHole = new LocalAddress(UUID.randomUUID().toString());
+        BlockingQueue<Channel> attempts = new LinkedBlockingQueue<Channel>();
+        Bootstrap bootstrap = happyEyeballsBootstrap(attempts, blackHole, blackHole, blackHole);
+        Future<Channel> future = bootstrap.connectHappyEyeballs(new LocalAddress("name"), 10, TimeUnit.MILLISECONDS);
+        Channel first = attempts.take();
+        Channel second = attempts.take();
+        assertTrue(future.cancel(false));
+        first.closeFuture().sync();
+        second.closeFuture().sync();
+    }
+
+    @Test
+    public void testHappyEyeballsInterleavesAddressFamilies() throws Exception {
+        SocketAddress v6a = new InetSocketAddress(InetAddress.getByName("::1"), 80);
+        SocketAddress v6b = new InetSocketAddress(InetAddress.getByName("::2"), 80);
+        SocketAddress v6c = new InetSocketAddress(InetAddress.getByName("::3"), 80);
+        SocketAddress v4a = new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 80);
+        SocketAddress v4b = new InetSocketAddress(InetAddress.getByName("127.0.0.2"), 80);
+        assertEquals(Arrays.asList(v6a, v4a, v6b, v4b, v6c),
+                HappyEyeballsConnector.interleave(Arrays.asList(v6a, v6b, v6c, v4a, v4b)));
+        assertEquals(Arrays.asList(v4a, v6a, v4b, v6b),
+                HappyEyeballsConnector.interleave(Arrays.asList(v4a, v4b, v6a, v6b)));
+        assertEquals(Arrays.asList(v4a, v4b), HappyEyeballsConnector.interleave(Arrays.asList(v4a, v4b)));
+    }
+
+    private static Channel bindLocalServer() throws Exception {
+        return new ServerBootstrap()
+                .group(groupB)
+                .channel(LocalServerChannel.class)
+                .childHandler(dummyHandler)
+                .bind(new LocalAddress(UUID.randomUUID().toString())).sync().channel();
+    }
+
+    private static Bootstrap happyEyeballsBootstrap(final BlockingQueue<Channel> attempts,
+                                                    final SocketAddress blackHole, SocketAddress... addresses) {
+        return new Bootstrap()
+                .group(groupA)
+                .channel(LocalChannel.class)
+                .resolver(new StaticAddressResolverGroup(Arrays.asList(addresses)))
+                .handler(new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(Channel ch) {
+                        ch.pipeline().addLast(new BlackHoleHandler(blackHole));
+                        attempts.add(ch);
+                    }
+                });
+    }
+
     private static final class DelayedEventLoopGroup extends DefaultEventLoop {
         @Override
         public ChannelFuture register(final Channel channel, final ChannelPromise promise) {
@@ -562,4 +698,70 @@ public class BootstrapTest {
             };
         }
     }
+
+    /**
+     * Never completes the connect to the given address, like a network that drops all packets.
+     */
+    private static final class BlackHoleHandler extends ChannelOutboundHandlerAdapter {
+        private final SocketAddress blackHole;
+        private ChannelPromise connectPromise;
+
+        BlackHoleHandler(SocketAddress blackHole) {
+            this.blackHole = blackHole;
+        }
+
+        @Override
+        public void connect(ChannelHandlerContext ctx, SocketAddress remoteAddress, SocketAddress localAddress,
+                            ChannelPromise promise) {
+            if (remoteAddress.equals(blackHole)) {
+                connectPromise = promise;
+            } else {
+                ctx.connect(remoteAddress, localAddress, promise);
+            }
+        }
+
+        @Override
+        public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+            if (connectPromise != null) {
+                connectPromise.tryFailure(new ClosedChannelException());
+            }
+            ctx.close(promise);
+        }
+    }
+
+    private static final class StaticAddressResolverGroup extends AddressResolverGroup<SocketAddress> {
+
+        private final List<SocketAddress> addresses;
+
+        StaticAddressResolverGroup(List<SocketAddress> addresses) {
+            this.addresses = addresses;
+        }
+
+        @Override
+        protected AddressResolver<SocketAddress> newResolver(EventExecutor executor) {
+            return new AbstractAddressResolver<SocketAddress>(executor) {
+
+                @Override
+                protected boolean doIsResolved(SocketAddress address) {
+                    return addresses.contains(address);
+                }
+
+                @Override
+                protected void doResolve(SocketAddress unresolvedAddress, Promise<SocketAddress> promise) {
+                    promise.setSuccess(addresses.get(0));
+                }
+
+                @Override
+                protected void doResolveAll(
+                        SocketAddress unresolvedAddress, final Promise<List<SocketAddress>> promise) {
+                    executor().execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            promise.setSuccess(addresses);
+                        }
+                    });
+                }
+            };
+        }
+    }
 }
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ArrayBackedChannelOutboundBufferTest {
+
+    @Test
+    public void testRemoveBytesAcrossWrapAround() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ChannelOutboundBuffer buffer = new ChannelOutboundBuffer(channel, true);
+        List<ByteBuf> bufs = new ArrayList<ByteBuf>();
+        List<ChannelPromise> promises = new ArrayList<ChannelPromise>();
+        // Move the start of the ring first, so the entries added below wrap around and the ring grows.
+        for (int i = 0; i < 10; i++) {
+            add(buffer, channel, bufs, promises, i);
+        }
+        buffer.addFlush();
+        buffer.removeBytes(10 * 8);
+        assertTrue(buffer.isEmpty());
+        for (int i = 10; i < 100; i++) {
+            add(buffer, channel, bufs, promises, i);
+        }
+        buffer.addFlush();
+        assertEquals(90, buffer.size());
+
+        ByteBuffer[] nioBuffers = buffer.nioBuffers();
+        assertEquals(90, buffer.nioBufferCount());
+        assertEquals(90 * 8, buffer.nioBufferSize());
+        for (int i = 0; i < 90; i++) {
+            assertEquals(10 + i, nioBuffers[i].getLong(nioBuffers[i].position()));
+        }
+
+        // Write the first 20 buffers and half of the next one.
+        buffer.removeBytes(20 * 8 + 4);
+        assertEquals(70, buffer.size());
+        for (int i = 0; i < 100; i++) {
+            boolean written = i < 30;
+            assertEquals(written, promises.get(i).isSuccess());
+            assertEquals(written ? 0 : 1, bufs.get(i).refCnt());
+        }
+        assertSame(bufs.get(30), buffer.current());
+        assertEquals(4, buffer.currentProgress());
+        assertEquals(4, bufs.get(30).readerIndex());
+
+        buffer.removeBytes(70 * 8 - 4);
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.current());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(promises.get(i).isSuccess());
+            assertEquals(0, bufs.get(i).refCnt());
+        }
+        assertEquals(0, buffer.totalPendingWriteBytes());
+        assertFalse(buffer.remove());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testPromiseListenerWritesWhileRemovingBytes() {
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        final ChannelOutboundBuffer buffer = new ChannelOutboundBuffer(channel, true);
+        final ByteBuf late = Unpooled.directBuffer(8).writeLong(42);
+        ChannelPromise first = channel.newPromise();
+        first.addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) {
+                // The ring grows while the removed entries are notified.
+                for (int i = 0; i < 32; i++) {
+                    buffer.addMessage(Unpooled.EMPTY_BUFFER, 0, channel.newPromise());
+                }
+                buffer.addMessage(late, 8, channel.newPromise());
+            }
+        });
+        ChannelPromise second = channel.newPromise();
+        buffer.addMessage(Unpooled.directBuffer(8).writeLong(1), 8, first);
+        buffer.addMessage(Unpooled.directBuffer(8).writeLong(2), 8, second);
+        buffer.addFlush();
+        buffer.removeBytes(16);
+        assertTrue(first.isSuccess());
+        assertTrue(second.isSuccess());
+        assertTrue(buffer.isEmpty());
+
+        buffer.addFlush();
+        assertEquals(33, buffer.size());
+        buffer.removeBytes(8);
+        assertTrue(buffer.isEmpty());
+        assertEquals(0, late.refCnt());
+        assertEquals(0, buffer.totalPendingWriteBytes());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testCancelledAndNonByteBufMessages() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ChannelOutboundBuffer buffer = new ChannelOutboundBuffer(channel, true);
+        ByteBuf cancelledBuf = Unpooled.directBuffer(8).writeLong(1);
+        ChannelPromise cancelled = channel.newPromise();
+        buffer.addMessage(cancelledBuf, 8, cancelled);
+        CompositeByteBuf composite = Unpooled.compositeBuffer();
+        composite.addComponent(true, Unpooled.directBuffer(8).writeLong(2));
+        composite.addComponent(true, Unpooled.directBuffer(8).writeLong(3));
+        buffer.addMessage(composite, 16, channel.newPromise());
+        Object notAByteBuf = new Object();
+        buffer.addMessage(notAByteBuf, 0, channel.newPromise());
+        assertTrue(cancelled.cancel(false));
+        buffer.addFlush();
+        assertEquals(0, cancelledBuf.refCnt());
+
+        final List<Object> messages = new ArrayList<Object>();
+        buffer.forEachFlushedMessage(new ChannelOutboundBuffer.MessageProcessor() {
+            @Override
+            public boolean processMessage(Object msg) {
+                messages.add(msg);
+                return true;
+            }
+        });
+        assertEquals(2, messages.size());
+        assertSame(composite, messages.get(0));
+        assertSame(notAByteBuf, messages.get(1));
+
+        // The gathering write stops at the first message that is not a ByteBuf.
+        buffer.nioBuffers();
+        assertEquals(2, buffer.nioBufferCount());
+        assertEquals(16, buffer.nioBufferSize());
+        buffer.removeBytes(16);
+        assertSame(notAByteBuf, buffer.current());
+        assertTrue(buffer.remove());
+        assertTrue(buffer.isEmpty());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testFailFlushedAndCloseUnflushed() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ChannelOutboundBuffer buffer = new ChannelOutboundBuffer(channel, true);
+        ByteBuf flushedBuf = Unpooled.directBuffer(8).writeLong(1);
+        ChannelPromise flushed = channel.newPromise();
+        buffer.addMessage(flushedBuf, 8, flushed);
+        buffer.addFlush();
+        ByteBuf unflushedBuf = Unpooled.directBuffer(8).writeLong(2);
+        ChannelPromise unflushed = channel.newPromise();
+        buffer.addMessage(unflushedBuf, 8, unflushed);
+
+        buffer.failFlushed(new ClosedChannelException(), false);
+        assertTrue(flushed.cause() instanceof ClosedChannelException);
+        assertEquals(0, flushedBuf.refCnt());
+        assertTrue(buffer.isEmpty());
+
+        buffer.close(new ClosedChannelException(), true);
+        assertTrue(unflushed.cause() instanceof ClosedChannelException);
+        assertEquals(0, unflushedBuf.refCnt());
+        assertEquals(0, buffer.totalPendingWriteBytes());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testRingShrinksAfterBurst() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        OutboundEntryRing ring = new OutboundEntryRing();
+        int initialCapacity = ring.msgs.length;
+        for (int i = 0; i < 1000; i++) {
+            ring.add(i, 1, 1, channel.newPromise());
+        }
+        assertEquals(1024, ring.msgs.length);
+        ring.unflushed = ring.tail;
+
+        int expected = 0;
+        while (ring.hasFlushed()) {
+            // The entries keep their order while the arrays shrink underneath them.
+            assertEquals(expected++, ring.msgs[ring.flushed & ring.mask]);
+            ring.removeFlushed();
+            assertTrue(ring.msgs.length == initialCapacity || ring.tail - ring.flushed >= ring.msgs.length >>> 2);
+        }
+        assertEquals(1000, expected);
+        assertEquals(initialCapacity, ring.msgs.length);
+        channel.finishAndReleaseAll();
+    }
+
+    private static void add(ChannelOutboundBuffer buffer, Channel channel, List<ByteBuf> bufs,
+                            List<ChannelPromise> promises, long value) {
+        ByteBuf buf = Unpooled.directBuffer(8).writeLong(value);
+        ChannelPromise promise = channel.newPromise();
+        bufs.add(buf);
+        promises.add(promise);
+        buffer.addMessage(buf, 8, promise);
+    }
+}
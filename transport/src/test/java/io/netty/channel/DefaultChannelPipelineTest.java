@@ -51,6 +51,7 @@ import org.junit.jupiter.api.function.Executable;
 import java.net.SocketAddress;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -1787,6 +1788,54 @@ public class DefaultChannelPipelineTest {
         skipHandler.assertSkipped();
     }
 
+    @Test
+    public void testNextContextUpdatedAfterModification() {
+        final List<String> events = new ArrayList<String>();
+        final class RecordingHandler extends ChannelDuplexHandler {
+            private final String name;
+
+            RecordingHandler(String name) {
+                this.name = name;
+            }
+
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                events.add(name + " read");
+                ctx.fireChannelRead(msg);
+            }
+
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+                events.add(name + " write");
+                ctx.write(msg, promise);
+            }
+        }
+        EmbeddedChannel channel = new EmbeddedChannel(new RecordingHandler("first"), new ChannelHandlerAdapter() { },
+                new RecordingHandler("last"));
+        ChannelPipeline pipeline = channel.pipeline();
+
+        assertTrue(channel.writeInbound("msg"));
+        assertTrue(channel.writeOutbound("msg"));
+        assertEquals(Arrays.asList("first read", "last read", "last write", "first write"), events);
+
+        // The handler between the two was skipped so far, now the pipeline needs to call the new one.
+        events.clear();
+        pipeline.addAfter(pipeline.context(pipeline.first()).name(), "middle", new RecordingHandler("middle"));
+        assertTrue(channel.writeInbound("msg"));
+        assertTrue(channel.writeOutbound("msg"));
+        assertEquals(Arrays.asList("first read", "middle read", "last read",
+                "last write", "middle write", "first write"), events);
+
+        events.clear();
+        pipeline.remove("middle");
+        pipeline.removeLast();
+        assertTrue(channel.writeInbound("msg"));
+        assertTrue(channel.writeOutbound("msg"));
+        assertEquals(Arrays.asList("first read", "first write"), events);
+
+        assertTrue(channel.finishAndReleaseAll());
+    }
+
     @Test
     public void testWriteThrowsReleaseMessage() {
         testWriteThrowsReleaseMessage0(false);
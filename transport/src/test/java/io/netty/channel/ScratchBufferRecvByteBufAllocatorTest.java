@@ -0,0 +1,123 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.ScratchBufferRecvByteBufAllocator.ScratchHandle;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.NetUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScratchBufferRecvByteBufAllocatorTest {
+    private final ByteBufAllocator alloc = UnpooledByteBufAllocator.DEFAULT;
+
+    @Test
+    public void testCopyReceivedBytes() {
+        ChannelConfig config = mock(ChannelConfig.class);
+        when(config.isAutoRead()).thenReturn(true);
+        ScratchHandle handle = (ScratchHandle) new ScratchBufferRecvByteBufAllocator(1024).newHandle();
+        handle.reset(config);
+        assertEquals(1024, handle.guess());
+
+        ByteBuf scratch = handle.allocateScratch(alloc);
+        assertTrue(scratch.isDirect());
+        assertEquals(1024, scratch.writableBytes());
+        scratch.writeBytes(new byte[] { 1, 2, 3 });
+        ByteBuf received = handle.received(alloc, scratch);
+        assertNotSame(scratch, received);
+        assertEquals(Unpooled.wrappedBuffer(new byte[] { 1, 2, 3 }), received);
+        assertEquals(3, received.capacity());
+        received.release();
+
+        // Every allocator has its own buffer per thread, which is used by all of its handles.
+        ByteBuf next = ((ScratchHandle) new ScratchBufferRecvByteBufAllocator(1024).newHandle()).allocateScratch(alloc);
+        assertNotSame(scratch, next);
+        next.release();
+        ByteBuf again = handle.allocateScratch(alloc);
+        assertSame(scratch, again);
+        assertEquals(0, again.readableBytes());
+        assertEquals(2, again.refCnt());
+        again.release();
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testNioSocketChannel() throws Throwable {
+        final LinkedBlockingQueue<ByteBuf> received = new LinkedBlockingQueue<ByteBuf>();
+        EventLoopGroup group = new NioEventLoopGroup(1);
+        Channel serverChannel = null;
+        Channel clientChannel = null;
+        try {
+            serverChannel = new ServerBootstrap().group(group).channel(NioServerSocketChannel.class)
+                    .childOption(ChannelOption.RCVBUF_ALLOCATOR, new ScratchBufferRecvByteBufAllocator(256))
+                    .childHandler(new SimpleChannelInboundHandler<ByteBuf>(false) {
+                        @Override
+                        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+                            received.add(msg);
+                        }
+                    }).bind(NetUtil.LOCALHOST, 0).sync().channel();
+            clientChannel = new Bootstrap().group(group).channel(NioSocketChannel.class)
+                    .handler(new ChannelInboundHandlerAdapter())
+                    .connect(serverChannel.localAddress()).sync().channel();
+
+            byte[] bytes = new byte[4096];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) i;
+            }
+            clientChannel.writeAndFlush(Unpooled.wrappedBuffer(bytes)).sync();
+
+            ByteBuf all = Unpooled.buffer();
+            while (all.readableBytes() < bytes.length) {
+                ByteBuf buf = received.poll(5, TimeUnit.SECONDS);
+                assertNotNull(buf);
+                // Every buffer only holds what was received, and no more than the shared buffer.
+                assertTrue(buf.capacity() <= 256);
+                assertEquals(buf.capacity(), buf.readableBytes());
+                all.writeBytes(buf);
+                buf.release();
+            }
+            assertEquals(Unpooled.wrappedBuffer(bytes), all);
+            all.release();
+        } finally {
+            if (clientChannel != null) {
+                clientChannel.close().sync();
+            }
+            if (serverChannel != null) {
+                serverChannel.close().sync();
+            }
+            group.shutdownGracefully();
+        }
+    }
+}
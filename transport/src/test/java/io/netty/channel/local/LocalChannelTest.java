@@ -51,8 +51,10 @@ import org.junit.jupiter.api.function.Executable;
 
 import java.net.ConnectException;
 import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -877,6 +879,63 @@ public class LocalChannelTest {
         });
     }
 
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    public void testReadBatchSameEventLoop() throws Exception {
+        testReadBatch(sharedGroup, sharedGroup);
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    public void testReadBatchDifferentEventLoop() throws Exception {
+        testReadBatch(group1, group2);
+    }
+
+    private static void testReadBatch(EventLoopGroup clientGroup, EventLoopGroup serverGroup) throws Exception {
+        final BlockingQueue<Integer> batches = new LinkedBlockingQueue<Integer>();
+        Bootstrap cb = new Bootstrap();
+        ServerBootstrap sb = new ServerBootstrap();
+
+        cb.group(clientGroup)
+                .channel(LocalChannel.class)
+                .handler(new TestHandler());
+
+        sb.group(serverGroup)
+                .channel(LocalServerChannel.class)
+                .childHandler(new ChannelInboundHandlerAdapter() {
+                    private int reads;
+
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        reads++;
+                    }
+
+                    @Override
+                    public void channelReadComplete(ChannelHandlerContext ctx) {
+                        batches.add(reads);
+                        reads = 0;
+                    }
+                });
+
+        Channel sc = null;
+        Channel cc = null;
+        try {
+            sc = sb.bind(TEST_ADDRESS).sync().channel();
+            cc = cb.connect(TEST_ADDRESS).sync().channel();
+            for (int i = 0; i < 20; i++) {
+                cc.write(i);
+            }
+            cc.flush();
+
+            // Everything that was written is read at once, up to the maximum number of messages per read.
+            assertEquals(16, (int) batches.take());
+            assertEquals(4, (int) batches.take());
+        } finally {
+            closeChannel(cc);
+            closeChannel(sc);
+        }
+    }
+
     private static final class LatchChannelFutureListener extends CountDownLatch implements ChannelFutureListener {
         private LatchChannelFutureListener(int count) {
             super(count);
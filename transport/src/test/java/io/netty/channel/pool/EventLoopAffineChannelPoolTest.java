@@ -0,0 +1,232 @@
+/*
+ * Copyright 2023 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.pool;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static io.netty.channel.pool.ChannelPoolTestUtils.getLocalAddrId;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EventLoopAffineChannelPoolTest {
+    private EventLoopGroup group;
+    private EventLoop loop1;
+    private EventLoop loop2;
+    private Bootstrap cb;
+    private Channel sc;
+    private CountingChannelPoolHandler handler;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        group = new DefaultEventLoopGroup(2);
+        Iterator<?> loops = group.iterator();
+        loop1 = (EventLoop) loops.next();
+        loop2 = (EventLoop) loops.next();
+        LocalAddress addr = new LocalAddress(getLocalAddrId());
+        cb = new Bootstrap().remoteAddress(addr).group(group).channel(LocalChannel.class);
+        sc = new ServerBootstrap().group(group)
+                .channel(LocalServerChannel.class)
+                .childHandler(new ChannelInitializer<LocalChannel>() {
+                    @Override
+                    public void initChannel(LocalChannel ch) throws Exception {
+                        ch.pipeline().addLast(new ChannelInboundHandlerAdapter());
+                    }
+                })
+                .bind(addr).sync().channel();
+        handler = new CountingChannelPoolHandler();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        sc.close().sync();
+        group.shutdownGracefully();
+    }
+
+    @Test
+    public void testAcquireFromOwnEventLoop() throws Exception {
+        final EventLoopAffineChannelPool pool = new EventLoopAffineChannelPool(cb, handler);
+        try {
+            Channel channel = acquire(pool, loop1);
+            assertSame(loop1, channel.eventLoop());
+            pool.release(channel).sync();
+
+            // LIFO reuse of the channels of the same event loop.
+            Channel channel2 = acquire(pool, loop1);
+            Channel channel3 = acquire(pool, loop1);
+            assertSame(channel, channel2);
+            assertNotSame(channel, channel3);
+            pool.release(channel3).sync();
+            pool.release(channel2).sync();
+            assertSame(channel2, acquire(pool, loop1));
+
+            Channel channel4 = acquire(pool, loop2);
+            assertSame(loop2, channel4.eventLoop());
+            assertEquals(3, handler.channelCount());
+
+            EventLoopAffineChannelPoolMetric metric = pool.metric();
+            assertEquals(1, metric.idleChannels());
+            assertEquals(2, metric.acquiredChannels());
+            assertEquals(5, metric.acquires());
+            // Three channels had to be connected, the other acquires were served from the pool right away.
+            assertEquals(3, metric.waits());
+            assertTrue(metric.acquireTimeNanos() > 0);
+
+            pool.release(channel2).sync();
+            pool.release(channel4).sync();
+            assertEquals(0, metric.acquiredChannels());
+            assertEquals(3, metric.idleChannels());
+        } finally {
+            pool.close();
+        }
+        assertEquals(0, pool.metric().idleChannels());
+        assertEquals(5, handler.acquiredCount());
+        assertEquals(5, handler.releasedCount());
+    }
+
+    @Test
+    public void testAcquireOutsideEventLoop() throws Exception {
+        final EventLoopAffineChannelPool pool = new EventLoopAffineChannelPool(cb, handler);
+        try {
+            for (int i = 0; i < 4; i++) {
+                Future<Channel> future = pool.acquire();
+                final BlockingQueue<Boolean> notifiedOnChannelLoop = new LinkedBlockingQueue<Boolean>();
+                future.addListener(new FutureListener<Channel>() {
+                    @Override
+                    public void operationComplete(Future<Channel> future) {
+                        // The promise must belong to the event loop of the pool the channel was acquired from.
+                        notifiedOnChannelLoop.add(future.getNow().eventLoop().inEventLoop());
+                    }
+                });
+                Channel channel = future.sync().getNow();
+                assertTrue(notifiedOnChannelLoop.take());
+                pool.release(channel).sync();
+            }
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void testReleaseNotAcquired() throws Exception {
+        EventLoopAffineChannelPool pool = new EventLoopAffineChannelPool(cb, handler);
+        final EventLoopAffineChannelPool pool2 = new EventLoopAffineChannelPool(cb, handler);
+        try {
+            final Channel channel = pool.acquire().sync().getNow();
+            assertThrows(IllegalArgumentException.class, new Executable() {
+                @Override
+                public void execute() throws Throwable {
+                    pool2.release(channel).syncUninterruptibly();
+                }
+            });
+            assertFalse(channel.isOpen());
+        } finally {
+            pool.close();
+            pool2.close();
+        }
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    public void testIdleEviction() throws Exception {
+        EventLoopAffineChannelPool pool = new EventLoopAffineChannelPool(
+                cb, handler, ChannelHealthChecker.ACTIVE, 100, TimeUnit.MILLISECONDS);
+        try {
+            Channel channel = acquire(pool, loop1);
+            Channel channel2 = acquire(pool, loop1);
+            pool.release(channel).sync();
+            assertEquals(1, pool.metric().idleChannels());
+
+            channel.closeFuture().sync();
+            assertEquals(0, pool.metric().idleChannels());
+            assertTrue(channel2.isActive());
+            pool.release(channel2).sync();
+            channel2.closeFuture().sync();
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    public void testWarmUp() throws Exception {
+        EventLoopAffineChannelPool pool = new EventLoopAffineChannelPool(cb, handler);
+        try {
+            pool.warmUp(2).sync();
+            assertEquals(4, handler.channelCount());
+            assertEquals(4, pool.metric().idleChannels());
+
+            Channel channel = acquire(pool, loop2);
+            assertSame(loop2, channel.eventLoop());
+            assertEquals(4, handler.channelCount());
+            assertEquals(0, pool.metric().waits());
+            pool.release(channel).sync();
+
+            pool.warmUp(2).sync();
+            assertEquals(4, handler.channelCount());
+        } finally {
+            pool.close();
+        }
+        assertEquals(0, pool.metric().idleChannels());
+    }
+
+    @Test
+    public void testAcquireAfterClose() throws Exception {
+        EventLoopAffineChannelPool pool = new EventLoopAffineChannelPool(cb, handler);
+        Channel channel = pool.acquire().sync().getNow();
+        pool.close();
+        assertTrue(channel.isActive());
+        assertFalse(pool.acquire().await().isSuccess());
+
+        pool.release(channel).sync();
+        assertFalse(channel.isOpen());
+    }
+
+    private static Channel acquire(final ChannelPool pool, EventLoop loop) throws Exception {
+        return loop.submit(new Callable<Future<Channel>>() {
+            @Override
+            public Future<Channel> call() {
+                return pool.acquire();
+            }
+        }).get().sync().getNow();
+    }
+}
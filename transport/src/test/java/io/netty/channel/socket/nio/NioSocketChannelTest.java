@@ -26,6 +26,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelOutboundBuffer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
@@ -288,6 +289,121 @@ public class NioSocketChannelTest extends AbstractNioChannelTest<NioSocketChanne
         }
     }
 
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testDeferFlushesWhileReading() throws Exception {
+        // Four flushes while processing what was read, which are done at once when reading completes.
+        assertThat(testDeferFlushesWhileReading(0), is(4));
+        assertThat(testDeferFlushesWhileReading(16), is(1));
+        assertThat(testDeferFlushesWhileReading(2), is(2));
+    }
+
+    private static int testDeferFlushesWhileReading(int maxDeferredFlushes) throws Exception {
+        NioEventLoopGroup group = new NioEventLoopGroup(1);
+        ServerSocket socket = new ServerSocket();
+        socket.bind(new InetSocketAddress(NetUtil.LOCALHOST, 0));
+        Socket accepted = null;
+        try {
+            Bootstrap cb = new Bootstrap();
+            cb.group(group).channel(WriteCountingNioSocketChannel.class);
+            cb.option(ChannelOption.MAX_DEFERRED_FLUSHES_PER_READ, maxDeferredFlushes);
+            cb.handler(new ChannelInboundHandlerAdapter() {
+                @Override
+                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                    ((ByteBuf) msg).release();
+                    for (int i = 0; i < 4; i++) {
+                        ctx.writeAndFlush(Unpooled.wrappedBuffer(new byte[] { (byte) i }));
+                    }
+                }
+            });
+            WriteCountingNioSocketChannel channel = (WriteCountingNioSocketChannel) cb.connect(
+                    socket.getLocalSocketAddress()).sync().channel();
+            assertThat(channel.config().getOption(ChannelOption.MAX_DEFERRED_FLUSHES_PER_READ),
+                    is(maxDeferredFlushes));
+
+            accepted = socket.accept();
+            accepted.getOutputStream().write(1);
+            DataInput in = new DataInputStream(accepted.getInputStream());
+            byte[] received = new byte[4];
+            in.readFully(received);
+            assertThat(received, is(new byte[] { 0, 1, 2, 3 }));
+
+            channel.close().sync();
+            return channel.writes;
+        } finally {
+            if (accepted != null) {
+                accepted.close();
+            }
+            socket.close();
+            group.shutdownGracefully();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testDeferredFlushesWrittenBeforeClose() throws Exception {
+        testDeferredFlushesWrittenBeforeClose(false);
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    public void testDeferredFlushesWrittenBeforeShutdownOutput() throws Exception {
+        testDeferredFlushesWrittenBeforeClose(true);
+    }
+
+    private static void testDeferredFlushesWrittenBeforeClose(final boolean shutdownOutput) throws Exception {
+        NioEventLoopGroup group = new NioEventLoopGroup(1);
+        ServerSocket socket = new ServerSocket();
+        socket.bind(new InetSocketAddress(NetUtil.LOCALHOST, 0));
+        Socket accepted = null;
+        try {
+            final Queue<ChannelFuture> futures = new LinkedBlockingQueue<ChannelFuture>();
+            Bootstrap cb = new Bootstrap();
+            cb.group(group).channel(NioSocketChannel.class);
+            cb.option(ChannelOption.MAX_DEFERRED_FLUSHES_PER_READ, 16);
+            cb.handler(new ChannelInboundHandlerAdapter() {
+                @Override
+                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                    ((ByteBuf) msg).release();
+                    futures.add(ctx.writeAndFlush(Unpooled.wrappedBuffer(new byte[] { 1, 2, 3, 4 })));
+                    if (shutdownOutput) {
+                        ((SocketChannel) ctx.channel()).shutdownOutput();
+                    } else {
+                        ctx.close();
+                    }
+                }
+            });
+            Channel channel = cb.connect(socket.getLocalSocketAddress()).sync().channel();
+
+            accepted = socket.accept();
+            accepted.getOutputStream().write(1);
+            InputStream in = accepted.getInputStream();
+            byte[] received = new byte[4];
+            new DataInputStream(in).readFully(received);
+            assertThat(received, is(new byte[] { 1, 2, 3, 4 }));
+            assertThat(in.read(), is(-1));
+            assertThat(futures.poll().sync().isSuccess(), is(true));
+
+            channel.close().sync();
+        } finally {
+            if (accepted != null) {
+                accepted.close();
+            }
+            socket.close();
+            group.shutdownGracefully();
+        }
+    }
+
+    public static final class WriteCountingNioSocketChannel extends NioSocketChannel {
+        volatile int writes;
+
+        @Override
+        protected void doWrite(ChannelOutboundBuffer in) throws Exception {
+            writes++;
+            super.doWrite(in);
+        }
+    }
+
     @Override
     protected NioSocketChannel newNioChannel() {
         return new NioSocketChannel();